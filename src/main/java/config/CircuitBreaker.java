@@ -0,0 +1,150 @@
+package config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit Breaker
+ * Stops calling an operation that keeps failing. After a run of consecutive
+ * failures the breaker opens and calls are rejected at once; after a cool
+ * down it lets a single trial call through (half-open), which closes the
+ * breaker on success or re-opens it on failure.
+ * Lock-free; one breaker is shared by every thread running the operation.
+ * Every state change starts a new generation, and each permit carries the
+ * generation it was issued in: a call admitted before the breaker opened
+ * cannot close it (or re-open it) when it finishes late, only the trial
+ * call's own result decides.
+ */
+public class CircuitBreaker {
+
+    /**
+     * Breaker state
+     */
+    public enum State {
+        /** Calls pass */
+        CLOSED,
+        /** Calls are rejected until the cool down ends */
+        OPEN,
+        /** One trial call is in flight; others are rejected */
+        HALF_OPEN
+    }
+
+    /** Returned by tryAcquire() when the call may not go ahead */
+    public static final long REJECTED = -1;
+
+    private static final State[] STATES = State.values();
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    // Generation (high bits) and state ordinal (low 2 bits), changed together
+    private final AtomicLong stamp = new AtomicLong(State.CLOSED.ordinal());
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAt = new AtomicLong();
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong timesOpened = new AtomicLong();
+
+    /**
+     * @param name Operation name (for metrics)
+     * @param failureThreshold Consecutive failures that open the breaker
+     * @param openMillis How long the breaker stays open before a trial call
+     * @param clock Millisecond clock
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis, LongSupplier clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be greater than 0");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Ask to make a call; every permit must be handed back through
+     * onSuccess(permit) or onFailure(permit)
+     *
+     * @return Permit for the call, or REJECTED
+     */
+    public long tryAcquire() {
+        long current = stamp.get();
+        State state = stateOf(current);
+        if (state == State.CLOSED) {
+            calls.incrementAndGet();
+            return current;
+        }
+        if (state == State.OPEN && clock.getAsLong() - openedAt.get() >= openMillis) {
+            long trial = next(current, State.HALF_OPEN);
+            if (stamp.compareAndSet(current, trial)) {
+                // This caller makes the trial call
+                calls.incrementAndGet();
+                return trial;
+            }
+        }
+        rejections.incrementAndGet();
+        return REJECTED;
+    }
+
+    public void onSuccess(long permit) {
+        if (stateOf(permit) == State.HALF_OPEN) {
+            consecutiveFailures.set(0);
+            stamp.compareAndSet(permit, next(permit, State.CLOSED));
+        } else if (stamp.get() == permit) {
+            // Still the generation the call was admitted in
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public void onFailure(long permit) {
+        failures.incrementAndGet();
+        if (stateOf(permit) == State.HALF_OPEN) {
+            open(permit);
+        } else if (stamp.get() == permit && consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(permit);
+        }
+    }
+
+    private void open(long permit) {
+        openedAt.set(clock.getAsLong());
+        if (stamp.compareAndSet(permit, next(permit, State.OPEN))) {
+            timesOpened.incrementAndGet();
+        }
+    }
+
+    private static State stateOf(long stamp) {
+        return STATES[(int) (stamp & 3)];
+    }
+
+    private static long next(long stamp, State state) {
+        return ((stamp >>> 2) + 1) << 2 | state.ordinal();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return stateOf(stamp.get());
+    }
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    public long getTimesOpened() {
+        return timesOpened.get();
+    }
+}
@@ -9,6 +9,10 @@ import java.sql.SQLException;
  * Enables testability by allowing mock/test implementations
  */
 public interface ConnectionProvider {
+
+    /** Staleness hint for reads that must see every committed write (always the primary) */
+    long STRONG = 0;
+
     /**
      * Get a database connection
      * 
@@ -16,5 +20,16 @@ public interface ConnectionProvider {
      * @throws SQLException if connection fails
      */
     Connection getConnection() throws SQLException;
-}
 
+    /**
+     * Get a connection for a read-only query that can tolerate data up to
+     * the given age. Providers without replicas just return getConnection().
+     * 
+     * @param maxStalenessMillis How far behind the primary the data may be (STRONG = not at all)
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    default Connection getReadConnection(long maxStalenessMillis) throws SQLException {
+        return getConnection();
+    }
+}
@@ -32,7 +32,9 @@ public class DatabaseConnection implements ConnectionProvider {
     
     /**
      * Constructor with connection parameters
-     * Allows dependency injection for testing
+     * Allows dependency injection for testing.
+     * Does not connect: the driver is loaded and the connection opened on
+     * first getConnection(), so startup never waits on the database.
      * 
      * @param url Database URL
      * @param user Database user
@@ -42,25 +44,6 @@ public class DatabaseConnection implements ConnectionProvider {
         this.url = url;
         this.user = user;
         this.password = password;
-        initializeConnection();
-    }
-    
-    /**
-     * Initialize database connection
-     */
-    private void initializeConnection() {
-        try {
-            if (url.contains("h2")) {
-                Class.forName("org.h2.Driver");
-            } else {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-            }
-            this.connection = DriverManager.getConnection(url, user, password);
-        } catch (ClassNotFoundException e) {
-            System.err.println("JDBC Driver not found: " + e.getMessage());
-        } catch (SQLException e) {
-            System.err.println("Database connection failed: " + e.getMessage());
-        }
     }
     
     /**
@@ -113,6 +96,29 @@ public class DatabaseConnection implements ConnectionProvider {
         return connection;
     }
     
+    /**
+     * Open a new, independent connection with the same settings.
+     * Unlike getConnection() the result is not shared, so it is safe to use
+     * from worker threads; the caller must close it.
+     * 
+     * @return New Connection object
+     * @throws SQLException if connection fails
+     */
+    public Connection openConnection() throws SQLException {
+        try {
+            if (url != null && url.contains("h2")) {
+                Class.forName("org.h2.Driver");
+            } else {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            }
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC Driver not found", e);
+        }
+        return DriverManager.getConnection(url != null ? url : DB_URL, 
+                                           user != null ? user : DB_USER, 
+                                           password != null ? password : DB_PASSWORD);
+    }
+    
     /**
      * Close database connection
      * 
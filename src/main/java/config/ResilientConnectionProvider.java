@@ -0,0 +1,252 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Resilient Connection Provider
+ * Circuit breakers and retries for every repository, without touching
+ * their code: connections and statements are wrapped so each SQL statement
+ * (and connecting itself) gets its own breaker.
+ * - Connecting is retried with jittered exponential backoff.
+ * - Queries (executeQuery outside a transaction) are retried the same way
+ *   on transient errors such as timeouts and deadlocks; writes never are.
+ * - While a breaker is open, calls fail at once with CircuitOpenException
+ *   instead of waiting on a dead database, so the repositories' usual error
+ *   handling runs immediately.
+ * Only availability errors (connection loss, timeouts, rollbacks) count as
+ * failures; constraint violations and SQL errors are the caller's business.
+ * Follows SOLID: Open/Closed Principle (drop-in ConnectionProvider), Single Responsibility Principle
+ */
+public class ResilientConnectionProvider implements ConnectionProvider {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_MILLIS = 5_000;
+    /** Breaker name for opening connections */
+    public static final String CONNECT = "connect";
+    /** Statements beyond this many distinct SQL texts share one breaker */
+    static final int MAX_OPERATIONS = 256;
+    static final String OTHER = "other";
+
+    private final ConnectionProvider delegate;
+    private final RetryPolicy retryPolicy;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    /**
+     * @param delegate Provider to protect
+     * @param failureThreshold Consecutive failures that open a breaker
+     * @param openMillis How long a breaker stays open before a trial call
+     * @param retryPolicy Backoff for connecting and for queries
+     * @param clock Millisecond clock
+     */
+    public ResilientConnectionProvider(ConnectionProvider delegate, int failureThreshold, long openMillis,
+                                       RetryPolicy retryPolicy, LongSupplier clock) {
+        this.delegate = delegate;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.retryPolicy = retryPolicy;
+        this.clock = clock;
+    }
+
+    public ResilientConnectionProvider(ConnectionProvider delegate) {
+        this(delegate, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS, RetryPolicy.DEFAULT,
+                System::currentTimeMillis);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(STRONG, false);
+    }
+
+    @Override
+    public Connection getReadConnection(long maxStalenessMillis) throws SQLException {
+        return connect(maxStalenessMillis, true);
+    }
+
+    private Connection connect(long maxStalenessMillis, boolean read) throws SQLException {
+        CircuitBreaker breaker = breaker(CONNECT);
+        long permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            rejections.incrementAndGet();
+            throw new CircuitOpenException(CONNECT);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Connection conn = read ? delegate.getReadConnection(maxStalenessMillis) : delegate.getConnection();
+                breaker.onSuccess(permit);
+                return wrap(conn);
+            } catch (SQLException e) {
+                if (attempt >= retryPolicy.getMaxAttempts() || !retryPolicy.backoff(attempt)) {
+                    breaker.onFailure(permit);
+                    throw e;
+                }
+                retries.incrementAndGet();
+            } catch (RuntimeException e) {
+                breaker.onSuccess(permit);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Run one statement execution under its breaker
+     */
+    private Object execute(String operation, Connection conn, boolean query, Statement stmt,
+                           Method method, Object[] args) throws Throwable {
+        CircuitBreaker breaker = breaker(operation);
+        long permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            rejections.incrementAndGet();
+            throw new CircuitOpenException(operation);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = invoke(stmt, method, args);
+                breaker.onSuccess(permit);
+                return result;
+            } catch (SQLException e) {
+                if (!isAvailabilityFailure(e)) {
+                    // The database answered; the statement itself was refused
+                    breaker.onSuccess(permit);
+                    throw e;
+                }
+                boolean retry = query && isTransient(e) && attempt < retryPolicy.getMaxAttempts()
+                        && autoCommit(conn) && retryPolicy.backoff(attempt);
+                if (!retry) {
+                    breaker.onFailure(permit);
+                    throw e;
+                }
+                retries.incrementAndGet();
+            } catch (Throwable t) {
+                breaker.onSuccess(permit);
+                throw t;
+            }
+        }
+    }
+
+    /**
+     * Errors that say the database is unavailable or overloaded
+     */
+    static boolean isAvailabilityFailure(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransientException
+                || e instanceof SQLRecoverableException
+                || e instanceof SQLNonTransientConnectionException
+                || (state != null && (state.startsWith("08") || state.startsWith("40") || state.startsWith("HYT")));
+    }
+
+    /**
+     * Errors after which the same statement on the same connection may succeed
+     */
+    static boolean isTransient(SQLException e) {
+        String state = e.getSQLState();
+        return (e instanceof SQLTransientException && !(e instanceof SQLTransientConnectionException))
+                || (state != null && (state.startsWith("40") || state.startsWith("HYT")));
+    }
+
+    private static boolean autoCommit(Connection conn) {
+        try {
+            return conn.getAutoCommit();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private CircuitBreaker breaker(String operation) {
+        CircuitBreaker breaker = breakers.get(operation);
+        if (breaker != null) {
+            return breaker;
+        }
+        String name = breakers.size() < MAX_OPERATIONS ? operation : OTHER;
+        return breakers.computeIfAbsent(name,
+                n -> new CircuitBreaker(n, failureThreshold, openMillis, clock));
+    }
+
+    private Connection wrap(Connection conn) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(conn, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return wrap(conn, (Statement) result, method.getReturnType(), sql);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, handler);
+    }
+
+    private Object wrap(Connection conn, Statement stmt, Class<?> type, String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return invoke(stmt, method, args);
+            }
+            String operation = args != null && args.length > 0 && args[0] instanceof String
+                    ? (String) args[0] : preparedSql;
+            return execute(operation != null ? operation : OTHER, conn,
+                    "executeQuery".equals(name), stmt, method, args);
+        };
+        return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * True unless the breaker for connecting is open (database considered down)
+     */
+    public boolean isAvailable() {
+        CircuitBreaker connect = breakers.get(CONNECT);
+        return connect == null || connect.getState() != CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * Breakers by operation (SQL text, or "connect")
+     */
+    public Map<String, CircuitBreaker> getBreakers() {
+        return new TreeMap<>(breakers);
+    }
+
+    public long getRetries() {
+        return retries.get();
+    }
+
+    public long getRejections() {
+        return rejections.get();
+    }
+
+    /**
+     * Thrown instead of calling the database while a breaker is open
+     */
+    public static class CircuitOpenException extends SQLTransientConnectionException {
+        private static final long serialVersionUID = 1L;
+
+        public CircuitOpenException(String operation) {
+            super("Database unavailable, not retrying yet (" + operation + ")", "08000");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry Policy
+ * Exponential backoff with full jitter: before retry n the caller sleeps a
+ * random time between 0 and min(maxDelay, baseDelay * 2^n), so tills that
+ * failed together do not retry together.
+ */
+public class RetryPolicy {
+
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 50, 1_000);
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param maxAttempts Attempts in total, including the first
+     * @param baseDelayMillis Backoff before the first retry (upper bound)
+     * @param maxDelayMillis Cap on any single backoff
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be greater than 0");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Backoff before a retry
+     *
+     * @param retry Retry number (1 = first retry)
+     * @return Delay in milliseconds
+     */
+    public long delayMillis(int retry) {
+        long ceiling = baseDelayMillis << Math.min(retry - 1, 20);
+        ceiling = Math.min(maxDelayMillis, ceiling);
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Sleep before a retry
+     *
+     * @param retry Retry number (1 = first retry)
+     * @return false if interrupted (stop retrying)
+     */
+    public boolean backoff(int retry) {
+        long delay = delayMillis(retry);
+        if (delay == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Routing Connection Provider
+ * Read/write splitting over one primary and any number of replicas.
+ * getConnection() always returns the primary (writes, and reads that must
+ * see them); getReadConnection(staleness) picks a replica whose reported lag
+ * is within the caller's tolerance, balanced round-robin or by fewest open
+ * connections, and falls back to the primary when none qualifies or the
+ * replica cannot be reached.
+ * Read-your-writes: after a thread takes a primary connection, its reads
+ * stay on the primary for a short sticky window, so a customer who just
+ * registered or paid reads back their own data.
+ * A replica that cannot be reached is skipped for the recheck interval and
+ * then tried again by the next read. With a LagProbe, the read that finds a
+ * replica's lag older than the interval measures it on the connection it
+ * just opened (one thread at a time), so a replica that caught up comes
+ * back without anyone calling reportReplicaLag.
+ * Follows SOLID: Open/Closed Principle (drop-in ConnectionProvider), Single Responsibility Principle
+ */
+public class RoutingConnectionProvider implements ConnectionProvider {
+
+    /**
+     * How reads are spread over eligible replicas
+     */
+    public enum Balancing {
+        ROUND_ROBIN,
+        LEAST_LOADED
+    }
+
+    /**
+     * Measures a replica's lag on one of its connections
+     */
+    @FunctionalInterface
+    public interface LagProbe {
+        /**
+         * @return Replication lag in milliseconds, or UNKNOWN_LAG
+         */
+        long lagMillis(Connection conn) throws SQLException;
+    }
+
+    public static final long DEFAULT_STICKY_MILLIS = 2_000;
+    public static final long DEFAULT_RECHECK_MILLIS = 5_000;
+    /** Lag reported for a replica whose lag is unknown or that failed */
+    public static final long UNKNOWN_LAG = Long.MAX_VALUE;
+    private static final long HEALTHY = Long.MIN_VALUE;
+
+    /** Lag from SHOW REPLICA STATUS (MySQL 8.0.22+); unknown if replication is not running */
+    public static final LagProbe MYSQL_LAG_PROBE = conn -> {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return UNKNOWN_LAG;
+            }
+            long seconds = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? UNKNOWN_LAG : seconds * 1000;
+        }
+    };
+
+    private final ConnectionProvider primary;
+    private final ConnectionProvider[] replicas;
+    private final Balancing balancing;
+    private final long stickyMillis;
+    private final LongSupplier clock;
+    private final LagProbe lagProbe;
+    private final long recheckMillis;
+
+    private final AtomicLongArray replicaLag;
+    /** When each replica's lag was last reported, measured or found unreachable */
+    private final AtomicLongArray checkedAt;
+    /** When each replica last failed to connect, or HEALTHY */
+    private final AtomicLongArray failedAt;
+    private final AtomicInteger[] openConnections;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ThreadLocal<long[]> lastPrimaryUse = ThreadLocal.withInitial(() -> new long[] {Long.MIN_VALUE});
+
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong replicaFailures = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param primary Provider for the primary (all writes)
+     * @param replicas Providers for read replicas (lag starts at 0)
+     * @param balancing How reads are spread over replicas
+     * @param stickyMillis How long a thread's reads stay on the primary after it used the primary
+     * @param clock Millisecond clock (injectable for tests)
+     */
+    public RoutingConnectionProvider(ConnectionProvider primary, List<? extends ConnectionProvider> replicas,
+                                     Balancing balancing, long stickyMillis, LongSupplier clock) {
+        this(primary, replicas, balancing, stickyMillis, clock, null, DEFAULT_RECHECK_MILLIS);
+    }
+
+    /**
+     * Constructor with a lag probe
+     *
+     * @param primary Provider for the primary (all writes)
+     * @param replicas Providers for read replicas (lag starts at 0)
+     * @param balancing How reads are spread over replicas
+     * @param stickyMillis How long a thread's reads stay on the primary after it used the primary
+     * @param clock Millisecond clock (injectable for tests)
+     * @param lagProbe Measures replica lag (null = lag only from reportReplicaLag)
+     * @param recheckMillis How long an unreachable replica is skipped, and how often lag is measured
+     */
+    public RoutingConnectionProvider(ConnectionProvider primary, List<? extends ConnectionProvider> replicas,
+                                     Balancing balancing, long stickyMillis, LongSupplier clock,
+                                     LagProbe lagProbe, long recheckMillis) {
+        if (primary == null || replicas == null || balancing == null) {
+            throw new IllegalArgumentException("Primary, replicas and balancing are required");
+        }
+        if (stickyMillis < 0) {
+            throw new IllegalArgumentException("Sticky window cannot be negative");
+        }
+        if (recheckMillis <= 0) {
+            throw new IllegalArgumentException("Recheck interval must be greater than 0");
+        }
+        this.primary = primary;
+        this.replicas = replicas.toArray(new ConnectionProvider[0]);
+        this.balancing = balancing;
+        this.stickyMillis = stickyMillis;
+        this.clock = clock;
+        this.lagProbe = lagProbe;
+        this.recheckMillis = recheckMillis;
+        this.replicaLag = new AtomicLongArray(this.replicas.length);
+        this.checkedAt = new AtomicLongArray(this.replicas.length);
+        this.failedAt = new AtomicLongArray(this.replicas.length);
+        long now = clock.getAsLong();
+        for (int i = 0; i < this.replicas.length; i++) {
+            checkedAt.set(i, now);
+            failedAt.set(i, HEALTHY);
+        }
+        this.openConnections = new AtomicInteger[this.replicas.length];
+        for (int i = 0; i < openConnections.length; i++) {
+            openConnections[i] = new AtomicInteger();
+        }
+    }
+
+    public RoutingConnectionProvider(ConnectionProvider primary, List<? extends ConnectionProvider> replicas,
+                                     Balancing balancing) {
+        this(primary, replicas, balancing, DEFAULT_STICKY_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * Primary connection (writes and strongly consistent reads)
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        lastPrimaryUse.get()[0] = clock.getAsLong();
+        return primary.getConnection();
+    }
+
+    /**
+     * Replica connection if one is fresh enough, otherwise the primary
+     */
+    @Override
+    public Connection getReadConnection(long maxStalenessMillis) throws SQLException {
+        if (maxStalenessMillis > STRONG && !isSticky()) {
+            int start = balancing == Balancing.ROUND_ROBIN && replicas.length > 0
+                    ? Math.floorMod(nextReplica.getAndIncrement(), replicas.length) : 0;
+            for (int attempt = 0; attempt < replicas.length; attempt++) {
+                long now = clock.getAsLong();
+                int replica = pickReplica(maxStalenessMillis, start, now);
+                if (replica < 0) {
+                    break;
+                }
+                Connection conn;
+                try {
+                    conn = replicas[replica].getConnection();
+                } catch (SQLException e) {
+                    markFailed(replica, now, e);
+                    continue;
+                }
+                if (recheck(replica, conn, now) && replicaLag.get(replica) <= maxStalenessMillis) {
+                    replicaReads.incrementAndGet();
+                    return track(conn, replica);
+                }
+                closeQuietly(conn);
+            }
+        }
+        primaryReads.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    /**
+     * Record how far a replica is behind the primary (e.g. from Seconds_Behind_Source)
+     *
+     * @param replica Replica index
+     * @param lagMillis Replication lag in milliseconds (UNKNOWN_LAG = do not use)
+     */
+    public void reportReplicaLag(int replica, long lagMillis) {
+        replicaLag.set(replica, lagMillis < 0 ? UNKNOWN_LAG : lagMillis);
+        failedAt.set(replica, HEALTHY);
+        checkedAt.set(replica, clock.getAsLong());
+    }
+
+    /**
+     * Last known lag (UNKNOWN_LAG while the replica is unreachable)
+     */
+    public long getReplicaLag(int replica) {
+        return failedAt.get(replica) != HEALTHY ? UNKNOWN_LAG : replicaLag.get(replica);
+    }
+
+    public int getReplicaCount() {
+        return replicas.length;
+    }
+
+    /**
+     * Connections currently open on a replica (handed out and not yet closed)
+     */
+    public int getOpenConnections(int replica) {
+        return openConnections[replica].get();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    public long getReplicaFailures() {
+        return replicaFailures.get();
+    }
+
+    private boolean isSticky() {
+        long last = lastPrimaryUse.get()[0];
+        return last != Long.MIN_VALUE && clock.getAsLong() - last < stickyMillis;
+    }
+
+    /**
+     * Eligible replica (reachable with lag within tolerance, or due for a
+     * recheck): next in turn, or the one with fewest open connections
+     *
+     * @return Replica index, or -1 if none qualifies
+     */
+    private int pickReplica(long maxStalenessMillis, int start, long now) {
+        int best = -1;
+        int n = replicas.length;
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            boolean usable = failedAt.get(i) == HEALTHY && replicaLag.get(i) <= maxStalenessMillis;
+            if (!usable && !isDue(i, now)) {
+                continue;
+            }
+            if (balancing == Balancing.ROUND_ROBIN) {
+                return i;
+            }
+            if (best < 0 || openConnections[i].get() < openConnections[best].get()) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * An unreachable replica is retried, and with a probe any replica's lag
+     * re-measured, once the recheck interval has passed
+     */
+    private boolean isDue(int replica, long now) {
+        return (failedAt.get(replica) != HEALTHY || lagProbe != null)
+                && now - checkedAt.get(replica) >= recheckMillis;
+    }
+
+    /**
+     * Bring a replica's state up to date using a connection just opened to it
+     *
+     * @return False if the replica turned out to be unusable (the caller closes the connection)
+     */
+    private boolean recheck(int replica, Connection conn, long now) {
+        long checked = checkedAt.get(replica);
+        if (now - checked < recheckMillis || (failedAt.get(replica) == HEALTHY && lagProbe == null)) {
+            return failedAt.get(replica) == HEALTHY;
+        }
+        if (!checkedAt.compareAndSet(replica, checked, now)) {
+            // Another read is rechecking it; use what is known
+            return failedAt.get(replica) == HEALTHY;
+        }
+        if (lagProbe != null) {
+            try {
+                long lag = lagProbe.lagMillis(conn);
+                replicaLag.set(replica, lag < 0 ? UNKNOWN_LAG : lag);
+            } catch (SQLException e) {
+                markFailed(replica, now, e);
+                return false;
+            }
+        }
+        failedAt.set(replica, HEALTHY);
+        return true;
+    }
+
+    // Take the replica out of rotation until it is rechecked or a fresh lag is reported
+    private void markFailed(int replica, long now, SQLException e) {
+        replicaFailures.incrementAndGet();
+        failedAt.set(replica, now);
+        checkedAt.set(replica, now);
+        System.err.println("Error connecting to replica " + replica + ": " + e.getMessage());
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing replica connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Count the connection as open on the replica until it is closed
+     */
+    private Connection track(Connection conn, int replica) {
+        AtomicInteger open = openConnections[replica];
+        open.incrementAndGet();
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                    synchronized (this) {
+                        if (!closed) {
+                            closed = true;
+                            open.decrementAndGet();
+                        }
+                    }
+                }
+                try {
+                    return method.invoke(conn, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, handler);
+    }
+}
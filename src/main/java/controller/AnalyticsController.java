@@ -0,0 +1,78 @@
+package controller;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.FoodSales;
+import repository.impl.OrderLineRepository;
+import service.impl.OrderAnalyticsService;
+import service.interfaces.IOrderAnalyticsService;
+
+/**
+ * Analytics Controller
+ * Handles order analytics requests from the admin menu
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class AnalyticsController {
+    
+    private final IOrderAnalyticsService analyticsService;
+    
+    public AnalyticsController(IOrderAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    // Default constructor wiring service and repository
+    public AnalyticsController() {
+        this(new OrderAnalyticsService(new OrderLineRepository()));
+    }
+    
+    /**
+     * Reload the order history snapshot
+     * 
+     * @return Number of orders loaded, -1 if loading failed
+     */
+    public int refresh() {
+        try {
+            return analyticsService.refresh();
+        } catch (RuntimeException e) {
+            System.out.println("Analytics load failed: " + e.getMessage());
+            return -1;
+        }
+    }
+    
+    public boolean isLoaded() {
+        return analyticsService.isLoaded();
+    }
+    
+    public int getOrderCount() {
+        return analyticsService.getOrderCount();
+    }
+    
+    /**
+     * Get best-selling foods by revenue
+     * 
+     * @param limit Maximum number of foods
+     * @return Top foods, empty list if the request is invalid
+     */
+    public List<FoodSales> getTopFoods(int limit) {
+        try {
+            return analyticsService.getTopFoods(limit);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Top foods failed: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    public BigDecimal[] getRevenueByHour() {
+        return analyticsService.getRevenueByHour();
+    }
+    
+    public double getAverageBasketSize() {
+        return analyticsService.getAverageBasketSize();
+    }
+    
+    public BigDecimal getAverageBasketValue() {
+        return analyticsService.getAverageBasketValue();
+    }
+}
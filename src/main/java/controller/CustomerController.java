@@ -3,7 +3,7 @@ package controller;
 import java.util.Optional;
 
 import model.Customer;
-import repository.impl.CustomerRepository;
+import repository.impl.CachingCustomerRepository;
 import service.impl.CustomerService;
 import service.interfaces.ICustomerService;
 
@@ -11,8 +11,12 @@ public class CustomerController {
 
     private final ICustomerService customerService;
 
+    public CustomerController(ICustomerService customerService) {
+        this.customerService = customerService;
+    }
+
     public CustomerController() {
-        this.customerService = new CustomerService(new CustomerRepository());
+        this(new CustomerService(CachingCustomerRepository.getInstance()));
     }
 
     public Customer registerCustomer(Customer customer) {
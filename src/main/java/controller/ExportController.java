@@ -0,0 +1,45 @@
+package controller;
+
+import java.nio.file.Paths;
+
+import model.ExportFormat;
+import model.ExportResult;
+import repository.impl.OrderLineRepository;
+import service.impl.OrderExportService;
+import service.interfaces.IOrderExportService;
+
+/**
+ * Export Controller
+ * Handles order history export requests from the admin menu
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class ExportController {
+    
+    private final IOrderExportService exportService;
+    
+    public ExportController(IOrderExportService exportService) {
+        this.exportService = exportService;
+    }
+    
+    // Default constructor wiring service and repository
+    public ExportController() {
+        this(new OrderExportService(new OrderLineRepository()));
+    }
+    
+    /**
+     * Export order history into a directory
+     * 
+     * @param directory Target directory
+     * @param format File format
+     * @param resume true to continue after the last exported order
+     * @return Export summary, null if the export failed
+     */
+    public ExportResult exportOrders(String directory, ExportFormat format, boolean resume) {
+        try {
+            return exportService.exportOrders(Paths.get(directory), format, resume);
+        } catch (RuntimeException e) {
+            System.out.println("Export failed: " + e.getMessage());
+            return null;
+        }
+    }
+}
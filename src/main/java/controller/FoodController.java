@@ -113,6 +113,17 @@ public class FoodController {
         return foodOpt.orElse(null);
     }
     
+    /**
+     * Search foods by name (prefixes and small typos match too)
+     * 
+     * @param query Text typed by the user
+     * @param limit Maximum number of results
+     * @return Matching foods, best match first
+     */
+    public List<Food> searchFoods(String query, int limit) {
+        return foodService.searchFoods(query, limit);
+    }
+    
     /**
      * Validate food name
      * 
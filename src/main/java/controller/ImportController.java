@@ -0,0 +1,65 @@
+package controller;
+
+import java.nio.file.Paths;
+
+import model.ImportResult;
+import repository.impl.BulkImportRepository;
+import repository.impl.CustomerRepository;
+import repository.impl.FoodRepository;
+import service.impl.BulkImportService;
+import service.impl.CustomerService;
+import service.impl.FoodService;
+import service.interfaces.IBulkImportService;
+
+/**
+ * Import Controller
+ * Handles bulk CSV import requests from the admin menu
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class ImportController {
+    
+    private final IBulkImportService importService;
+    
+    public ImportController(IBulkImportService importService) {
+        this.importService = importService;
+    }
+    
+    // Default constructor wiring service, validators and repository
+    public ImportController() {
+        this(new BulkImportService(new BulkImportRepository(),
+                new FoodService(new FoodRepository()),
+                new CustomerService(new CustomerRepository())));
+    }
+    
+    /**
+     * Import foods from a CSV file
+     * 
+     * @param path File path
+     * @param listener Progress callback (may be null)
+     * @return Import summary, null if the import failed
+     */
+    public ImportResult importFoods(String path, IBulkImportService.ProgressListener listener) {
+        try {
+            return importService.importFoods(Paths.get(path), listener);
+        } catch (RuntimeException e) {
+            System.out.println("Import failed: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Import customers from a CSV file
+     * 
+     * @param path File path
+     * @param listener Progress callback (may be null)
+     * @return Import summary, null if the import failed
+     */
+    public ImportResult importCustomers(String path, IBulkImportService.ProgressListener listener) {
+        try {
+            return importService.importCustomers(Paths.get(path), listener);
+        } catch (RuntimeException e) {
+            System.out.println("Import failed: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -2,13 +2,20 @@ package controller;
 
 import java.util.List;
 
+import model.CartRequest;
+import model.CartResult;
 import model.Order;
 import model.OrderDetails;
-import repository.impl.CustomerRepository;
+import repository.cache.LruCache;
+import repository.impl.BatchCheckoutRepository;
+import repository.impl.CachingCustomerRepository;
+import repository.impl.CachingPaymentMethodRepository;
 import repository.impl.OrderRepository;
-import repository.impl.PaymentMethodRepository;
+import repository.interfaces.IOrderRepository;
+import service.impl.ConcurrencyLimiter;
 import service.impl.OrderService;
 import service.impl.PaymentService;
+import service.impl.PricingEngine;
 import service.interfaces.IOrderService;
 
 /**
@@ -26,12 +33,20 @@ public class OrderController {
     
     // Default constructor wiring services and repositories
     public OrderController() {
-        this(new OrderService(
-                new OrderRepository(),
-                new CustomerRepository(),
-                new PaymentMethodRepository(),
-                new PaymentService(new PaymentMethodRepository())
-        ));
+        this(createDefaultService(new OrderRepository()));
+    }
+    
+    private static IOrderService createDefaultService(OrderRepository orderRepository) {
+        return new OrderService(
+                orderRepository,
+                CachingCustomerRepository.getInstance(),
+                CachingPaymentMethodRepository.getInstance(),
+                new PaymentService(CachingPaymentMethodRepository.getInstance()),
+                orderRepository,
+                new LruCache<>(OrderService.DEFAULT_IDEMPOTENCY_INDEX_SIZE, OrderService.DEFAULT_IDEMPOTENCY_TTL_MILLIS),
+                new BatchCheckoutRepository(),
+                PricingEngine.getInstance()
+        );
     }
     
     /**
@@ -51,6 +66,52 @@ public class OrderController {
         } catch (IllegalArgumentException e) {
             System.out.println("Order creation failed: " + e.getMessage());
             return null;
+        } catch (ConcurrencyLimiter.RejectedException e) {
+            System.out.println("Checkout is busy, please try again: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Create a new order at most once per idempotency key
+     * (safe to call again after a timeout with the same key)
+     * 
+     * @param idempotencyKey Client-supplied key identifying this checkout
+     * @param customerId Customer ID
+     * @param orderDetailsList List of order details
+     * @param paymentType Payment type
+     * @param cardNumber Card number (for Bank, null for others)
+     * @param expiryDate Expiry date (for Bank, null for others)
+     * @return Created (or previously created) order, null if creation fails
+     */
+    public Order createOrder(String idempotencyKey, int customerId, List<OrderDetails> orderDetailsList, 
+                           String paymentType, String cardNumber, String expiryDate) {
+        try {
+            return orderService.createOrder(idempotencyKey, customerId, orderDetailsList, paymentType, cardNumber, expiryDate);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Order creation failed: " + e.getMessage());
+            return null;
+        } catch (ConcurrencyLimiter.RejectedException e) {
+            System.out.println("Checkout is busy, please try again: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Check out many queued carts in one call
+     * 
+     * @param carts Carts to check out
+     * @return One result per cart (same order), null if the batch is rejected
+     */
+    public List<CartResult> createOrders(List<CartRequest> carts) {
+        try {
+            return orderService.createOrders(carts);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Batch checkout failed: " + e.getMessage());
+            return null;
+        } catch (ConcurrencyLimiter.RejectedException e) {
+            System.out.println("Checkout is busy, please try again: " + e.getMessage());
+            return null;
         }
     }
     
@@ -63,6 +124,22 @@ public class OrderController {
         return orderService.getAllOrders();
     }
     
+    /**
+     * Stream order report rows as they are read
+     * 
+     * @param handler Callback invoked for each row
+     * @return Number of rows streamed, -1 if the report stopped part-way
+     */
+    public int streamOrderReport(IOrderRepository.ReportRowHandler handler) {
+        try {
+            return orderService.streamOrderReport(handler);
+        } catch (RuntimeException e) {
+            // Logged by the repository; the caller's footer says the report stopped,
+            // after the rows still buffered in its output
+            return -1;
+        }
+    }
+    
     /**
      * Get orders by customer ID
      * 
@@ -2,7 +2,7 @@ package controller;
 
 import model.Payment;
 import model.PaymentMethod;
-import repository.impl.PaymentMethodRepository;
+import repository.impl.CachingPaymentMethodRepository;
 import service.impl.PaymentService;
 import service.interfaces.IPaymentService;
 
@@ -31,7 +31,7 @@ public class PaymentController {
      * Maintains backward compatibility while allowing DI via the other constructor.
      */
     public PaymentController() {
-        this(new PaymentService(new PaymentMethodRepository()));
+        this(new PaymentService(CachingPaymentMethodRepository.getInstance()));
     }
     
     /**
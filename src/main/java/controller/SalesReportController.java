@@ -0,0 +1,59 @@
+package controller;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.SalesDaily;
+import repository.impl.SalesDailyRepository;
+import service.impl.SalesReportService;
+import service.interfaces.ISalesReportService;
+
+/**
+ * Sales Report Controller
+ * Handles daily sales report requests from the admin menu
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class SalesReportController {
+    
+    private final ISalesReportService salesReportService;
+    
+    public SalesReportController(ISalesReportService salesReportService) {
+        this.salesReportService = salesReportService;
+    }
+    
+    // Default constructor wiring service and repository
+    public SalesReportController() {
+        this(new SalesReportService(new SalesDailyRepository()));
+    }
+    
+    /**
+     * Get daily sales for the last number of days (including today)
+     * 
+     * @param days Number of days to include
+     * @return Aggregate rows, empty list if the request is invalid
+     */
+    public List<SalesDaily> getDailySales(int days) {
+        LocalDate today = LocalDate.now();
+        try {
+            return salesReportService.getDailySales(today.minusDays(days - 1L), today);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Sales report failed: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
+    /**
+     * Rebuild the daily sales aggregate from raw orders
+     * 
+     * @return Number of aggregate rows written, -1 if the rebuild failed
+     */
+    public int rebuildAggregates() {
+        try {
+            return salesReportService.rebuildAggregates();
+        } catch (RuntimeException e) {
+            System.out.println("Rebuild failed: " + e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -6,7 +6,7 @@ package model;
  */
 public class BankPayment implements Payment {
     
-    private static final double TRANSACTION_FEE = 1.00;
+    public static final double TRANSACTION_FEE = 1.00;
     private double balance;
     
     public BankPayment(double balance) {
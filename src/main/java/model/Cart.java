@@ -0,0 +1,253 @@
+package model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cart Model Class
+ * In-memory shopping cart keyed by food ID. Adding a food that is already in
+ * the cart merges into its line. Quantities are ints and unit prices are
+ * whole cents captured when the food is first added; the running total is
+ * kept up to date on every change. OrderDetails are only built at checkout.
+ * Not thread-safe; see SharedCart for group ordering.
+ * Follows OOP principles: Encapsulation
+ */
+public class Cart {
+    
+    /** Per-line limit (PricingEngine enforces the same one at checkout) */
+    public static final int MAX_LINE_QUANTITY = 100;
+    private static final int INITIAL_CAPACITY = 8;
+    
+    // Lines in insertion order (parallel arrays)
+    private Food[] foods;
+    private int[] foodIds;
+    private int[] quantities;
+    private long[] unitCents;
+    private int lineCount;
+    private long totalCents;
+    
+    // Open-addressing index: food ID -> line + 1 (0 = empty)
+    private int[] index;
+    
+    public Cart() {
+        foods = new Food[INITIAL_CAPACITY];
+        foodIds = new int[INITIAL_CAPACITY];
+        quantities = new int[INITIAL_CAPACITY];
+        unitCents = new long[INITIAL_CAPACITY];
+        index = new int[INITIAL_CAPACITY * 2];
+    }
+    
+    /**
+     * Copy constructor
+     * 
+     * @param other Cart to copy
+     */
+    public Cart(Cart other) {
+        foods = other.foods.clone();
+        foodIds = other.foodIds.clone();
+        quantities = other.quantities.clone();
+        unitCents = other.unitCents.clone();
+        index = other.index.clone();
+        lineCount = other.lineCount;
+        totalCents = other.totalCents;
+    }
+    
+    /**
+     * Add a quantity of a food, merging with its existing line
+     * 
+     * @param food Food to add
+     * @param quantity Quantity to add (> 0)
+     * @return Quantity on the food's line after the add
+     * @throws IllegalArgumentException if the food is null, quantity is not positive
+     *         or the line would exceed MAX_LINE_QUANTITY
+     */
+    public int add(Food food, int quantity) {
+        if (food == null) {
+            throw new IllegalArgumentException("Food cannot be null");
+        }
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be > 0");
+        }
+        
+        int line = lineOf(food.getFoodId());
+        if (line < 0) {
+            if (quantity > MAX_LINE_QUANTITY) {
+                throw new IllegalArgumentException("Quantity too large for item: " + food.getFoodId());
+            }
+            line = appendLine(food, quantity);
+        } else {
+            int merged = quantities[line] + quantity;
+            if (merged > MAX_LINE_QUANTITY) {
+                throw new IllegalArgumentException("Quantity too large for item: " + food.getFoodId());
+            }
+            quantities[line] = merged;
+        }
+        totalCents += unitCents[line] * quantity;
+        return quantities[line];
+    }
+    
+    /**
+     * Change the quantity of a food already in the cart (0 removes the line)
+     * 
+     * @param foodId Food ID
+     * @param quantity New quantity
+     * @return true if the food was in the cart
+     */
+    public boolean setQuantity(int foodId, int quantity) {
+        if (quantity < 0 || quantity > MAX_LINE_QUANTITY) {
+            throw new IllegalArgumentException("Quantity must be between 0 and " + MAX_LINE_QUANTITY);
+        }
+        int line = lineOf(foodId);
+        if (line < 0) {
+            return false;
+        }
+        if (quantity == 0) {
+            return remove(foodId);
+        }
+        totalCents += unitCents[line] * (quantity - quantities[line]);
+        quantities[line] = quantity;
+        return true;
+    }
+    
+    /**
+     * Remove a food's line
+     * 
+     * @param foodId Food ID
+     * @return true if the food was in the cart
+     */
+    public boolean remove(int foodId) {
+        int line = lineOf(foodId);
+        if (line < 0) {
+            return false;
+        }
+        totalCents -= unitCents[line] * quantities[line];
+        
+        // Shift later lines down to keep insertion order, then rebuild the index
+        int tail = lineCount - line - 1;
+        System.arraycopy(foods, line + 1, foods, line, tail);
+        System.arraycopy(foodIds, line + 1, foodIds, line, tail);
+        System.arraycopy(quantities, line + 1, quantities, line, tail);
+        System.arraycopy(unitCents, line + 1, unitCents, line, tail);
+        lineCount--;
+        foods[lineCount] = null;
+        rebuildIndex(index.length);
+        return true;
+    }
+    
+    public void clear() {
+        Arrays.fill(foods, 0, lineCount, null);
+        Arrays.fill(index, 0);
+        lineCount = 0;
+        totalCents = 0;
+    }
+    
+    /**
+     * Quantity of a food in the cart
+     * 
+     * @param foodId Food ID
+     * @return Quantity, 0 if not in the cart
+     */
+    public int getQuantity(int foodId) {
+        int line = lineOf(foodId);
+        return line < 0 ? 0 : quantities[line];
+    }
+    
+    /**
+     * Unit price captured when the food was first added
+     * 
+     * @param foodId Food ID
+     * @return Unit price in cents, -1 if not in the cart
+     */
+    public long getUnitCents(int foodId) {
+        int line = lineOf(foodId);
+        return line < 0 ? -1 : unitCents[line];
+    }
+    
+    public long getTotalCents() {
+        return totalCents;
+    }
+    
+    public double getTotal() {
+        return totalCents / 100.0;
+    }
+    
+    public int getLineCount() {
+        return lineCount;
+    }
+    
+    public boolean isEmpty() {
+        return lineCount == 0;
+    }
+    
+    /**
+     * Build order lines for checkout, in the order foods were first added
+     * 
+     * @return New list of order details priced at the captured unit prices
+     */
+    public List<OrderDetails> toOrderDetails() {
+        List<OrderDetails> details = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            details.add(new OrderDetails(0, foods[i], quantities[i], BigDecimal.valueOf(unitCents[i], 2)));
+        }
+        return details;
+    }
+    
+    private int appendLine(Food food, int quantity) {
+        if (lineCount == foodIds.length) {
+            int capacity = lineCount * 2;
+            foods = Arrays.copyOf(foods, capacity);
+            foodIds = Arrays.copyOf(foodIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            unitCents = Arrays.copyOf(unitCents, capacity);
+            rebuildIndex(capacity * 2);
+        }
+        int line = lineCount++;
+        foods[line] = food;
+        foodIds[line] = food.getFoodId();
+        quantities[line] = quantity;
+        unitCents[line] = food.getFoodPriceDecimal().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        insertIndex(line);
+        return line;
+    }
+    
+    private int lineOf(int foodId) {
+        int mask = index.length - 1;
+        for (int slot = mix(foodId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (foodIds[entry - 1] == foodId) {
+                return entry - 1;
+            }
+        }
+    }
+    
+    private void insertIndex(int line) {
+        int mask = index.length - 1;
+        int slot = mix(foodIds[line]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = line + 1;
+    }
+    
+    private void rebuildIndex(int size) {
+        if (index.length == size) {
+            Arrays.fill(index, 0);
+        } else {
+            index = new int[size];
+        }
+        for (int i = 0; i < lineCount; i++) {
+            insertIndex(i);
+        }
+    }
+    
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,77 @@
+package model;
+
+import java.util.List;
+
+/**
+ * CartRequest Model Class
+ * One queued cart submitted to the batch checkout API
+ * Follows OOP principles: Encapsulation
+ */
+public class CartRequest {
+    
+    private final int customerId;
+    private final List<OrderDetails> orderDetails;
+    private final String paymentType;
+    private final String cardNumber;
+    private final String expiryDate;
+    private final String idempotencyKey;
+    
+    /**
+     * Constructor
+     * 
+     * @param customerId Customer ID
+     * @param orderDetails List of order details
+     * @param paymentType Payment type
+     * @param cardNumber Card number (for Bank, null for others)
+     * @param expiryDate Expiry date (for Bank, null for others)
+     */
+    public CartRequest(int customerId, List<OrderDetails> orderDetails, String paymentType,
+                       String cardNumber, String expiryDate) {
+        this(null, customerId, orderDetails, paymentType, cardNumber, expiryDate);
+    }
+    
+    /**
+     * Constructor with an idempotency key, so a resubmitted batch does not
+     * pay for this cart again
+     * 
+     * @param idempotencyKey Client-supplied key identifying this cart (null = none)
+     * @param customerId Customer ID
+     * @param orderDetails List of order details
+     * @param paymentType Payment type
+     * @param cardNumber Card number (for Bank, null for others)
+     * @param expiryDate Expiry date (for Bank, null for others)
+     */
+    public CartRequest(String idempotencyKey, int customerId, List<OrderDetails> orderDetails, String paymentType,
+                       String cardNumber, String expiryDate) {
+        this.idempotencyKey = idempotencyKey;
+        this.customerId = customerId;
+        this.orderDetails = orderDetails;
+        this.paymentType = paymentType;
+        this.cardNumber = cardNumber;
+        this.expiryDate = expiryDate;
+    }
+    
+    public int getCustomerId() {
+        return customerId;
+    }
+    
+    public List<OrderDetails> getOrderDetails() {
+        return orderDetails;
+    }
+    
+    public String getPaymentType() {
+        return paymentType;
+    }
+    
+    public String getCardNumber() {
+        return cardNumber;
+    }
+    
+    public String getExpiryDate() {
+        return expiryDate;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
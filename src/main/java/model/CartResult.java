@@ -0,0 +1,53 @@
+package model;
+
+/**
+ * CartResult Model Class
+ * Outcome of one cart in a batch checkout: the created order or the reason it failed
+ * Follows OOP principles: Encapsulation
+ */
+public class CartResult {
+    
+    private final int index;
+    private final Order order;
+    private final String error;
+    
+    private CartResult(int index, Order order, String error) {
+        this.index = index;
+        this.order = order;
+        this.error = error;
+    }
+    
+    public static CartResult success(int index, Order order) {
+        return new CartResult(index, order, null);
+    }
+    
+    public static CartResult failure(int index, String error) {
+        return new CartResult(index, null, error);
+    }
+    
+    /**
+     * Position of the cart in the submitted list
+     */
+    public int getIndex() {
+        return index;
+    }
+    
+    public Order getOrder() {
+        return order;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public boolean isSuccess() {
+        return order != null;
+    }
+    
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? "Cart " + index + ": order " + order.getOrderId()
+                : "Cart " + index + ": " + error;
+    }
+}
@@ -0,0 +1,26 @@
+package model;
+
+/**
+ * Export Format Enum
+ * File formats supported by the order history export
+ */
+public enum ExportFormat {
+    CSV_GZIP("csv.gz", "Gzip CSV"),
+    BINARY("bin", "Length-prefixed binary");
+
+    private final String extension;
+    private final String displayText;
+
+    ExportFormat(String extension, String displayText) {
+        this.extension = extension;
+        this.displayText = displayText;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getDisplayText() {
+        return displayText;
+    }
+}
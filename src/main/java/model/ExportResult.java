@@ -0,0 +1,86 @@
+package model;
+
+/**
+ * ExportResult Model Class
+ * Outcome of an order history export run
+ * Follows OOP principles: Encapsulation
+ */
+public class ExportResult {
+    
+    private final String file;
+    private final ExportFormat format;
+    private final int afterOrderId;
+    private final int lastOrderId;
+    private final long orders;
+    private final long lines;
+    private final long bytesWritten;
+    private final long elapsedMillis;
+    
+    public ExportResult(String file, ExportFormat format, int afterOrderId, int lastOrderId,
+                        long orders, long lines, long bytesWritten, long elapsedMillis) {
+        this.file = file;
+        this.format = format;
+        this.afterOrderId = afterOrderId;
+        this.lastOrderId = lastOrderId;
+        this.orders = orders;
+        this.lines = lines;
+        this.bytesWritten = bytesWritten;
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    // Getters
+    public String getFile() {
+        return file;
+    }
+    
+    public ExportFormat getFormat() {
+        return format;
+    }
+    
+    /**
+     * Orders with IDs up to and including this one were already exported before this run
+     */
+    public int getAfterOrderId() {
+        return afterOrderId;
+    }
+    
+    public int getLastOrderId() {
+        return lastOrderId;
+    }
+    
+    public long getOrders() {
+        return orders;
+    }
+    
+    public long getLines() {
+        return lines;
+    }
+    
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    /**
+     * Lines exported per second
+     */
+    public long getLinesPerSecond() {
+        return elapsedMillis > 0 ? lines * 1000 / elapsedMillis : lines;
+    }
+    
+    @Override
+    public String toString() {
+        return "ExportResult{" +
+                "file='" + file + '\'' +
+                ", format=" + format +
+                ", afterOrderId=" + afterOrderId +
+                ", lastOrderId=" + lastOrderId +
+                ", orders=" + orders +
+                ", lines=" + lines +
+                ", bytesWritten=" + bytesWritten +
+                '}';
+    }
+}
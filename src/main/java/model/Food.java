@@ -75,23 +75,23 @@ public class Food {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (!(o instanceof Food)) return false;
         Food food = (Food) o;
-        return foodId == food.foodId;
+        return getFoodId() == food.getFoodId();
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(foodId);
+        return Objects.hash(getFoodId());
     }
     
     @Override
     public String toString() {
         return "Food{" +
-                "foodId=" + foodId +
-                ", foodName='" + foodName + '\'' +
-                ", foodPrice=" + foodPrice +
-                ", foodType='" + foodType + '\'' +
+                "foodId=" + getFoodId() +
+                ", foodName='" + getFoodName() + '\'' +
+                ", foodPrice=" + getFoodPriceDecimal() +
+                ", foodType='" + getFoodType() + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,43 @@
+package model;
+
+import java.math.BigDecimal;
+
+/**
+ * FoodSales Model Class
+ * Quantity sold and revenue for one food item (analytics result)
+ * Follows OOP principles: Encapsulation
+ */
+public class FoodSales {
+    
+    private final int foodId;
+    private final long quantity;
+    private final BigDecimal revenue;
+    
+    public FoodSales(int foodId, long quantity, BigDecimal revenue) {
+        this.foodId = foodId;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+    
+    // Getters
+    public int getFoodId() {
+        return foodId;
+    }
+    
+    public long getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    @Override
+    public String toString() {
+        return "FoodSales{" +
+                "foodId=" + foodId +
+                ", quantity=" + quantity +
+                ", revenue=" + revenue +
+                '}';
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ImportResult Model Class
+ * Outcome of a bulk CSV import: row counts, timing and a sample of rejected rows
+ * Follows OOP principles: Encapsulation
+ */
+public class ImportResult {
+    
+    /** Only the first few rejected rows are kept to bound memory */
+    public static final int MAX_ERROR_SAMPLES = 20;
+    
+    private long rowsRead;
+    private long imported;
+    private long invalid;
+    private long duplicates;
+    private long elapsedMillis;
+    private final List<String> errorSamples = new ArrayList<>();
+    
+    public void addRowsRead(long rows) {
+        rowsRead += rows;
+    }
+    
+    public void addImported(long rows) {
+        imported += rows;
+    }
+    
+    public void addDuplicate() {
+        duplicates++;
+    }
+    
+    /**
+     * Count an invalid row and keep its message if there is room
+     * 
+     * @param lineNumber 1-based line number in the file
+     * @param message Validation message
+     */
+    public void addInvalid(long lineNumber, String message) {
+        invalid++;
+        if (errorSamples.size() < MAX_ERROR_SAMPLES) {
+            errorSamples.add("Line " + lineNumber + ": " + message);
+        }
+    }
+    
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+    
+    // Getters
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    
+    public long getImported() {
+        return imported;
+    }
+    
+    public long getInvalid() {
+        return invalid;
+    }
+    
+    public long getDuplicates() {
+        return duplicates;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    
+    public List<String> getErrorSamples() {
+        return Collections.unmodifiableList(errorSamples);
+    }
+    
+    /**
+     * Rows read per second over the whole import
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? rowsRead * 1000 / elapsedMillis : rowsRead;
+    }
+    
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "rowsRead=" + rowsRead +
+                ", imported=" + imported +
+                ", invalid=" + invalid +
+                ", duplicates=" + duplicates +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
@@ -62,6 +62,19 @@ public class Order {
         return totalPrice;
     }
     
+    /**
+     * Promotion discount already taken off totalPrice (the sum of the line discounts)
+     */
+    public BigDecimal getDiscountDecimal() {
+        BigDecimal discount = BigDecimal.ZERO;
+        if (orderDetails != null) {
+            for (OrderDetails detail : orderDetails) {
+                discount = discount.add(detail.getDiscountDecimal());
+            }
+        }
+        return discount;
+    }
+    
     public PaymentMethod getPaymentMethod() {
         return paymentMethod;
     }
@@ -15,6 +15,7 @@ public class OrderDetails {
     private int quantity;
     private BigDecimal unitPrice;
     private BigDecimal subtotal;
+    private BigDecimal discount = BigDecimal.ZERO;   // promotion discount on this line, not taken off subtotal
     
     // Constructor
     public OrderDetails(Food food, int quantity) {
@@ -86,6 +87,17 @@ public class OrderDetails {
         return subtotal;
     }
     
+    public BigDecimal getDiscountDecimal() {
+        return discount;
+    }
+    
+    /**
+     * Amount actually charged for this line (subtotal less its discount)
+     */
+    public BigDecimal getNetSubtotalDecimal() {
+        return discount.signum() == 0 ? subtotal : subtotal.subtract(discount);
+    }
+    
     // Setters
     public void setOrderDetailId(int orderDetailId) {
         this.orderDetailId = orderDetailId;
@@ -109,6 +121,10 @@ public class OrderDetails {
         calculateSubtotal();
     }
     
+    public void setDiscount(BigDecimal discount) {
+        this.discount = discount != null ? discount : BigDecimal.ZERO;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,113 @@
+package model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * SalesDaily Model Class
+ * One row of the sales_daily aggregate: revenue and quantity sold
+ * for a food item, on a day, through a payment type
+ * Follows OOP principles: Encapsulation
+ */
+public class SalesDaily {
+    
+    private LocalDate salesDate;
+    private int foodId;
+    private String foodName;
+    private String paymentType;
+    private int quantity;
+    private BigDecimal revenue;
+    
+    // Default constructor
+    public SalesDaily() {
+        this.revenue = BigDecimal.ZERO;
+    }
+    
+    // Full constructor
+    public SalesDaily(LocalDate salesDate, int foodId, String foodName, String paymentType,
+                      int quantity, BigDecimal revenue) {
+        this.salesDate = salesDate;
+        this.foodId = foodId;
+        this.foodName = foodName;
+        this.paymentType = paymentType;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+    
+    // Getters
+    public LocalDate getSalesDate() {
+        return salesDate;
+    }
+    
+    public int getFoodId() {
+        return foodId;
+    }
+    
+    public String getFoodName() {
+        return foodName;
+    }
+    
+    public String getPaymentType() {
+        return paymentType;
+    }
+    
+    public int getQuantity() {
+        return quantity;
+    }
+    
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+    
+    // Setters
+    public void setSalesDate(LocalDate salesDate) {
+        this.salesDate = salesDate;
+    }
+    
+    public void setFoodId(int foodId) {
+        this.foodId = foodId;
+    }
+    
+    public void setFoodName(String foodName) {
+        this.foodName = foodName;
+    }
+    
+    public void setPaymentType(String paymentType) {
+        this.paymentType = paymentType;
+    }
+    
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+    
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SalesDaily that = (SalesDaily) o;
+        return foodId == that.foodId
+                && Objects.equals(salesDate, that.salesDate)
+                && Objects.equals(paymentType, that.paymentType);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(salesDate, foodId, paymentType);
+    }
+    
+    @Override
+    public String toString() {
+        return "SalesDaily{" +
+                "salesDate=" + salesDate +
+                ", foodId=" + foodId +
+                ", paymentType='" + paymentType + '\'' +
+                ", quantity=" + quantity +
+                ", revenue=" + revenue +
+                '}';
+    }
+}
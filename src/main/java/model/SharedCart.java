@@ -0,0 +1,109 @@
+package model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * SharedCart Model Class
+ * Cart that several people (threads) can add to at once for group ordering.
+ * Holds an immutable Cart snapshot and swaps in a modified copy with
+ * compare-and-set, so no thread ever blocks and readers always see a
+ * consistent cart and total.
+ * Follows OOP principles: Encapsulation, Composition
+ */
+public class SharedCart {
+    
+    private final AtomicReference<Cart> current = new AtomicReference<>(new Cart());
+    
+    /**
+     * Add a quantity of a food, merging with its existing line
+     * 
+     * @param food Food to add
+     * @param quantity Quantity to add (> 0)
+     * @return Quantity on the food's line after the add
+     */
+    public int add(Food food, int quantity) {
+        while (true) {
+            Cart snapshot = current.get();
+            Cart next = new Cart(snapshot);
+            int lineQuantity = next.add(food, quantity);
+            if (current.compareAndSet(snapshot, next)) {
+                return lineQuantity;
+            }
+        }
+    }
+    
+    /**
+     * Change the quantity of a food already in the cart (0 removes the line)
+     * 
+     * @param foodId Food ID
+     * @param quantity New quantity
+     * @return true if the food was in the cart
+     */
+    public boolean setQuantity(int foodId, int quantity) {
+        while (true) {
+            Cart snapshot = current.get();
+            if (snapshot.getQuantity(foodId) == 0) {
+                return false;
+            }
+            Cart next = new Cart(snapshot);
+            next.setQuantity(foodId, quantity);
+            if (current.compareAndSet(snapshot, next)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Remove a food's line
+     * 
+     * @param foodId Food ID
+     * @return true if the food was in the cart
+     */
+    public boolean remove(int foodId) {
+        return setQuantity(foodId, 0);
+    }
+    
+    /**
+     * Take the whole cart for checkout and leave an empty one behind
+     * 
+     * @return The cart as it was
+     */
+    public Cart drain() {
+        return current.getAndSet(new Cart());
+    }
+    
+    /**
+     * Copy of the cart at this moment; changing it does not touch the shared cart
+     * 
+     * @return Private copy of the current snapshot
+     */
+    public Cart snapshot() {
+        return new Cart(current.get());
+    }
+    
+    public int getQuantity(int foodId) {
+        return current.get().getQuantity(foodId);
+    }
+    
+    public long getTotalCents() {
+        return current.get().getTotalCents();
+    }
+    
+    public int getLineCount() {
+        return current.get().getLineCount();
+    }
+    
+    public boolean isEmpty() {
+        return current.get().isEmpty();
+    }
+    
+    /**
+     * Build order lines from the current snapshot
+     * 
+     * @return New list of order details
+     */
+    public List<OrderDetails> toOrderDetails() {
+        return current.get().toOrderDetails();
+    }
+}
@@ -1,11 +1,19 @@
 package presentation.Admin;
 
 import controller.AdminController;
+import controller.AnalyticsController;
+import controller.ExportController;
+import controller.ImportController;
 import controller.OrderController;
+import controller.SalesReportController;
+import model.ExportFormat;
+import model.ExportResult;
+import model.ImportResult;
 import presentation.Food.FoodHandler;
 import presentation.Food.FoodManagementOption;
 import presentation.Food.MenuDisplay;
 import presentation.Order.OrderHandler;
+import presentation.General.ConsoleOutput;
 import presentation.General.UserInputHandler;
 
 /**
@@ -13,21 +21,49 @@ import presentation.General.UserInputHandler;
  */
 public class AdminHandler {
 
+    private static final int MAX_REPORT_DAYS = 366;
+    private static final int TOP_FOODS_LIMIT = 10;
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
     // 1. Add the AdminService field
     private final AdminController adminController;
     private final FoodHandler foodHandler;
     private final OrderController orderController;
     private final UserInputHandler inputHandler;
+    private final ConsoleOutput output;
+    private final SalesReportController salesReportController;
+    private final AnalyticsController analyticsController;
+    private final ImportController importController;
+    private final ExportController exportController;
 
     // 2. Update Constructor to accept IAdminService
     public AdminHandler(AdminController adminController, // <--- 接收 Controller
                         FoodHandler foodHandler,
                         OrderController orderController,
                         UserInputHandler inputHandler) {
+        this(adminController, foodHandler, orderController, inputHandler, new ConsoleOutput(),
+                new SalesReportController(), new AnalyticsController(), new ImportController(),
+                new ExportController());
+    }
+
+    public AdminHandler(AdminController adminController,
+                        FoodHandler foodHandler,
+                        OrderController orderController,
+                        UserInputHandler inputHandler,
+                        ConsoleOutput output,
+                        SalesReportController salesReportController,
+                        AnalyticsController analyticsController,
+                        ImportController importController,
+                        ExportController exportController) {
         this.adminController = adminController; // <--- 赋值
         this.foodHandler = foodHandler;
         this.orderController = orderController;
         this.inputHandler = inputHandler;
+        this.output = output != null ? output : new ConsoleOutput();
+        this.salesReportController = salesReportController;
+        this.analyticsController = analyticsController;
+        this.importController = importController;
+        this.exportController = exportController;
     }
 
     public void handleAdminMenu(OrderHandler orderHandler, model.Customer currentCustomer) {
@@ -51,7 +87,7 @@ public class AdminHandler {
 
             AdminMenuOption adminOption = AdminMenuOption.getByOptionNumber(adminChoice);
             if (adminOption == null) {
-                System.out.println("**Choose 0 Until 2 Only !!!**\n");
+                System.out.println("**Choose 0 Until 7 Only !!!**\n");
                 continue;
             }
 
@@ -62,12 +98,27 @@ public class AdminHandler {
                 case ORDER_REPORT:
                     handleOrderReport();
                     break;
+                case ORDER_ANALYTICS:
+                    handleOrderAnalytics();
+                    break;
+                case SALES_REPORT:
+                    handleSalesReport();
+                    break;
+                case REBUILD_SALES:
+                    handleRebuildSales();
+                    break;
+                case BULK_IMPORT:
+                    handleBulkImport();
+                    break;
+                case EXPORT_ORDERS:
+                    handleExportOrders();
+                    break;
                 case BACK_MAIN_MENU:
                     backMainMenu = false;
                     System.out.println("\n[]======== Back main menu ========[]\n");
                     break;
                 default:
-                    System.out.println("**Choose 0 Until 2 Only !!!**\n");
+                    System.out.println("**Choose 0 Until 7 Only !!!**\n");
             }
         } while (backMainMenu);
     }
@@ -89,7 +140,126 @@ public class AdminHandler {
     }
 
     public void handleOrderReport() {
-        MenuDisplay.displayOrderReport(orderController.getAllOrders());
+        StreamingOrderReport report = new StreamingOrderReport(output);
+        report.printHeader();
+        if (orderController.streamOrderReport(report) < 0) {
+            report.printIncompleteFooter();
+        } else {
+            report.printFooter();
+        }
+    }
+
+    /**
+     * Show top foods, revenue by hour and basket averages from the in-memory order snapshot
+     */
+    public void handleOrderAnalytics() {
+        if (!analyticsController.isLoaded()
+                || inputHandler.readYesNo("Reload order data before analysing? (Y/N) : ")) {
+            long start = System.currentTimeMillis();
+            int orders = analyticsController.refresh();
+            if (orders < 0) {
+                return;
+            }
+            System.out.println("Loaded " + orders + " orders in "
+                    + (System.currentTimeMillis() - start) + " ms\n");
+        }
+        MenuDisplay.displayOrderAnalytics(analyticsController.getOrderCount(),
+                analyticsController.getTopFoods(TOP_FOODS_LIMIT),
+                analyticsController.getRevenueByHour(),
+                analyticsController.getAverageBasketSize(),
+                analyticsController.getAverageBasketValue(),
+                output);
+    }
+
+    /**
+     * Show revenue per day, food and payment type from the sales_daily aggregate
+     */
+    public void handleSalesReport() {
+        int days;
+        do {
+            days = inputHandler.readInt("Number of days to report (1 - " + MAX_REPORT_DAYS + ") : ");
+            if (days < 1 || days > MAX_REPORT_DAYS) {
+                System.out.println("Days must be between 1 and " + MAX_REPORT_DAYS + " !!!\n");
+            }
+        } while (days < 1 || days > MAX_REPORT_DAYS);
+
+        MenuDisplay.displaySalesReport(salesReportController.getDailySales(days), output);
+    }
+
+    /**
+     * Recompute the sales_daily aggregate from raw orders
+     */
+    public void handleRebuildSales() {
+        if (!inputHandler.readYesNo("Rebuild sales data from all orders? (Y/N) : ")) {
+            System.out.println("Rebuild cancelled.\n");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int rows = salesReportController.rebuildAggregates();
+        if (rows >= 0) {
+            System.out.println("Sales data rebuilt: " + rows + " rows in "
+                    + (System.currentTimeMillis() - start) + " ms\n");
+        }
+    }
+
+    /**
+     * Import foods or customers from a CSV file, printing progress about once a second
+     */
+    public void handleBulkImport() {
+        System.out.println("Import: 1.Foods  2.Customers  0.Cancel");
+        int choice = inputHandler.readInt("Enter your choice : ");
+        if (choice != 1 && choice != 2) {
+            System.out.println("Import cancelled.\n");
+            return;
+        }
+        String path = inputHandler.readString("CSV file path : ");
+
+        long[] lastPrinted = {0};
+        ImportResult result;
+        if (choice == 1) {
+            result = importController.importFoods(path, (rows, imported, bytes, totalBytes, elapsed) ->
+                    printImportProgress(lastPrinted, rows, imported, bytes, totalBytes, elapsed));
+        } else {
+            result = importController.importCustomers(path, (rows, imported, bytes, totalBytes, elapsed) ->
+                    printImportProgress(lastPrinted, rows, imported, bytes, totalBytes, elapsed));
+        }
+        if (result != null) {
+            MenuDisplay.displayImportResult(result, output);
+        }
+    }
+
+    private void printImportProgress(long[] lastPrinted, long rows, long imported,
+                                     long bytes, long totalBytes, long elapsed) {
+        if (elapsed - lastPrinted[0] < PROGRESS_INTERVAL_MS) {
+            return;
+        }
+        lastPrinted[0] = elapsed;
+        long percent = totalBytes > 0 ? bytes * 100 / totalBytes : 100;
+        output.print("  ").print(percent).print("% - ").print(rows).print(" rows read, ")
+              .print(imported).print(" imported, ")
+              .print(elapsed > 0 ? rows * 1000 / elapsed : rows).println(" rows/s");
+        output.flush();
+    }
+
+    /**
+     * Export orders + order details for finance, optionally resuming after the last export
+     */
+    public void handleExportOrders() {
+        System.out.println("Format: 1." + ExportFormat.CSV_GZIP.getDisplayText()
+                + "  2." + ExportFormat.BINARY.getDisplayText() + "  0.Cancel");
+        int choice = inputHandler.readInt("Enter your choice : ");
+        if (choice != 1 && choice != 2) {
+            System.out.println("Export cancelled.\n");
+            return;
+        }
+        ExportFormat format = choice == 1 ? ExportFormat.CSV_GZIP : ExportFormat.BINARY;
+        String directory = inputHandler.readString("Export directory : ");
+        boolean resume = inputHandler.readYesNo("Continue after the last exported order? (Y/N) : ");
+
+        ExportResult result = exportController.exportOrders(directory, format, resume);
+        if (result != null) {
+            MenuDisplay.displayExportResult(result, output);
+        }
     }
 
     private void handleFoodManagement() {
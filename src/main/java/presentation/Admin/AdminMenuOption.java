@@ -8,6 +8,11 @@ package presentation.Admin;
 public enum AdminMenuOption {
     FOOD_MANAGEMENT(1, "Food Management"),
     ORDER_REPORT(2, "Order Report"),
+    ORDER_ANALYTICS(3, "Order Analytics"),
+    SALES_REPORT(4, "Daily Sales Report"),
+    REBUILD_SALES(5, "Rebuild Sales Data"),
+    BULK_IMPORT(6, "Bulk Import (CSV)"),
+    EXPORT_ORDERS(7, "Export Order History"),
     BACK_MAIN_MENU(0, "Back Main Menu");
 
     private final int optionNumber;
@@ -53,7 +58,7 @@ public enum AdminMenuOption {
         System.out.println("[]             Admin             []");
         System.out.println("[]===============================[]");
 
-        // Display options in order: 1-2, then 0
+        // Display options in order: 1-7, then 0
         for (AdminMenuOption option : AdminMenuOption.values()) {
             if (option.getOptionNumber() != 0) {
                 // Build option text
@@ -0,0 +1,108 @@
+package presentation.Admin;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import presentation.General.ConsoleOutput;
+import repository.interfaces.IOrderRepository;
+
+/**
+ * Streaming Order Report
+ * Renders order report rows as they arrive from the database and keeps
+ * running totals per payment type and overall, so memory stays flat no
+ * matter how many orders exist.
+ * Follows SOLID: Single Responsibility Principle
+ */
+public class StreamingOrderReport implements IOrderRepository.ReportRowHandler {
+
+    private static final String REPORT_RULE =
+            "=================================================================================";
+
+    private final ConsoleOutput out;
+    private final Map<String, long[]> totalsByPaymentType = new LinkedHashMap<>();
+    private long orderCount;
+    private long grandTotalCents;
+
+    public StreamingOrderReport(ConsoleOutput out) {
+        this.out = out;
+    }
+
+    /**
+     * Print the report title and column headers
+     */
+    public void printHeader() {
+        out.println(REPORT_RULE);
+        out.println("                                        Order Report                             ");
+        out.println(REPORT_RULE);
+        out.println("Order ID\t\tCustomer Id\t\tPayment Method\t\tTotal Price");
+        out.println(REPORT_RULE);
+        out.flush();
+    }
+
+    @Override
+    public void onRow(int orderId, int customerId, String paymentType, long totalCents) {
+        out.print(orderId).print("\t\t")
+           .print(customerId).print("\t\t\t")
+           .print(paymentType).print("\t\t\t")
+           .print("RM ").printCents(totalCents).println();
+
+        long[] typeTotals = totalsByPaymentType.get(paymentType);
+        if (typeTotals == null) {
+            typeTotals = new long[2];
+            totalsByPaymentType.put(paymentType, typeTotals);
+        }
+        typeTotals[0]++;
+        typeTotals[1] += totalCents;
+        orderCount++;
+        grandTotalCents += totalCents;
+    }
+
+    /**
+     * Print the running totals collected while streaming
+     */
+    public void printFooter() {
+        out.println(REPORT_RULE);
+        printTotals();
+    }
+
+    /**
+     * Print the totals of the rows read before the report stopped,
+     * flagged so they are not taken for the full figures
+     */
+    public void printIncompleteFooter() {
+        out.println(REPORT_RULE);
+        out.print("** REPORT INCOMPLETE - totals cover only the ").print(orderCount)
+           .println(" orders read before the failure **");
+        printTotals();
+    }
+
+    private void printTotals() {
+        for (Map.Entry<String, long[]> entry : totalsByPaymentType.entrySet()) {
+            out.padRight(entry.getKey(), 16).print("Orders : ").padLeft(entry.getValue()[0], 8)
+               .print("\t\tRM ").printCents(entry.getValue()[1]).println();
+        }
+        out.padRight("All", 16).print("Orders : ").padLeft(orderCount, 8)
+           .print("\t\tRM ").printCents(grandTotalCents).println();
+        out.println(REPORT_RULE);
+        out.flush();
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getGrandTotalCents() {
+        return grandTotalCents;
+    }
+
+    /**
+     * Get the order count and total (in cents) for one payment type
+     *
+     * @param paymentType Payment type as stored on the order
+     * @return {count, totalCents}, zeros if the type was not seen
+     */
+    public long[] getTotals(String paymentType) {
+        long[] totals = totalsByPaymentType.get(paymentType);
+        return totals != null ? totals.clone() : new long[2];
+    }
+}
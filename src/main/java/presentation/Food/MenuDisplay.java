@@ -1,11 +1,18 @@
 package presentation.Food;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
+import model.ExportResult;
 import model.Food;
+import model.FoodSales;
+import model.ImportResult;
 import model.Order;
+import model.SalesDaily;
 
 import presentation.Admin.AdminMenuOption;
+import presentation.General.ConsoleOutput;
 import presentation.General.MainMenuOption;
 
 
@@ -16,6 +23,9 @@ import presentation.General.MainMenuOption;
  */
 public class MenuDisplay {
     
+    private static final String REPORT_RULE =
+            "=================================================================================";
+    
     /**
      * Display main menu
      */
@@ -74,20 +84,170 @@ public class MenuDisplay {
      * @param orders List of orders to display
      */
     public static void displayOrderReport(List<Order> orders) {
-        System.out.println("=================================================================================");
-        System.out.println("                                        Order Report                             ");
-        System.out.println("=================================================================================");
-        System.out.println("Order ID\t\tCustomer Id\t\tPayment Method\t\tTotal Price");
-        System.out.println("=================================================================================");
+        displayOrderReport(orders, new ConsoleOutput());
+    }
+
+    /**
+     * Render the order report as one frame
+     * 
+     * @param orders List of orders to display
+     * @param out Buffered console output
+     */
+    public static void displayOrderReport(List<Order> orders, ConsoleOutput out) {
+        out.println(REPORT_RULE);
+        out.println("                                        Order Report                             ");
+        out.println(REPORT_RULE);
+        out.println("Order ID\t\tCustomer Id\t\tPayment Method\t\tTotal Price");
+        out.println(REPORT_RULE);
         
         for (Order order : orders) {
-            System.out.println(order.getOrderId() + "\t\t" + 
-                             order.getCustomer().getCustomerId() + "\t\t\t" + 
-                             order.getPaymentMethod().getPaymentType() + "\t\t\t" + 
-                             "RM " + String.format("%.2f", order.getTotalPrice()));
+            out.print(order.getOrderId()).print("\t\t")
+               .print(order.getCustomer().getCustomerId()).print("\t\t\t")
+               .print(order.getPaymentMethod().getPaymentType()).print("\t\t\t")
+               .print("RM ").printMoney(order.getTotalPriceDecimal()).println();
+        }
+        
+        out.println(REPORT_RULE);
+        out.flush();
+    }
+    
+    /**
+     * Render the daily sales report (rows ordered by day) as one frame
+     * 
+     * @param rows Aggregate rows ordered by day, food and payment type
+     * @param out Buffered console output
+     */
+    public static void displaySalesReport(List<SalesDaily> rows, ConsoleOutput out) {
+        out.println(REPORT_RULE);
+        out.println("                                     Daily Sales Report                          ");
+        out.println(REPORT_RULE);
+        out.padRight("Date", 12).padRight("Food Id", 9).padRight("Food Name", 24)
+           .padRight("Payment", 10).padLeft("Qty", 6).padLeft("Revenue", 14).println();
+        out.println(REPORT_RULE);
+        
+        long dayCents = 0;
+        long totalCents = 0;
+        LocalDate currentDay = null;
+        for (SalesDaily row : rows) {
+            if (currentDay != null && !currentDay.equals(row.getSalesDate())) {
+                appendDayTotal(out, currentDay, dayCents);
+                dayCents = 0;
+            }
+            currentDay = row.getSalesDate();
+            long cents = row.getRevenue().movePointRight(2).longValue();
+            dayCents += cents;
+            totalCents += cents;
+            
+            out.padRight(String.valueOf(row.getSalesDate()), 12)
+               .padRight(String.valueOf(row.getFoodId()), 9)
+               .padRight(row.getFoodName() != null ? row.getFoodName() : "(deleted)", 24)
+               .padRight(row.getPaymentType(), 10)
+               .padLeft(row.getQuantity(), 6)
+               .print("   RM ").padMoney(cents / 100.0, 8).println();
+        }
+        if (currentDay != null) {
+            appendDayTotal(out, currentDay, dayCents);
+        }
+        
+        out.println(REPORT_RULE);
+        out.padRight("Grand Total", 61).print("RM ").padMoney(totalCents / 100.0, 8).println();
+        out.println(REPORT_RULE);
+        out.flush();
+    }
+    
+    private static void appendDayTotal(ConsoleOutput out, LocalDate day, long cents) {
+        out.padRight("  Total " + day, 61).print("RM ").padMoney(cents / 100.0, 8).println();
+    }
+    
+    /**
+     * Render order analytics (top foods, revenue by hour, basket averages) as one frame
+     * 
+     * @param orderCount Number of orders analysed
+     * @param topFoods Best-selling foods by revenue
+     * @param revenueByHour 24 hourly revenue totals
+     * @param averageBasketSize Average items per order
+     * @param averageBasketValue Average order value
+     * @param out Buffered console output
+     */
+    public static void displayOrderAnalytics(int orderCount, List<FoodSales> topFoods, BigDecimal[] revenueByHour,
+                                             double averageBasketSize, BigDecimal averageBasketValue,
+                                             ConsoleOutput out) {
+        out.println(REPORT_RULE);
+        out.println("                                     Order Analytics                             ");
+        out.println(REPORT_RULE);
+        out.padRight("Orders analysed", 30).padLeft(orderCount, 12).println();
+        out.padRight("Average items per order", 30)
+           .padLeft(String.format("%.2f", averageBasketSize), 12).println();
+        out.padRight("Average order value", 27).print("RM ").padMoney(averageBasketValue.doubleValue(), 12).println();
+        
+        out.println(REPORT_RULE);
+        out.println("Top Foods by Revenue");
+        out.padRight("Rank", 6).padRight("Food Id", 10).padLeft("Qty", 8).padLeft("Revenue", 15).println();
+        int rank = 1;
+        for (FoodSales food : topFoods) {
+            out.padRight(String.valueOf(rank++), 6).padRight(String.valueOf(food.getFoodId()), 10)
+               .padLeft(food.getQuantity(), 8).print("   RM ").padMoney(food.getRevenue().doubleValue(), 9).println();
         }
         
-        System.out.println("=================================================================================");
+        out.println(REPORT_RULE);
+        out.println("Revenue by Hour");
+        for (int hour = 0; hour < revenueByHour.length; hour++) {
+            if (revenueByHour[hour].signum() == 0) continue;
+            out.print(hour < 10 ? "0" : "").print(hour).print(":00").repeat(' ', 6)
+               .print("RM ").padMoney(revenueByHour[hour].doubleValue(), 12).println();
+        }
+        out.println(REPORT_RULE);
+        out.flush();
+    }
+    
+    /**
+     * Render a bulk import summary as one frame
+     * 
+     * @param result Import result
+     * @param out Buffered console output
+     */
+    public static void displayImportResult(ImportResult result, ConsoleOutput out) {
+        out.println(REPORT_RULE);
+        out.println("                                     Import Summary                              ");
+        out.println(REPORT_RULE);
+        out.padRight("Rows read", 24).padLeft(result.getRowsRead(), 12).println();
+        out.padRight("Imported", 24).padLeft(result.getImported(), 12).println();
+        out.padRight("Invalid", 24).padLeft(result.getInvalid(), 12).println();
+        out.padRight("Duplicates skipped", 24).padLeft(result.getDuplicates(), 12).println();
+        out.padRight("Time (ms)", 24).padLeft(result.getElapsedMillis(), 12).println();
+        out.padRight("Rows per second", 24).padLeft(result.getRowsPerSecond(), 12).println();
+        if (!result.getErrorSamples().isEmpty()) {
+            out.println(REPORT_RULE);
+            out.println("First rejected rows:");
+            for (String error : result.getErrorSamples()) {
+                out.print("  ").println(error);
+            }
+        }
+        out.println(REPORT_RULE);
+        out.flush();
+    }
+    
+    /**
+     * Render an order export summary as one frame
+     * 
+     * @param result Export result
+     * @param out Buffered console output
+     */
+    public static void displayExportResult(ExportResult result, ConsoleOutput out) {
+        out.println(REPORT_RULE);
+        out.println("                                     Export Summary                              ");
+        out.println(REPORT_RULE);
+        out.padRight("File", 24).println(result.getFile());
+        out.padRight("Format", 24).println(result.getFormat().getDisplayText());
+        out.padRight("Orders after ID", 24).padLeft(result.getAfterOrderId(), 12).println();
+        out.padRight("Last order ID", 24).padLeft(result.getLastOrderId(), 12).println();
+        out.padRight("Orders exported", 24).padLeft(result.getOrders(), 12).println();
+        out.padRight("Lines exported", 24).padLeft(result.getLines(), 12).println();
+        out.padRight("Bytes written", 24).padLeft(result.getBytesWritten(), 12).println();
+        out.padRight("Time (ms)", 24).padLeft(result.getElapsedMillis(), 12).println();
+        out.padRight("Lines per second", 24).padLeft(result.getLinesPerSecond(), 12).println();
+        out.println(REPORT_RULE);
+        out.flush();
     }
     
     /**
@@ -0,0 +1,335 @@
+package presentation.General;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import config.DatabaseConnection;
+import config.ResilientConnectionProvider;
+import controller.AdminController;
+import controller.AnalyticsController;
+import controller.CustomerController;
+import controller.ExportController;
+import controller.FoodController;
+import controller.ImportController;
+import controller.OrderController;
+import controller.PaymentController;
+import controller.SalesReportController;
+import presentation.Order.ReceiptSpooler;
+import repository.cache.CacheInvalidator;
+import repository.cache.InvalidationBus;
+import repository.cache.LruCache;
+import repository.impl.AdminRepository;
+import repository.impl.BatchCheckoutRepository;
+import repository.impl.BulkImportRepository;
+import repository.impl.CachingCustomerRepository;
+import repository.impl.CachingOrderRepository;
+import repository.impl.CachingPaymentMethodRepository;
+import repository.impl.CustomerRepository;
+import repository.impl.FoodRepository;
+import repository.impl.OffHeapFoodRepository;
+import repository.impl.OrderLineRepository;
+import repository.impl.OrderRepository;
+import repository.impl.PaymentMethodRepository;
+import repository.impl.SalesDailyRepository;
+import repository.interfaces.IFoodRepository;
+import service.event.DomainEventPublisher;
+import service.impl.AdminService;
+import service.impl.AdmissionControlledOrderService;
+import service.impl.BulkImportService;
+import service.impl.ConcurrencyLimiter;
+import service.impl.CustomerService;
+import service.impl.FoodService;
+import service.impl.OrderAnalyticsService;
+import service.impl.OrderExportService;
+import service.impl.OrderService;
+import service.impl.PaymentService;
+import service.impl.PaymentStrategyRegistry;
+import service.impl.PricingEngine;
+import service.impl.PromotionEngine;
+import service.impl.SalesReportService;
+import service.interfaces.ICustomerService;
+import service.interfaces.IOrderService;
+import service.interfaces.IPaymentService;
+
+/**
+ * Application Context
+ * Composition root: wires one shared instance of each repository, service
+ * and controller. Nothing is built until first asked for, so startup only
+ * pays for what the first screen needs; the database connection itself is
+ * opened on first query (see DatabaseConnection).
+ * Follows SOLID: Dependency Inversion Principle
+ */
+public class AppContext {
+
+    private final Lazy<DatabaseConnection> database;
+    private final Lazy<ResilientConnectionProvider> connections;
+    private final Lazy<InvalidationBus> invalidationBus;
+    private final Lazy<DomainEventPublisher> events = new Lazy<>(DomainEventPublisher::new);
+
+    // Repositories
+    private final Lazy<IFoodRepository> foodRepository;
+    private final Lazy<CachingCustomerRepository> customerRepository;
+    private final Lazy<CachingPaymentMethodRepository> paymentMethodRepository;
+    private final Lazy<CachingOrderRepository> orderRepository;
+    private final Lazy<OrderLineRepository> orderLineRepository;
+
+    // Services
+    private final Lazy<FoodService> foodService;
+    private final Lazy<ICustomerService> customerService;
+    private final Lazy<IPaymentService> paymentService;
+    private final Lazy<PricingEngine> pricingEngine;
+    private final Lazy<IOrderService> orderService;
+    private final ConcurrencyLimiter checkoutLimiter = new ConcurrencyLimiter();
+    private final Lazy<ReceiptSpooler> receiptSpooler = new Lazy<>(ReceiptSpooler::fromSystemProperties);
+
+    // Controllers
+    private final Lazy<FoodController> foodController;
+    private final Lazy<CustomerController> customerController;
+    private final Lazy<OrderController> orderController;
+    private final Lazy<PaymentController> paymentController;
+    private final Lazy<AdminController> adminController;
+    private final Lazy<SalesReportController> salesReportController;
+    private final Lazy<AnalyticsController> analyticsController;
+    private final Lazy<ImportController> importController;
+    private final Lazy<ExportController> exportController;
+
+    /**
+     * Context over the shared DatabaseConnection
+     */
+    public AppContext() {
+        this(DatabaseConnection::getInstance);
+    }
+
+    /**
+     * Context over a given database (e.g. H2 in tests)
+     *
+     * @param database Supplies the database connection, called at most once
+     */
+    public AppContext(Supplier<DatabaseConnection> database) {
+        this.database = new Lazy<>(database);
+        this.connections = new Lazy<>(() -> new ResilientConnectionProvider(this.database.get()));
+        this.invalidationBus = new Lazy<>(this::createInvalidationBus);
+
+        this.foodRepository = new Lazy<>(this::createFoodRepository);
+        this.customerRepository = new Lazy<>(() -> new CachingCustomerRepository(
+                new CustomerRepository(connections.get()),
+                new LruCache<>(CachingCustomerRepository.DEFAULT_MAX_SIZE, CachingCustomerRepository.DEFAULT_TTL_MILLIS),
+                invalidationBus.get()));
+        this.paymentMethodRepository = new Lazy<>(() ->
+                new CachingPaymentMethodRepository(new PaymentMethodRepository(connections.get())));
+        this.orderRepository = new Lazy<>(() -> new CachingOrderRepository(new OrderRepository(connections.get())));
+        this.orderLineRepository = new Lazy<>(() -> new OrderLineRepository(connections.get()));
+
+        this.foodService = new Lazy<>(() -> new FoodService(foodRepository.get(), invalidationBus.get(), events.get()));
+        this.customerService = new Lazy<>(() -> new CustomerService(customerRepository.get(), events.get()));
+        this.paymentService = new Lazy<>(() -> new PaymentService(
+                paymentMethodRepository.get(), PaymentStrategyRegistry.getInstance(), events.get()));
+        this.pricingEngine = new Lazy<>(() -> {
+            // Started with the menu cache so no remote change is missed
+            invalidationBus.get();
+            return new PricingEngine(foodRepository.get(), PromotionEngine.fromSystemProperties());
+        });
+        this.orderService = new Lazy<>(() -> new AdmissionControlledOrderService(new OrderService(
+                orderRepository.get(),
+                customerRepository.get(),
+                paymentMethodRepository.get(),
+                paymentService.get(),
+                orderRepository.get(),
+                new LruCache<>(OrderService.DEFAULT_IDEMPOTENCY_INDEX_SIZE, OrderService.DEFAULT_IDEMPOTENCY_TTL_MILLIS),
+                orderRepository.get().appendingTo(new BatchCheckoutRepository(connections.get())),
+                pricingEngine.get(),
+                events.get()), checkoutLimiter));
+
+        this.foodController = new Lazy<>(() -> new FoodController(foodService.get()));
+        this.customerController = new Lazy<>(() -> new CustomerController(customerService.get()));
+        this.orderController = new Lazy<>(() -> new OrderController(orderService.get()));
+        this.paymentController = new Lazy<>(() -> new PaymentController(paymentService.get()));
+        this.adminController = new Lazy<>(() ->
+                new AdminController(new AdminService(new AdminRepository(connections.get()))));
+        this.salesReportController = new Lazy<>(() ->
+                new SalesReportController(new SalesReportService(new SalesDailyRepository(connections.get(), this.database.get()::openConnection))));
+        this.analyticsController = new Lazy<>(() ->
+                new AnalyticsController(new OrderAnalyticsService(orderLineRepository.get())));
+        this.importController = new Lazy<>(() -> new ImportController(new BulkImportService(
+                new BulkImportRepository(connections.get()), foodService.get(), customerService.get(),
+                invalidationBus.get())));
+        this.exportController = new Lazy<>(() ->
+                new ExportController(new OrderExportService(orderLineRepository.get())));
+    }
+
+    public FoodController foodController() {
+        return foodController.get();
+    }
+
+    public CustomerController customerController() {
+        return customerController.get();
+    }
+
+    public OrderController orderController() {
+        return orderController.get();
+    }
+
+    public PaymentController paymentController() {
+        return paymentController.get();
+    }
+
+    public AdminController adminController() {
+        return adminController.get();
+    }
+
+    public SalesReportController salesReportController() {
+        return salesReportController.get();
+    }
+
+    public AnalyticsController analyticsController() {
+        return analyticsController.get();
+    }
+
+    public ImportController importController() {
+        return importController.get();
+    }
+
+    public ExportController exportController() {
+        return exportController.get();
+    }
+
+    public PricingEngine pricingEngine() {
+        return pricingEngine.get();
+    }
+
+    /**
+     * False while the database is considered down (its circuit breaker is open)
+     */
+    public boolean isDatabaseAvailable() {
+        ResilientConnectionProvider created = connections.getIfCreated();
+        return created == null || created.isAvailable();
+    }
+
+    public ResilientConnectionProvider connections() {
+        return connections.get();
+    }
+
+    /**
+     * Admission control in front of checkout (limit, in-flight, rejections)
+     */
+    public ConcurrencyLimiter checkoutLimiter() {
+        return checkoutLimiter;
+    }
+
+    /**
+     * Prints and archives receipts on a background thread
+     */
+    public ReceiptSpooler receiptSpooler() {
+        return receiptSpooler.get();
+    }
+
+    /**
+     * In-process domain events (orders, payments, menu and sign-ups); subscribe here
+     */
+    public DomainEventPublisher events() {
+        return events.get();
+    }
+
+    /**
+     * Finish background work before exit (queued receipts are still printed)
+     */
+    public void shutdown() {
+        receiptSpooler.ifCreated(ReceiptSpooler::close);
+        events.ifCreated(DomainEventPublisher::close);
+    }
+
+    public InvalidationBus invalidationBus() {
+        return invalidationBus.get();
+    }
+
+    /**
+     * Food repository, served from the off-heap catalog when pos.offHeapCatalog is set
+     */
+    private IFoodRepository createFoodRepository() {
+        FoodRepository foods = new FoodRepository(connections.get());
+        if (!Boolean.getBoolean(OffHeapFoodRepository.ENABLED_PROPERTY)) {
+            return foods;
+        }
+        // Started with the catalog so no remote change is missed
+        invalidationBus.get();
+        // Remote changes reload it on the invalidation thread, so reloads open their own connections
+        return new OffHeapFoodRepository(foods, new FoodRepository(database.get()::openConnection),
+                OffHeapFoodRepository.directAllocator());
+    }
+
+    /**
+     * Bus from system properties (local only unless pos.invalidation.port is
+     * set), feeding the menu and customer caches that exist so far
+     */
+    private InvalidationBus createInvalidationBus() {
+        InvalidationBus bus = InvalidationBus.fromSystemProperties();
+        bus.subscribe(CacheInvalidator.Topic.FOOD,
+                foodId -> {
+                    refreshCatalog(catalog -> catalog.refresh(foodId));
+                    pricingEngine.ifCreated(PricingEngine::invalidate);
+                    foodService.ifCreated(service -> service.refreshSearchIndex(foodId));
+                },
+                () -> {
+                    refreshCatalog(OffHeapFoodRepository::reload);
+                    pricingEngine.ifCreated(PricingEngine::invalidate);
+                    foodService.ifCreated(FoodService::resetSearchIndex);
+                });
+        bus.subscribe(CacheInvalidator.Topic.CUSTOMER,
+                customerId -> customerRepository.ifCreated(repo -> repo.invalidate(customerId)),
+                () -> customerRepository.ifCreated(CachingCustomerRepository::invalidateAll));
+        return bus;
+    }
+
+    private void refreshCatalog(Consumer<OffHeapFoodRepository> action) {
+        foodRepository.ifCreated(repo -> {
+            if (repo instanceof OffHeapFoodRepository) {
+                action.accept((OffHeapFoodRepository) repo);
+            }
+        });
+    }
+
+    /**
+     * Thread-safe memoizing supplier (created on first get, then shared)
+     */
+    static final class Lazy<T> implements Supplier<T> {
+        private Supplier<? extends T> factory;
+        private volatile T value;
+
+        Lazy(Supplier<? extends T> factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = factory.get();
+                        value = result;
+                        factory = null;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Value if already created, else null (never creates it)
+         */
+        T getIfCreated() {
+            return value;
+        }
+
+        /**
+         * Run an action on the value only if it was already created
+         */
+        void ifCreated(Consumer<? super T> action) {
+            T result = value;
+            if (result != null) {
+                action.accept(result);
+            }
+        }
+    }
+}
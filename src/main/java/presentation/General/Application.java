@@ -1,14 +1,9 @@
 package presentation.General;
 
+import java.lang.management.ManagementFactory;
 import java.util.List;
 import java.util.Scanner;
 
-// Controllers
-import controller.AdminController;
-import controller.CustomerController;
-import controller.FoodController;
-import controller.OrderController;
-
 // Models
 import model.Customer;
 
@@ -19,15 +14,6 @@ import presentation.Food.FoodHandler;
 import presentation.Food.MenuDisplay;
 import presentation.Order.OrderHandler;
 
-import repository.impl.FoodRepository;
-import service.impl.FoodService;
-import service.interfaces.IFoodService;
-// --- IMPORTS FOR ADMIN DB CONNECTION ---
-import repository.impl.AdminRepository;
-import repository.interfaces.IAdminRepository;
-
-// ---------------------------------------
-
 /**
  * Main Application Class
  * Entry point for the POS system
@@ -35,50 +21,55 @@ import repository.interfaces.IAdminRepository;
  */
 public class Application {
     
+    /** Print time-to-first-menu to stderr when set (-Dpos.startupTiming=true) */
+    public static final String STARTUP_TIMING_PROPERTY = "pos.startupTiming";
+    /** Return right after the first menu is shown (startup measurement, AppCDS training run) */
+    public static final String EXIT_AFTER_FIRST_MENU_PROPERTY = "pos.exitAfterFirstMenu";
+    
     private final Scanner scanner;
     private final UserInputHandler inputHandler;
-    
-    // Controllers
-    private final AdminController adminController;
-    private final CustomerController customerController;
-    private final FoodController foodController;
-    private final OrderController orderController;
+    private final ConsoleOutput output;
+    private final AppContext context;
+    private final long wiringNanos;
     
     // Handlers
-    private final FoodHandler foodHandler;
-    private final CustomerHandler customerHandler;
-    private final OrderHandler orderHandler;
-    private final AdminHandler adminHandler;
+    // (each is built on first use, so the main menu shows before any of them loads)
+    private final AppContext.Lazy<FoodHandler> foodHandler;
+    private final AppContext.Lazy<CustomerHandler> customerHandler;
+    private final AppContext.Lazy<OrderHandler> orderHandler;
+    private final AppContext.Lazy<AdminHandler> adminHandler;
     
     Customer currentCustomer;
     
     public Application() {
+        this(new AppContext());
+    }
+    
+    /**
+     * Create the application over a composition root
+     * 
+     * @param context Shared repositories, services and controllers
+     */
+    public Application(AppContext context) {
+        long start = System.nanoTime();
         this.scanner = new Scanner(System.in);
         this.inputHandler = new UserInputHandler(scanner);
+        this.output = new ConsoleOutput();
+        this.context = context;
         
         // Wire dependencies following N-layered architecture
-        // Repository → Service → Controller
-        IFoodService foodService = new FoodService(new FoodRepository());
-        this.foodController = new FoodController(foodService);
-        
-
-        // 1. Initialize Controllers
-        // (Assuming these manage their own services internally as per your request)
-        this.customerController = new CustomerController();
-        this.orderController = new OrderController();
-        
-        this.adminController = new AdminController();
-
-        // 2. Initialize Admin Service Stack (REQUIRED for DB Login)
-        IAdminRepository adminRepository = new AdminRepository();
-
-        // 3. Initialize Handlers
-        this.foodHandler = new FoodHandler(foodController, inputHandler);
-        this.customerHandler = new CustomerHandler(customerController, inputHandler);
-        this.orderHandler = new OrderHandler(foodController, orderController, inputHandler);
-        
-        // 4. Initialize AdminHandler with the AdminService
-        this.adminHandler = new AdminHandler(adminController, foodHandler, orderController, inputHandler);
+        // Repository → Service → Controller (shared instances from the context)
+        this.foodHandler = new AppContext.Lazy<>(() -> new FoodHandler(context.foodController(), inputHandler));
+        this.customerHandler = new AppContext.Lazy<>(() ->
+                new CustomerHandler(context.customerController(), inputHandler));
+        this.orderHandler = new AppContext.Lazy<>(() ->
+                new OrderHandler(context.foodController(), context.orderController(), inputHandler, output,
+                        context::isDatabaseAvailable, context.receiptSpooler()));
+        this.adminHandler = new AppContext.Lazy<>(() -> new AdminHandler(context.adminController(), foodHandler.get(),
+                context.orderController(), inputHandler, output,
+                context.salesReportController(), context.analyticsController(),
+                context.importController(), context.exportController()));
+        this.wiringNanos = System.nanoTime() - start;
     }
         
     
@@ -87,9 +78,17 @@ public class Application {
      */
     public void run() {
         boolean isRunning = true; // Control flag for the loop
+        boolean firstMenu = true;
         
         do {
             MenuDisplay.displayMainMenu();
+            if (firstMenu) {
+                firstMenu = false;
+                reportTimeToFirstMenu();
+                if (Boolean.getBoolean(EXIT_AFTER_FIRST_MENU_PROPERTY)) {
+                    break;
+                }
+            }
             int choice = inputHandler.readInt("Your choice : ");
             MainMenuOption option = MainMenuOption.fromCode(choice);
             
@@ -100,16 +99,16 @@ public class Application {
             
             switch (option) {
                 case LOGIN:
-                    currentCustomer = customerHandler.handleLogin();
+                    currentCustomer = customerHandler.get().handleLogin();
                     if (currentCustomer != null && inputHandler.readYesNo("Do you want to start Order (Y/N) : ")) {
-                        orderHandler.handleOrder(currentCustomer);
+                        orderHandler.get().handleOrder(currentCustomer);
                     }
                     break;
                 case REGISTER:
-                    customerHandler.handleRegister();
+                    customerHandler.get().handleRegister();
                     break;
                 case ADMIN:
-                    adminHandler.handleAdminMenu(orderHandler, currentCustomer);
+                    adminHandler.get().handleAdminMenu(orderHandler.get(), currentCustomer);
                     break;
                 case EXIT:
                     System.out.println("\n=========================");
@@ -122,48 +121,63 @@ public class Application {
             }
         } while (isRunning);
         
+        context.shutdown();
         scanner.close();
     }
 
+    /**
+     * Print process start to first menu (and how much of it was wiring) when enabled
+     */
+    private void reportTimeToFirstMenu() {
+        if (!Boolean.getBoolean(STARTUP_TIMING_PROPERTY)) {
+            return;
+        }
+        long shownAt = System.currentTimeMillis();
+        // Management classes are only loaded here, after the menu is already on screen
+        long toMenuMillis = shownAt - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.err.println("Time to first menu: " + toMenuMillis + " ms (wiring "
+                + wiringNanos / 1_000_000 + " ms)");
+    }
+
     /**
      * Expose customer login for tests (delegates to handler)
      */
     void handleLogin() {
-        customerHandler.handleLogin();
+        customerHandler.get().handleLogin();
     }
 
     /**
      * Expose customer registration for tests (delegates to handler)
      */
     void handleRegister() {
-        customerHandler.handleRegister();
+        customerHandler.get().handleRegister();
     }
 
     /**
      * Expose admin menu for tests (delegates to handler)
      */
     void handleAdminMenu() {
-        adminHandler.handleAdminMenu(orderHandler, currentCustomer);
+        adminHandler.get().handleAdminMenu(orderHandler.get(), currentCustomer);
     }
 
     /**
      * Expose order report for tests (delegates to handler)
      */
     void handleOrderReport() {
-        adminHandler.handleOrderReport();
+        adminHandler.get().handleOrderReport();
     }
 
     /**
      * Expose order handling for tests (delegates to handler)
      */
     void handleOrder() {
-        orderHandler.handleOrder(currentCustomer);
+        orderHandler.get().handleOrder(currentCustomer);
     }
 
     /**
      * Expose process order for tests (delegates to handler)
      */
     void processOrder(List<model.OrderDetails> details) {
-        orderHandler.processOrder(currentCustomer, details);
+        orderHandler.get().processOrder(currentCustomer, details);
     }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+package presentation.General;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Console Output
+ * Buffers a whole screen ("frame") in a reusable StringBuilder and writes it
+ * to the terminal in a single call on {@link #flush()}.
+ * Injected into handlers the same way as UserInputHandler.
+ * Follows SOLID: Single Responsibility Principle
+ */
+public class ConsoleOutput {
+
+    public static final int DEFAULT_CAPACITY = 16 * 1024;
+    private static final String NEW_LINE = System.lineSeparator();
+
+    private final PrintStream target;
+    private final StringBuilder buffer;
+    private final int capacity;
+
+    /**
+     * Create output bound to whatever System.out is at flush time
+     * (keeps System.setOut redirection in tests working)
+     */
+    public ConsoleOutput() {
+        this(null, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create output bound to a fixed stream
+     *
+     * @param target Stream to write frames to
+     */
+    public ConsoleOutput(PrintStream target) {
+        this(target, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create output with an explicit buffer capacity
+     *
+     * @param target Stream to write frames to (null = current System.out)
+     * @param capacity Buffer size before an automatic flush
+     */
+    public ConsoleOutput(PrintStream target, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        this.target = target;
+        this.capacity = capacity;
+        this.buffer = new StringBuilder(capacity);
+    }
+
+    public ConsoleOutput print(String text) {
+        buffer.append(text);
+        return spillIfFull();
+    }
+
+    public ConsoleOutput print(char c) {
+        buffer.append(c);
+        return spillIfFull();
+    }
+
+    public ConsoleOutput print(int value) {
+        buffer.append(value);
+        return spillIfFull();
+    }
+
+    public ConsoleOutput print(long value) {
+        buffer.append(value);
+        return spillIfFull();
+    }
+
+    public ConsoleOutput print(Object value) {
+        buffer.append(value);
+        return spillIfFull();
+    }
+
+    public ConsoleOutput println(String text) {
+        buffer.append(text).append(NEW_LINE);
+        return spillIfFull();
+    }
+
+    public ConsoleOutput println() {
+        buffer.append(NEW_LINE);
+        return spillIfFull();
+    }
+
+    /**
+     * Append an amount with exactly two decimals, rounding half up from its
+     * shortest decimal form (same output as "%.2f", so 1.005 prints 1.01)
+     *
+     * @param amount Amount to append
+     * @return this output
+     */
+    public ConsoleOutput printMoney(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            buffer.append(String.format("%.2f", amount));
+            return spillIfFull();
+        }
+        return printMoney(BigDecimal.valueOf(amount));
+    }
+
+    /**
+     * Append an amount held in cents with exactly two decimals
+     *
+     * @param cents Amount in cents
+     * @return this output
+     */
+    public ConsoleOutput printCents(long cents) {
+        appendCents(buffer, cents);
+        return spillIfFull();
+    }
+
+    /**
+     * Append an amount rounded half up to exactly two decimals (same output as "%.2f")
+     *
+     * @param amount Amount to append (null prints 0.00)
+     * @return this output
+     */
+    public ConsoleOutput printMoney(BigDecimal amount) {
+        if (amount == null) {
+            return printCents(0);
+        }
+        return printCents(amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue());
+    }
+
+    /**
+     * Append text left-aligned in a column (same output as "%-Ns")
+     *
+     * @param text Text to append
+     * @param width Column width
+     * @return this output
+     */
+    public ConsoleOutput padRight(String text, int width) {
+        String value = String.valueOf(text);
+        buffer.append(value);
+        repeat(' ', width - value.length());
+        return spillIfFull();
+    }
+
+    /**
+     * Append an integer right-aligned in a column (same output as "%Nd")
+     *
+     * @param value Value to append
+     * @param width Column width
+     * @return this output
+     */
+    public ConsoleOutput padLeft(long value, int width) {
+        repeat(' ', width - digits(value));
+        buffer.append(value);
+        return spillIfFull();
+    }
+
+    /**
+     * Append text right-aligned in a column (same output as "%Ns")
+     *
+     * @param text Text to append
+     * @param width Column width
+     * @return this output
+     */
+    public ConsoleOutput padLeft(String text, int width) {
+        String value = String.valueOf(text);
+        repeat(' ', width - value.length());
+        buffer.append(value);
+        return spillIfFull();
+    }
+
+    /**
+     * Append an amount right-aligned in a column (same output as "%N.2f")
+     *
+     * @param amount Amount to append
+     * @param width Column width
+     * @return this output
+     */
+    public ConsoleOutput padMoney(double amount, int width) {
+        long cents = Math.round(amount * 100.0);
+        repeat(' ', width - moneyLength(cents));
+        appendCents(buffer, cents);
+        return spillIfFull();
+    }
+
+    /**
+     * Append the same character several times
+     *
+     * @param c Character to repeat
+     * @param count Number of repetitions
+     * @return this output
+     */
+    public ConsoleOutput repeat(char c, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.append(c);
+        }
+        return this;
+    }
+
+    /**
+     * Write the buffered frame to the terminal and reset the buffer
+     */
+    public void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        PrintStream out = target != null ? target : System.out;
+        out.append(buffer);
+        out.flush();
+        buffer.setLength(0);
+    }
+
+    /**
+     * Number of characters waiting to be flushed
+     *
+     * @return Pending character count
+     */
+    public int pending() {
+        return buffer.length();
+    }
+
+    private ConsoleOutput spillIfFull() {
+        if (buffer.length() >= capacity) {
+            flush();
+        }
+        return this;
+    }
+
+    private static void appendCents(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        sb.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private static int moneyLength(long cents) {
+        int sign = cents < 0 ? 1 : 0;
+        return sign + digits(Math.abs(cents) / 100) + 3;
+    }
+
+    private static int digits(long value) {
+        int count = value < 0 ? 2 : 1;
+        long v = Math.abs(value);
+        while (v >= 10) {
+            v /= 10;
+            count++;
+        }
+        return count;
+    }
+}
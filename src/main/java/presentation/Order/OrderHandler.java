@@ -2,6 +2,7 @@ package presentation.Order;
 import controller.FoodController;
 import controller.OrderController;
 
+import model.Cart;
 import model.Food;
 import model.Order;
 import model.OrderDetails;
@@ -9,26 +10,73 @@ import model.PaymentMethod;
 import model.Customer;
 
 
+import presentation.General.ConsoleOutput;
+import presentation.General.UserCancelledException;
 import presentation.General.UserInputHandler;
 import presentation.Payment.PaymentOption;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 /**
  * Handles order flow and payment selection.
  */
 public class OrderHandler {
 
+    private static final int SEARCH_RESULTS = 10;
+    /** Longest the next prompt waits for the spooler to print the receipt */
+    private static final long RECEIPT_PRINT_WAIT_MILLIS = 5_000;
+    private static final String RECEIPT_RULE =
+            "======================================================================";
+
     private final FoodController foodController;
     private final OrderController orderController;
     private final UserInputHandler inputHandler;
+    private final ConsoleOutput output;
+    private final BooleanSupplier databaseAvailable;
+    private final ReceiptSpooler receipts;
+
     public OrderHandler(FoodController foodController,
                         OrderController orderController,
                         UserInputHandler inputHandler) {
+        this(foodController, orderController, inputHandler, new ConsoleOutput());
+    }
+
+    public OrderHandler(FoodController foodController,
+                        OrderController orderController,
+                        UserInputHandler inputHandler,
+                        ConsoleOutput output) {
+        this(foodController, orderController, inputHandler, output, () -> true);
+    }
+
+    /**
+     * @param databaseAvailable Tells an empty menu apart from an unreachable database
+     */
+    public OrderHandler(FoodController foodController,
+                        OrderController orderController,
+                        UserInputHandler inputHandler,
+                        ConsoleOutput output,
+                        BooleanSupplier databaseAvailable) {
+        this(foodController, orderController, inputHandler, output, databaseAvailable, null);
+    }
+
+    /**
+     * @param databaseAvailable Tells an empty menu apart from an unreachable database
+     * @param receipts Prints receipts off the checkout path (null = print before returning)
+     */
+    public OrderHandler(FoodController foodController,
+                        OrderController orderController,
+                        UserInputHandler inputHandler,
+                        ConsoleOutput output,
+                        BooleanSupplier databaseAvailable,
+                        ReceiptSpooler receipts) {
         this.foodController = foodController;
         this.orderController = orderController;
         this.inputHandler = inputHandler;
+        this.output = output != null ? output : new ConsoleOutput();
+        this.databaseAvailable = databaseAvailable;
+        this.receipts = receipts;
     }
 
     public void handleOrder(Customer currentCustomer) {
@@ -39,19 +87,41 @@ public class OrderHandler {
 
     List<Food> foods = foodController.getAllFoods();
     if (foods.isEmpty()) {
-        System.out.println("No food items available");
+        if (!databaseAvailable.getAsBoolean()) {
+            System.out.println("Menu is temporarily unavailable (database not reachable). Please try again shortly.");
+        } else {
+            System.out.println("No food items available");
+        }
         return;
     }
 
-    List<OrderDetails> orderDetailsList = new ArrayList<>();
+    Cart cart = new Cart();
     char newOrder = 'Y';
 
     while (newOrder == 'Y') {
 
         // ✅ 改成使用 OrderMenuDisplay
-        OrderMenuDisplay.displayOrderMenu(foods);
+        OrderMenuDisplay.displayOrderMenu(foods, output);
+
+        String choice = inputHandler.readString(
+                "Choose a food item (1 to " + foods.size() + ") or type a name to search: ").trim();
+        if (choice.equalsIgnoreCase("X")) {
+            throw new UserCancelledException();
+        }
 
-        int foodChoice = inputHandler.readInt("Choose a food item (1 to " + foods.size() + "): ");
+        List<Food> choices = foods;
+        int foodChoice;
+        try {
+            foodChoice = Integer.parseInt(choice);
+        } catch (NumberFormatException e) {
+            choices = foodController.searchFoods(choice, SEARCH_RESULTS);
+            if (choices.isEmpty()) {
+                System.out.println("No food matches \"" + choice + "\".\n");
+                continue;
+            }
+            OrderMenuDisplay.displayOrderMenu(choices, output);
+            foodChoice = inputHandler.readInt("Choose a food item (1 to " + choices.size() + "): ");
+        }
 
         if (foodChoice == 0) {
             System.out.println("==========");
@@ -60,12 +130,12 @@ public class OrderHandler {
             break;
         }
 
-        if (foodChoice < 1 || foodChoice > foods.size()) {
+        if (foodChoice < 1 || foodChoice > choices.size()) {
             System.out.println("Invalid choice. Please enter a valid number.\n");
             continue;
         }
 
-        Food selectedFood = foods.get(foodChoice - 1);
+        Food selectedFood = choices.get(foodChoice - 1);
         int quantity;
 
         do {
@@ -76,14 +146,17 @@ public class OrderHandler {
         } while (quantity <= 0);
 
         if (inputHandler.readYesNo("Are you want to order " + selectedFood.getFoodName() + " (Y/N): ")) {
-            OrderDetails orderDetail = new OrderDetails(selectedFood, quantity);
-            orderDetailsList.add(orderDetail);
-            System.out.print("Order placed for " + selectedFood.getFoodName() + ": " + quantity + " qty(s) \n");
+            try {
+                cart.add(selectedFood, quantity);
+                System.out.print("Order placed for " + selectedFood.getFoodName() + ": " + quantity + " qty(s) \n");
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage() + "\n");
+            }
         }
 
         if (inputHandler.readYesNo("Complete Ordering ? (Y/N): ")) {
-            processOrder(currentCustomer, orderDetailsList);
-            orderDetailsList.clear();
+            processOrder(currentCustomer, cart.toOrderDetails());
+            cart.clear();
 
             if (inputHandler.readYesNo("Do you want to proceed another order (Y/N) : ")) {
                 newOrder = 'Y';
@@ -103,7 +176,7 @@ public class OrderHandler {
     }
 
     
-    OrderMenuDisplay.displayOrderSummary(orderDetailsList);
+    OrderMenuDisplay.displayOrderSummary(orderDetailsList, output);
 
     // Payment selection
     displayPaymentOptions();
@@ -147,20 +220,53 @@ public class OrderHandler {
             return;
     }
 
-    // Create order
-    Order order = orderController.createOrder(
-            currentCustomer.getCustomerId(),
-            orderDetailsList,
-            paymentType,
-            cardNumber,
-            expiryDate
-    );
+    // Create order under one key per checkout: a retry reuses it, so a payment
+    // that went through before the failure is not taken a second time
+    String idempotencyKey = UUID.randomUUID().toString();
+    Order order = null;
+    boolean retry = true;
+    while (retry) {
+        try {
+            order = orderController.createOrder(
+                    idempotencyKey,
+                    currentCustomer.getCustomerId(),
+                    orderDetailsList,
+                    paymentType,
+                    cardNumber,
+                    expiryDate
+            );
+            retry = false;
+        } catch (RuntimeException e) {
+            // Outcome unknown (e.g. the database dropped mid-checkout)
+            System.out.println("Order creation failed: " + e.getMessage());
+            retry = inputHandler.readYesNo("Retry payment (Y/N): ");
+        }
+    }
 
-    if (order != null) {
-        displayReceipt(order);
+    if (order == null) {
+        return;
+    }
+    if (receipts != null) {
+        if (receipts.submit(order)) {
+            awaitReceipt();
+        }
+    } else {
+        displayReceipt(order, output);
     }
 }
 
+    /**
+     * Let the spooler put the receipt on the terminal before the next prompt
+     * (its archive append carries on in the background)
+     */
+    private void awaitReceipt() {
+        try {
+            receipts.awaitPrinted(RECEIPT_PRINT_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
 
         /**
      * Display order receipt
@@ -168,29 +274,59 @@ public class OrderHandler {
      * @param order Order to display
      */
     public static void displayReceipt(Order order) {
-        System.out.println("======================================================================");
-        System.out.println("                                 RECEIPT                              ");
-        System.out.println("======================================================================");
-        System.out.println("Order Id : " + order.getOrderId() + "\t\t\tDate : " + order.getOrderDate());
-        System.out.println("==============");
-        System.out.println("Cust ID : " + order.getCustomer().getCustomerId());
-        System.out.println("======================================================================");
+        displayReceipt(order, new ConsoleOutput());
+    }
+
+    /**
+     * Render the order receipt as one frame
+     * 
+     * @param order Order to display
+     * @param out Buffered console output
+     */
+    public static void displayReceipt(Order order, ConsoleOutput out) {
+        out.println(RECEIPT_RULE);
+        out.println("                                 RECEIPT                              ");
+        out.println(RECEIPT_RULE);
+        out.print("Order Id : ").print(order.getOrderId())
+           .print("\t\t\tDate : ").print(order.getOrderDate()).println();
+        out.println("==============");
+        out.print("Cust ID : ").print(order.getCustomer().getCustomerId()).println();
+        out.println(RECEIPT_RULE);
         
-        System.out.println("Food Id \t Food Name\t     Food Price  Qty \t\tTotal Price");
+        out.println("Food Id \t Food Name\t     Food Price  Qty \t\tTotal Price");
         for (OrderDetails detail : order.getOrderDetails()) {
-            System.out.println(detail.toString());
+            appendReceiptLine(out, detail);
         }
-        System.out.println("======================================================================");
+        out.println(RECEIPT_RULE);
         
-        System.out.println("Subtotal :\t\t\t\t\t\tRM " + String.format("%.2f", order.getTotalPrice()));
-        System.out.println("======================================================================");
+        if (order.getDiscountDecimal().signum() > 0) {
+            out.print("Discount :\t\t\t\t\t\tRM -").printMoney(order.getDiscountDecimal()).println();
+        }
+        out.print("Subtotal :\t\t\t\t\t\tRM ").printMoney(order.getTotalPriceDecimal()).println();
+        out.println(RECEIPT_RULE);
         
         PaymentMethod paymentMethod = order.getPaymentMethod();
-        System.out.println(paymentMethod.getPaymentType() + "      : \t\t\t\t\t\tRM " + 
-                         String.format("%.2f", paymentMethod.getBalance()));
+        out.print(paymentMethod.getPaymentType()).print("      : \t\t\t\t\t\tRM ")
+           .printMoney(paymentMethod.getBalanceDecimal()).println();
         
         // Calculate exchange (this would need payment processing info)
-        System.out.println("======================================================================");
+        out.println(RECEIPT_RULE);
+        out.flush();
+    }
+
+    /**
+     * Append one receipt line (same layout as OrderDetails.toString)
+     */
+    private static void appendReceiptLine(ConsoleOutput out, OrderDetails detail) {
+        if (detail.getFood() == null || detail.getQuantity() < 1) {
+            out.println();
+            return;
+        }
+        out.print(detail.getFood().getFoodId()).print("\t ")
+           .print(detail.getFood().getFoodName()).print("\t\t ")
+           .printMoney(detail.getUnitPriceDecimal()).print("\t ")
+           .print(detail.getQuantity()).print("\t\t ")
+           .printMoney(detail.getSubtotalDecimal()).println();
     }
 
         /**
@@ -4,6 +4,7 @@ import java.util.List;
 
 import model.Food;
 import model.OrderDetails;
+import presentation.General.ConsoleOutput;
 
 /**
  * Order menu display utilities
@@ -17,30 +18,51 @@ public final class OrderMenuDisplay {
      * Display the selectable food menu used during ordering (index, name, price).
      */
     public static void displayOrderMenu(List<Food> foods) {
-        System.out.println("============================ []Order Menu[] ======================");
+        displayOrderMenu(foods, new ConsoleOutput());
+    }
+
+    /**
+     * Render the selectable food menu as one frame
+     */
+    public static void displayOrderMenu(List<Food> foods, ConsoleOutput out) {
+        out.println("============================ []Order Menu[] ======================");
         int index = 1;
         for (Food food : foods) {
-            System.out.printf("%3d. %-30s RM %6.2f%n", index++, food.getFoodName(), food.getFoodPrice());
+            out.padLeft(index++, 3).print(". ").padRight(food.getFoodName(), 30)
+               .print(" RM ").padMoney(food.getFoodPrice(), 6).println();
         }
-        System.out.println("  0. Exit Order");
-        System.out.println("==============================================================");
+        out.println("  0. Exit Order");
+        out.println("==============================================================");
+        out.flush();
     }
 
     /**
      * Display a short order summary (line items + subtotal)
      */
     public static void displayOrderSummary(List<OrderDetails> details) {
-        System.out.println("==================== Order Summary ====================");
-        System.out.printf("%-6s %-25s %8s %6s %12s%n", "ID", "Name", "Unit", "Qty", "Subtotal");
+        displayOrderSummary(details, new ConsoleOutput());
+    }
+
+    /**
+     * Render the order summary as one frame
+     */
+    public static void displayOrderSummary(List<OrderDetails> details, ConsoleOutput out) {
+        out.println("==================== Order Summary ====================");
+        out.println("ID     Name                          Unit    Qty     Subtotal");
         double total = 0.0;
         for (OrderDetails d : details) {
             if (d == null || d.getFood() == null) continue;
-            System.out.printf("%6d %-25s RM %6.2f %4d RM %8.2f%n",
-                    d.getFood().getFoodId(), d.getFood().getFoodName(), d.getUnitPriceDecimal().doubleValue(), d.getQuantity(), d.getSubtotal());
+            out.padLeft(d.getFood().getFoodId(), 6).print(' ')
+               .padRight(d.getFood().getFoodName(), 25)
+               .print(" RM ").padMoney(d.getUnitPriceDecimal().doubleValue(), 6)
+               .print(' ').padLeft(d.getQuantity(), 4)
+               .print(" RM ").padMoney(d.getSubtotal(), 8).println();
             total += d.getSubtotal();
         }
-        System.out.println("-------------------------------------------------------");
-        System.out.printf("%45s RM %8.2f%n", "Total:", total);
-        System.out.println("=======================================================\n");
+        out.println("-------------------------------------------------------");
+        out.padLeft("Total:", 45).print(" RM ").padMoney(total, 8).println();
+        out.println("=======================================================");
+        out.println();
+        out.flush();
     }
 }
@@ -0,0 +1,153 @@
+package presentation.Order;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Receipt Archive
+ * Appends rendered receipts to memory-mapped segment files
+ * (receipts-00000.log, receipts-00001.log, ...). A segment is mapped once
+ * at its full size and receipts are copied straight into the mapping; when
+ * the next receipt does not fit, the segment is trimmed to what was
+ * written and a new one is started. Only the newest segments are kept.
+ * Nothing is created on disk until the first receipt is appended.
+ * Not thread-safe: written by the ReceiptSpooler thread only.
+ */
+public class ReceiptArchive implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 4 * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+    private static final String PREFIX = "receipts-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int index = -1;
+    private long rotations;
+    private boolean closed;
+
+    public ReceiptArchive(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    /**
+     * @param directory Where segment files are written
+     * @param segmentBytes Size of one segment
+     * @param maxSegments Segments kept (oldest are deleted)
+     */
+    public ReceiptArchive(Path directory, int segmentBytes, int maxSegments) {
+        if (segmentBytes <= 0 || maxSegments <= 0) {
+            throw new IllegalArgumentException("Segment size and count must be greater than 0");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Append one rendered receipt
+     *
+     * @throws IOException if the archive is closed, or a segment cannot be created or mapped
+     */
+    public void append(byte[] bytes, int offset, int length) throws IOException {
+        if (closed) {
+            throw new IOException("Receipt archive is closed");
+        }
+        if (segment == null) {
+            Files.createDirectories(directory);
+            index = lastIndex() + 1;
+            openSegment(length);
+        } else if (segment.remaining() < length) {
+            finishSegment();
+            index++;
+            rotations++;
+            openSegment(length);
+        }
+        segment.put(bytes, offset, length);
+    }
+
+    /**
+     * Segment currently written to (null before the first receipt)
+     */
+    public Path currentSegment() {
+        return segment == null ? null : segmentPath(index);
+    }
+
+    public long getRotations() {
+        return rotations;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (segment != null) {
+            finishSegment();
+            segment = null;
+        }
+    }
+
+    private void openSegment(int minimumBytes) throws IOException {
+        channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minimumBytes));
+        deleteOldSegments();
+    }
+
+    /**
+     * Flush the mapping and cut the file to the bytes actually written
+     */
+    private void finishSegment() throws IOException {
+        segment.force();
+        try {
+            channel.truncate(segment.position());
+        } catch (IOException e) {
+            // Some platforms refuse while the file is mapped: the tail stays zero-filled
+        }
+        channel.close();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Integer> indexes = segmentIndexes();
+        for (int i = 0; i < indexes.size() - maxSegments; i++) {
+            Files.deleteIfExists(segmentPath(indexes.get(i)));
+        }
+    }
+
+    private int lastIndex() throws IOException {
+        List<Integer> indexes = segmentIndexes();
+        return indexes.isEmpty() ? -1 : indexes.get(indexes.size() - 1);
+    }
+
+    private List<Integer> segmentIndexes() throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    indexes.add(Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+        Collections.sort(indexes);
+        return indexes;
+    }
+
+    private Path segmentPath(int segmentIndex) {
+        return directory.resolve(String.format("%s%05d%s", PREFIX, segmentIndex, SUFFIX));
+    }
+}
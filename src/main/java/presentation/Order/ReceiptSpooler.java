@@ -0,0 +1,341 @@
+package presentation.Order;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+import model.Order;
+import presentation.General.ConsoleOutput;
+
+/**
+ * Receipt Spooler
+ * Takes committed orders off the checkout path: submit() only queues the
+ * order, and a background thread renders each receipt into reused buffers,
+ * writes it to the terminal in one call and appends it to the receipt
+ * archive (if any).
+ * The queue is bounded. When it is full, submit() waits briefly
+ * (backpressure) and then drops the receipt, counting it; the order itself
+ * is already saved either way. Submits hold a shared lock while they
+ * queue, and close() takes it exclusively to stop intake, so every queued
+ * receipt is one the worker or close() still writes. Receipts submitted
+ * after close are printed inline and not archived.
+ * Callers that prompt next wait in awaitPrinted() so the receipt reaches the
+ * terminal first; only the archive append stays behind the caller.
+ */
+public class ReceiptSpooler implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 256;
+    public static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 50;
+    /** Directory for the receipt archive (-Dpos.receiptArchiveDir=...), default "receipts" */
+    public static final String ARCHIVE_DIR_PROPERTY = "pos.receiptArchiveDir";
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<Order> queue;
+    private final long offerTimeoutMillis;
+    private final PrintStream terminal;
+    private final ReceiptArchive archive;
+    private final BiConsumer<Order, ConsoleOutput> renderer;
+    private final Thread worker;
+
+    // Reused for every receipt (worker thread only)
+    private final ReceiptBuffer rendered = new ReceiptBuffer();
+    private final ConsoleOutput frame =
+            new ConsoleOutput(new PrintStream(rendered, false, StandardCharsets.UTF_8), ConsoleOutput.DEFAULT_CAPACITY);
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong printed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong backpressured = new AtomicLong();
+    private final AtomicLong archiveFailures = new AtomicLong();
+    private volatile int highWaterMark;
+    /** Shared by submits while they queue; held exclusively to close intake */
+    private final ReadWriteLock intake = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+    /** Receipts accepted but not yet written (queued or being rendered) */
+    private int outstanding;
+    /** Receipts accepted but not yet on the terminal (archive append may still follow) */
+    private int unprinted;
+
+    /**
+     * Spooler over System.out with the archive in the configured directory
+     */
+    public static ReceiptSpooler fromSystemProperties() {
+        Path directory = Path.of(System.getProperty(ARCHIVE_DIR_PROPERTY, "receipts"));
+        return new ReceiptSpooler(DEFAULT_CAPACITY, DEFAULT_OFFER_TIMEOUT_MILLIS, null,
+                new ReceiptArchive(directory), OrderHandler::displayReceipt);
+    }
+
+    /**
+     * @param capacity Receipts that can wait in the queue
+     * @param offerTimeoutMillis How long submit() waits for room before dropping
+     * @param terminal Stream receipts are printed to (null = System.out at print time)
+     * @param archive Archive receipts are appended to (null = terminal only)
+     * @param renderer Renders one receipt into a frame
+     */
+    public ReceiptSpooler(int capacity, long offerTimeoutMillis, PrintStream terminal,
+                          ReceiptArchive archive, BiConsumer<Order, ConsoleOutput> renderer) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.terminal = terminal;
+        this.archive = archive;
+        this.renderer = renderer;
+        this.worker = new Thread(this::run, "receipt-spooler");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue the receipt of a committed order
+     *
+     * @param order Saved order
+     * @return false if the receipt was dropped because the queue stayed full
+     */
+    public boolean submit(Order order) {
+        submitted.incrementAndGet();
+        intake.readLock().lock();
+        try {
+            if (!closed) {
+                return enqueue(order);
+            }
+        } finally {
+            intake.readLock().unlock();
+        }
+        // Late receipts after shutdown are printed inline rather than lost (the archive is closed)
+        synchronized (frame) {
+            write(order, false);
+        }
+        return true;
+    }
+
+    // Caller holds the intake lock (shared), so close() cannot start draining meanwhile
+    private boolean enqueue(Order order) {
+        synchronized (this) {
+            outstanding++;
+            unprinted++;
+        }
+        boolean queued = queue.offer(order);
+        if (!queued) {
+            backpressured.incrementAndGet();
+            try {
+                queued = queue.offer(order, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            dropped.incrementAndGet();
+            settled();
+            done();
+            System.err.println("Receipt queue full, receipt for order " + order.getOrderId() + " not printed");
+            return false;
+        }
+        int depth = queue.size();
+        if (depth > highWaterMark) {
+            highWaterMark = depth;
+        }
+        return true;
+    }
+
+    /**
+     * Wait until every accepted receipt has been written
+     *
+     * @param timeoutMillis Maximum wait
+     * @return true if the spooler is idle
+     */
+    public synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (outstanding > 0) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Wait until every accepted receipt is on the terminal, without waiting
+     * for its archive append
+     *
+     * @param timeoutMillis Maximum wait
+     * @return true if nothing accepted is still waiting to be printed
+     */
+    public synchronized boolean awaitPrinted(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (unprinted > 0) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting work, write what is queued, then close the archive
+     */
+    @Override
+    public void close() {
+        intake.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            intake.writeLock().unlock();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Left behind only if the join was interrupted
+        Order order;
+        while ((order = queue.poll()) != null) {
+            synchronized (frame) {
+                write(order, true);
+            }
+            done();
+        }
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                System.err.println("Error closing receipt archive: " + e.getMessage());
+            }
+        }
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getPrinted() {
+        return printed.get();
+    }
+
+    /** Receipts dropped because the queue stayed full */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /** Submits that found the queue full and had to wait */
+    public long getBackpressured() {
+        return backpressured.get();
+    }
+
+    public long getArchiveFailures() {
+        return archiveFailures.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /** Deepest the queue has been */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    private void run() {
+        while (true) {
+            Order order;
+            try {
+                order = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                if (closed) {
+                    break;
+                }
+                continue;
+            }
+            if (order == null) {
+                if (closed) {
+                    break;
+                }
+                continue;
+            }
+            try {
+                synchronized (frame) {
+                    write(order, true);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Error printing receipt for order " + order.getOrderId() + ": " + e.getMessage());
+            } finally {
+                done();
+            }
+        }
+    }
+
+    /**
+     * Render into the reused buffers, then print (and archive) the same bytes
+     *
+     * @param queued Taken from the queue: counted by awaitPrinted() and archived
+     */
+    private void write(Order order, boolean queued) {
+        try {
+            rendered.reset();
+            renderer.accept(order, frame);
+            frame.flush();
+
+            PrintStream out = terminal != null ? terminal : System.out;
+            out.write(rendered.array(), 0, rendered.size());
+            out.flush();
+            printed.incrementAndGet();
+        } finally {
+            if (queued) {
+                settled();
+            }
+        }
+
+        if (queued && archive != null) {
+            try {
+                archive.append(rendered.array(), 0, rendered.size());
+            } catch (IOException e) {
+                archiveFailures.incrementAndGet();
+                System.err.println("Error archiving receipt for order " + order.getOrderId() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private synchronized void settled() {
+        unprinted--;
+        if (unprinted == 0) {
+            notifyAll();
+        }
+    }
+
+    private synchronized void done() {
+        outstanding--;
+        if (outstanding == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Byte buffer whose array can be written out without copying
+     */
+    private static final class ReceiptBuffer extends ByteArrayOutputStream {
+        ReceiptBuffer() {
+            super(4096);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package repository.cache;
+
+/**
+ * Cache Invalidator
+ * Announces that a cached entry changed, so every cache holding it (in this
+ * process or, through InvalidationBus, in other POS instances) drops it.
+ */
+@FunctionalInterface
+public interface CacheInvalidator {
+
+    /**
+     * Kinds of cached data that can be invalidated
+     */
+    enum Topic {
+        /** Menu items (key = food ID) */
+        FOOD,
+        /** Customer profiles (key = customer ID) */
+        CUSTOMER
+    }
+
+    /** Invalidator that does nothing (single instance, no caches to notify) */
+    CacheInvalidator NONE = (topic, key) -> { };
+
+    /**
+     * Announce that one entry changed
+     *
+     * @param topic Kind of data
+     * @param key Entry ID
+     */
+    void invalidate(Topic topic, int key);
+
+    /**
+     * Announce that any entry of a topic may have changed (e.g. after a bulk
+     * import). Does nothing unless the invalidator keeps caches to drop.
+     *
+     * @param topic Kind of data
+     */
+    default void invalidateAll(Topic topic) {
+    }
+}
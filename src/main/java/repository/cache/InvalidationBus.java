@@ -0,0 +1,540 @@
+package repository.cache;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Invalidation Bus
+ * Spreads cache invalidations between POS instances sharing one database,
+ * over UDP (unicast to a list of peers, or one multicast group).
+ * Invalidations are applied to local subscribers at once, then buffered and
+ * sent in batches every few milliseconds; repeated keys are sent once, and a
+ * topic with too many changed keys is sent as "everything changed".
+ * Each datagram carries the sender's sequence number. A receiver that sees
+ * a gap (a lost datagram) reloads everything instead of guessing, and an
+ * idle sender repeats its last sequence number as a heartbeat so a lost
+ * final batch is noticed too.
+ * Without a port configured the bus is local only.
+ * Follows SOLID: Single Responsibility Principle
+ */
+public class InvalidationBus implements CacheInvalidator, AutoCloseable {
+
+    /** UDP port to listen on; enables the network bus */
+    public static final String PORT_PROPERTY = "pos.invalidation.port";
+    /** Comma-separated host:port peers, or one multicast group:port */
+    public static final String PEERS_PROPERTY = "pos.invalidation.peers";
+    public static final long DEFAULT_BATCH_MILLIS = 20;
+    public static final long DEFAULT_HEARTBEAT_MILLIS = 1_000;
+
+    // Wire format: magic, sender, sequence, kind, entry count, then (topic, key) entries
+    static final int MAGIC = 0x504F5331;
+    static final byte KIND_BATCH = 0;
+    static final byte KIND_HEARTBEAT = 1;
+    static final int ALL_FLAG = 0x80;
+    static final int HEADER_BYTES = 4 + 8 + 8 + 1 + 2;
+    static final int ENTRY_BYTES = 1 + 4;
+    static final int MAX_DATAGRAM_BYTES = 1_400;
+    static final int MAX_ENTRIES = (MAX_DATAGRAM_BYTES - HEADER_BYTES) / ENTRY_BYTES;
+    /** Distinct keys per topic per batch before the topic is sent as "everything changed" */
+    static final int COALESCE_LIMIT = 128;
+
+    private static final Topic[] TOPICS = Topic.values();
+
+    private final DatagramChannel channel;
+    private final List<InetSocketAddress> peers = new CopyOnWriteArrayList<>();
+    private final List<List<Subscription>> subscriptions = new ArrayList<>();
+    private final long senderId = ThreadLocalRandom.current().nextLong();
+    private final long heartbeatNanos;
+
+    // Pending batch, guarded by itself
+    private final Object pendingLock = new Object();
+    private final int[][] pendingKeys = new int[TOPICS.length][COALESCE_LIMIT * 2];
+    private final int[] pendingCount = new int[TOPICS.length];
+    private final boolean[] pendingAll = new boolean[TOPICS.length];
+
+    // Sender state, flusher thread only
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES);
+    private long sequence;
+    private long lastSendNanos = System.nanoTime();
+
+    // Receiver state, receiver thread only
+    private final Map<Long, Long> lastSequenceBySender = new HashMap<>();
+
+    private final ScheduledExecutorService flusher;
+    private final Thread receiver;
+    private volatile boolean running;
+
+    private final LongAdder published = new LongAdder();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong packetsSent = new AtomicLong();
+    private final AtomicLong packetsReceived = new AtomicLong();
+    private final AtomicLong remoteInvalidations = new AtomicLong();
+    private final AtomicLong gaps = new AtomicLong();
+
+    /**
+     * Local-only bus: invalidations reach subscribers in this process only
+     */
+    public InvalidationBus() {
+        this.channel = null;
+        this.heartbeatNanos = 0;
+        this.flusher = null;
+        this.receiver = null;
+        initSubscriptions();
+    }
+
+    private InvalidationBus(DatagramChannel channel, List<InetSocketAddress> peers,
+                            long batchMillis, long heartbeatMillis) {
+        this.channel = channel;
+        this.peers.addAll(peers);
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        initSubscriptions();
+        this.running = true;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "invalidation-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, batchMillis, batchMillis, TimeUnit.MILLISECONDS);
+        this.receiver = new Thread(this::receiveLoop, "invalidation-receive");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    /**
+     * Network bus with the default batching and heartbeat intervals
+     *
+     * @param port UDP port to listen on (0 = any free port)
+     * @param peers Peers to send to; a multicast address is joined as a group
+     * @return Running bus
+     * @throws IOException if the socket cannot be opened
+     */
+    public static InvalidationBus open(int port, List<InetSocketAddress> peers) throws IOException {
+        return open(port, peers, DEFAULT_BATCH_MILLIS, DEFAULT_HEARTBEAT_MILLIS);
+    }
+
+    /**
+     * Network bus
+     *
+     * @param port UDP port to listen on (0 = any free port)
+     * @param peers Peers to send to; a multicast address is joined as a group
+     * @param batchMillis How long invalidations are buffered before sending
+     * @param heartbeatMillis Idle time before the last sequence number is repeated
+     * @return Running bus
+     * @throws IOException if the socket cannot be opened
+     */
+    public static InvalidationBus open(int port, List<InetSocketAddress> peers,
+                                       long batchMillis, long heartbeatMillis) throws IOException {
+        InetSocketAddress group = null;
+        for (InetSocketAddress peer : peers) {
+            if (peer.getAddress() != null && peer.getAddress().isMulticastAddress()) {
+                group = peer;
+            }
+        }
+        DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, group != null);
+            channel.bind(new InetSocketAddress(port));
+            if (group != null) {
+                // Loopback on so instances on the same machine hear each other
+                NetworkInterface nic = multicastInterface();
+                channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, nic);
+                channel.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+                channel.join(group.getAddress(), nic);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new InvalidationBus(channel, peers, batchMillis, heartbeatMillis);
+    }
+
+    /**
+     * Bus configured by pos.invalidation.port / pos.invalidation.peers;
+     * local only when no port is set or the socket cannot be opened
+     *
+     * @return Bus
+     */
+    public static InvalidationBus fromSystemProperties() {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null || port.isBlank()) {
+            return new InvalidationBus();
+        }
+        try {
+            List<InetSocketAddress> peers = new ArrayList<>();
+            String list = System.getProperty(PEERS_PROPERTY, "");
+            for (String peer : list.split(",")) {
+                if (!peer.isBlank()) {
+                    int colon = peer.lastIndexOf(':');
+                    peers.add(new InetSocketAddress(peer.substring(0, colon).trim(),
+                            Integer.parseInt(peer.substring(colon + 1).trim())));
+                }
+            }
+            return open(Integer.parseInt(port.trim()), peers);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error starting invalidation bus: " + e.getMessage());
+            return new InvalidationBus();
+        }
+    }
+
+    /**
+     * Call back when entries of a topic change (here or in another instance)
+     *
+     * @param topic Topic
+     * @param onKey Receives the changed key
+     * @param onAll Called when every entry may have changed (e.g. after a gap)
+     */
+    public void subscribe(Topic topic, IntConsumer onKey, Runnable onAll) {
+        subscriptions.get(topic.ordinal()).add(new Subscription(onKey, onAll));
+    }
+
+    public void addPeer(InetSocketAddress peer) {
+        peers.add(peer);
+    }
+
+    @Override
+    public void invalidate(Topic topic, int key) {
+        published.increment();
+        for (Subscription s : subscriptions.get(topic.ordinal())) {
+            s.onKey.accept(key);
+        }
+        if (channel == null) {
+            return;
+        }
+        int t = topic.ordinal();
+        synchronized (pendingLock) {
+            if (pendingAll[t]) {
+                coalesced.incrementAndGet();
+                return;
+            }
+            if (pendingCount[t] == pendingKeys[t].length) {
+                compact(t);
+            }
+            pendingKeys[t][pendingCount[t]++] = key;
+        }
+    }
+
+    /**
+     * Announce that every entry of a topic changed
+     *
+     * @param topic Topic
+     */
+    @Override
+    public void invalidateAll(Topic topic) {
+        published.increment();
+        for (Subscription s : subscriptions.get(topic.ordinal())) {
+            s.onAll.run();
+        }
+        if (channel == null) {
+            return;
+        }
+        synchronized (pendingLock) {
+            markAll(topic.ordinal());
+        }
+    }
+
+    /**
+     * Drop repeated keys from a full buffer; give up on single keys if still too many
+     */
+    private void compact(int t) {
+        int[] keys = pendingKeys[t];
+        int before = pendingCount[t];
+        int unique = sortUnique(keys, before);
+        coalesced.addAndGet(before - unique);
+        pendingCount[t] = unique;
+        if (unique > COALESCE_LIMIT) {
+            markAll(t);
+        }
+    }
+
+    private void markAll(int t) {
+        coalesced.addAndGet(pendingCount[t]);
+        pendingCount[t] = 0;
+        pendingAll[t] = true;
+    }
+
+    private static int sortUnique(int[] keys, int count) {
+        Arrays.sort(keys, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || keys[unique - 1] != keys[i]) {
+                keys[unique++] = keys[i];
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Send the pending batch, or a heartbeat when idle (flusher thread)
+     */
+    void flush() {
+        int[][] keys = new int[TOPICS.length][];
+        boolean[] all = new boolean[TOPICS.length];
+        int entries = 0;
+        synchronized (pendingLock) {
+            for (int t = 0; t < TOPICS.length; t++) {
+                all[t] = pendingAll[t];
+                if (!all[t] && pendingCount[t] > 0) {
+                    int before = pendingCount[t];
+                    int unique = sortUnique(pendingKeys[t], before);
+                    coalesced.addAndGet(before - unique);
+                    keys[t] = Arrays.copyOf(pendingKeys[t], unique);
+                    entries += unique;
+                }
+                entries += all[t] ? 1 : 0;
+                pendingAll[t] = false;
+                pendingCount[t] = 0;
+            }
+        }
+        try {
+            if (entries == 0) {
+                if (System.nanoTime() - lastSendNanos >= heartbeatNanos) {
+                    startPacket(KIND_HEARTBEAT, sequence);
+                    send(0);
+                }
+                return;
+            }
+            int inPacket = 0;
+            for (int t = 0; t < TOPICS.length; t++) {
+                if (all[t]) {
+                    if (inPacket == 0) {
+                        startPacket(KIND_BATCH, ++sequence);
+                    }
+                    sendBuffer.put((byte) (t | ALL_FLAG)).putInt(0);
+                    if (++inPacket == MAX_ENTRIES) {
+                        send(inPacket);
+                        inPacket = 0;
+                    }
+                    continue;
+                }
+                if (keys[t] == null) {
+                    continue;
+                }
+                for (int key : keys[t]) {
+                    if (inPacket == 0) {
+                        startPacket(KIND_BATCH, ++sequence);
+                    }
+                    sendBuffer.put((byte) t).putInt(key);
+                    if (++inPacket == MAX_ENTRIES) {
+                        send(inPacket);
+                        inPacket = 0;
+                    }
+                }
+            }
+            if (inPacket > 0) {
+                send(inPacket);
+            }
+        } catch (IOException e) {
+            // Receivers see the skipped sequence numbers as a gap and reload
+            System.err.println("Error sending invalidations: " + e.getMessage());
+        }
+    }
+
+    private void startPacket(byte kind, long seq) {
+        sendBuffer.clear();
+        sendBuffer.putInt(MAGIC).putLong(senderId).putLong(seq).put(kind).putShort((short) 0);
+    }
+
+    private void send(int entryCount) throws IOException {
+        sendBuffer.putShort(HEADER_BYTES - 2, (short) entryCount);
+        sendBuffer.flip();
+        for (InetSocketAddress peer : peers) {
+            sendBuffer.rewind();
+            channel.send(sendBuffer, peer);
+        }
+        packetsSent.incrementAndGet();
+        lastSendNanos = System.nanoTime();
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_BYTES);
+        while (running) {
+            buffer.clear();
+            try {
+                channel.receive(buffer);
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("Error receiving invalidations: " + e.getMessage());
+                }
+                continue;
+            }
+            buffer.flip();
+            handle(buffer);
+        }
+    }
+
+    /**
+     * Apply one datagram (receiver thread)
+     */
+    void handle(ByteBuffer packet) {
+        if (packet.remaining() < HEADER_BYTES || packet.getInt() != MAGIC) {
+            return;
+        }
+        long sender = packet.getLong();
+        long seq = packet.getLong();
+        byte kind = packet.get();
+        int count = packet.getShort() & 0xFFFF;
+        if (sender == senderId || packet.remaining() < count * ENTRY_BYTES) {
+            return;
+        }
+        packetsReceived.incrementAndGet();
+
+        Long last = lastSequenceBySender.get(sender);
+        if (last == null) {
+            // First contact: our caches were loaded after anything we missed
+            lastSequenceBySender.put(sender, seq);
+        } else if (seq <= last) {
+            // Heartbeat with nothing new, or a duplicate
+            return;
+        } else {
+            lastSequenceBySender.put(sender, seq);
+            boolean gap = kind == KIND_HEARTBEAT || seq != last + 1;
+            if (gap) {
+                gaps.incrementAndGet();
+                reloadAll();
+                return;
+            }
+        }
+        if (kind != KIND_BATCH) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int topic = packet.get() & 0xFF;
+            int key = packet.getInt();
+            boolean all = (topic & ALL_FLAG) != 0;
+            topic &= ~ALL_FLAG;
+            if (topic >= TOPICS.length) {
+                continue;
+            }
+            remoteInvalidations.incrementAndGet();
+            for (Subscription s : subscriptions.get(topic)) {
+                if (all) {
+                    s.onAll.run();
+                } else {
+                    s.onKey.accept(key);
+                }
+            }
+        }
+    }
+
+    private void reloadAll() {
+        for (List<Subscription> topic : subscriptions) {
+            for (Subscription s : topic) {
+                s.onAll.run();
+            }
+        }
+    }
+
+    private void initSubscriptions() {
+        for (int i = 0; i < TOPICS.length; i++) {
+            subscriptions.add(new CopyOnWriteArrayList<>());
+        }
+    }
+
+    private static NetworkInterface multicastInterface() throws SocketException {
+        Enumeration<NetworkInterface> all = NetworkInterface.getNetworkInterfaces();
+        while (all.hasMoreElements()) {
+            NetworkInterface nic = all.nextElement();
+            if (nic.isUp() && nic.supportsMulticast() && !nic.isLoopback()) {
+                return nic;
+            }
+        }
+        return NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+    }
+
+    public boolean isNetworked() {
+        return channel != null;
+    }
+
+    /**
+     * Local UDP port, or -1 for a local-only bus
+     */
+    public int getLocalPort() {
+        if (channel == null) {
+            return -1;
+        }
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getPacketsSent() {
+        return packetsSent.get();
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived.get();
+    }
+
+    public long getRemoteInvalidations() {
+        return remoteInvalidations.get();
+    }
+
+    public long getGaps() {
+        return gaps.get();
+    }
+
+    @Override
+    public void close() {
+        if (channel == null || !running) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Last batch goes out before the socket closes
+        flush();
+        running = false;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing invalidation bus: " + e.getMessage());
+        }
+    }
+
+    private static final class Subscription {
+        final IntConsumer onKey;
+        final Runnable onAll;
+
+        Subscription(IntConsumer onKey, Runnable onAll) {
+            this.onKey = onKey;
+            this.onAll = onAll;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package repository.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Weighted LRU Cache
+ * Like LruCache, but bounded by the total weight of its values instead of
+ * their number, so a few large entries (e.g. long order histories) cannot
+ * crowd out memory the way many small ones would. Least recently used
+ * entries are evicted until the total fits. Thread-safe.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class WeightedLruCache<K, V> {
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ToIntFunction<? super V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long totalWeight;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxWeight Maximum total weight of all entries
+     * @param ttlMillis Time-to-live per entry in milliseconds
+     * @param weigher Weight of one value (at least 1)
+     */
+    public WeightedLruCache(long maxWeight, long ttlMillis, ToIntFunction<? super V> weigher) {
+        this(maxWeight, ttlMillis, weigher, System::nanoTime);
+    }
+
+    /**
+     * @param maxWeight Maximum total weight of all entries
+     * @param ttlMillis Time-to-live per entry in milliseconds
+     * @param weigher Weight of one value (at least 1)
+     * @param clock Nanosecond clock (injectable for tests)
+     */
+    public WeightedLruCache(long maxWeight, long ttlMillis, ToIntFunction<? super V> weigher, LongSupplier clock) {
+        if (maxWeight <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache weight and TTL must be greater than 0");
+        }
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.weigher = weigher;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a live value, counting a hit or a miss
+     *
+     * @param key Key
+     * @return Value, or null if absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (clock.getAsLong() - entry.expiresAt > 0) {
+            remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Store a value, evicting least recently used entries until the total
+     * weight fits (a value heavier than the whole cache is not kept)
+     */
+    public synchronized void put(K key, V value) {
+        remove(key);
+        int weight = Math.max(1, weigher.applyAsInt(value));
+        if (weight > maxWeight) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, weight, clock.getAsLong() + ttlNanos));
+        totalWeight += weight;
+        evictToFit();
+    }
+
+    /**
+     * Replace a live value in place (keeping its expiry); absent or expired keys are left alone
+     *
+     * @param key Key
+     * @param update New value from the current one
+     * @return true if the value was replaced
+     */
+    public synchronized boolean updateIfPresent(K key, UnaryOperator<V> update) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || clock.getAsLong() - entry.expiresAt > 0) {
+            return false;
+        }
+        V value = update.apply(entry.value);
+        int weight = Math.max(1, weigher.applyAsInt(value));
+        remove(key);
+        if (weight > maxWeight) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, weight, entry.expiresAt));
+        totalWeight += weight;
+        evictToFit();
+        return true;
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, expirations, entries.size());
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            totalWeight -= removed.weight;
+        }
+    }
+
+    private void evictToFit() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && eldest.hasNext()) {
+            totalWeight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final int weight;
+        private final long expiresAt;
+
+        Entry(V value, int weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
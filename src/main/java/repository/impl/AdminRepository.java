@@ -1,6 +1,7 @@
 package repository.impl;
 
 import repository.interfaces.IAdminRepository;
+import config.ConnectionProvider;
 import config.DatabaseConnection; 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -9,11 +10,30 @@ import java.sql.SQLException;
 
 public class AdminRepository implements IAdminRepository {
 
+    private final ConnectionProvider connectionProvider;
+
+    /**
+     * Constructor with ConnectionProvider for dependency injection
+     *
+     * @param connectionProvider Connection provider
+     */
+    public AdminRepository(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+
+    /**
+     * Default constructor using singleton DatabaseConnection
+     * Maintains backward compatibility
+     */
+    public AdminRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+
     @Override
     public boolean authenticate(String name, String password) {
         String sql = "SELECT * FROM admins WHERE name = ? AND password = ?";
         
-        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+        try (Connection conn = connectionProvider.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setString(1, name);
@@ -0,0 +1,353 @@
+package repository.impl;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import model.Customer;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import repository.interfaces.IBatchCheckoutRepository;
+
+/**
+ * Batch Checkout Repository Implementation
+ * Bulk reads with IN (...) lists and a single transaction of batched
+ * debits (decided against locked balances) and inserts for many orders at once
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class BatchCheckoutRepository implements IBatchCheckoutRepository {
+    
+    /** Upper bound on ids per IN (...) list */
+    static final int MAX_IN_LIST = 500;
+    
+    private static final String FIND_CUSTOMERS = "SELECT * FROM customers WHERE customer_id IN (";
+    private static final String FIND_PAYMENT_METHODS = "SELECT * FROM payment_methods WHERE customer_id IN (";
+    private static final String LOCK_BALANCES = 
+            "SELECT payment_method_id, balance FROM payment_methods WHERE payment_method_id IN (";
+    private static final String FIND_USED_KEYS = 
+            "SELECT idempotency_key FROM order_idempotency WHERE idempotency_key IN (";
+    private static final String DEBIT_IF_COVERED = 
+            "UPDATE payment_methods SET balance = balance - ? WHERE payment_method_id = ? AND balance >= ?";
+    private static final String INSERT_KEY = 
+            "INSERT INTO order_idempotency (idempotency_key, order_id, customer_id, created_at) VALUES (?, ?, ?, ?)";
+    
+    private final ConnectionProvider connectionProvider;
+    
+    /**
+     * Constructor with ConnectionProvider for dependency injection
+     * 
+     * @param connectionProvider Connection provider
+     */
+    public BatchCheckoutRepository(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+    
+    /**
+     * Default constructor using singleton DatabaseConnection
+     * Maintains backward compatibility
+     */
+    public BatchCheckoutRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+    
+    @Override
+    public Map<Integer, Customer> findCustomersByIds(Collection<Integer> customerIds) {
+        Map<Integer, Customer> customers = new HashMap<>();
+        try (Connection conn = connectionProvider.getConnection()) {
+            for (List<Integer> chunk : chunk(customerIds)) {
+                try (PreparedStatement stmt = conn.prepareStatement(inList(FIND_CUSTOMERS, chunk.size()))) {
+                    bindIds(stmt, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Customer customer = CustomerRepository.mapResultSetToCustomer(rs);
+                            customers.put(customer.getCustomerId(), customer);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding customers by IDs: " + e.getMessage());
+        }
+        return customers;
+    }
+    
+    @Override
+    public Map<Integer, List<PaymentMethod>> findPaymentMethodsByCustomerIds(Collection<Integer> customerIds) {
+        Map<Integer, List<PaymentMethod>> paymentMethods = new HashMap<>();
+        try (Connection conn = connectionProvider.getConnection()) {
+            for (List<Integer> chunk : chunk(customerIds)) {
+                try (PreparedStatement stmt = conn.prepareStatement(inList(FIND_PAYMENT_METHODS, chunk.size()))) {
+                    bindIds(stmt, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            PaymentMethod paymentMethod = PaymentMethodRepository.mapResultSetToPaymentMethod(rs);
+                            paymentMethods.computeIfAbsent(paymentMethod.getCustomerId(), id -> new ArrayList<>())
+                                          .add(paymentMethod);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding payment methods by customer IDs: " + e.getMessage());
+        }
+        return paymentMethods;
+    }
+    
+    @Override
+    public Outcome[] debitAndSaveAll(List<Order> orders, List<BigDecimal> charges, List<String> idempotencyKeys) {
+        if (orders.size() != charges.size() || orders.size() != idempotencyKeys.size()) {
+            throw new IllegalArgumentException("Each order needs exactly one charge and one key slot");
+        }
+        Outcome[] outcomes = new Outcome[orders.size()];
+        if (orders.isEmpty()) {
+            return outcomes;
+        }
+        
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            
+            // Orders whose key was used before (or earlier in this batch) are not paid again
+            Set<String> usedKeys = findUsedKeys(conn, idempotencyKeys);
+            for (int i = 0; i < orders.size(); i++) {
+                String key = idempotencyKeys.get(i);
+                if (key != null && !usedKeys.add(key)) {
+                    outcomes[i] = Outcome.DUPLICATE;
+                }
+            }
+            
+            // Decide the debits against locked balances, in order, so no update count is needed
+            Map<Integer, BigDecimal> balances = lockBalances(conn, orders, outcomes);
+            List<Order> paidOrders = new ArrayList<>();
+            try (PreparedStatement debitStmt = conn.prepareStatement(DEBIT_IF_COVERED)) {
+                for (int i = 0; i < orders.size(); i++) {
+                    if (outcomes[i] != null) {
+                        continue;
+                    }
+                    int paymentMethodId = orders.get(i).getPaymentMethod().getPaymentMethodId();
+                    BigDecimal balance = balances.get(paymentMethodId);
+                    BigDecimal charge = charges.get(i);
+                    if (balance == null || balance.compareTo(charge) < 0) {
+                        outcomes[i] = Outcome.DECLINED;
+                        continue;
+                    }
+                    balances.put(paymentMethodId, balance.subtract(charge));
+                    outcomes[i] = Outcome.PAID;
+                    paidOrders.add(orders.get(i));
+                    debitStmt.setBigDecimal(1, charge);
+                    debitStmt.setInt(2, paymentMethodId);
+                    debitStmt.setBigDecimal(3, charge);
+                    debitStmt.addBatch();
+                }
+                if (!paidOrders.isEmpty()) {
+                    // With rewriteBatchedStatements MySQL may report SUCCESS_NO_INFO; only 0 is a miss
+                    for (int count : debitStmt.executeBatch()) {
+                        if (count == 0) {
+                            throw new SQLException("Locked balance changed during batch checkout");
+                        }
+                    }
+                }
+            }
+            
+            if (!paidOrders.isEmpty()) {
+                insertOrders(conn, paidOrders);
+                insertDetails(conn, paidOrders);
+                insertKeys(conn, orders, idempotencyKeys, outcomes);
+            }
+            
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                }
+            }
+            System.err.println("Error saving order batch: " + e.getMessage());
+            throw new RuntimeException("Failed to save order batch", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error resetting auto-commit: " + e.getMessage());
+                }
+            }
+        }
+        return outcomes;
+    }
+    
+    /**
+     * Keys of this batch that are already in order_idempotency (locked, so a
+     * concurrent reservation waits for this transaction)
+     */
+    private Set<String> findUsedKeys(Connection conn, List<String> idempotencyKeys) throws SQLException {
+        List<String> keys = new ArrayList<>(new LinkedHashSet<>(idempotencyKeys));
+        keys.remove(null);
+        Set<String> used = new HashSet<>();
+        for (int from = 0; from < keys.size(); from += MAX_IN_LIST) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_IN_LIST, keys.size()));
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    inList(FIND_USED_KEYS, chunk.size()) + " FOR UPDATE")) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        used.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+        return used;
+    }
+    
+    /**
+     * Current balances of the payment methods still to be charged, with the rows locked
+     */
+    private Map<Integer, BigDecimal> lockBalances(Connection conn, List<Order> orders, Outcome[] outcomes)
+            throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (outcomes[i] == null) {
+                ids.add(orders.get(i).getPaymentMethod().getPaymentMethodId());
+            }
+        }
+        Map<Integer, BigDecimal> balances = new HashMap<>();
+        for (List<Integer> chunk : chunk(ids)) {
+            try (PreparedStatement stmt = conn.prepareStatement(inList(LOCK_BALANCES, chunk.size()) + " FOR UPDATE")) {
+                bindIds(stmt, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        balances.put(rs.getInt(1), rs.getBigDecimal(2));
+                    }
+                }
+            }
+        }
+        return balances;
+    }
+    
+    /**
+     * Link each paid order's key to its new order ID in one batch
+     */
+    private void insertKeys(Connection conn, List<Order> orders, List<String> idempotencyKeys, Outcome[] outcomes)
+            throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        boolean any = false;
+        try (PreparedStatement keyStmt = conn.prepareStatement(INSERT_KEY)) {
+            for (int i = 0; i < orders.size(); i++) {
+                if (outcomes[i] == Outcome.PAID && idempotencyKeys.get(i) != null) {
+                    keyStmt.setString(1, idempotencyKeys.get(i));
+                    keyStmt.setInt(2, orders.get(i).getOrderId());
+                    keyStmt.setInt(3, orders.get(i).getCustomer().getCustomerId());
+                    keyStmt.setTimestamp(4, now);
+                    keyStmt.addBatch();
+                    any = true;
+                }
+            }
+            if (any) {
+                keyStmt.executeBatch();
+            }
+        }
+    }
+    
+    /**
+     * Insert order headers in one batch and read back their generated IDs
+     */
+    private void insertOrders(Connection conn, List<Order> orders) throws SQLException {
+        try (PreparedStatement orderStmt = conn.prepareStatement(OrderRepository.INSERT_ORDER,
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (Order order : orders) {
+                orderStmt.setInt(1, order.getCustomer().getCustomerId());
+                orderStmt.setTimestamp(2, OrderRepository.orderTimestamp(order));
+                orderStmt.setBigDecimal(3, order.getTotalPriceDecimal());
+                orderStmt.setInt(4, order.getPaymentMethod().getPaymentMethodId());
+                orderStmt.setString(5, order.getPaymentMethod().getPaymentType());
+                orderStmt.setString(6, order.getStatus());
+                orderStmt.addBatch();
+            }
+            orderStmt.executeBatch();
+            
+            try (ResultSet generatedKeys = orderStmt.getGeneratedKeys()) {
+                for (Order order : orders) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Missing generated key for batched order insert");
+                    }
+                    order.setOrderId(generatedKeys.getInt(1));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Insert all order details and sales_daily increments in one batch each
+     */
+    private void insertDetails(Connection conn, List<Order> orders) throws SQLException {
+        try (PreparedStatement detailStmt = conn.prepareStatement(OrderRepository.INSERT_ORDER_DETAIL);
+             PreparedStatement salesStmt = conn.prepareStatement(OrderRepository.UPSERT_SALES_DAILY)) {
+            for (Order order : orders) {
+                if (order.getOrderDetails() == null) {
+                    continue;
+                }
+                Date salesDate = OrderRepository.salesDate(OrderRepository.orderTimestamp(order));
+                for (OrderDetails detail : order.getOrderDetails()) {
+                    detailStmt.setInt(1, order.getOrderId());
+                    detailStmt.setInt(2, detail.getFood().getFoodId());
+                    detailStmt.setInt(3, detail.getQuantity());
+                    detailStmt.setBigDecimal(4, detail.getUnitPriceDecimal());
+                    detailStmt.setBigDecimal(5, detail.getSubtotalDecimal());
+                    detailStmt.setBigDecimal(6, detail.getDiscountDecimal());
+                    detailStmt.addBatch();
+                    
+                    salesStmt.setDate(1, salesDate);
+                    salesStmt.setInt(2, detail.getFood().getFoodId());
+                    salesStmt.setString(3, order.getPaymentMethod().getPaymentType());
+                    salesStmt.setInt(4, detail.getQuantity());
+                    salesStmt.setBigDecimal(5, detail.getNetSubtotalDecimal());
+                    salesStmt.addBatch();
+                }
+            }
+            detailStmt.executeBatch();
+            salesStmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Split distinct ids into IN (...) sized chunks
+     */
+    private static List<List<Integer>> chunk(Collection<Integer> ids) {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IN_LIST) {
+            chunks.add(distinct.subList(from, Math.min(from + MAX_IN_LIST, distinct.size())));
+        }
+        return chunks;
+    }
+    
+    private static String inList(String prefix, int size) {
+        StringBuilder sql = new StringBuilder(prefix.length() + size * 2 + 1).append(prefix);
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        return sql.append(')').toString();
+    }
+    
+    private static void bindIds(PreparedStatement stmt, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(i + 1, ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package repository.impl;
+
+import java.sql.*;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import model.Customer;
+import model.Food;
+import repository.interfaces.IBulkImportRepository;
+
+/**
+ * Bulk Import Repository Implementation
+ * Batched inserts for CSV imports, one transaction per batch
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class BulkImportRepository implements IBulkImportRepository {
+    
+    private static final String FOOD_NAMES = "SELECT food_name FROM foods";
+    private static final String PHONE_NUMBERS = "SELECT phone_number FROM customers";
+    private static final String INSERT_FOOD = "INSERT INTO foods (food_name, food_price, food_type) VALUES (?, ?, ?)";
+    private static final String INSERT_CUSTOMER =
+            "INSERT INTO customers (name, age, phone_number, gender, password) VALUES (?, ?, ?, ?, ?)";
+    private static final int FETCH_SIZE = 1000;
+    
+    private final ConnectionProvider connectionProvider;
+    
+    /**
+     * Constructor with ConnectionProvider for dependency injection
+     * 
+     * @param connectionProvider Connection provider
+     */
+    public BulkImportRepository(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+    
+    /**
+     * Default constructor using singleton DatabaseConnection
+     * Maintains backward compatibility
+     */
+    public BulkImportRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+    
+    @Override
+    public void forEachFoodName(Consumer<String> consumer) {
+        forEachValue(FOOD_NAMES, consumer);
+    }
+    
+    @Override
+    public void forEachPhoneNumber(Consumer<String> consumer) {
+        forEachValue(PHONE_NUMBERS, consumer);
+    }
+    
+    private void forEachValue(String sql, Consumer<String> consumer) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading existing keys: " + e.getMessage());
+            throw new RuntimeException("Failed to read existing keys", e);
+        }
+    }
+    
+    @Override
+    public int insertFoods(List<Food> foods) {
+        return insertBatch(INSERT_FOOD, foods, (stmt, food) -> {
+            stmt.setString(1, food.getFoodName());
+            stmt.setDouble(2, food.getFoodPrice());
+            stmt.setString(3, food.getFoodType());
+        }, Food::setFoodId);
+    }
+    
+    @Override
+    public int insertCustomers(List<Customer> customers) {
+        return insertBatch(INSERT_CUSTOMER, customers, (stmt, customer) -> {
+            stmt.setString(1, customer.getName());
+            stmt.setInt(2, customer.getAge());
+            stmt.setString(3, customer.getPhoneNumber());
+            stmt.setString(4, customer.getGender());
+            stmt.setString(5, customer.getPassword());
+        }, Customer::setCustomerId);
+    }
+    
+    /**
+     * Binds one row onto the insert statement
+     */
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+    
+    /**
+     * Insert rows as one batch in one transaction and hand each its generated ID
+     */
+    private <T> int insertBatch(String sql, List<T> rows, RowBinder<T> binder, ObjIntConsumer<T> idSetter) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (T row : rows) {
+                    binder.bind(stmt, row);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (T row : rows) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated key for batched import insert");
+                        }
+                        idSetter.accept(row, generatedKeys.getInt(1));
+                    }
+                }
+            }
+            
+            conn.commit();
+            return rows.size();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                }
+            }
+            System.err.println("Error inserting import batch: " + e.getMessage());
+            throw new RuntimeException("Failed to insert import batch", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error resetting auto-commit: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package repository.impl;
+
+import java.util.Optional;
+
+import model.Customer;
+import repository.cache.CacheInvalidator;
+import repository.cache.CacheStats;
+import repository.cache.LruCache;
+import repository.interfaces.ICustomerRepository;
+
+/**
+ * Caching Customer Repository
+ * Cache-aside decorator: findById is served from a bounded LRU cache and
+ * falls back to the wrapped repository on a miss. Writes go straight to the
+ * wrapped repository and invalidate the cached profile.
+ * Cached customers are copied in and out so callers cannot change cached state.
+ * Saves are also announced to the CacheInvalidator, so other POS instances
+ * drop their copy.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class CachingCustomerRepository implements ICustomerRepository {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    private static CachingCustomerRepository instance;
+
+    private final ICustomerRepository delegate;
+    private final LruCache<Integer, Customer> cache;
+    private final CacheInvalidator invalidator;
+
+    public CachingCustomerRepository(ICustomerRepository delegate, LruCache<Integer, Customer> cache) {
+        this(delegate, cache, CacheInvalidator.NONE);
+    }
+
+    public CachingCustomerRepository(ICustomerRepository delegate, LruCache<Integer, Customer> cache,
+                                     CacheInvalidator invalidator) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.invalidator = invalidator;
+    }
+
+    public CachingCustomerRepository(ICustomerRepository delegate) {
+        this(delegate, new LruCache<>(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS));
+    }
+
+    /**
+     * Shared instance over the default CustomerRepository, so every service
+     * that looks up customers uses (and invalidates) the same cache
+     *
+     * @return Shared caching repository
+     */
+    public static synchronized CachingCustomerRepository getInstance() {
+        if (instance == null) {
+            instance = new CachingCustomerRepository(new CustomerRepository());
+        }
+        return instance;
+    }
+
+    @Override
+    public Optional<Customer> findById(int customerId) {
+        Customer cached = cache.get(customerId);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        Optional<Customer> loaded = delegate.findById(customerId);
+        loaded.ifPresent(this::remember);
+        return loaded;
+    }
+
+    @Override
+    public Optional<Customer> findByPhoneNumber(String phoneNumber) {
+        Optional<Customer> loaded = delegate.findByPhoneNumber(phoneNumber);
+        loaded.ifPresent(this::remember);
+        return loaded;
+    }
+
+    @Override
+    public Optional<Customer> authenticate(int customerId, String password) {
+        // Always checked against the database; a successful login warms the cache
+        Optional<Customer> loaded = delegate.authenticate(customerId, password);
+        loaded.ifPresent(this::remember);
+        return loaded;
+    }
+
+    @Override
+    public Customer save(Customer customer) {
+        invalidate(customer.getCustomerId());
+        Customer saved = delegate.save(customer);
+        invalidate(saved.getCustomerId());
+        invalidator.invalidate(CacheInvalidator.Topic.CUSTOMER, saved.getCustomerId());
+        return saved;
+    }
+
+    @Override
+    public int getNextCustomerId() {
+        return delegate.getNextCustomerId();
+    }
+
+    @Override
+    public boolean existsByPhoneNumber(String phoneNumber) {
+        return delegate.existsByPhoneNumber(phoneNumber);
+    }
+
+    /**
+     * Drop a cached profile after it changed outside this repository
+     *
+     * @param customerId Customer ID
+     */
+    public void invalidate(int customerId) {
+        cache.invalidate(customerId);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private void remember(Customer customer) {
+        cache.put(customer.getCustomerId(), copyOf(customer));
+    }
+
+    private static Customer copyOf(Customer customer) {
+        return new Customer(customer.getCustomerId(), customer.getName(), customer.getAge(),
+                customer.getPhoneNumber(), customer.getGender(), customer.getPassword());
+    }
+}
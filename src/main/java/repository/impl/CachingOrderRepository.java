@@ -0,0 +1,281 @@
+package repository.impl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import model.Customer;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import repository.cache.CacheStats;
+import repository.cache.WeightedLruCache;
+import repository.interfaces.IBatchCheckoutRepository;
+import repository.interfaces.IIdempotentOrderRepository;
+import repository.interfaces.IOrderRepository;
+
+/**
+ * Caching Order Repository
+ * Keeps each customer's order history (newest first) after its first load,
+ * which the wrapped repository does with one query. Only a complete load
+ * is cached: if the read fails, nothing is kept and the next lookup tries
+ * again. A successful save
+ * puts the new order at the front of the cached history instead of
+ * dropping it, so repeat "my orders" lookups never go back to the
+ * database. Histories are bounded by their total weight (orders plus
+ * detail lines) with LRU eviction, and expire after a TTL so orders placed
+ * on other tills show up.
+ * Returned histories are shared, read-only lists: O(1) to hand out,
+ * whatever their length. The cache keeps its own copies of the orders
+ * (with read-only detail lists), so a saved order that its caller, an
+ * event subscriber or the receipt queue still holds cannot change a cached
+ * history; the copies are shared by every reader and must not be changed.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class CachingOrderRepository implements IOrderRepository, IIdempotentOrderRepository {
+
+    /** Total orders plus detail lines kept across all cached histories */
+    public static final long DEFAULT_MAX_WEIGHT = 200_000;
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    private static final int STRIPES = 64;
+
+    private final IOrderRepository delegate;
+    private final IIdempotentOrderRepository idempotentDelegate;
+    private final WeightedLruCache<Integer, List<Order>> histories;
+    /** Saves per customer stripe, so a load that raced a save is not cached */
+    private final long[] saveVersions = new long[STRIPES];
+
+    /**
+     * @param delegate Repository holding the orders (also used for keyed saves if it supports them)
+     * @param histories Cache of histories by customer ID
+     */
+    public CachingOrderRepository(IOrderRepository delegate, WeightedLruCache<Integer, List<Order>> histories) {
+        this.delegate = delegate;
+        this.idempotentDelegate = delegate instanceof IIdempotentOrderRepository
+                ? (IIdempotentOrderRepository) delegate : null;
+        this.histories = histories;
+    }
+
+    public CachingOrderRepository(IOrderRepository delegate) {
+        this(delegate, new WeightedLruCache<>(DEFAULT_MAX_WEIGHT, DEFAULT_TTL_MILLIS,
+                CachingOrderRepository::weigh));
+    }
+
+    @Override
+    public List<Order> findByCustomerId(int customerId) {
+        try {
+            return loadCustomerHistory(customerId);
+        } catch (RuntimeException e) {
+            // Already reported by the wrapped repository; not cached, so the next lookup retries
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public List<Order> loadCustomerHistory(int customerId) {
+        List<Order> cached = histories.get(customerId);
+        if (cached != null) {
+            return cached;
+        }
+        long version = saveVersion(customerId);
+        List<Order> complete = delegate.loadCustomerHistory(customerId);
+        List<Order> copies = new ArrayList<>(complete.size());
+        for (Order order : complete) {
+            copies.add(snapshot(order));
+        }
+        List<Order> loaded = Collections.unmodifiableList(copies);
+        synchronized (saveVersions) {
+            if (saveVersions[stripe(customerId)] == version) {
+                histories.put(customerId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    @Override
+    public Optional<Order> findById(int orderId) {
+        return delegate.findById(orderId);
+    }
+
+    @Override
+    public List<Order> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Order save(Order order) {
+        Order saved = delegate.save(order);
+        append(saved);
+        return saved;
+    }
+
+    @Override
+    public Order save(Order order, String idempotencyKey) {
+        Order saved = idempotentDelegate().save(order, idempotencyKey);
+        append(saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<Order> debitAndSave(Order order, BigDecimal charge, String idempotencyKey) {
+        Optional<Order> saved = idempotentDelegate().debitAndSave(order, charge, idempotencyKey);
+        saved.ifPresent(this::append);
+        return saved;
+    }
+
+    @Override
+    public boolean reserveIdempotencyKey(int customerId, String idempotencyKey, long staleAfterMillis) {
+        return idempotentDelegate().reserveIdempotencyKey(customerId, idempotencyKey, staleAfterMillis);
+    }
+
+    @Override
+    public Optional<Integer> findOrderIdByIdempotencyKey(int customerId, String idempotencyKey) {
+        return idempotentDelegate().findOrderIdByIdempotencyKey(customerId, idempotencyKey);
+    }
+
+    @Override
+    public void releaseIdempotencyKey(int customerId, String idempotencyKey) {
+        idempotentDelegate().releaseIdempotencyKey(customerId, idempotencyKey);
+    }
+
+    @Override
+    public int getNextOrderId() {
+        return delegate.getNextOrderId();
+    }
+
+    @Override
+    public int streamOrderReport(ReportRowHandler handler) {
+        return delegate.streamOrderReport(handler);
+    }
+
+    /**
+     * Batch checkout that also appends the orders it saves to cached histories
+     *
+     * @param batch Batch checkout repository writing to the same database
+     * @return Decorated batch checkout repository
+     */
+    public IBatchCheckoutRepository appendingTo(IBatchCheckoutRepository batch) {
+        return new IBatchCheckoutRepository() {
+            @Override
+            public Map<Integer, Customer> findCustomersByIds(Collection<Integer> customerIds) {
+                return batch.findCustomersByIds(customerIds);
+            }
+
+            @Override
+            public Map<Integer, List<PaymentMethod>> findPaymentMethodsByCustomerIds(Collection<Integer> customerIds) {
+                return batch.findPaymentMethodsByCustomerIds(customerIds);
+            }
+
+            @Override
+            public Outcome[] debitAndSaveAll(List<Order> orders, List<BigDecimal> charges,
+                                             List<String> idempotencyKeys) {
+                Outcome[] outcomes = batch.debitAndSaveAll(orders, charges, idempotencyKeys);
+                for (int i = 0; i < outcomes.length; i++) {
+                    if (outcomes[i] == Outcome.PAID) {
+                        append(orders.get(i));
+                    }
+                }
+                return outcomes;
+            }
+        };
+    }
+
+    /**
+     * Drop a cached history after it changed outside this repository
+     *
+     * @param customerId Customer ID
+     */
+    public void invalidate(int customerId) {
+        histories.invalidate(customerId);
+    }
+
+    public void invalidateAll() {
+        histories.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return histories.getStats();
+    }
+
+    /**
+     * Put a saved order at the front of its customer's cached history (if cached)
+     */
+    private void append(Order order) {
+        if (order == null || order.getCustomer() == null) {
+            return;
+        }
+        int customerId = order.getCustomer().getCustomerId();
+        Order copy = snapshot(order);
+        synchronized (saveVersions) {
+            saveVersions[stripe(customerId)]++;
+            histories.updateIfPresent(customerId, history -> {
+                for (Order existing : history) {
+                    if (existing.getOrderId() == order.getOrderId()) {
+                        return history;
+                    }
+                }
+                List<Order> updated = new ArrayList<>(history.size() + 1);
+                updated.add(copy);
+                updated.addAll(history);
+                return Collections.unmodifiableList(updated);
+            });
+        }
+    }
+
+    /**
+     * Copy of an order as it is now, with a read-only copy of its detail list
+     */
+    private static Order snapshot(Order order) {
+        List<OrderDetails> details = order.getOrderDetails();
+        PaymentMethod pm = order.getPaymentMethod();
+        PaymentMethod pmCopy = null;
+        if (pm != null) {
+            pmCopy = new PaymentMethod(pm.getPaymentMethodId(), pm.getCustomerId(), pm.getPaymentType(),
+                    0, pm.getCardNumber(), pm.getExpiryDate());
+            pmCopy.setBalanceDecimal(pm.getBalanceDecimal());
+        }
+        return new Order.Builder()
+                .orderId(order.getOrderId())
+                .orderDate(order.getOrderDate() == null ? null : new Date(order.getOrderDate().getTime()))
+                .customer(order.getCustomer())
+                .orderDetails(details == null ? null : Collections.unmodifiableList(new ArrayList<>(details)))
+                .totalPrice(order.getTotalPriceDecimal())
+                .paymentMethod(pmCopy)
+                .status(order.getStatus())
+                .build();
+    }
+
+    private long saveVersion(int customerId) {
+        synchronized (saveVersions) {
+            return saveVersions[stripe(customerId)];
+        }
+    }
+
+    private IIdempotentOrderRepository idempotentDelegate() {
+        if (idempotentDelegate == null) {
+            throw new UnsupportedOperationException("Wrapped order repository does not support idempotency keys");
+        }
+        return idempotentDelegate;
+    }
+
+    private static int stripe(int customerId) {
+        return (customerId & 0x7fffffff) % STRIPES;
+    }
+
+    /**
+     * Weight of a history: one per order and per detail line
+     */
+    static int weigh(List<Order> history) {
+        int weight = 0;
+        for (Order order : history) {
+            List<OrderDetails> details = order.getOrderDetails();
+            weight += 1 + (details == null ? 0 : details.size());
+        }
+        return weight;
+    }
+}
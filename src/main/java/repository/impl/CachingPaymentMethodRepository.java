@@ -0,0 +1,179 @@
+package repository.impl;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import model.PaymentMethod;
+import repository.cache.CacheStats;
+import repository.cache.LruCache;
+import repository.interfaces.IPaymentMethodRepository;
+
+/**
+ * Caching Payment Method Repository
+ * Shared cache of the parts of a payment method that do not change
+ * (ID, owner, type, card metadata), keyed by (customerId, paymentType) and
+ * by payment method ID. The balance is never cached: a hit skips the
+ * (customerId, paymentType) query and reads the row by its primary key, so
+ * every caller sees the current balance. Money moves through debit(), a
+ * conditional update that reports the balance it left behind.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class CachingPaymentMethodRepository implements IPaymentMethodRepository {
+
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = 30 * 60 * 1000L;
+
+    private static CachingPaymentMethodRepository instance;
+
+    private final IPaymentMethodRepository delegate;
+    private final LruCache<String, Profile> profiles;
+
+    public CachingPaymentMethodRepository(IPaymentMethodRepository delegate, LruCache<String, Profile> profiles) {
+        this.delegate = delegate;
+        this.profiles = profiles;
+    }
+
+    public CachingPaymentMethodRepository(IPaymentMethodRepository delegate) {
+        this(delegate, new LruCache<>(DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS));
+    }
+
+    /**
+     * Shared instance over the default PaymentMethodRepository
+     *
+     * @return Shared caching repository
+     */
+    public static synchronized CachingPaymentMethodRepository getInstance() {
+        if (instance == null) {
+            instance = new CachingPaymentMethodRepository(new PaymentMethodRepository());
+        }
+        return instance;
+    }
+
+    /**
+     * Always reads the current row (and drops the profile of a deleted one)
+     */
+    @Override
+    public Optional<PaymentMethod> findById(int paymentMethodId) {
+        Optional<PaymentMethod> current = delegate.findById(paymentMethodId);
+        Profile profile = profiles.get(idKey(paymentMethodId));
+        if (profile != null && current.isEmpty()) {
+            forget(profile);
+        }
+        return current;
+    }
+
+    @Override
+    public List<PaymentMethod> findByCustomerId(int customerId) {
+        List<PaymentMethod> paymentMethods = delegate.findByCustomerId(customerId);
+        for (PaymentMethod paymentMethod : paymentMethods) {
+            remember(paymentMethod);
+        }
+        return paymentMethods;
+    }
+
+    @Override
+    public Optional<PaymentMethod> findByCustomerIdAndType(int customerId, String paymentType) {
+        String key = key(customerId, paymentType);
+        Profile profile = profiles.get(key);
+        if (profile != null) {
+            Optional<PaymentMethod> current = findById(profile.paymentMethodId);
+            if (current.isPresent()) {
+                return current;
+            }
+        }
+        Optional<PaymentMethod> loaded = delegate.findByCustomerIdAndType(customerId, paymentType);
+        loaded.ifPresent(this::remember);
+        return loaded;
+    }
+
+    @Override
+    public PaymentMethod save(PaymentMethod paymentMethod) {
+        profiles.invalidate(key(paymentMethod.getCustomerId(), paymentMethod.getPaymentType()));
+        profiles.invalidate(idKey(paymentMethod.getPaymentMethodId()));
+        return delegate.save(paymentMethod);
+    }
+
+    @Override
+    public boolean updateBalance(int paymentMethodId, double newBalance) {
+        return delegate.updateBalance(paymentMethodId, newBalance);
+    }
+
+    @Override
+    public Optional<BigDecimal> debit(int paymentMethodId, double amount) {
+        return delegate.debit(paymentMethodId, amount);
+    }
+
+    /**
+     * Drop the cached profile for a customer's payment type
+     */
+    public void invalidate(int customerId, String paymentType) {
+        profiles.invalidate(key(customerId, paymentType));
+    }
+
+    public void invalidateAll() {
+        profiles.invalidateAll();
+    }
+
+    public CacheStats getStats() {
+        return profiles.getStats();
+    }
+
+    private void remember(PaymentMethod paymentMethod) {
+        Profile profile = new Profile(paymentMethod);
+        profiles.put(key(paymentMethod.getCustomerId(), paymentMethod.getPaymentType()), profile);
+        profiles.put(idKey(paymentMethod.getPaymentMethodId()), profile);
+    }
+
+    private void forget(Profile profile) {
+        profiles.invalidate(key(profile.customerId, profile.paymentType));
+        profiles.invalidate(idKey(profile.paymentMethodId));
+    }
+
+    private static String key(int customerId, String paymentType) {
+        return customerId + ":" + (paymentType != null ? paymentType.toUpperCase() : "");
+    }
+
+    private static String idKey(int paymentMethodId) {
+        return "#" + paymentMethodId;
+    }
+
+    /**
+     * Immutable part of a payment method (no balance)
+     */
+    public static final class Profile {
+        private final int paymentMethodId;
+        private final int customerId;
+        private final String paymentType;
+        private final String cardNumber;
+        private final String expiryDate;
+
+        Profile(PaymentMethod paymentMethod) {
+            this.paymentMethodId = paymentMethod.getPaymentMethodId();
+            this.customerId = paymentMethod.getCustomerId();
+            this.paymentType = paymentMethod.getPaymentType();
+            this.cardNumber = paymentMethod.getCardNumber();
+            this.expiryDate = paymentMethod.getExpiryDate();
+        }
+
+        public int getPaymentMethodId() {
+            return paymentMethodId;
+        }
+
+        public int getCustomerId() {
+            return customerId;
+        }
+
+        public String getPaymentType() {
+            return paymentType;
+        }
+
+        public String getCardNumber() {
+            return cardNumber;
+        }
+
+        public String getExpiryDate() {
+            return expiryDate;
+        }
+    }
+}
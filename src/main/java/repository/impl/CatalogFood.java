@@ -0,0 +1,102 @@
+package repository.impl;
+
+import java.math.BigDecimal;
+
+import model.Food;
+
+/**
+ * Catalog Food
+ * Flyweight Food that reads its fields from an OffHeapFoodRepository record
+ * instead of holding them. The first setter call copies the fields in and
+ * detaches the view, so callers can edit it like any other Food.
+ */
+final class CatalogFood extends Food {
+
+    private final OffHeapFoodRepository catalog;
+    private int record;
+    private String name;
+    private boolean detached;
+
+    CatalogFood(OffHeapFoodRepository catalog, int record) {
+        this.catalog = catalog;
+        this.record = record;
+    }
+
+    /**
+     * Point the view at another record (forEach cursor)
+     */
+    void moveTo(int record) {
+        this.record = record;
+        this.name = null;
+    }
+
+    @Override
+    public int getFoodId() {
+        return detached ? super.getFoodId() : catalog.idAt(record);
+    }
+
+    @Override
+    public String getFoodName() {
+        if (detached) {
+            return super.getFoodName();
+        }
+        if (name == null) {
+            name = catalog.nameAt(record);
+        }
+        return name;
+    }
+
+    @Override
+    public double getFoodPrice() {
+        return detached ? super.getFoodPrice() : catalog.priceCentsAt(record) / 100.0;
+    }
+
+    @Override
+    public BigDecimal getFoodPriceDecimal() {
+        return detached ? super.getFoodPriceDecimal() : BigDecimal.valueOf(catalog.priceCentsAt(record), 2);
+    }
+
+    @Override
+    public String getFoodType() {
+        return detached ? super.getFoodType() : catalog.typeAt(record);
+    }
+
+    @Override
+    public void setFoodId(int foodId) {
+        detach();
+        super.setFoodId(foodId);
+    }
+
+    @Override
+    public void setFoodName(String foodName) {
+        detach();
+        super.setFoodName(foodName);
+    }
+
+    @Override
+    public void setFoodPrice(double foodPrice) {
+        detach();
+        super.setFoodPrice(foodPrice);
+    }
+
+    @Override
+    public void setFoodType(String foodType) {
+        detach();
+        super.setFoodType(foodType);
+    }
+
+    private void detach() {
+        if (detached) {
+            return;
+        }
+        int id = getFoodId();
+        String foodName = getFoodName();
+        long cents = catalog.priceCentsAt(record);
+        String type = getFoodType();
+        detached = true;
+        super.setFoodId(id);
+        super.setFoodName(foodName);
+        super.setFoodPrice(cents / 100.0);
+        super.setFoodType(type);
+    }
+}
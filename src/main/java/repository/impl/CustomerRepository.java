@@ -21,6 +21,9 @@ public class CustomerRepository implements ICustomerRepository {
     private static final String INSERT = "INSERT INTO customers (name, age, phone_number, gender, password) VALUES (?, ?, ?, ?, ?)";
     private static final String GET_MAX_ID = "SELECT MAX(customer_id) as max_id FROM customers";
     private static final String EXISTS_BY_PHONE = "SELECT COUNT(*) FROM customers WHERE phone_number = ?";
+
+    /** Profile lookups may use a replica; uniqueness checks before insert stay on the primary */
+    static final long LOOKUP_STALENESS_MILLIS = 1_000;
     
     private final ConnectionProvider connectionProvider;
     
@@ -43,7 +46,7 @@ public class CustomerRepository implements ICustomerRepository {
     
     @Override
     public Optional<Customer> findById(int customerId) {
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(LOOKUP_STALENESS_MILLIS);
              PreparedStatement stmt = conn.prepareStatement(FIND_BY_ID)) {
             
             stmt.setInt(1, customerId);
@@ -60,7 +63,7 @@ public class CustomerRepository implements ICustomerRepository {
     
     @Override
     public Optional<Customer> findByPhoneNumber(String phoneNumber) {
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(LOOKUP_STALENESS_MILLIS);
              PreparedStatement stmt = conn.prepareStatement(FIND_BY_PHONE)) {
             
             stmt.setString(1, phoneNumber);
@@ -77,7 +80,7 @@ public class CustomerRepository implements ICustomerRepository {
     
     @Override
     public Optional<Customer> authenticate(int customerId, String password) {
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(LOOKUP_STALENESS_MILLIS);
              PreparedStatement stmt = conn.prepareStatement(AUTHENTICATE)) {
             
             stmt.setInt(1, customerId);
@@ -156,7 +159,7 @@ public class CustomerRepository implements ICustomerRepository {
      * Map ResultSet to Customer object
      * Follows DRY principle - single method for mapping
      */
-    private Customer mapResultSetToCustomer(ResultSet rs) throws SQLException {
+    static Customer mapResultSetToCustomer(ResultSet rs) throws SQLException {
         Customer customer = new Customer();
         customer.setCustomerId(rs.getInt("customer_id"));
         customer.setName(rs.getString("name"));
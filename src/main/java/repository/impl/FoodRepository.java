@@ -26,6 +26,9 @@ public class FoodRepository implements IFoodRepository {
     private static final String GET_MAX_ID = "SELECT MAX(food_id) as max_id FROM foods";
     private static final String EXISTS = "SELECT COUNT(*) FROM foods WHERE food_id = ?";
     private static final String EXISTS_BY_NAME = "SELECT COUNT(*) FROM foods WHERE LOWER(food_name) = LOWER(?)";
+
+    /** Menu reads may use a replica (an admin price edit can take a few seconds to show) */
+    static final long MENU_STALENESS_MILLIS = 5_000;
     
     private final ConnectionProvider connectionProvider;
     
@@ -54,7 +57,7 @@ public class FoodRepository implements IFoodRepository {
      */
     @Override
     public Optional<Food> findById(int foodId) {
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(MENU_STALENESS_MILLIS);
              PreparedStatement stmt = conn.prepareStatement(FIND_BY_ID)) {
             
             stmt.setInt(1, foodId);
@@ -100,7 +103,7 @@ public class FoodRepository implements IFoodRepository {
     @Override
     public List<Food> findAll() {
         List<Food> foods = new ArrayList<>();
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(MENU_STALENESS_MILLIS);
              PreparedStatement stmt = conn.prepareStatement(FIND_ALL);
              ResultSet rs = stmt.executeQuery()) {
             
@@ -0,0 +1,671 @@
+package repository.impl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+import model.Food;
+import repository.interfaces.IFoodRepository;
+
+/**
+ * Off-Heap Food Repository
+ * Keeps the whole catalog outside the Java heap, for menus with hundreds of
+ * thousands of items. Each food is a fixed-width record in a direct (or
+ * memory-mapped) buffer; names live once in a UTF-8 string pool and food
+ * types in a small table. Lookups by ID and by name use open-addressing
+ * hash indexes, also off-heap.
+ * Reads return lightweight Food views over the record instead of copies,
+ * and forEach() walks the catalog with a single reused view. A food keeps
+ * its record for the life of the catalog (deleted foods are tombstoned,
+ * never moved), so a view handed out earlier always reads the same food.
+ * Writes go to the wrapped repository first, then patch the catalog.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class OffHeapFoodRepository implements IFoodRepository {
+
+    /** Set to true to serve the menu from the off-heap catalog */
+    public static final String ENABLED_PROPERTY = "pos.offHeapCatalog";
+
+    // Record: id int | name offset int | name length short | type byte | flags byte | price cents long
+    static final int RECORD_BYTES = 20;
+    private static final int ID = 0;
+    private static final int NAME_OFFSET = 4;
+    private static final int NAME_LENGTH = 8;
+    private static final int TYPE = 10;
+    private static final int FLAGS = 11;
+    private static final int PRICE = 12;
+    private static final byte DELETED = 1;
+    // Index slot: key int | record + 1 int (0 = empty)
+    private static final int SLOT_BYTES = 8;
+    private static final int INITIAL_RECORDS = 1024;
+    private static final int INITIAL_POOL_BYTES = 16 * 1024;
+
+    /**
+     * Supplies the buffers the catalog lives in
+     */
+    @FunctionalInterface
+    public interface Allocator {
+        /**
+         * @param region Region name ("records", "strings", "id-index", "name-index")
+         * @param bytes Size needed
+         * @return Zero-filled or previously written buffer of at least that size
+         * @throws IOException if the buffer cannot be created
+         */
+        ByteBuffer allocate(String region, int bytes) throws IOException;
+    }
+
+    /**
+     * Direct buffers (native memory, released when the catalog is collected)
+     */
+    public static Allocator directAllocator() {
+        return (region, bytes) -> ByteBuffer.allocateDirect(bytes);
+    }
+
+    /**
+     * Memory-mapped files, one per region, in the given directory
+     * (the OS pages the catalog in and out; nothing counts against the heap)
+     */
+    public static Allocator mappedAllocator(Path directory) {
+        return (region, bytes) -> {
+            try (FileChannel channel = FileChannel.open(directory.resolve(region + ".bin"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+        };
+    }
+
+    private final IFoodRepository source;
+    private final IFoodRepository reader;
+    private final Allocator allocator;
+    private final StampedLock lock = new StampedLock();
+    /** Type code -> type name; menus have a handful of types */
+    private final List<String> types = new ArrayList<>();
+
+    private ByteBuffer records;
+    private int recordCount;
+    private ByteBuffer pool;
+    private int poolSize;
+    private ByteBuffer idIndex;
+    private int idMask;
+    private ByteBuffer nameIndex;
+    private int nameMask;
+    private int nameEntries;
+    private int liveCount;
+    private boolean idOrdered;
+
+    /**
+     * @param source Repository holding the catalog (writes go here first)
+     * @param reader Repository reload and refresh read from; they may run on
+     *               the invalidation thread, so it should have its own connections
+     * @param allocator Where the catalog's buffers come from
+     */
+    public OffHeapFoodRepository(IFoodRepository source, IFoodRepository reader, Allocator allocator) {
+        this.source = source;
+        this.reader = reader;
+        this.allocator = allocator;
+        reload();
+    }
+
+    /**
+     * @param source Repository holding the catalog (writes go here first, reloads read from it)
+     * @param allocator Where the catalog's buffers come from
+     */
+    public OffHeapFoodRepository(IFoodRepository source, Allocator allocator) {
+        this(source, source, allocator);
+    }
+
+    public OffHeapFoodRepository(IFoodRepository source) {
+        this(source, directAllocator());
+    }
+
+    /**
+     * Re-read the whole catalog from the reader. Known foods are
+     * updated in their records, new ones appended and missing ones
+     * tombstoned, so outstanding views keep pointing at their own food;
+     * the string pool is compacted on the way.
+     */
+    public void reload() {
+        List<Food> foods = reader.findAll();
+        long stamp = lock.writeLock();
+        try {
+            if (records == null) {
+                int capacity = Math.max(INITIAL_RECORDS, Integer.highestOneBit(Math.max(1, foods.size())) * 2);
+                int poolBytes = INITIAL_POOL_BYTES;
+                for (Food food : foods) {
+                    poolBytes += food.getFoodName() == null ? 0 : food.getFoodName().length() * 2;
+                }
+                records = allocate("records", capacity * RECORD_BYTES);
+                pool = allocate("strings", poolBytes);
+                idOrdered = true;
+                rebuildIndexes(capacity * 2);
+            }
+
+            int existing = recordCount;
+            String[] names = new String[existing];
+            for (int record = 0; record < existing; record++) {
+                names[record] = decodeName(record);
+            }
+            BitSet kept = new BitSet(existing);
+            List<Food> added = new ArrayList<>();
+            for (Food food : foods) {
+                int record = indexedRecord(food.getFoodId());
+                if (record < 0 || record >= existing) {
+                    added.add(food);
+                    continue;
+                }
+                int base = record * RECORD_BYTES;
+                names[record] = food.getFoodName();
+                records.put(base + TYPE, typeCode(food.getFoodType()));
+                records.putLong(base + PRICE, cents(food.getFoodPriceDecimal()));
+                if (isDeleted(record)) {
+                    records.put(base + FLAGS, (byte) 0);
+                    liveCount++;
+                }
+                kept.set(record);
+            }
+            for (int record = 0; record < existing; record++) {
+                if (!kept.get(record) && !isDeleted(record)) {
+                    records.put(record * RECORD_BYTES + FLAGS, DELETED);
+                    liveCount--;
+                }
+            }
+
+            // Rewrite every name from the start of the pool, dropping bytes left by renames
+            poolSize = 0;
+            for (int record = 0; record < existing; record++) {
+                writeName(record * RECORD_BYTES, names[record]);
+            }
+            for (Food food : added) {
+                append(food.getFoodId(), food.getFoodName(), food.getFoodType(), cents(food.getFoodPriceDecimal()));
+            }
+            rebuildIndexes(Math.max(idMask + 1, Integer.highestOneBit(Math.max(1, recordCount)) * 4));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Re-read one food from the reader (after it changed elsewhere)
+     *
+     * @param foodId Food ID
+     */
+    public void refresh(int foodId) {
+        Optional<Food> current = reader.findById(foodId);
+        if (current.isPresent()) {
+            store(current.get());
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            markDeleted(foodId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ----- Reads -----
+
+    @Override
+    public Optional<Food> findById(int foodId) {
+        long stamp = lock.readLock();
+        try {
+            int record = findRecord(foodId);
+            return record < 0 ? Optional.empty() : Optional.of(new CatalogFood(this, record));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public Optional<Food> findByName(String foodName) {
+        if (foodName == null) {
+            return Optional.empty();
+        }
+        byte[] name = foodName.getBytes(StandardCharsets.UTF_8);
+        long stamp = lock.readLock();
+        try {
+            int record = findRecordByName(name);
+            return record < 0 ? Optional.empty() : Optional.of(new CatalogFood(this, record));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * All foods ordered by ID, as views over the catalog
+     */
+    @Override
+    public List<Food> findAll() {
+        long stamp = lock.readLock();
+        List<Food> foods;
+        try {
+            foods = new ArrayList<>(liveCount);
+            for (int record = 0; record < recordCount; record++) {
+                if (!isDeleted(record)) {
+                    foods.add(new CatalogFood(this, record));
+                }
+            }
+            if (idOrdered) {
+                return foods;
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        foods.sort(Comparator.comparingInt(Food::getFoodId));
+        return foods;
+    }
+
+    /**
+     * Visit every food with one reused view: allocation-free, but the view
+     * moves on after each call, so copy anything you need to keep
+     *
+     * @param visitor Receives each food in catalog order
+     */
+    public void forEach(Consumer<? super Food> visitor) {
+        CatalogFood cursor = new CatalogFood(this, 0);
+        int count;
+        long stamp = lock.readLock();
+        try {
+            count = recordCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        for (int record = 0; record < count; record++) {
+            if (!isDeletedAt(record)) {
+                cursor.moveTo(record);
+                visitor.accept(cursor);
+            }
+        }
+    }
+
+    @Override
+    public boolean existsById(int foodId) {
+        long stamp = lock.readLock();
+        try {
+            return findRecord(foodId) >= 0;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public boolean existsByName(String foodName) {
+        return findByName(foodName).isPresent();
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return liveCount;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Native memory held by the catalog (records, strings and indexes)
+     */
+    public long getOffHeapBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) records.capacity() + pool.capacity() + idIndex.capacity() + nameIndex.capacity();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ----- Writes: wrapped repository first, then the catalog -----
+
+    @Override
+    public Food save(Food food) {
+        Food saved = source.save(food);
+        store(saved);
+        return saved;
+    }
+
+    @Override
+    public Food update(Food food) {
+        Food updated = source.update(food);
+        store(updated);
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(int foodId) {
+        boolean deleted = source.deleteById(foodId);
+        if (deleted) {
+            long stamp = lock.writeLock();
+            try {
+                markDeleted(foodId);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public int getNextFoodId() {
+        // Other tills add foods too: the database decides
+        return source.getNextFoodId();
+    }
+
+    // ----- Record access for views (each read is consistent on its own) -----
+
+    int idAt(int record) {
+        long stamp = lock.readLock();
+        try {
+            return records.getInt(record * RECORD_BYTES + ID);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    String nameAt(int record) {
+        long stamp = lock.readLock();
+        try {
+            return decodeName(record);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    long priceCentsAt(int record) {
+        long stamp = lock.readLock();
+        try {
+            return records.getLong(record * RECORD_BYTES + PRICE);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    String typeAt(int record) {
+        long stamp = lock.readLock();
+        try {
+            int code = records.get(record * RECORD_BYTES + TYPE) & 0xFF;
+            return code == 0 ? null : types.get(code - 1);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private boolean isDeletedAt(int record) {
+        long stamp = lock.readLock();
+        try {
+            return isDeleted(record);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Patch one food into the catalog. The fields are read before locking:
+     * the food may be one of our own views, whose getters take the read
+     * lock, and the lock is not reentrant.
+     */
+    private void store(Food food) {
+        int foodId = food.getFoodId();
+        String name = food.getFoodName();
+        String type = food.getFoodType();
+        long priceCents = cents(food.getFoodPriceDecimal());
+        long stamp = lock.writeLock();
+        try {
+            upsert(foodId, name, type, priceCents);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ----- Internals (callers hold the lock) -----
+
+    private String decodeName(int record) {
+        int base = record * RECORD_BYTES;
+        byte[] bytes = new byte[records.getShort(base + NAME_LENGTH) & 0xFFFF];
+        pool.get(records.getInt(base + NAME_OFFSET), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean isDeleted(int record) {
+        return records.get(record * RECORD_BYTES + FLAGS) == DELETED;
+    }
+
+    private void upsert(int foodId, String foodName, String type, long priceCents) {
+        ensureIndexRoom();
+        int record = findRecord(foodId);
+        if (record < 0) {
+            append(foodId, foodName, type, priceCents);
+            putId(foodId, recordCount - 1);
+            putName(recordCount - 1);
+            return;
+        }
+        int base = record * RECORD_BYTES;
+        String name = foodName == null ? "" : foodName;
+        if (!name.equals(decodeName(record))) {
+            writeName(base, name);
+            putName(record);
+        }
+        records.put(base + TYPE, typeCode(type));
+        records.putLong(base + PRICE, priceCents);
+    }
+
+    /**
+     * Keep both indexes at most half full; renames leave stale name entries,
+     * so the name index can fill up without the catalog growing
+     */
+    private void ensureIndexRoom() {
+        int slots = idMask + 1;
+        if ((recordCount + 1) * 2 > slots) {
+            rebuildIndexes(slots * 2);
+        } else if ((nameEntries + 1) * 2 > slots) {
+            rebuildIndexes(slots);
+        }
+    }
+
+    private void markDeleted(int foodId) {
+        int record = findRecord(foodId);
+        if (record >= 0) {
+            records.put(record * RECORD_BYTES + FLAGS, DELETED);
+            liveCount--;
+        }
+    }
+
+    private void append(int foodId, String name, String type, long priceCents) {
+        if ((recordCount + 1) * RECORD_BYTES > records.capacity()) {
+            records = grow("records", records, recordCount * RECORD_BYTES, records.capacity() * 2);
+        }
+        int base = recordCount * RECORD_BYTES;
+        if (recordCount > 0 && records.getInt(base - RECORD_BYTES + ID) > foodId) {
+            idOrdered = false;
+        }
+        records.putInt(base + ID, foodId);
+        writeName(base, name);
+        records.put(base + TYPE, typeCode(type));
+        records.put(base + FLAGS, (byte) 0);
+        records.putLong(base + PRICE, priceCents);
+        recordCount++;
+        liveCount++;
+    }
+
+    private void writeName(int base, String name) {
+        byte[] bytes = (name == null ? "" : name).getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Food name is too long");
+        }
+        if (poolSize + bytes.length > pool.capacity()) {
+            pool = grow("strings", pool, poolSize, Math.max(pool.capacity() * 2, poolSize + bytes.length));
+        }
+        pool.put(poolSize, bytes);
+        records.putInt(base + NAME_OFFSET, poolSize);
+        records.putShort(base + NAME_LENGTH, (short) bytes.length);
+        poolSize += bytes.length;
+    }
+
+    private byte typeCode(String type) {
+        if (type == null) {
+            return 0;
+        }
+        int code = types.indexOf(type);
+        if (code < 0) {
+            if (types.size() == 255) {
+                throw new IllegalArgumentException("Too many food types");
+            }
+            types.add(type);
+            code = types.size() - 1;
+        }
+        return (byte) (code + 1);
+    }
+
+    private static long cents(BigDecimal price) {
+        return price == null ? 0 : price.movePointRight(2).longValue();
+    }
+
+    private int findRecord(int foodId) {
+        int record = indexedRecord(foodId);
+        return record < 0 || isDeleted(record) ? -1 : record;
+    }
+
+    /**
+     * Latest record for an ID, tombstoned or not
+     */
+    private int indexedRecord(int foodId) {
+        int slot = mix(foodId) & idMask;
+        while (true) {
+            int stored = idIndex.getInt(slot * SLOT_BYTES + 4);
+            if (stored == 0) {
+                return -1;
+            }
+            if (idIndex.getInt(slot * SLOT_BYTES) == foodId) {
+                return stored - 1;
+            }
+            slot = (slot + 1) & idMask;
+        }
+    }
+
+    private void putId(int foodId, int record) {
+        int slot = mix(foodId) & idMask;
+        while (idIndex.getInt(slot * SLOT_BYTES + 4) != 0 && idIndex.getInt(slot * SLOT_BYTES) != foodId) {
+            slot = (slot + 1) & idMask;
+        }
+        idIndex.putInt(slot * SLOT_BYTES, foodId);
+        idIndex.putInt(slot * SLOT_BYTES + 4, record + 1);
+    }
+
+    /**
+     * Probe the name index; entries left behind by renames simply fail the comparison
+     */
+    private int findRecordByName(byte[] name) {
+        int hash = nameHash(name);
+        int slot = mix(hash) & nameMask;
+        while (true) {
+            int stored = nameIndex.getInt(slot * SLOT_BYTES + 4);
+            if (stored == 0) {
+                return -1;
+            }
+            int record = stored - 1;
+            if (nameIndex.getInt(slot * SLOT_BYTES) == hash && !isDeleted(record) && nameEquals(record, name)) {
+                return record;
+            }
+            slot = (slot + 1) & nameMask;
+        }
+    }
+
+    private void putName(int record) {
+        int base = record * RECORD_BYTES;
+        int hash = pooledNameHash(records.getInt(base + NAME_OFFSET), records.getShort(base + NAME_LENGTH) & 0xFFFF);
+        int slot = mix(hash) & nameMask;
+        while (nameIndex.getInt(slot * SLOT_BYTES + 4) != 0) {
+            slot = (slot + 1) & nameMask;
+        }
+        nameIndex.putInt(slot * SLOT_BYTES, hash);
+        nameIndex.putInt(slot * SLOT_BYTES + 4, record + 1);
+        nameEntries++;
+    }
+
+    private void rebuildIndexes(int slots) {
+        idIndex = allocate("id-index", slots * SLOT_BYTES);
+        nameIndex = allocate("name-index", slots * SLOT_BYTES);
+        // Mapped files keep old contents: start from empty slots
+        for (int i = 0; i < slots * SLOT_BYTES; i += 8) {
+            idIndex.putLong(i, 0);
+            nameIndex.putLong(i, 0);
+        }
+        idMask = slots - 1;
+        nameMask = slots - 1;
+        nameEntries = 0;
+        for (int record = 0; record < recordCount; record++) {
+            if (!isDeleted(record)) {
+                putId(records.getInt(record * RECORD_BYTES + ID), record);
+                putName(record);
+            }
+        }
+    }
+
+    /**
+     * Case-insensitive (ASCII) comparison, like the LOWER() lookups in FoodRepository
+     */
+    private boolean nameEquals(int record, byte[] name) {
+        int base = record * RECORD_BYTES;
+        int length = records.getShort(base + NAME_LENGTH) & 0xFFFF;
+        if (length != name.length) {
+            return false;
+        }
+        int offset = records.getInt(base + NAME_OFFSET);
+        for (int i = 0; i < length; i++) {
+            if (lower(pool.get(offset + i)) != lower(name[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int nameHash(byte[] name) {
+        int hash = 0;
+        for (byte b : name) {
+            hash = 31 * hash + lower(b);
+        }
+        return hash;
+    }
+
+    private int pooledNameHash(int offset, int length) {
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + lower(pool.get(offset + i));
+        }
+        return hash;
+    }
+
+    private static int lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private ByteBuffer grow(String region, ByteBuffer old, int used, int capacity) {
+        ByteBuffer bigger = allocate(region, capacity);
+        bigger.put(0, old, 0, used);
+        return bigger;
+    }
+
+    private ByteBuffer allocate(String region, int bytes) {
+        try {
+            return allocator.allocate(region, bytes);
+        } catch (IOException e) {
+            System.err.println("Error allocating catalog " + region + ": " + e.getMessage());
+            throw new RuntimeException("Failed to allocate catalog " + region, e);
+        }
+    }
+}
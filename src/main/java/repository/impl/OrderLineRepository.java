@@ -0,0 +1,117 @@
+package repository.impl;
+
+import java.sql.*;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import repository.interfaces.IOrderLineRepository;
+
+/**
+ * Order Line Repository Implementation
+ * Streams orders joined with their details on a forward-only cursor
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class OrderLineRepository implements IOrderLineRepository {
+    
+    private static final String ORDER_LINES = 
+            "SELECT o.order_id, o.order_date, o.payment_type, o.total_price, od.food_id, od.quantity, " +
+            "od.subtotal - od.discount AS subtotal " +
+            "FROM orders o INNER JOIN order_details od ON od.order_id = o.order_id " +
+            "ORDER BY o.order_id";
+    private static final String EXPORT_LINES = 
+            "SELECT o.order_id, o.customer_id, o.order_date, o.payment_type, o.status, o.total_price, " +
+            "od.food_id, od.quantity, od.unit_price, od.subtotal - od.discount AS subtotal " +
+            "FROM orders o INNER JOIN order_details od ON od.order_id = o.order_id " +
+            "WHERE o.order_id > ? ORDER BY o.order_id, od.order_detail_id";
+    private static final int FETCH_SIZE = 1000;
+    
+    private final ConnectionProvider connectionProvider;
+    
+    /**
+     * Constructor with ConnectionProvider for dependency injection
+     * 
+     * @param connectionProvider Connection provider
+     */
+    public OrderLineRepository(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+    }
+    
+    /**
+     * Default constructor using singleton DatabaseConnection
+     * Maintains backward compatibility
+     */
+    public OrderLineRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+    
+    @Override
+    public int streamOrderLines(OrderLineHandler handler) {
+        int lines = 0;
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ORDER_LINES,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            applyStreamingFetchSize(conn, stmt);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp orderDate = rs.getTimestamp(2);
+                    handler.onLine(rs.getInt(1),
+                            orderDate != null ? orderDate.getTime() : 0L,
+                            rs.getString(3),
+                            rs.getBigDecimal(4).movePointRight(2).longValue(),
+                            rs.getInt(5),
+                            rs.getInt(6),
+                            rs.getBigDecimal(7).movePointRight(2).longValue());
+                    lines++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming order lines: " + e.getMessage());
+            throw new RuntimeException("Failed to stream order lines", e);
+        }
+        return lines;
+    }
+    
+    @Override
+    public int streamExportLines(int afterOrderId, ExportLineHandler handler) {
+        int lines = 0;
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXPORT_LINES,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            applyStreamingFetchSize(conn, stmt);
+            stmt.setInt(1, afterOrderId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp orderDate = rs.getTimestamp(3);
+                    handler.onLine(rs.getInt(1),
+                            rs.getInt(2),
+                            orderDate != null ? orderDate.getTime() : 0L,
+                            rs.getString(4),
+                            rs.getString(5),
+                            rs.getBigDecimal(6).movePointRight(2).longValue(),
+                            rs.getInt(7),
+                            rs.getInt(8),
+                            rs.getBigDecimal(9).movePointRight(2).longValue(),
+                            rs.getBigDecimal(10).movePointRight(2).longValue());
+                    lines++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming export lines: " + e.getMessage());
+            throw new RuntimeException("Failed to stream export lines", e);
+        }
+        return lines;
+    }
+    
+    /**
+     * MySQL only streams row by row with Integer.MIN_VALUE; other drivers take a batch size
+     */
+    private static void applyStreamingFetchSize(Connection conn, Statement stmt) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName();
+        stmt.setFetchSize(product != null && product.toLowerCase().contains("mysql")
+                ? Integer.MIN_VALUE : FETCH_SIZE);
+    }
+}
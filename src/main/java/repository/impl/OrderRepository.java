@@ -1,5 +1,6 @@
 package repository.impl;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +13,7 @@ import model.Food;
 import model.Order;
 import model.OrderDetails;
 import model.PaymentMethod;
+import repository.interfaces.IIdempotentOrderRepository;
 import repository.interfaces.IOrderRepository;
 
 /**
@@ -19,19 +21,52 @@ import repository.interfaces.IOrderRepository;
  * Handles database operations for Order entity
  * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
  */
-public class OrderRepository implements IOrderRepository {
+public class OrderRepository implements IOrderRepository, IIdempotentOrderRepository {
     
     private static final String FIND_BY_ID = "SELECT * FROM orders WHERE order_id = ?";
-    private static final String FIND_BY_CUSTOMER_ID = "SELECT * FROM orders WHERE customer_id = ? ORDER BY order_date DESC";
+    private static final String FIND_BY_CUSTOMER_ID = 
+            "SELECT o.*, od.order_detail_id, od.food_id, od.quantity, od.unit_price, od.discount, " +
+            "f.food_name, f.food_price, f.food_type FROM orders o " +
+            "LEFT JOIN order_details od ON od.order_id = o.order_id " +
+            "LEFT JOIN foods f ON f.food_id = od.food_id " +
+            "WHERE o.customer_id = ? ORDER BY o.order_date DESC, o.order_id DESC, od.order_detail_id";
     private static final String FIND_ALL = "SELECT * FROM orders ORDER BY order_date DESC";
-    private static final String INSERT_ORDER = 
-            "INSERT INTO orders (customer_id, total_price, payment_method_id, payment_type, status) VALUES (?, ?, ?, ?, ?)";
-    private static final String INSERT_ORDER_DETAIL = 
-            "INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal) VALUES (?, ?, ?, ?, ?)";
+    static final String INSERT_ORDER = 
+            "INSERT INTO orders (customer_id, order_date, total_price, payment_method_id, payment_type, status) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String INSERT_ORDER_DETAIL = 
+            "INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal, discount) VALUES (?, ?, ?, ?, ?, ?)";
+    static final String UPSERT_SALES_DAILY = 
+            "INSERT INTO sales_daily (sales_date, food_id, payment_type, quantity, revenue) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue)";
+    private static final String REPORT_ROWS = 
+            "SELECT order_id, customer_id, payment_type, total_price FROM orders ORDER BY order_date DESC";
+    private static final int REPORT_FETCH_SIZE = 500;
+    private static final String RESERVE_KEY = 
+            "INSERT INTO order_idempotency (idempotency_key, customer_id, created_at) VALUES (?, ?, ?)";
+    private static final String RECLAIM_KEY = 
+            "UPDATE order_idempotency SET created_at = ? " +
+            "WHERE idempotency_key = ? AND order_id IS NULL AND created_at < ?";
+    private static final String FIND_BY_KEY = 
+            "SELECT order_id FROM order_idempotency " +
+            "WHERE idempotency_key = ? AND (customer_id = ? OR customer_id IS NULL)";
+    private static final String LINK_KEY = 
+            "UPDATE order_idempotency SET order_id = ? WHERE idempotency_key = ? AND order_id IS NULL";
+    private static final String RELEASE_KEY = 
+            "DELETE FROM order_idempotency WHERE idempotency_key = ? AND order_id IS NULL";
+    private static final String DEBIT_IF_COVERED = 
+            "UPDATE payment_methods SET balance = balance - ? WHERE payment_method_id = ? AND balance >= ?";
+    private static final String FIND_BALANCE = 
+            "SELECT balance FROM payment_methods WHERE payment_method_id = ?";
     private static final String GET_MAX_ID = "SELECT MAX(order_id) as max_id FROM orders";
     private static final String FIND_ORDER_DETAILS = 
             "SELECT od.*, f.food_name, f.food_price, f.food_type FROM order_details od " +
             "INNER JOIN foods f ON od.food_id = f.food_id WHERE od.order_id = ?";
+
+    /** Reports may lag the primary (read from a replica when one is configured) */
+    static final long REPORT_STALENESS_MILLIS = 30_000;
+    /** Order history; a customer's own new orders are covered by read-your-writes routing */
+    static final long HISTORY_STALENESS_MILLIS = 1_000;
     
     private final ConnectionProvider connectionProvider;
     
@@ -62,7 +97,7 @@ public class OrderRepository implements IOrderRepository {
             
             if (rs.next()) {
                 Order order = mapResultSetToOrder(rs);
-                order.setOrderDetails(findOrderDetails(orderId));
+                order.setOrderDetails(findOrderDetails(orderId, ConnectionProvider.STRONG));
                 return Optional.of(order);
             }
         } catch (SQLException e) {
@@ -71,39 +106,60 @@ public class OrderRepository implements IOrderRepository {
         return Optional.empty();
     }
     
+    /**
+     * A customer's orders with their details, newest first, in one query
+     * (orders and detail lines joined, then grouped by order)
+     */
     @Override
     public List<Order> findByCustomerId(int customerId) {
         List<Order> orders = new ArrayList<>();
-        try (Connection conn = connectionProvider.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(FIND_BY_CUSTOMER_ID)) {
-
-            stmt.setInt(1, customerId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                Order order = mapResultSetToOrder(rs);
-                orders.add(order);
-            }
+        try {
+            readCustomerHistory(customerId, orders);
         } catch (SQLException e) {
             System.err.println("Error finding orders by customer ID: " + e.getMessage());
-            return orders;
         }
+        return orders;
+    }
+    
+    @Override
+    public List<Order> loadCustomerHistory(int customerId) {
+        List<Order> orders = new ArrayList<>();
+        try {
+            readCustomerHistory(customerId, orders);
+        } catch (SQLException e) {
+            System.err.println("Error loading orders by customer ID: " + e.getMessage());
+            throw new RuntimeException("Failed to load orders for customer " + customerId, e);
+        }
+        return orders;
+    }
+    
+    private void readCustomerHistory(int customerId, List<Order> orders) throws SQLException {
+        try (Connection conn = connectionProvider.getReadConnection(HISTORY_STALENESS_MILLIS);
+             PreparedStatement stmt = conn.prepareStatement(FIND_BY_CUSTOMER_ID)) {
 
-        // Fetch order details after closing the main ResultSet/Statement to avoid driver limitations
-        for (Order order : orders) {
-            try {
-                order.setOrderDetails(findOrderDetails(order.getOrderId()));
-            } catch (SQLException e) {
-                System.err.println("Error finding order details for order " + order.getOrderId() + ": " + e.getMessage());
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                Order current = null;
+                while (rs.next()) {
+                    int orderId = rs.getInt("order_id");
+                    if (current == null || current.getOrderId() != orderId) {
+                        current = mapResultSetToOrder(rs);
+                        current.setOrderDetails(new ArrayList<>());
+                        orders.add(current);
+                    }
+                    // No detail row, or its food is gone (same as the INNER JOIN in FIND_ORDER_DETAILS)
+                    if (rs.getString("food_name") != null) {
+                        current.getOrderDetails().add(mapOrderDetail(rs));
+                    }
+                }
             }
         }
-        return orders;
     }
     
     @Override
     public List<Order> findAll() {
         List<Order> orders = new ArrayList<>();
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(REPORT_STALENESS_MILLIS);
              PreparedStatement stmt = conn.prepareStatement(FIND_ALL);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -119,7 +175,7 @@ public class OrderRepository implements IOrderRepository {
         // Fetch order details after main query completes to avoid ResultSet conflicts
         for (Order order : orders) {
             try {
-                order.setOrderDetails(findOrderDetails(order.getOrderId()));
+                order.setOrderDetails(findOrderDetails(order.getOrderId(), REPORT_STALENESS_MILLIS));
             } catch (SQLException e) {
                 System.err.println("Error finding order details for order " + order.getOrderId() + ": " + e.getMessage());
             }
@@ -129,18 +185,45 @@ public class OrderRepository implements IOrderRepository {
     
     @Override
     public Order save(Order order) {
+        return save(order, null);
+    }
+    
+    @Override
+    public Order save(Order order, String idempotencyKey) {
+        return save(order, null, idempotencyKey);
+    }
+    
+    @Override
+    public Optional<Order> debitAndSave(Order order, BigDecimal charge, String idempotencyKey) {
+        return Optional.ofNullable(save(order, charge, idempotencyKey));
+    }
+    
+    /**
+     * Debit (charge null = none), insert and link the key in one transaction
+     * 
+     * @return Saved order, or null if the balance did not cover the charge (nothing is written)
+     */
+    private Order save(Order order, BigDecimal charge, String idempotencyKey) {
         Connection conn = null;
         try {
             conn = connectionProvider.getConnection();
             conn.setAutoCommit(false);
             
+            // Debit first, so a declined charge writes nothing
+            if (charge != null && !debit(conn, order.getPaymentMethod(), charge)) {
+                conn.rollback();
+                return null;
+            }
+            
             // Insert order
+            Timestamp orderDate = orderTimestamp(order);
             try (PreparedStatement orderStmt = conn.prepareStatement(INSERT_ORDER, Statement.RETURN_GENERATED_KEYS)) {
                 orderStmt.setInt(1, order.getCustomer().getCustomerId());
-                orderStmt.setBigDecimal(2, order.getTotalPriceDecimal());
-                orderStmt.setInt(3, order.getPaymentMethod().getPaymentMethodId());
-                orderStmt.setString(4, order.getPaymentMethod().getPaymentType());
-                orderStmt.setString(5, order.getStatus());
+                orderStmt.setTimestamp(2, orderDate);
+                orderStmt.setBigDecimal(3, order.getTotalPriceDecimal());
+                orderStmt.setInt(4, order.getPaymentMethod().getPaymentMethodId());
+                orderStmt.setString(5, order.getPaymentMethod().getPaymentType());
+                orderStmt.setString(6, order.getStatus());
                 
                 orderStmt.executeUpdate();
                 
@@ -159,10 +242,35 @@ public class OrderRepository implements IOrderRepository {
                         detailStmt.setInt(3, detail.getQuantity());
                         detailStmt.setBigDecimal(4, detail.getUnitPriceDecimal());
                         detailStmt.setBigDecimal(5, detail.getSubtotalDecimal());
+                        detailStmt.setBigDecimal(6, detail.getDiscountDecimal());
                         detailStmt.addBatch();
                     }
                     detailStmt.executeBatch();
                 }
+                
+                // Maintain sales_daily in the same transaction
+                try (PreparedStatement salesStmt = conn.prepareStatement(UPSERT_SALES_DAILY)) {
+                    for (OrderDetails detail : order.getOrderDetails()) {
+                        salesStmt.setDate(1, salesDate(orderDate));
+                        salesStmt.setInt(2, detail.getFood().getFoodId());
+                        salesStmt.setString(3, order.getPaymentMethod().getPaymentType());
+                        salesStmt.setInt(4, detail.getQuantity());
+                        salesStmt.setBigDecimal(5, detail.getNetSubtotalDecimal());
+                        salesStmt.addBatch();
+                    }
+                    salesStmt.executeBatch();
+                }
+            }
+            
+            // Link the reserved idempotency key to the new order
+            if (idempotencyKey != null) {
+                try (PreparedStatement keyStmt = conn.prepareStatement(LINK_KEY)) {
+                    keyStmt.setInt(1, order.getOrderId());
+                    keyStmt.setString(2, idempotencyKey);
+                    if (keyStmt.executeUpdate() != 1) {
+                        throw new SQLException("Idempotency key is not reserved: " + idempotencyKey);
+                    }
+                }
             }
             
             conn.commit();
@@ -189,6 +297,112 @@ public class OrderRepository implements IOrderRepository {
         return order;
     }
     
+    /**
+     * Conditional debit inside the checkout transaction; on success the order's
+     * payment method gets the balance the debit left behind
+     */
+    private static boolean debit(Connection conn, PaymentMethod paymentMethod, BigDecimal charge)
+            throws SQLException {
+        try (PreparedStatement debitStmt = conn.prepareStatement(DEBIT_IF_COVERED)) {
+            debitStmt.setBigDecimal(1, charge);
+            debitStmt.setInt(2, paymentMethod.getPaymentMethodId());
+            debitStmt.setBigDecimal(3, charge);
+            if (debitStmt.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        try (PreparedStatement balanceStmt = conn.prepareStatement(FIND_BALANCE)) {
+            balanceStmt.setInt(1, paymentMethod.getPaymentMethodId());
+            try (ResultSet rs = balanceStmt.executeQuery()) {
+                if (rs.next()) {
+                    paymentMethod.setBalanceDecimal(rs.getBigDecimal(1));
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Order date as written to the orders row (stamped now if the order has none)
+     */
+    static Timestamp orderTimestamp(Order order) {
+        if (order.getOrderDate() == null) {
+            order.setOrderDate(new java.util.Date());
+        }
+        return new Timestamp(order.getOrderDate().getTime());
+    }
+    
+    /**
+     * sales_daily day for an order: the same CAST(order_date AS DATE) a rebuild groups by,
+     * rather than the database's CURRENT_DATE, which can differ around midnight or across time zones
+     */
+    static Date salesDate(Timestamp orderDate) {
+        return Date.valueOf(orderDate.toLocalDateTime().toLocalDate());
+    }
+    
+    @Override
+    public boolean reserveIdempotencyKey(int customerId, String idempotencyKey, long staleAfterMillis) {
+        long now = System.currentTimeMillis();
+        try (Connection conn = connectionProvider.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(RESERVE_KEY)) {
+                stmt.setString(1, idempotencyKey);
+                stmt.setInt(2, customerId);
+                stmt.setTimestamp(3, new Timestamp(now));
+                return stmt.executeUpdate() == 1;
+            } catch (SQLException e) {
+                // SQLState class 23 = integrity constraint violation (key already used)
+                if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                    throw e;
+                }
+            }
+            
+            // Take over a reservation whose checkout never finished (the row
+            // lock lets only one of several retrying tills win it)
+            try (PreparedStatement stmt = conn.prepareStatement(RECLAIM_KEY)) {
+                stmt.setTimestamp(1, new Timestamp(now));
+                stmt.setString(2, idempotencyKey);
+                stmt.setTimestamp(3, new Timestamp(now - staleAfterMillis));
+                return stmt.executeUpdate() == 1;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reserving idempotency key: " + e.getMessage());
+            throw new RuntimeException("Failed to reserve idempotency key", e);
+        }
+    }
+    
+    @Override
+    public Optional<Integer> findOrderIdByIdempotencyKey(int customerId, String idempotencyKey) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_BY_KEY)) {
+            
+            stmt.setString(1, idempotencyKey);
+            stmt.setInt(2, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int orderId = rs.getInt(1);
+                    if (!rs.wasNull()) {
+                        return Optional.of(orderId);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding order by idempotency key: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+    
+    @Override
+    public void releaseIdempotencyKey(int customerId, String idempotencyKey) {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RELEASE_KEY)) {
+            
+            stmt.setString(1, idempotencyKey);
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error releasing idempotency key: " + e.getMessage());
+        }
+    }
+    
     @Override
     public int getNextOrderId() {
         try (Connection conn = connectionProvider.getConnection();
@@ -205,6 +419,41 @@ public class OrderRepository implements IOrderRepository {
         return 1;
     }
     
+    @Override
+    public int streamOrderReport(ReportRowHandler handler) {
+        int rows = 0;
+        try (Connection conn = connectionProvider.getReadConnection(REPORT_STALENESS_MILLIS);
+             PreparedStatement stmt = conn.prepareStatement(REPORT_ROWS,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            applyStreamingFetchSize(conn, stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.onRow(rs.getInt(1), rs.getInt(2), rs.getString(3),
+                            rs.getBigDecimal(4).movePointRight(2).longValue());
+                    rows++;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error streaming order report: " + e.getMessage());
+            throw new RuntimeException("Failed to stream order report", e);
+        }
+        return rows;
+    }
+    
+    /**
+     * Ask the driver to stream rows instead of buffering the whole result.
+     * MySQL Connector/J only streams with a fetch size of Integer.MIN_VALUE.
+     */
+    private void applyStreamingFetchSize(Connection conn, Statement stmt) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName();
+        if (product != null && product.toLowerCase().contains("mysql")) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+        } else {
+            stmt.setFetchSize(REPORT_FETCH_SIZE);
+        }
+    }
+    
     /**
      * Map ResultSet to Order object
      * Follows DRY principle - single method for mapping
@@ -232,35 +481,42 @@ public class OrderRepository implements IOrderRepository {
     }
     
     /**
-     * Find order details for an order
+     * Find order details for an order (read with the same staleness as the order)
      */
-    private List<OrderDetails> findOrderDetails(int orderId) throws SQLException {
+    private List<OrderDetails> findOrderDetails(int orderId, long maxStalenessMillis) throws SQLException {
         List<OrderDetails> details = new ArrayList<>();
-        try (Connection conn = connectionProvider.getConnection();
+        try (Connection conn = connectionProvider.getReadConnection(maxStalenessMillis);
              PreparedStatement stmt = conn.prepareStatement(FIND_ORDER_DETAILS)) {
             
             stmt.setInt(1, orderId);
             ResultSet rs = stmt.executeQuery();
             
             while (rs.next()) {
-                // Build Food domain object from joined columns
-                Food food = new Food();
-                food.setFoodId(rs.getInt("food_id"));
-                food.setFoodName(rs.getString("food_name"));
-                food.setFoodPrice(rs.getBigDecimal("food_price").doubleValue());
-                food.setFoodType(rs.getString("food_type"));
-                
-                // Create OrderDetails
-                OrderDetails detail = new OrderDetails(
-                    rs.getInt("order_detail_id"),
-                    food,
-                    rs.getInt("quantity"),
-                    rs.getBigDecimal("unit_price")
-                );
-                details.add(detail);
+                details.add(mapOrderDetail(rs));
             }
         }
         return details;
     }
+    
+    /**
+     * Map the detail and joined food columns of the current row
+     */
+    private OrderDetails mapOrderDetail(ResultSet rs) throws SQLException {
+        // Build Food domain object from joined columns
+        Food food = new Food();
+        food.setFoodId(rs.getInt("food_id"));
+        food.setFoodName(rs.getString("food_name"));
+        food.setFoodPrice(rs.getBigDecimal("food_price").doubleValue());
+        food.setFoodType(rs.getString("food_type"));
+        
+        OrderDetails detail = new OrderDetails(
+            rs.getInt("order_detail_id"),
+            food,
+            rs.getInt("quantity"),
+            rs.getBigDecimal("unit_price")
+        );
+        detail.setDiscount(rs.getBigDecimal("discount"));
+        return detail;
+    }
 }
 
@@ -1,6 +1,7 @@
 package repository.impl;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,6 +27,10 @@ public class PaymentMethodRepository implements IPaymentMethodRepository {
             "INSERT INTO payment_methods (customer_id, payment_type, balance, card_number, expiry_date) VALUES (?, ?, ?, ?, ?)";
     private static final String UPDATE_BALANCE = 
             "UPDATE payment_methods SET balance = ? WHERE payment_method_id = ?";
+    private static final String DEBIT_IF_COVERED = 
+            "UPDATE payment_methods SET balance = balance - ? WHERE payment_method_id = ? AND balance >= ?";
+    private static final String FIND_BALANCE = 
+            "SELECT balance FROM payment_methods WHERE payment_method_id = ?";
     
     private final ConnectionProvider connectionProvider;
     
@@ -140,11 +145,65 @@ public class PaymentMethodRepository implements IPaymentMethodRepository {
         }
     }
     
+    @Override
+    public Optional<BigDecimal> debit(int paymentMethodId, double amount) {
+        BigDecimal charge = BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+        Connection conn = null;
+        try {
+            conn = connectionProvider.getConnection();
+            conn.setAutoCommit(false);
+            
+            try (PreparedStatement stmt = conn.prepareStatement(DEBIT_IF_COVERED)) {
+                stmt.setBigDecimal(1, charge);
+                stmt.setInt(2, paymentMethodId);
+                stmt.setBigDecimal(3, charge);
+                if (stmt.executeUpdate() == 0) {
+                    conn.rollback();
+                    return Optional.empty();
+                }
+            }
+            
+            // Read the balance this debit left while the row is still locked
+            BigDecimal balance;
+            try (PreparedStatement stmt = conn.prepareStatement(FIND_BALANCE)) {
+                stmt.setInt(1, paymentMethodId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLException("Debited payment method not found: " + paymentMethodId);
+                    }
+                    balance = rs.getBigDecimal(1);
+                }
+            }
+            
+            conn.commit();
+            return Optional.of(balance);
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                }
+            }
+            System.err.println("Error debiting payment method: " + e.getMessage());
+            throw new RuntimeException("Failed to debit payment method", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error resetting auto-commit: " + e.getMessage());
+                }
+            }
+        }
+    }
+    
     /**
      * Map ResultSet to PaymentMethod object
      * Follows DRY principle - single method for mapping
      */
-    private PaymentMethod mapResultSetToPaymentMethod(ResultSet rs) throws SQLException {
+    static PaymentMethod mapResultSetToPaymentMethod(ResultSet rs) throws SQLException {
         PaymentMethod paymentMethod = new PaymentMethod();
         paymentMethod.setPaymentMethodId(rs.getInt("payment_method_id"));
         paymentMethod.setCustomerId(rs.getInt("customer_id"));
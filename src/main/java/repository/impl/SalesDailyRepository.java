@@ -0,0 +1,264 @@
+package repository.impl;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import model.SalesDaily;
+import repository.interfaces.ISalesDailyRepository;
+
+/**
+ * Sales Daily Repository Implementation
+ * Reads the sales_daily aggregate maintained by OrderRepository.save
+ * and rebuilds it from raw orders when needed (rows are keyed by the
+ * order's own date, see OrderRepository.salesDate)
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class SalesDailyRepository implements ISalesDailyRepository {
+
+    private static final String FIND_BETWEEN =
+            "SELECT s.sales_date, s.food_id, f.food_name, s.payment_type, s.quantity, s.revenue " +
+            "FROM sales_daily s LEFT JOIN foods f ON s.food_id = f.food_id " +
+            "WHERE s.sales_date BETWEEN ? AND ? ORDER BY s.sales_date, s.food_id, s.payment_type";
+    private static final String ORDER_ID_RANGE = "SELECT MIN(order_id), MAX(order_id) FROM orders";
+    private static final String AGGREGATE_CHUNK =
+            "SELECT CAST(o.order_date AS DATE) AS sales_date, od.food_id, o.payment_type, " +
+            "SUM(od.quantity) AS quantity, SUM(od.subtotal - od.discount) AS revenue " +
+            "FROM orders o INNER JOIN order_details od ON od.order_id = o.order_id " +
+            "WHERE o.order_id BETWEEN ? AND ? " +
+            "GROUP BY CAST(o.order_date AS DATE), od.food_id, o.payment_type";
+    private static final String RESET_ALL = "UPDATE sales_daily SET quantity = 0, revenue = 0";
+    private static final String UPSERT_REBUILT =
+            "INSERT INTO sales_daily (sales_date, food_id, payment_type, quantity, revenue) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), revenue = VALUES(revenue)";
+    private static final String DELETE_EMPTY = "DELETE FROM sales_daily WHERE quantity = 0";
+
+    private final ConnectionProvider connectionProvider;
+    private final ConnectionProvider workerConnections;
+
+    /**
+     * Constructor with ConnectionProviders for dependency injection
+     *
+     * @param connectionProvider Connection provider for reads and the final write
+     * @param workerConnections Provider handing out an independent connection per call,
+     *                          used by rebuild workers running in parallel
+     */
+    public SalesDailyRepository(ConnectionProvider connectionProvider, ConnectionProvider workerConnections) {
+        this.connectionProvider = connectionProvider;
+        this.workerConnections = workerConnections;
+    }
+
+    /**
+     * Constructor using one DatabaseConnection for both roles
+     *
+     * @param databaseConnection Database connection
+     */
+    public SalesDailyRepository(DatabaseConnection databaseConnection) {
+        this(databaseConnection, databaseConnection::openConnection);
+    }
+
+    /**
+     * Default constructor using singleton DatabaseConnection
+     * Maintains backward compatibility
+     */
+    public SalesDailyRepository() {
+        this(DatabaseConnection.getInstance());
+    }
+
+    @Override
+    public List<SalesDaily> findBetween(LocalDate from, LocalDate to) {
+        List<SalesDaily> rows = new ArrayList<>();
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_BETWEEN)) {
+
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new SalesDaily(
+                            rs.getDate("sales_date").toLocalDate(),
+                            rs.getInt("food_id"),
+                            rs.getString("food_name"),
+                            rs.getString("payment_type"),
+                            rs.getInt("quantity"),
+                            rs.getBigDecimal("revenue")));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error finding daily sales: " + e.getMessage());
+        }
+        return rows;
+    }
+
+    /**
+     * Rebuild in one transaction that first zeroes every row. That update
+     * keeps the rows (and, under REPEATABLE READ, the gaps between them)
+     * locked until commit, so a checkout saved during the scan waits at its
+     * sales_daily upsert and adds its rows on top of the rebuilt totals
+     * instead of being overwritten. Checkouts therefore pause while a
+     * rebuild runs.
+     */
+    @Override
+    public int rebuild(int chunkSize, int parallelism) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Chunk size and parallelism must be greater than 0");
+        }
+
+        Connection conn = null;
+        int isolation = Connection.TRANSACTION_REPEATABLE_READ;
+        try {
+            conn = connectionProvider.getConnection();
+            isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setAutoCommit(false);
+
+            try (Statement resetStmt = conn.createStatement()) {
+                resetStmt.executeUpdate(RESET_ALL);
+            }
+            Collection<SalesDaily> rows = aggregateAll(findOrderIdRange(conn), chunkSize, parallelism);
+            writeAll(conn, rows);
+            // Days, foods or payment types that no longer have any orders
+            try (Statement deleteStmt = conn.createStatement()) {
+                deleteStmt.executeUpdate(DELETE_EMPTY);
+            }
+
+            conn.commit();
+            return rows.size();
+        } catch (SQLException | RuntimeException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackEx) {
+                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+                }
+            }
+            System.err.println("Error rebuilding sales aggregates: " + e.getMessage());
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            throw new RuntimeException("Failed to rebuild sales aggregates", e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.setTransactionIsolation(isolation);
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error resetting auto-commit: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Aggregate every order ID chunk in parallel and merge the partial totals
+     */
+    private Collection<SalesDaily> aggregateAll(int[] range, int chunkSize, int parallelism) {
+        Map<SalesDaily, SalesDaily> merged = new HashMap<>();
+        if (range == null) {
+            return merged.values();
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<List<SalesDaily>>> chunks = new ArrayList<>();
+            for (long low = range[0]; low <= range[1]; low += chunkSize) {
+                int from = (int) low;
+                int to = (int) Math.min(low + chunkSize - 1, range[1]);
+                chunks.add(workers.submit(() -> aggregateChunk(from, to)));
+            }
+            for (Future<List<SalesDaily>> chunk : chunks) {
+                for (SalesDaily partial : chunk.get()) {
+                    mergeInto(merged, partial);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Sales aggregate rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to rebuild sales aggregates", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        return merged.values();
+    }
+
+    /**
+     * Find the lowest and highest order ID, or null if there are no orders
+     */
+    private static int[] findOrderIdRange(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(ORDER_ID_RANGE);
+             ResultSet rs = stmt.executeQuery()) {
+
+            if (rs.next() && rs.getObject(1) != null) {
+                return new int[] {rs.getInt(1), rs.getInt(2)};
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Aggregate one order ID range on its own connection
+     */
+    private List<SalesDaily> aggregateChunk(int fromOrderId, int toOrderId) throws SQLException {
+        List<SalesDaily> partials = new ArrayList<>();
+        try (Connection conn = workerConnections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(AGGREGATE_CHUNK)) {
+
+            stmt.setInt(1, fromOrderId);
+            stmt.setInt(2, toOrderId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    SalesDaily partial = new SalesDaily();
+                    partial.setSalesDate(rs.getDate("sales_date").toLocalDate());
+                    partial.setFoodId(rs.getInt("food_id"));
+                    partial.setPaymentType(rs.getString("payment_type"));
+                    partial.setQuantity(rs.getInt("quantity"));
+                    partial.setRevenue(rs.getBigDecimal("revenue"));
+                    partials.add(partial);
+                }
+            }
+        }
+        return partials;
+    }
+
+    /**
+     * Add a partial chunk result to the merged totals (same day, food and payment type)
+     */
+    private static void mergeInto(Map<SalesDaily, SalesDaily> merged, SalesDaily partial) {
+        SalesDaily existing = merged.get(partial);
+        if (existing == null) {
+            merged.put(partial, partial);
+        } else {
+            existing.setQuantity(existing.getQuantity() + partial.getQuantity());
+            existing.setRevenue(existing.getRevenue().add(partial.getRevenue()));
+        }
+    }
+
+    /**
+     * Write the rebuilt rows in one batch (inside the rebuild transaction)
+     */
+    private static void writeAll(Connection conn, Iterable<SalesDaily> rows) throws SQLException {
+        try (PreparedStatement insertStmt = conn.prepareStatement(UPSERT_REBUILT)) {
+            for (SalesDaily row : rows) {
+                insertStmt.setDate(1, Date.valueOf(row.getSalesDate()));
+                insertStmt.setInt(2, row.getFoodId());
+                insertStmt.setString(3, row.getPaymentType());
+                insertStmt.setInt(4, row.getQuantity());
+                insertStmt.setBigDecimal(5, row.getRevenue() != null ? row.getRevenue() : BigDecimal.ZERO);
+                insertStmt.addBatch();
+            }
+            insertStmt.executeBatch();
+        }
+    }
+}
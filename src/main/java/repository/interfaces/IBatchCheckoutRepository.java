@@ -0,0 +1,61 @@
+package repository.interfaces;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import model.Customer;
+import model.Order;
+import model.PaymentMethod;
+
+/**
+ * Batch Checkout Repository Interface
+ * Set-based reads and writes used to check out many carts in one call
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface IBatchCheckoutRepository {
+    
+    /**
+     * Load customers with IN (...) queries
+     * 
+     * @param customerIds Customer IDs
+     * @return Customers by ID (missing IDs are absent)
+     */
+    Map<Integer, Customer> findCustomersByIds(Collection<Integer> customerIds);
+    
+    /**
+     * Load the payment methods of several customers with IN (...) queries
+     * 
+     * @param customerIds Customer IDs
+     * @return Payment methods grouped by customer ID
+     */
+    Map<Integer, List<PaymentMethod>> findPaymentMethodsByCustomerIds(Collection<Integer> customerIds);
+    
+    /**
+     * What happened to one order of a batch
+     */
+    enum Outcome {
+        /** Debited and saved; the order has its generated ID */
+        PAID,
+        /** The balance did not cover the charge; nothing was written for it */
+        DECLINED,
+        /** Its idempotency key was already used; nothing was written for it */
+        DUPLICATE
+    }
+    
+    /**
+     * In one transaction, skip orders whose idempotency key is already used,
+     * lock the payment methods and debit each remaining order whose balance
+     * still covers its charge (in list order, so carts sharing a wallet see
+     * earlier debits), then insert the paid orders, their details and their
+     * idempotency keys with JDBC batches. Paid orders get their generated order ID.
+     * 
+     * @param orders Orders to place
+     * @param charges Amount to debit for each order (including fees)
+     * @param idempotencyKeys Key for each order (null entries for none)
+     * @return Outcome for each order
+     * @throws RuntimeException if the transaction fails (nothing is written)
+     */
+    Outcome[] debitAndSaveAll(List<Order> orders, List<BigDecimal> charges, List<String> idempotencyKeys);
+}
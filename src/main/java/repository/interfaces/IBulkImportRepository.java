@@ -0,0 +1,47 @@
+package repository.interfaces;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import model.Customer;
+import model.Food;
+
+/**
+ * Bulk Import Repository Interface
+ * Defines batched inserts and key scans used by CSV imports
+ * Follows SOLID: Interface Segregation Principle
+ */
+public interface IBulkImportRepository {
+    
+    /**
+     * Stream every existing food name (for duplicate detection)
+     * 
+     * @param consumer Receives each name
+     */
+    void forEachFoodName(Consumer<String> consumer);
+    
+    /**
+     * Stream every existing customer phone number (for duplicate detection)
+     * 
+     * @param consumer Receives each phone number
+     */
+    void forEachPhoneNumber(Consumer<String> consumer);
+    
+    /**
+     * Insert foods as one JDBC batch in one transaction; each gets its generated ID
+     * 
+     * @param foods Foods to insert
+     * @return Number of rows inserted
+     * @throws RuntimeException if the batch fails (nothing from this batch is kept)
+     */
+    int insertFoods(List<Food> foods);
+    
+    /**
+     * Insert customers as one JDBC batch in one transaction; each gets its generated ID
+     * 
+     * @param customers Customers to insert
+     * @return Number of rows inserted
+     * @throws RuntimeException if the batch fails (nothing from this batch is kept)
+     */
+    int insertCustomers(List<Customer> customers);
+}
@@ -0,0 +1,69 @@
+package repository.interfaces;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import model.Order;
+
+/**
+ * Idempotent Order Repository Interface
+ * Stores client-supplied idempotency keys (unique column) next to orders,
+ * so a retried checkout can find the order it already created. Keys are
+ * kept with the customer's orders, so every call names the customer (a
+ * sharded store routes by it; a single database only records it).
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface IIdempotentOrderRepository {
+
+    /**
+     * Reserve a key before payment runs. A reservation that never got an
+     * order and is older than staleAfterMillis belongs to a checkout that
+     * died part-way, and is taken over instead of blocking the key forever.
+     *
+     * @param customerId Customer checking out
+     * @param idempotencyKey Client-supplied key
+     * @param staleAfterMillis Age after which an unfinished reservation is reclaimed
+     * @return true if reserved (or reclaimed), false if the key is in use or already has an order
+     */
+    boolean reserveIdempotencyKey(int customerId, String idempotencyKey, long staleAfterMillis);
+
+    /**
+     * Find the order created under a key
+     *
+     * @param customerId Customer who checked out
+     * @param idempotencyKey Client-supplied key
+     * @return Order ID, or empty if the key is unknown or its checkout is not finished
+     */
+    Optional<Integer> findOrderIdByIdempotencyKey(int customerId, String idempotencyKey);
+
+    /**
+     * Release a reserved key whose checkout did not create an order
+     *
+     * @param customerId Customer checking out
+     * @param idempotencyKey Client-supplied key
+     */
+    void releaseIdempotencyKey(int customerId, String idempotencyKey);
+
+    /**
+     * Save order and link it to its reserved key in the same transaction
+     *
+     * @param order Order to save
+     * @param idempotencyKey Reserved key
+     * @return Saved order
+     */
+    Order save(Order order, String idempotencyKey);
+
+    /**
+     * Debit the order's payment method if its balance covers the charge, save
+     * the order and link it to its reserved key, all in one transaction. A
+     * failure rolls the debit back with the order, so a key reclaimed after
+     * a crashed checkout is never charged twice. On success the order's
+     * payment method holds the balance the debit left.
+     *
+     * @param order Order to save
+     * @param charge Amount to debit (fees included)
+     * @param idempotencyKey Reserved key
+     * @return Saved order, or empty if the balance did not cover the charge (nothing is written)
+     */
+    Optional<Order> debitAndSave(Order order, BigDecimal charge, String idempotencyKey);
+}
@@ -0,0 +1,59 @@
+package repository.interfaces;
+
+/**
+ * Order Line Repository Interface
+ * Defines contract for streaming flattened order lines (orders joined with
+ * order_details) for bulk analytics loading and exports
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface IOrderLineRepository {
+    
+    /**
+     * Stream every order line ordered by order ID, without building model objects
+     * 
+     * @param handler Callback invoked for each line as it is read
+     * @return Number of lines streamed
+     * @throws RuntimeException if the cursor fails part-way
+     */
+    int streamOrderLines(OrderLineHandler handler);
+    
+    /**
+     * Stream order lines with every exported column, ordered by order ID then line
+     * 
+     * @param afterOrderId Only orders with a greater ID are streamed (0 = all)
+     * @param handler Callback invoked for each line as it is read
+     * @return Number of lines streamed
+     * @throws RuntimeException if the cursor fails part-way
+     */
+    int streamExportLines(int afterOrderId, ExportLineHandler handler);
+    
+    /**
+     * Receives one order line at a time
+     */
+    @FunctionalInterface
+    interface OrderLineHandler {
+        /**
+         * Handle a single order line
+         * 
+         * @param orderId Order ID
+         * @param orderEpochMillis Order timestamp in epoch milliseconds
+         * @param paymentType Payment type of the order
+         * @param orderTotalCents Amount charged for the whole order in cents (total_price)
+         * @param foodId Food ID of the line
+         * @param quantity Quantity ordered
+         * @param subtotalCents Amount charged for the line in cents (subtotal less its promotion discount)
+         */
+        void onLine(int orderId, long orderEpochMillis, String paymentType, long orderTotalCents,
+                    int foodId, int quantity, long subtotalCents);
+    }
+    
+    /**
+     * Receives one fully populated order line at a time
+     * (subtotalCents is the amount charged for the line, as in OrderLineHandler)
+     */
+    @FunctionalInterface
+    interface ExportLineHandler {
+        void onLine(int orderId, int customerId, long orderEpochMillis, String paymentType, String status,
+                    long orderTotalCents, int foodId, int quantity, long unitPriceCents, long subtotalCents);
+    }
+}
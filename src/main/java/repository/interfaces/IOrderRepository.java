@@ -28,6 +28,18 @@ public interface IOrderRepository {
      */
     List<Order> findByCustomerId(int customerId);
     
+    /**
+     * Find orders by customer ID, failing instead of returning part of the
+     * history when the read breaks (for callers that keep the result)
+     * 
+     * @param customerId Customer ID
+     * @return Complete list of orders
+     * @throws RuntimeException if the orders could not be read
+     */
+    default List<Order> loadCustomerHistory(int customerId) {
+        return findByCustomerId(customerId);
+    }
+    
     /**
      * Find all orders
      * 
@@ -49,4 +61,30 @@ public interface IOrderRepository {
      * @return Next order ID
      */
     int getNextOrderId();
+    
+    /**
+     * Stream the order report columns (id, customer, payment type, total)
+     * row by row without building Order or OrderDetails objects
+     * 
+     * @param handler Callback invoked for each row as it is read
+     * @return Number of rows streamed
+     * @throws RuntimeException if the cursor fails part-way
+     */
+    int streamOrderReport(ReportRowHandler handler);
+    
+    /**
+     * Receives one order report row at a time
+     */
+    @FunctionalInterface
+    interface ReportRowHandler {
+        /**
+         * Handle a single report row
+         * 
+         * @param orderId Order ID
+         * @param customerId Customer ID
+         * @param paymentType Payment type
+         * @param totalCents Order total in cents
+         */
+        void onRow(int orderId, int customerId, String paymentType, long totalCents);
+    }
 }
@@ -1,5 +1,6 @@
 package repository.interfaces;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -53,4 +54,17 @@ public interface IPaymentMethodRepository {
      * @return true if updated, false otherwise
      */
     boolean updateBalance(int paymentMethodId, double newBalance);
+    
+    /**
+     * Debit a payment method only if its current balance covers the amount.
+     * The check and the debit are one conditional update, so two checkouts
+     * on the same method cannot overwrite each other's debit. The balance
+     * left behind is read back in the same transaction, so callers never
+     * work it out from a balance they read earlier.
+     * 
+     * @param paymentMethodId Payment method ID
+     * @param amount Amount to take off the balance
+     * @return Balance after the debit, or empty if the balance did not cover it or the method does not exist
+     */
+    Optional<BigDecimal> debit(int paymentMethodId, double amount);
 }
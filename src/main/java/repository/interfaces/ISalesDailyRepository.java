@@ -0,0 +1,32 @@
+package repository.interfaces;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import model.SalesDaily;
+
+/**
+ * Sales Daily Repository Interface
+ * Defines contract for reading and rebuilding the sales_daily aggregate
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface ISalesDailyRepository {
+    
+    /**
+     * Find aggregate rows for a date range (inclusive)
+     * 
+     * @param from First day
+     * @param to Last day
+     * @return Aggregate rows ordered by day, food and payment type
+     */
+    List<SalesDaily> findBetween(LocalDate from, LocalDate to);
+    
+    /**
+     * Recompute the whole aggregate from raw orders
+     * 
+     * @param chunkSize Number of order IDs per chunk
+     * @param parallelism Number of chunks aggregated concurrently
+     * @return Number of aggregate rows written
+     */
+    int rebuild(int chunkSize, int parallelism);
+}
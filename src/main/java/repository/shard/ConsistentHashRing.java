@@ -0,0 +1,125 @@
+package repository.shard;
+
+import java.util.Arrays;
+
+/**
+ * Consistent Hash Ring
+ * Maps a customer ID to a shard through virtual nodes on a 64-bit ring,
+ * so adding a shard only moves about 1/(N+1) of the customers, all of them
+ * onto the new shard. Immutable; lookups are a binary search.
+ * Follows SOLID: Single Responsibility Principle
+ */
+public final class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final int[] shardIds;
+    private final int virtualNodes;
+    private final long[] points;
+    private final int[] owners;
+
+    private ConsistentHashRing(int[] shardIds, int virtualNodes) {
+        if (shardIds.length == 0) {
+            throw new IllegalArgumentException("Ring needs at least one shard");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("Virtual nodes must be greater than 0");
+        }
+        this.shardIds = shardIds;
+        this.virtualNodes = virtualNodes;
+
+        int size = shardIds.length * virtualNodes;
+        long[] packedPoints = new long[size];
+        int[] packedOwners = new int[size];
+        Integer[] order = new Integer[size];
+        for (int s = 0, k = 0; s < shardIds.length; s++) {
+            for (int v = 0; v < virtualNodes; v++, k++) {
+                packedPoints[k] = mix(((long) shardIds[s] << 32) | v);
+                packedOwners[k] = shardIds[s];
+                order[k] = k;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(packedPoints[a], packedPoints[b]));
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = packedPoints[order[i]];
+            owners[i] = packedOwners[order[i]];
+        }
+    }
+
+    /**
+     * Ring over shards 0..shardCount-1
+     */
+    public static ConsistentHashRing of(int shardCount) {
+        int[] ids = new int[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            ids[i] = i;
+        }
+        return new ConsistentHashRing(ids, DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * Ring over the given shard IDs
+     *
+     * @param shardIds Shard IDs (indexes into the router's provider list)
+     * @param virtualNodes Points per shard (more = more even spread)
+     */
+    public static ConsistentHashRing of(int[] shardIds, int virtualNodes) {
+        int[] ids = shardIds.clone();
+        for (int i = 0; i < ids.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (ids[i] == ids[j]) {
+                    throw new IllegalArgumentException("Duplicate shard: " + ids[i]);
+                }
+            }
+        }
+        return new ConsistentHashRing(ids, virtualNodes);
+    }
+
+    /**
+     * Same ring plus one shard
+     */
+    public ConsistentHashRing withShard(int shardId) {
+        int[] ids = Arrays.copyOf(shardIds, shardIds.length + 1);
+        ids[shardIds.length] = shardId;
+        return of(ids, virtualNodes);
+    }
+
+    /**
+     * Shard owning a customer (first point clockwise from the customer's hash)
+     */
+    public int shardFor(int customerId) {
+        long hash = mix(0x9E3779B97F4A7C15L ^ customerId);
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    public int[] getShardIds() {
+        return shardIds.clone();
+    }
+
+    public boolean contains(int shardId) {
+        for (int id : shardIds) {
+            if (id == shardId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 64-bit finalizer (MurmurHash3 fmix64): spreads nearby IDs across the ring
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53ba6d3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
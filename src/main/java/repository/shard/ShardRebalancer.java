@@ -0,0 +1,252 @@
+package repository.shard;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import config.ConnectionProvider;
+
+/**
+ * Shard Rebalancer
+ * Online tool that adds a shard and moves the customers the new ring assigns
+ * to it, while checkout keeps running. Each customer is moved under their
+ * lock stripe: rows are copied to the new shard in one transaction, then
+ * deleted from the old one, then the router starts sending the customer to
+ * the new shard. A final pass under all locks picks up customers who first
+ * ordered during the move, then the router switches rings.
+ * Only the moved customers' orders, idempotency keys and payment methods
+ * are touched; keys move with the orders so a retried checkout still finds
+ * the order it created.
+ * Follows SOLID: Single Responsibility Principle
+ */
+public class ShardRebalancer {
+
+    private static final String LIST_CUSTOMERS =
+            "SELECT customer_id FROM orders UNION SELECT customer_id FROM payment_methods " +
+            "UNION SELECT customer_id FROM order_idempotency WHERE customer_id IS NOT NULL";
+    private static final String SELECT_PAYMENT_METHODS =
+            "SELECT payment_method_id, customer_id, payment_type, balance, card_number, expiry_date " +
+            "FROM payment_methods WHERE customer_id = ?";
+    private static final String INSERT_PAYMENT_METHOD =
+            "INSERT INTO payment_methods (payment_method_id, customer_id, payment_type, balance, card_number, expiry_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ORDERS =
+            "SELECT order_id, customer_id, order_date, total_price, payment_method_id, payment_type, status " +
+            "FROM orders WHERE customer_id = ?";
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (order_id, customer_id, order_date, total_price, payment_method_id, payment_type, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_ORDER_DETAILS =
+            "SELECT od.order_id, od.food_id, od.quantity, od.unit_price, od.subtotal, od.discount FROM order_details od " +
+            "INNER JOIN orders o ON od.order_id = o.order_id WHERE o.customer_id = ?";
+    private static final String INSERT_ORDER_DETAIL =
+            "INSERT INTO order_details (order_id, food_id, quantity, unit_price, subtotal, discount) VALUES (?, ?, ?, ?, ?, ?)";
+    // Keys saved before customer_id was recorded are found through their order
+    private static final String SELECT_KEYS =
+            "SELECT k.idempotency_key, k.order_id, COALESCE(k.customer_id, o.customer_id), k.created_at " +
+            "FROM order_idempotency k LEFT JOIN orders o ON o.order_id = k.order_id " +
+            "WHERE COALESCE(k.customer_id, o.customer_id) = ?";
+    private static final String INSERT_KEY =
+            "INSERT INTO order_idempotency (idempotency_key, order_id, customer_id, created_at) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_KEYS =
+            "DELETE FROM order_idempotency WHERE customer_id = ? " +
+            "OR order_id IN (SELECT order_id FROM orders WHERE customer_id = ?)";
+    private static final String DELETE_ORDER_DETAILS =
+            "DELETE FROM order_details WHERE order_id IN (SELECT order_id FROM orders WHERE customer_id = ?)";
+    private static final String DELETE_ORDERS = "DELETE FROM orders WHERE customer_id = ?";
+    private static final String DELETE_PAYMENT_METHODS = "DELETE FROM payment_methods WHERE customer_id = ?";
+
+    private final ShardRouter router;
+    private final AtomicLong customersMoved = new AtomicLong();
+    private final AtomicLong rowsMoved = new AtomicLong();
+
+    public ShardRebalancer(ShardRouter router) {
+        this.router = router;
+    }
+
+    /**
+     * Add a shard and move the customers it now owns
+     *
+     * @param shard Connection provider for the new (schema-ready) shard
+     * @return Number of customers moved
+     */
+    public int addShard(ConnectionProvider shard) {
+        if (router.getTargetRing() != null) {
+            throw new IllegalStateException("Finish the running rebalance first");
+        }
+        int shardId = router.addShard(shard);
+        ConsistentHashRing target = router.getRing().withShard(shardId);
+        router.beginRebalance(target);
+        return migrate(target);
+    }
+
+    /**
+     * Resume an interrupted rebalance, or (when none is running) move any
+     * customer found on a shard other than the one the ring assigns
+     *
+     * @return Number of customers moved
+     */
+    public int rebalance() {
+        ConsistentHashRing target = router.getTargetRing();
+        if (target == null) {
+            target = router.getRing();
+        }
+        router.beginRebalance(target);
+        return migrate(target);
+    }
+
+    private int migrate(ConsistentHashRing target) {
+        int moved = 0;
+        // Pass 1: one customer at a time, checkout keeps running
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            for (int customerId : customersOn(shard)) {
+                int owner = target.shardFor(customerId);
+                if (owner == shard) {
+                    continue;
+                }
+                Lock lock = router.moveLock(customerId);
+                lock.lock();
+                try {
+                    move(customerId, shard, owner);
+                    router.markMigrated(customerId);
+                    moved++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        // Pass 2: stop the world briefly for customers who appeared on an old shard meanwhile
+        router.lockAll();
+        try {
+            for (int shard = 0; shard < router.getShardCount(); shard++) {
+                for (int customerId : customersOn(shard)) {
+                    int owner = target.shardFor(customerId);
+                    if (owner != shard) {
+                        move(customerId, shard, owner);
+                        moved++;
+                    }
+                }
+            }
+            router.finishRebalance();
+        } finally {
+            router.unlockAll();
+        }
+        return moved;
+    }
+
+    /**
+     * Copy a customer's rows to the new shard, then delete them from the old one
+     */
+    private void move(int customerId, int from, int to) {
+        try (Connection source = router.provider(from).getConnection();
+             Connection target = router.provider(to).getConnection()) {
+
+            long rows;
+            target.setAutoCommit(false);
+            try {
+                // Leftovers of an interrupted move are replaced, so retrying is safe
+                deleteCustomerRows(target, customerId);
+                rows = copyRows(source, target, SELECT_PAYMENT_METHODS, INSERT_PAYMENT_METHOD, customerId)
+                        + copyRows(source, target, SELECT_ORDERS, INSERT_ORDER, customerId)
+                        + copyRows(source, target, SELECT_ORDER_DETAILS, INSERT_ORDER_DETAIL, customerId)
+                        + copyRows(source, target, SELECT_KEYS, INSERT_KEY, customerId);
+                target.commit();
+            } catch (SQLException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                target.setAutoCommit(true);
+            }
+
+            source.setAutoCommit(false);
+            try {
+                deleteCustomerRows(source, customerId);
+                source.commit();
+            } catch (SQLException e) {
+                source.rollback();
+                // Keep a single copy: the source still owns the customer
+                deleteCustomerRows(target, customerId);
+                throw e;
+            } finally {
+                source.setAutoCommit(true);
+            }
+
+            customersMoved.incrementAndGet();
+            rowsMoved.addAndGet(rows);
+        } catch (SQLException e) {
+            System.err.println("Error moving customer " + customerId + ": " + e.getMessage());
+            throw new RuntimeException("Failed to move customer " + customerId, e);
+        }
+    }
+
+    private List<Integer> customersOn(int shard) {
+        List<Integer> customers = new ArrayList<>();
+        try (Connection conn = router.provider(shard).getConnection();
+             PreparedStatement stmt = conn.prepareStatement(LIST_CUSTOMERS);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                customers.add(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error listing customers on shard " + shard + ": " + e.getMessage());
+            throw new RuntimeException("Failed to list customers on shard " + shard, e);
+        }
+        return customers;
+    }
+
+    private static long copyRows(Connection source, Connection target, String select, String insert,
+                                 int customerId) throws SQLException {
+        long rows = 0;
+        try (PreparedStatement read = source.prepareStatement(select);
+             PreparedStatement write = target.prepareStatement(insert)) {
+
+            bindCustomer(read, customerId);
+            try (ResultSet rs = read.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        write.setObject(i, rs.getObject(i));
+                    }
+                    write.addBatch();
+                    rows++;
+                }
+            }
+            if (rows > 0) {
+                write.executeBatch();
+            }
+        }
+        return rows;
+    }
+
+    private static void deleteCustomerRows(Connection conn, int customerId) throws SQLException {
+        // Keys first: the statement finds older keys through the customer's orders
+        for (String sql : new String[] {DELETE_KEYS, DELETE_ORDER_DETAILS, DELETE_ORDERS, DELETE_PAYMENT_METHODS}) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                bindCustomer(stmt, customerId);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void bindCustomer(PreparedStatement stmt, int customerId) throws SQLException {
+        int parameters = stmt.getParameterMetaData().getParameterCount();
+        for (int i = 1; i <= parameters; i++) {
+            stmt.setInt(i, customerId);
+        }
+    }
+
+    public long getCustomersMoved() {
+        return customersMoved.get();
+    }
+
+    public long getRowsMoved() {
+        return rowsMoved.get();
+    }
+}
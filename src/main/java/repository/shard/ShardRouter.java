@@ -0,0 +1,232 @@
+package repository.shard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+import config.ConnectionProvider;
+
+/**
+ * Shard Router
+ * Decides which database (shard) holds a customer's orders and payment
+ * methods, using a consistent hash ring over customer IDs, and runs
+ * admin-wide queries on every shard in parallel.
+ * While ShardRebalancer moves customers to a new ring, a customer is routed
+ * by the new ring once moved and by the old ring until then. Every routed
+ * call holds the customer's lock stripe for reading, so a move (which holds
+ * it for writing) never races with that customer's reads or writes.
+ * Shards must hand out disjoint order and payment method IDs (e.g. MySQL
+ * auto_increment_offset / auto_increment_increment), so rows keep their IDs
+ * when moved.
+ * Follows SOLID: Single Responsibility Principle
+ */
+public class ShardRouter implements AutoCloseable {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final List<ConnectionProvider> shards;
+    private final ReentrantReadWriteLock[] locks;
+    private final Set<Integer> migrated = ConcurrentHashMap.newKeySet();
+    private final ExecutorService scatterPool;
+    private volatile ConsistentHashRing ring;
+    private volatile ConsistentHashRing targetRing;
+
+    /**
+     * Router over shards 0..n-1
+     *
+     * @param shards One connection provider per shard database
+     */
+    public ShardRouter(List<? extends ConnectionProvider> shards) {
+        if (shards == null || shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = new CopyOnWriteArrayList<>(shards);
+        this.ring = ConsistentHashRing.of(shards.size());
+        this.locks = new ReentrantReadWriteLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        this.scatterPool = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "shard-scatter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Shard currently holding a customer's rows
+     */
+    public int shardFor(int customerId) {
+        ConsistentHashRing target = targetRing;
+        if (target != null && migrated.contains(customerId)) {
+            return target.shardFor(customerId);
+        }
+        return ring.shardFor(customerId);
+    }
+
+    public ConnectionProvider provider(int shard) {
+        return shards.get(shard);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    /**
+     * Run an action on the customer's shard while holding the customer's lock for reading
+     *
+     * @param customerId Customer ID
+     * @param action Receives the shard index
+     * @return Action result
+     */
+    public <T> T withCustomer(int customerId, IntFunction<T> action) {
+        ReentrantReadWriteLock.ReadLock lock = stripe(customerId).readLock();
+        lock.lock();
+        try {
+            return action.apply(shardFor(customerId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a query on every shard in parallel
+     *
+     * @param perShard Receives the shard index
+     * @return Results indexed by shard
+     */
+    public <T> List<T> scatter(IntFunction<T> perShard) {
+        int count = shards.size();
+        if (count == 1) {
+            return List.of(perShard.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int shard = i;
+            futures.add(scatterPool.submit(() -> perShard.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Shard query interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Merge lists that are each already sorted into one sorted list (k-way merge)
+     *
+     * @param sorted Per-shard sorted lists
+     * @param order Sort order shared by all lists
+     * @return Merged list
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> sorted, Comparator<? super T> order) {
+        int total = 0;
+        for (List<T> list : sorted) {
+            total += list.size();
+        }
+        List<T> merged = new ArrayList<>(total);
+        // Heap entries: {list index, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<T> list = sorted.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    // ----- Rebalancing support (used by ShardRebalancer) -----
+
+    synchronized int addShard(ConnectionProvider shard) {
+        shards.add(shard);
+        return shards.size() - 1;
+    }
+
+    /**
+     * Start moving to a new ring; calling again with the same ring resumes an interrupted run
+     */
+    synchronized void beginRebalance(ConsistentHashRing target) {
+        if (targetRing == target) {
+            return;
+        }
+        if (targetRing != null) {
+            throw new IllegalStateException("A rebalance is already running");
+        }
+        migrated.clear();
+        targetRing = target;
+    }
+
+    ConsistentHashRing getTargetRing() {
+        return targetRing;
+    }
+
+    ReentrantReadWriteLock.WriteLock moveLock(int customerId) {
+        return stripe(customerId).writeLock();
+    }
+
+    void markMigrated(int customerId) {
+        migrated.add(customerId);
+    }
+
+    void lockAll() {
+        for (ReentrantReadWriteLock lock : locks) {
+            lock.writeLock().lock();
+        }
+    }
+
+    void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /**
+     * Switch to the target ring (call with all locks held)
+     */
+    synchronized void finishRebalance() {
+        if (targetRing != null) {
+            ring = targetRing;
+            targetRing = null;
+            migrated.clear();
+        }
+    }
+
+    private ReentrantReadWriteLock stripe(int customerId) {
+        return locks[Math.floorMod(customerId * 0x9E3779B9, LOCK_STRIPES)];
+    }
+
+    @Override
+    public void close() {
+        scatterPool.shutdownNow();
+    }
+}
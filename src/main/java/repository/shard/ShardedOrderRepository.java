@@ -0,0 +1,254 @@
+package repository.shard;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.Order;
+import repository.cache.LruCache;
+import repository.impl.OrderRepository;
+import repository.interfaces.IIdempotentOrderRepository;
+import repository.interfaces.IOrderRepository;
+
+/**
+ * Sharded Order Repository
+ * Routes order calls by customer ID to the owning shard (one OrderRepository
+ * per shard database). Lookups by order ID try the last known shard, then
+ * ask every shard in parallel; findAll and the order report query every
+ * shard in parallel and merge the results newest first. Idempotency keys
+ * live on the customer's shard, next to the orders they point to.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class ShardedOrderRepository implements IOrderRepository, IIdempotentOrderRepository {
+
+    private static final String REPORT_ROWS =
+            "SELECT order_id, customer_id, payment_type, total_price, order_date FROM orders " +
+            "ORDER BY order_date DESC, order_id DESC";
+    private static final int REPORT_FETCH_SIZE = 500;
+    private static final int LOCATION_CACHE_SIZE = 100_000;
+    private static final long LOCATION_TTL_MILLIS = 10 * 60 * 1000L;
+
+    /** Newest first, as OrderRepository.findAll returns them */
+    static final Comparator<Order> NEWEST_FIRST = Comparator
+            .comparing(Order::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingInt(Order::getOrderId).reversed());
+
+    private final ShardRouter router;
+    private final ConcurrentHashMap<Integer, OrderRepository> shardRepositories = new ConcurrentHashMap<>();
+    private final LruCache<Integer, Integer> orderLocations;
+
+    public ShardedOrderRepository(ShardRouter router) {
+        this.router = router;
+        this.orderLocations = new LruCache<>(LOCATION_CACHE_SIZE, LOCATION_TTL_MILLIS);
+    }
+
+    @Override
+    public Optional<Order> findById(int orderId) {
+        Integer known = orderLocations.get(orderId);
+        if (known != null && known < router.getShardCount()) {
+            Optional<Order> order = shard(known).findById(orderId);
+            if (order.isPresent()) {
+                return order;
+            }
+            // Moved by a rebalance since it was cached
+            orderLocations.invalidate(orderId);
+        }
+        List<Optional<Order>> found = router.scatter(shard -> shard(shard).findById(orderId));
+        for (int shard = 0; shard < found.size(); shard++) {
+            if (found.get(shard).isPresent()) {
+                orderLocations.put(orderId, shard);
+                return found.get(shard);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Order> findByCustomerId(int customerId) {
+        return router.withCustomer(customerId, shard -> shard(shard).findByCustomerId(customerId));
+    }
+
+    @Override
+    public List<Order> loadCustomerHistory(int customerId) {
+        return router.withCustomer(customerId, shard -> shard(shard).loadCustomerHistory(customerId));
+    }
+
+    @Override
+    public List<Order> findAll() {
+        return ShardRouter.mergeSorted(router.scatter(shard -> shard(shard).findAll()), NEWEST_FIRST);
+    }
+
+    @Override
+    public Order save(Order order) {
+        int customerId = order.getCustomer().getCustomerId();
+        return router.withCustomer(customerId, shard -> {
+            Order saved = shard(shard).save(order);
+            orderLocations.put(saved.getOrderId(), shard);
+            return saved;
+        });
+    }
+
+    @Override
+    public Order save(Order order, String idempotencyKey) {
+        int customerId = order.getCustomer().getCustomerId();
+        return router.withCustomer(customerId, shard -> {
+            Order saved = shard(shard).save(order, idempotencyKey);
+            orderLocations.put(saved.getOrderId(), shard);
+            return saved;
+        });
+    }
+
+    @Override
+    public Optional<Order> debitAndSave(Order order, BigDecimal charge, String idempotencyKey) {
+        int customerId = order.getCustomer().getCustomerId();
+        return router.withCustomer(customerId, shard -> {
+            Optional<Order> saved = shard(shard).debitAndSave(order, charge, idempotencyKey);
+            saved.ifPresent(o -> orderLocations.put(o.getOrderId(), shard));
+            return saved;
+        });
+    }
+
+    @Override
+    public boolean reserveIdempotencyKey(int customerId, String idempotencyKey, long staleAfterMillis) {
+        return router.withCustomer(customerId,
+                shard -> shard(shard).reserveIdempotencyKey(customerId, idempotencyKey, staleAfterMillis));
+    }
+
+    @Override
+    public Optional<Integer> findOrderIdByIdempotencyKey(int customerId, String idempotencyKey) {
+        return router.withCustomer(customerId,
+                shard -> shard(shard).findOrderIdByIdempotencyKey(customerId, idempotencyKey));
+    }
+
+    @Override
+    public void releaseIdempotencyKey(int customerId, String idempotencyKey) {
+        router.withCustomer(customerId, shard -> {
+            shard(shard).releaseIdempotencyKey(customerId, idempotencyKey);
+            return null;
+        });
+    }
+
+    @Override
+    public int getNextOrderId() {
+        int next = 1;
+        for (int shardNext : router.scatter(shard -> shard(shard).getNextOrderId())) {
+            next = Math.max(next, shardNext);
+        }
+        return next;
+    }
+
+    /**
+     * Streams every shard at once and merges the cursors newest first, so
+     * rows still reach the handler one at a time in one global order
+     */
+    @Override
+    public int streamOrderReport(ReportRowHandler handler) {
+        int count = router.getShardCount();
+        List<Connection> connections = new ArrayList<>(count);
+        List<PreparedStatement> statements = new ArrayList<>(count);
+        int rows = 0;
+        try {
+            // Start every shard's query in parallel, then merge on this thread
+            List<ResultSet> cursors = router.scatter(shard -> {
+                try {
+                    Connection conn = router.provider(shard).getReadConnection(ReportCursor.STALENESS_MILLIS);
+                    PreparedStatement stmt = conn.prepareStatement(REPORT_ROWS,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    stmt.setFetchSize(REPORT_FETCH_SIZE);
+                    synchronized (connections) {
+                        connections.add(conn);
+                        statements.add(stmt);
+                    }
+                    return stmt.executeQuery();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            PriorityQueue<ReportCursor> heads = new PriorityQueue<>();
+            for (ResultSet rs : cursors) {
+                ReportCursor cursor = new ReportCursor(rs);
+                if (cursor.advance()) {
+                    heads.add(cursor);
+                }
+            }
+            while (!heads.isEmpty()) {
+                ReportCursor head = heads.poll();
+                handler.onRow(head.orderId, head.customerId, head.paymentType, head.totalCents);
+                rows++;
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            Throwable cause = e.getCause() instanceof SQLException ? e.getCause() : e;
+            System.err.println("Error streaming sharded order report: " + cause.getMessage());
+            throw new RuntimeException("Failed to stream order report", cause);
+        } finally {
+            for (PreparedStatement stmt : statements) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing report statement: " + e.getMessage());
+                }
+            }
+            for (Connection conn : connections) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing report connection: " + e.getMessage());
+                }
+            }
+        }
+        return rows;
+    }
+
+    private OrderRepository shard(int shard) {
+        return shardRepositories.computeIfAbsent(shard, i -> new OrderRepository(router.provider(i)));
+    }
+
+    /**
+     * Current row of one shard's report cursor, ordered newest first
+     */
+    private static final class ReportCursor implements Comparable<ReportCursor> {
+        static final long STALENESS_MILLIS = 30_000;
+
+        private final ResultSet rs;
+        int orderId;
+        int customerId;
+        String paymentType;
+        long totalCents;
+        Timestamp orderDate;
+
+        ReportCursor(ResultSet rs) {
+            this.rs = rs;
+        }
+
+        boolean advance() throws SQLException {
+            if (!rs.next()) {
+                return false;
+            }
+            orderId = rs.getInt(1);
+            customerId = rs.getInt(2);
+            paymentType = rs.getString(3);
+            totalCents = rs.getBigDecimal(4).movePointRight(2).longValue();
+            orderDate = rs.getTimestamp(5);
+            return true;
+        }
+
+        @Override
+        public int compareTo(ReportCursor other) {
+            int byDate = other.orderDate.compareTo(orderDate);
+            return byDate != 0 ? byDate : Integer.compare(other.orderId, orderId);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package repository.shard;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.PaymentMethod;
+import repository.cache.LruCache;
+import repository.impl.PaymentMethodRepository;
+import repository.interfaces.IPaymentMethodRepository;
+
+/**
+ * Sharded Payment Method Repository
+ * Keeps each customer's payment methods on the same shard as their orders,
+ * so checkout only ever talks to one database. Lookups by payment method ID
+ * try the last known shard, then ask every shard in parallel.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class ShardedPaymentMethodRepository implements IPaymentMethodRepository {
+
+    private static final int LOCATION_CACHE_SIZE = 50_000;
+    private static final long LOCATION_TTL_MILLIS = 10 * 60 * 1000L;
+
+    private final ShardRouter router;
+    private final ConcurrentHashMap<Integer, PaymentMethodRepository> shardRepositories = new ConcurrentHashMap<>();
+    private final LruCache<Integer, Integer> paymentMethodLocations;
+
+    public ShardedPaymentMethodRepository(ShardRouter router) {
+        this.router = router;
+        this.paymentMethodLocations = new LruCache<>(LOCATION_CACHE_SIZE, LOCATION_TTL_MILLIS);
+    }
+
+    @Override
+    public Optional<PaymentMethod> findById(int paymentMethodId) {
+        Integer known = paymentMethodLocations.get(paymentMethodId);
+        if (known != null && known < router.getShardCount()) {
+            Optional<PaymentMethod> pm = shard(known).findById(paymentMethodId);
+            if (pm.isPresent()) {
+                return pm;
+            }
+            paymentMethodLocations.invalidate(paymentMethodId);
+        }
+        List<Optional<PaymentMethod>> found = router.scatter(shard -> shard(shard).findById(paymentMethodId));
+        for (int shard = 0; shard < found.size(); shard++) {
+            if (found.get(shard).isPresent()) {
+                paymentMethodLocations.put(paymentMethodId, shard);
+                return found.get(shard);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<PaymentMethod> findByCustomerId(int customerId) {
+        return router.withCustomer(customerId, shard -> shard(shard).findByCustomerId(customerId));
+    }
+
+    @Override
+    public Optional<PaymentMethod> findByCustomerIdAndType(int customerId, String paymentType) {
+        return router.withCustomer(customerId,
+                shard -> shard(shard).findByCustomerIdAndType(customerId, paymentType));
+    }
+
+    @Override
+    public PaymentMethod save(PaymentMethod paymentMethod) {
+        return router.withCustomer(paymentMethod.getCustomerId(), shard -> {
+            PaymentMethod saved = shard(shard).save(paymentMethod);
+            paymentMethodLocations.put(saved.getPaymentMethodId(), shard);
+            return saved;
+        });
+    }
+
+    /**
+     * Looks the payment method up first to learn its owner, then updates it
+     * on the owner's shard under the owner's lock (so a concurrent move
+     * cannot lose the update)
+     */
+    @Override
+    public boolean updateBalance(int paymentMethodId, double newBalance) {
+        Optional<PaymentMethod> pm = findById(paymentMethodId);
+        if (pm.isEmpty()) {
+            return false;
+        }
+        return router.withCustomer(pm.get().getCustomerId(), shard -> {
+            paymentMethodLocations.put(paymentMethodId, shard);
+            return shard(shard).updateBalance(paymentMethodId, newBalance);
+        });
+    }
+
+    /**
+     * Same routing as updateBalance; the debit itself is conditional on the shard
+     */
+    @Override
+    public Optional<BigDecimal> debit(int paymentMethodId, double amount) {
+        Optional<PaymentMethod> pm = findById(paymentMethodId);
+        if (pm.isEmpty()) {
+            return Optional.empty();
+        }
+        return router.withCustomer(pm.get().getCustomerId(), shard -> {
+            paymentMethodLocations.put(paymentMethodId, shard);
+            return shard(shard).debit(paymentMethodId, amount);
+        });
+    }
+
+    private PaymentMethodRepository shard(int shard) {
+        return shardRepositories.computeIfAbsent(shard, i -> new PaymentMethodRepository(router.provider(i)));
+    }
+}
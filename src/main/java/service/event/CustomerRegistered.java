@@ -0,0 +1,35 @@
+package service.event;
+
+/**
+ * Customer Registered
+ * A new customer signed up (the password is deliberately not carried).
+ */
+public final class CustomerRegistered extends DomainEvent {
+
+    private final int customerId;
+    private final String name;
+    private final String phoneNumber;
+
+    public CustomerRegistered(int customerId, String name, String phoneNumber) {
+        this.customerId = customerId;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerRegistered{customerId=" + customerId + ", name='" + name + "'}";
+    }
+}
@@ -0,0 +1,23 @@
+package service.event;
+
+/**
+ * Domain Event
+ * Something that happened after a write was committed. Events are
+ * immutable and carry only what subscribers need to react without going
+ * back to the database.
+ */
+public abstract class DomainEvent {
+
+    private final long occurredAt;
+
+    protected DomainEvent() {
+        this.occurredAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Epoch milliseconds when the event was raised
+     */
+    public long getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,297 @@
+package service.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Domain Event Publisher
+ * In-process bus for committed changes, built on java.util.concurrent.Flow
+ * (SubmissionPublisher). Services call publish() after their write
+ * succeeded; events are collected into small batches and each subscriber
+ * receives them on its own thread through its own bounded buffer.
+ * publish() never waits: with no subscribers it returns at once, and a
+ * batch that does not fit a slow subscriber's buffer is dropped for that
+ * subscriber and counted, so a slow listener cannot hold up checkout.
+ */
+public class DomainEventPublisher implements DomainEventSink, AutoCloseable {
+
+    /** Batches that can wait for each subscriber */
+    public static final int DEFAULT_BUFFER_CAPACITY = 256;
+    public static final int DEFAULT_MAX_BATCH = 64;
+    public static final long DEFAULT_LINGER_MILLIS = 5;
+    /** Batches a listener asks for at a time */
+    static final int REQUEST_SIZE = 16;
+
+    private final SubmissionPublisher<List<DomainEvent>> publisher;
+    private final ExecutorService delivery;
+    private final ScheduledExecutorService flusher;
+    private final int maxBatch;
+    private final long lingerMillis;
+
+    // Guarded by itself: events waiting to be sent as one batch
+    private final List<DomainEvent> pending = new ArrayList<>();
+    private boolean flushScheduled;
+    private volatile boolean closed;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public DomainEventPublisher() {
+        this(DEFAULT_BUFFER_CAPACITY, DEFAULT_MAX_BATCH, DEFAULT_LINGER_MILLIS);
+    }
+
+    /**
+     * @param bufferCapacity Batches that can wait for each subscriber
+     * @param maxBatch Events sent together at most
+     * @param lingerMillis How long a partial batch waits for more events
+     */
+    public DomainEventPublisher(int bufferCapacity, int maxBatch, long lingerMillis) {
+        if (bufferCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Buffer capacity and batch size must be greater than 0");
+        }
+        if (lingerMillis < 0) {
+            throw new IllegalArgumentException("Linger cannot be negative");
+        }
+        this.maxBatch = maxBatch;
+        this.lingerMillis = lingerMillis;
+        this.delivery = Executors.newCachedThreadPool(daemon("domain-events"));
+        this.flusher = Executors.newSingleThreadScheduledExecutor(daemon("domain-events-flush"));
+        this.publisher = new SubmissionPublisher<>(delivery, bufferCapacity);
+    }
+
+    /**
+     * Stage an event for every current subscriber (never blocks)
+     *
+     * @param event Committed change
+     */
+    @Override
+    public void publish(DomainEvent event) {
+        if (event == null || closed || !publisher.hasSubscribers()) {
+            return;
+        }
+        published.incrementAndGet();
+        synchronized (pending) {
+            pending.add(event);
+            if (pending.size() >= maxBatch) {
+                offerPending();
+            } else if (!flushScheduled) {
+                scheduleFlush();
+            }
+        }
+    }
+
+    /**
+     * Send the partial batch now instead of waiting for the linger time
+     */
+    public void flush() {
+        synchronized (pending) {
+            flushScheduled = false;
+            offerPending();
+        }
+    }
+
+    /**
+     * Subscribe to raw batches (the subscriber controls demand)
+     *
+     * @param subscriber Receives each batch as an unmodifiable list
+     */
+    public void subscribe(Flow.Subscriber<? super List<DomainEvent>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    /**
+     * Subscribe a handler called once per event, in publish order
+     *
+     * @param handler Called on the delivery thread; exceptions are logged and skipped
+     * @return Listener, which can be cancelled
+     */
+    public Listener subscribe(Consumer<? super DomainEvent> handler) {
+        Listener listener = new Listener(handler);
+        publisher.subscribe(listener);
+        return listener;
+    }
+
+    /**
+     * Subscribe a handler to one kind of event
+     *
+     * @param type Event class (e.g. OrderPlaced.class)
+     * @param handler Called for events of that class only
+     * @return Listener, which can be cancelled
+     */
+    public <E extends DomainEvent> Listener subscribe(Class<E> type, Consumer<? super E> handler) {
+        return subscribe(event -> {
+            if (type.isInstance(event)) {
+                handler.accept(type.cast(event));
+            }
+        });
+    }
+
+    /**
+     * Send what is staged, then complete every subscriber once it has
+     * taken its buffered batches
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flusher.shutdownNow();
+        synchronized (pending) {
+            flushScheduled = false;
+            offerPending();
+            publisher.close();
+        }
+        delivery.shutdown();
+    }
+
+    public long getPublished() {
+        return published.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /** Events not delivered because a subscriber's buffer was full (counted per subscriber) */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public int getSubscriberCount() {
+        return publisher.getNumberOfSubscribers();
+    }
+
+    /** Most batches any subscriber has buffered but not yet taken */
+    public int getMaxLag() {
+        return publisher.estimateMaximumLag();
+    }
+
+    // Caller holds the pending lock
+    private void scheduleFlush() {
+        try {
+            flusher.schedule(this::flush, lingerMillis, TimeUnit.MILLISECONDS);
+            flushScheduled = true;
+        } catch (RejectedExecutionException e) {
+            // Closing: send it now rather than lose it
+            offerPending();
+        }
+    }
+
+    // Caller holds the pending lock, which keeps batches in publish order
+    private void offerPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<DomainEvent> batch = List.copyOf(pending);
+        pending.clear();
+        if (publisher.isClosed()) {
+            return;
+        }
+        batches.incrementAndGet();
+        publisher.offer(batch, (subscriber, rejected) -> {
+            dropped.addAndGet(rejected.size());
+            return false;
+        });
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Per-event subscriber that asks for a few batches at a time, so its
+     * buffer (not the heap) is what bounds a slow handler
+     */
+    public static final class Listener implements Flow.Subscriber<List<DomainEvent>> {
+
+        private final Consumer<? super DomainEvent> handler;
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private int outstanding;
+
+        Listener(Consumer<? super DomainEvent> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (cancelled) {
+                subscription.cancel();
+                return;
+            }
+            outstanding = REQUEST_SIZE;
+            subscription.request(REQUEST_SIZE);
+        }
+
+        @Override
+        public void onNext(List<DomainEvent> batch) {
+            for (DomainEvent event : batch) {
+                if (cancelled) {
+                    return;
+                }
+                received.incrementAndGet();
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    System.err.println("Error handling " + event + ": " + e.getMessage());
+                }
+            }
+            // Top demand back up once half of it is used
+            if (--outstanding <= REQUEST_SIZE / 2) {
+                subscription.request(REQUEST_SIZE - outstanding);
+                outstanding = REQUEST_SIZE;
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            System.err.println("Error in domain event stream: " + throwable.getMessage());
+        }
+
+        @Override
+        public void onComplete() {
+            // Publisher closed; nothing to release
+        }
+
+        /**
+         * Stop receiving events (events already being handled finish)
+         */
+        public void cancel() {
+            cancelled = true;
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        public long getReceived() {
+            return received.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+    }
+}
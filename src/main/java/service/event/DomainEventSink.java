@@ -0,0 +1,20 @@
+package service.event;
+
+/**
+ * Domain Event Sink
+ * Where services report committed changes. Implementations must not block
+ * the caller (see DomainEventPublisher).
+ */
+@FunctionalInterface
+public interface DomainEventSink {
+
+    /** Sink that discards every event (nothing subscribed) */
+    DomainEventSink NONE = event -> { };
+
+    /**
+     * Report a committed change
+     *
+     * @param event Event to deliver to subscribers
+     */
+    void publish(DomainEvent event);
+}
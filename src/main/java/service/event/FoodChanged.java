@@ -0,0 +1,52 @@
+package service.event;
+
+import model.Food;
+
+/**
+ * Food Changed
+ * A menu item was added, updated or deleted.
+ */
+public final class FoodChanged extends DomainEvent {
+
+    /**
+     * What happened to the food
+     */
+    public enum Change {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+
+    private final int foodId;
+    private final Change change;
+    private final Food food;
+
+    /**
+     * @param food Food as saved (null when deleted)
+     */
+    public FoodChanged(int foodId, Change change, Food food) {
+        this.foodId = foodId;
+        this.change = change;
+        this.food = food;
+    }
+
+    public int getFoodId() {
+        return foodId;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    /**
+     * @return Food as saved, or null when deleted
+     */
+    public Food getFood() {
+        return food;
+    }
+
+    @Override
+    public String toString() {
+        return "FoodChanged{foodId=" + foodId + ", change=" + change + '}';
+    }
+}
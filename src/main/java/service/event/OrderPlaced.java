@@ -0,0 +1,42 @@
+package service.event;
+
+import java.math.BigDecimal;
+
+import model.Order;
+
+/**
+ * Order Placed
+ * An order was paid and saved.
+ */
+public final class OrderPlaced extends DomainEvent {
+
+    private final Order order;
+
+    /**
+     * @param order Saved order (shared with the checkout: read it, do not change it)
+     */
+    public OrderPlaced(Order order) {
+        this.order = order;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int getOrderId() {
+        return order.getOrderId();
+    }
+
+    public int getCustomerId() {
+        return order.getCustomer().getCustomerId();
+    }
+
+    public BigDecimal getTotal() {
+        return order.getTotalPriceDecimal();
+    }
+
+    @Override
+    public String toString() {
+        return "OrderPlaced{orderId=" + getOrderId() + ", customerId=" + getCustomerId() + ", total=" + getTotal() + '}';
+    }
+}
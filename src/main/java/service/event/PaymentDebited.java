@@ -0,0 +1,58 @@
+package service.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Payment Debited
+ * A payment method's balance was reduced by a checkout.
+ */
+public final class PaymentDebited extends DomainEvent {
+
+    private final int paymentMethodId;
+    private final int customerId;
+    private final String paymentType;
+    private final BigDecimal amount;
+    private final BigDecimal newBalance;
+
+    /**
+     * @param amount Amount taken (fees included)
+     * @param newBalance Balance after the debit (null when not known, e.g. batch checkout)
+     */
+    public PaymentDebited(int paymentMethodId, int customerId, String paymentType,
+                          BigDecimal amount, BigDecimal newBalance) {
+        this.paymentMethodId = paymentMethodId;
+        this.customerId = customerId;
+        this.paymentType = paymentType;
+        this.amount = amount;
+        this.newBalance = newBalance;
+    }
+
+    public int getPaymentMethodId() {
+        return paymentMethodId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public String getPaymentType() {
+        return paymentType;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * @return Balance after the debit, or null when the checkout did not read it back
+     */
+    public BigDecimal getNewBalance() {
+        return newBalance;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentDebited{paymentMethodId=" + paymentMethodId + ", customerId=" + customerId
+                + ", paymentType='" + paymentType + "', amount=" + amount + ", newBalance=" + newBalance + '}';
+    }
+}
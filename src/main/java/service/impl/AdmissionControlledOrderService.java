@@ -0,0 +1,108 @@
+package service.impl;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import model.CartRequest;
+import model.CartResult;
+import model.Order;
+import model.OrderDetails;
+import repository.interfaces.IOrderRepository;
+import service.interfaces.IOrderService;
+
+/**
+ * Admission Controlled Order Service
+ * Runs checkout (order, payment and batch checkout) through a
+ * ConcurrencyLimiter, so a slow database sees a bounded number of
+ * checkouts and the rest get a quick "try again" (RejectedException).
+ * Reads pass straight through. Only single checkouts that completed feed
+ * the limiter's latency samples: a business rejection can return before
+ * the database did any real work, and a batch holds one slot for many
+ * carts, so either would drag the baseline away from a normal checkout.
+ * Follows SOLID: Open/Closed Principle (decorator), Dependency Inversion Principle
+ */
+public class AdmissionControlledOrderService implements IOrderService {
+
+    public static final long DEFAULT_DEADLINE_MILLIS = 2_000;
+
+    private final IOrderService delegate;
+    private final ConcurrencyLimiter limiter;
+    private final long deadlineMillis;
+
+    public AdmissionControlledOrderService(IOrderService delegate, ConcurrencyLimiter limiter, long deadlineMillis) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public AdmissionControlledOrderService(IOrderService delegate, ConcurrencyLimiter limiter) {
+        this(delegate, limiter, DEFAULT_DEADLINE_MILLIS);
+    }
+
+    @Override
+    public Order createOrder(int customerId, List<OrderDetails> orderDetailsList,
+                             String paymentType, String cardNumber, String expiryDate) {
+        return admit(() -> delegate.createOrder(customerId, orderDetailsList, paymentType, cardNumber, expiryDate), true);
+    }
+
+    @Override
+    public Order createOrder(String idempotencyKey, int customerId, List<OrderDetails> orderDetailsList,
+                             String paymentType, String cardNumber, String expiryDate) {
+        return admit(() -> delegate.createOrder(idempotencyKey, customerId, orderDetailsList,
+                paymentType, cardNumber, expiryDate), true);
+    }
+
+    @Override
+    public List<CartResult> createOrders(List<CartRequest> carts) {
+        return admit(() -> delegate.createOrders(carts), false);
+    }
+
+    @Override
+    public List<Order> getAllOrders() {
+        return delegate.getAllOrders();
+    }
+
+    @Override
+    public int streamOrderReport(IOrderRepository.ReportRowHandler handler) {
+        return delegate.streamOrderReport(handler);
+    }
+
+    @Override
+    public List<Order> getOrdersByCustomerId(int customerId) {
+        return delegate.getOrdersByCustomerId(customerId);
+    }
+
+    @Override
+    public double calculateTotalPrice(List<OrderDetails> orderDetailsList) {
+        return delegate.calculateTotalPrice(orderDetailsList);
+    }
+
+    public ConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * @param measured true if a successful call's time is a fair latency sample
+     */
+    private <T> T admit(Supplier<T> checkout, boolean measured) {
+        ConcurrencyLimiter.Permit permit = limiter.acquire(deadlineMillis);
+        boolean failed = true;
+        boolean sample = false;
+        try {
+            T result = checkout.get();
+            failed = false;
+            sample = measured;
+            return result;
+        } catch (IllegalArgumentException e) {
+            // Business rejection: not a capacity failure, but not a latency sample either
+            failed = false;
+            throw e;
+        } finally {
+            if (sample || failed) {
+                permit.release(failed);
+            } else {
+                permit.releaseUnmeasured();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary export encoder
+ * File header: magic "JBOX" + short version. Each line is one record:
+ * int payload length, then orderId(int) customerId(int) orderEpochMillis(long)
+ * paymentType(byte length + UTF-8) status(byte length + UTF-8) orderTotalCents(long)
+ * foodId(int) quantity(int) unitPriceCents(long) subtotalCents(long), all big-endian.
+ */
+final class BinaryExportEncoder implements OrderExportEncoder {
+
+    static final byte[] MAGIC = {'J', 'B', 'O', 'X'};
+    static final short VERSION = 1;
+    private static final int FIXED_PAYLOAD = 4 + 4 + 8 + 1 + 1 + 8 + 4 + 4 + 8 + 8;
+    private static final int MAX_TEXT = 255;
+
+    private final ExportChannelSink sink;
+    // Payment types and statuses are a handful of values, so encode each once
+    private final Map<String, byte[]> encoded = new HashMap<>();
+
+    BinaryExportEncoder(ExportChannelSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void beginSegment(boolean newFile) throws IOException {
+        if (newFile) {
+            sink.ensure(MAGIC.length + 2).put(MAGIC).putShort(VERSION);
+        }
+    }
+
+    @Override
+    public void writeLine(int orderId, int customerId, long orderEpochMillis, String paymentType, String status,
+                          long orderTotalCents, int foodId, int quantity, long unitPriceCents, long subtotalCents)
+            throws IOException {
+        byte[] type = encode(paymentType);
+        byte[] state = encode(status);
+        int payload = FIXED_PAYLOAD + type.length + state.length;
+
+        ByteBuffer out = sink.ensure(4 + payload);
+        out.putInt(payload)
+           .putInt(orderId)
+           .putInt(customerId)
+           .putLong(orderEpochMillis)
+           .put((byte) type.length).put(type)
+           .put((byte) state.length).put(state)
+           .putLong(orderTotalCents)
+           .putInt(foodId)
+           .putInt(quantity)
+           .putLong(unitPriceCents)
+           .putLong(subtotalCents);
+    }
+
+    @Override
+    public void endSegment() {
+        // Records are self-delimiting; nothing to close
+    }
+
+    private byte[] encode(String value) {
+        String key = value != null ? value : "";
+        byte[] bytes = encoded.get(key);
+        if (bytes == null) {
+            bytes = key.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_TEXT) {
+                throw new IllegalArgumentException("Text column longer than " + MAX_TEXT + " bytes: " + key);
+            }
+            encoded.put(key, bytes);
+        }
+        return bytes;
+    }
+}
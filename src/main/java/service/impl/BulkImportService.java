@@ -0,0 +1,330 @@
+package service.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import model.Customer;
+import model.Food;
+import model.ImportResult;
+import repository.cache.CacheInvalidator;
+import repository.interfaces.IBulkImportRepository;
+import service.interfaces.IBulkImportService;
+import service.interfaces.ICustomerService;
+import service.interfaces.IFoodService;
+
+/**
+ * Bulk Import Service Implementation
+ * Pipeline per chunk: read (memory-mapped) -> validate in parallel with the
+ * FoodService/CustomerService rules -> dedupe in memory -> insert as one JDBC
+ * batch/transaction on a writer thread while the next chunk is being validated.
+ * At most two chunks are held at once, so memory does not grow with file size
+ * (apart from the duplicate-key index). Imported rows bypass the services'
+ * writes, so each committed batch is handed to FoodService/CustomerService
+ * (search index, FoodChanged/CustomerRegistered events), and once any food
+ * is committed the FOOD topic is invalidated as a whole.
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class BulkImportService implements IBulkImportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 5_000;
+    private static final int MAX_VALIDATION_WORKERS = 4;
+    private static final int EXPECTED_KEYS = 1 << 16;
+
+    private final IBulkImportRepository importRepository;
+    private final IFoodService foodService;
+    private final ICustomerService customerService;
+    private final CacheInvalidator invalidator;
+    private final int chunkSize;
+    private final int workers;
+
+    public BulkImportService(IBulkImportRepository importRepository, IFoodService foodService,
+                             ICustomerService customerService) {
+        this(importRepository, foodService, customerService, CacheInvalidator.NONE);
+    }
+
+    /**
+     * @param invalidator Told when imported foods change the menu, so cached
+     *                    menus (here and on other tills) are reloaded
+     */
+    public BulkImportService(IBulkImportRepository importRepository, IFoodService foodService,
+                             ICustomerService customerService, CacheInvalidator invalidator) {
+        this(importRepository, foodService, customerService, invalidator, DEFAULT_CHUNK_SIZE,
+                Math.min(MAX_VALIDATION_WORKERS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * @param chunkSize Rows per validation unit and per insert transaction
+     * @param workers Validation threads
+     */
+    public BulkImportService(IBulkImportRepository importRepository, IFoodService foodService,
+                             ICustomerService customerService, int chunkSize, int workers) {
+        this(importRepository, foodService, customerService, CacheInvalidator.NONE, chunkSize, workers);
+    }
+
+    public BulkImportService(IBulkImportRepository importRepository, IFoodService foodService,
+                             ICustomerService customerService, CacheInvalidator invalidator,
+                             int chunkSize, int workers) {
+        if (chunkSize <= 0 || workers <= 0) {
+            throw new IllegalArgumentException("Chunk size and workers must be greater than 0");
+        }
+        this.importRepository = importRepository;
+        this.foodService = foodService;
+        this.customerService = customerService;
+        this.invalidator = invalidator;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+    }
+
+    @Override
+    public ImportResult importFoods(Path file, ProgressListener listener) throws IllegalArgumentException {
+        Set<String> names = new HashSet<>();
+        importRepository.forEachFoodName(name -> names.add(foodKey(name)));
+
+        AtomicBoolean committed = new AtomicBoolean();
+        try {
+            return runImport(file, "food_name", this::parseFood,
+                    food -> names.add(foodKey(food.getFoodName())),
+                    batch -> {
+                        int inserted = importRepository.insertFoods(batch);
+                        if (inserted > 0) {
+                            committed.set(true);
+                            foodService.foodsImported(batch);
+                        }
+                        return inserted;
+                    }, listener);
+        } finally {
+            // Also after a failed import: the batches before the failure are kept
+            if (committed.get()) {
+                invalidator.invalidateAll(CacheInvalidator.Topic.FOOD);
+            }
+        }
+    }
+
+    @Override
+    public ImportResult importCustomers(Path file, ProgressListener listener) throws IllegalArgumentException {
+        PhoneIndex phones = new PhoneIndex();
+        importRepository.forEachPhoneNumber(phones::add);
+
+        return runImport(file, "name", this::parseCustomer,
+                customer -> phones.add(customer.getPhoneNumber()),
+                batch -> {
+                    int inserted = importRepository.insertCustomers(batch);
+                    if (inserted > 0) {
+                        customerService.customersImported(batch);
+                    }
+                    return inserted;
+                }, listener);
+    }
+
+    /**
+     * Turn CSV fields into a validated row
+     */
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(String[] fields) throws IllegalArgumentException;
+    }
+
+    private Food parseFood(String[] fields) throws IllegalArgumentException {
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected 3 columns but found " + fields.length);
+        }
+        double price;
+        try {
+            price = Double.parseDouble(fields[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Food price is not a number");
+        }
+        if (!foodService.validateFoodName(fields[0])) {
+            throw new IllegalArgumentException("Food name must contain only letters");
+        }
+        if (!foodService.validateFoodPrice(price)) {
+            throw new IllegalArgumentException("Food price is too low");
+        }
+        if (!foodService.validateFoodType(fields[2])) {
+            throw new IllegalArgumentException("Food type must be 'Set' or 'A la carte'");
+        }
+        return new Food(fields[0], price, fields[2]);
+    }
+
+    private Customer parseCustomer(String[] fields) throws IllegalArgumentException {
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 5 columns but found " + fields.length);
+        }
+        int age;
+        try {
+            age = Integer.parseInt(fields[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Age is not a number");
+        }
+        if (!customerService.validateName(fields[0])) {
+            throw new IllegalArgumentException("Name must contain only letters and spaces!");
+        }
+        if (!customerService.validateAge(age)) {
+            throw new IllegalArgumentException("Age is out of range!");
+        }
+        if (!customerService.validatePhoneNumber(fields[2])) {
+            throw new IllegalArgumentException("Phone number invalid!");
+        }
+        if (!customerService.validateGender(fields[3])) {
+            throw new IllegalArgumentException("Gender must be 'Male' or 'Female'!");
+        }
+        if (!customerService.validatePassword(fields[4])) {
+            throw new IllegalArgumentException("Password is too short!");
+        }
+        return new Customer(0, fields[0], age, fields[2], fields[3], fields[4]);
+    }
+
+    private <T> ImportResult runImport(Path file, String headerColumn, RowParser<T> parser,
+                                       Predicate<T> firstSeen, Function<List<T>, Integer> writer,
+                                       ProgressListener listener) {
+        ImportResult result = new ImportResult();
+        long start = System.currentTimeMillis();
+
+        MappedCsvReader reader;
+        try {
+            reader = new MappedCsvReader(file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read file: " + file, e);
+        }
+
+        ExecutorService validators = Executors.newFixedThreadPool(workers);
+        ExecutorService writerThread = Executors.newSingleThreadExecutor();
+        Future<Integer> pendingWrite = null;
+        try (MappedCsvReader csv = reader) {
+            long rowNumber = 0;
+            List<String[]> chunk = new ArrayList<>(chunkSize);
+            String[] first = csv.next();
+            if (first != null && first.length > 0 && first[0].equalsIgnoreCase(headerColumn)) {
+                rowNumber++;
+                first = null;
+            }
+            if (first != null) {
+                chunk.add(first);
+            }
+
+            while (true) {
+                String[] fields;
+                while (chunk.size() < chunkSize && (fields = csv.next()) != null) {
+                    chunk.add(fields);
+                }
+                if (chunk.isEmpty()) {
+                    break;
+                }
+
+                Object[] parsed = validate(chunk, parser, validators);
+                List<T> batch = new ArrayList<>(chunk.size());
+                for (int i = 0; i < parsed.length; i++) {
+                    rowNumber++;
+                    if (parsed[i] instanceof String) {
+                        result.addInvalid(rowNumber, (String) parsed[i]);
+                    } else {
+                        @SuppressWarnings("unchecked")
+                        T row = (T) parsed[i];
+                        if (firstSeen.test(row)) {
+                            batch.add(row);
+                        } else {
+                            result.addDuplicate();
+                        }
+                    }
+                }
+                result.addRowsRead(chunk.size());
+                chunk = new ArrayList<>(chunkSize);
+
+                // Keep one insert in flight while the next chunk is read and validated
+                if (pendingWrite != null) {
+                    result.addImported(pendingWrite.get());
+                }
+                pendingWrite = writerThread.submit(() -> writer.apply(batch));
+
+                if (listener != null) {
+                    listener.onProgress(result.getRowsRead(), result.getImported(), csv.getPosition(),
+                            csv.getSize(), System.currentTimeMillis() - start);
+                }
+            }
+            if (pendingWrite != null) {
+                result.addImported(pendingWrite.get());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Import failed while reading " + file + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new RuntimeException("Import stopped after " + result.getImported() + " rows: "
+                    + cause.getMessage(), cause);
+        } finally {
+            validators.shutdownNow();
+            writerThread.shutdownNow();
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Parse and validate a chunk across the worker pool
+     *
+     * @return Parsed row, or the validation message (String), per input row
+     */
+    private <T> Object[] validate(List<String[]> chunk, RowParser<T> parser, ExecutorService validators)
+            throws InterruptedException, ExecutionException {
+        Object[] parsed = new Object[chunk.size()];
+        int slice = (chunk.size() + workers - 1) / workers;
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int from = 0; from < chunk.size(); from += slice) {
+            int lo = from;
+            int hi = Math.min(from + slice, chunk.size());
+            tasks.add(() -> {
+                for (int i = lo; i < hi; i++) {
+                    try {
+                        parsed[i] = parser.parse(chunk.get(i));
+                    } catch (IllegalArgumentException e) {
+                        parsed[i] = e.getMessage();
+                    }
+                }
+                return null;
+            });
+        }
+        for (Future<Void> task : validators.invokeAll(tasks)) {
+            task.get();
+        }
+        return parsed;
+    }
+
+    private static String foodKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+
+    /**
+     * Phone numbers are digit strings, so most fit in a primitive long set;
+     * anything else (legacy data) falls back to a string set
+     */
+    private static final class PhoneIndex {
+        private final LongHashSet numeric = new LongHashSet(EXPECTED_KEYS);
+        private final Set<String> other = new HashSet<>();
+
+        boolean add(String phone) {
+            if (phone == null) {
+                return other.add("");
+            }
+            if (phone.length() > 0 && phone.length() <= 17 && phone.chars().allMatch(Character::isDigit)) {
+                // Encode length too so "0123" and "123" stay distinct
+                return numeric.add(Long.parseLong(phone) * 20 + phone.length());
+            }
+            return other.add(phone);
+        }
+    }
+}
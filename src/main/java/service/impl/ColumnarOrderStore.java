@@ -0,0 +1,320 @@
+package service.impl;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import repository.interfaces.IOrderLineRepository;
+
+/**
+ * Columnar Order Store
+ * Immutable snapshot of order history held in primitive arrays
+ * (one array per column) with dictionary-encoded payment types and food IDs.
+ * Queries are tight loops over these arrays, split with fork-join.
+ */
+public final class ColumnarOrderStore {
+
+    /** Ranges smaller than this are scanned on one thread */
+    static final int SPLIT_THRESHOLD = 1 << 15;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Order columns (index = order position); revenue is what was charged (total_price)
+    private final int orderCount;
+    private final int[] orderIds;
+    private final long[] orderLocalMinutes;
+    private final long[] orderCents;
+    private final int[] orderPaymentCode;
+
+    // Line columns (index = line position, grouped by order)
+    private final int lineCount;
+    private final int[] lineFoodCode;
+    private final int[] lineQuantity;
+    private final long[] lineCents;
+
+    // Dictionaries (code -> value)
+    private final String[] paymentTypes;
+    private final int[] foodIds;
+
+    private final ForkJoinPool pool;
+
+    private ColumnarOrderStore(Builder b, ForkJoinPool pool) {
+        this.orderCount = b.orderCount;
+        this.orderIds = Arrays.copyOf(b.orderIds, b.orderCount);
+        this.orderLocalMinutes = Arrays.copyOf(b.orderLocalMinutes, b.orderCount);
+        this.orderCents = Arrays.copyOf(b.orderCents, b.orderCount);
+        this.orderPaymentCode = Arrays.copyOf(b.orderPaymentCode, b.orderCount);
+        this.lineCount = b.lineCount;
+        this.lineFoodCode = Arrays.copyOf(b.lineFoodCode, b.lineCount);
+        this.lineQuantity = Arrays.copyOf(b.lineQuantity, b.lineCount);
+        this.lineCents = Arrays.copyOf(b.lineCents, b.lineCount);
+        this.paymentTypes = b.paymentDictionary.keySet().toArray(new String[0]);
+        for (Map.Entry<String, Integer> e : b.paymentDictionary.entrySet()) {
+            paymentTypes[e.getValue()] = e.getKey();
+        }
+        this.foodIds = new int[b.foodDictionary.size()];
+        for (Map.Entry<Integer, Integer> e : b.foodDictionary.entrySet()) {
+            foodIds[e.getValue()] = e.getKey();
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Create a builder that can be fed directly from IOrderLineRepository
+     *
+     * @param zone Time zone used to derive the hour of day
+     * @return New builder
+     */
+    public static Builder builder(ZoneId zone) {
+        return new Builder(zone);
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public int getFoodCount() {
+        return foodIds.length;
+    }
+
+    public int getPaymentTypeCount() {
+        return paymentTypes.length;
+    }
+
+    public int foodIdOf(int foodCode) {
+        return foodIds[foodCode];
+    }
+
+    public String paymentTypeOf(int paymentCode) {
+        return paymentTypes[paymentCode];
+    }
+
+    public int orderIdAt(int position) {
+        return orderIds[position];
+    }
+
+    /**
+     * Quantity and revenue per food code
+     *
+     * @return Array of length 2 * foodCount: [qty0, cents0, qty1, cents1, ...]
+     */
+    public long[] foodTotals() {
+        final int[] food = lineFoodCode;
+        final int[] qty = lineQuantity;
+        final long[] cents = lineCents;
+        return reduce(lineCount, foodIds.length * 2, (from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int slot = food[i] << 1;
+                acc[slot] += qty[i];
+                acc[slot + 1] += cents[i];
+            }
+        });
+    }
+
+    /**
+     * Revenue per hour of day (local time)
+     *
+     * @return Array of 24 totals in cents
+     */
+    public long[] revenueByHour() {
+        final long[] minutes = orderLocalMinutes;
+        final long[] cents = orderCents;
+        return reduce(orderCount, 24, (from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                acc[Math.floorMod(minutes[i], MINUTES_PER_DAY) / 60] += cents[i];
+            }
+        });
+    }
+
+    /**
+     * Revenue per payment code
+     *
+     * @return Array of totals in cents indexed by payment code
+     */
+    public long[] revenueByPaymentType() {
+        final int[] payment = orderPaymentCode;
+        final long[] cents = orderCents;
+        return reduce(orderCount, paymentTypes.length, (from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                acc[payment[i]] += cents[i];
+            }
+        });
+    }
+
+    /**
+     * Total items sold across all lines
+     */
+    public long totalQuantity() {
+        final int[] qty = lineQuantity;
+        return reduce(lineCount, 1, (from, to, acc) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += qty[i];
+            }
+            acc[0] += sum;
+        })[0];
+    }
+
+    /**
+     * Total revenue across all orders in cents
+     */
+    public long totalCents() {
+        final long[] cents = orderCents;
+        return reduce(orderCount, 1, (from, to, acc) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += cents[i];
+            }
+            acc[0] += sum;
+        })[0];
+    }
+
+    /**
+     * Accumulates a column range into a partial result
+     */
+    @FunctionalInterface
+    interface RangeKernel {
+        void accumulate(int from, int to, long[] acc);
+    }
+
+    private long[] reduce(int size, int width, RangeKernel kernel) {
+        if (size <= SPLIT_THRESHOLD) {
+            long[] acc = new long[width];
+            kernel.accumulate(0, size, acc);
+            return acc;
+        }
+        return pool.invoke(new RangeTask(0, size, width, kernel));
+    }
+
+    private static final class RangeTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int width;
+        private final RangeKernel kernel;
+
+        RangeTask(int from, int to, int width, RangeKernel kernel) {
+            this.from = from;
+            this.to = to;
+            this.width = width;
+            this.kernel = kernel;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                long[] acc = new long[width];
+                kernel.accumulate(from, to, acc);
+                return acc;
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask left = new RangeTask(from, mid, width, kernel);
+            left.fork();
+            long[] right = new RangeTask(mid, to, width, kernel).compute();
+            long[] result = left.join();
+            for (int i = 0; i < width; i++) {
+                result[i] += right[i];
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Builder
+     * Appends streamed order lines (ordered by order ID) into growable columns
+     */
+    public static final class Builder implements IOrderLineRepository.OrderLineHandler {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final ZoneRules zoneRules;
+        private final Map<String, Integer> paymentDictionary = new HashMap<>();
+        private final Map<Integer, Integer> foodDictionary = new HashMap<>();
+
+        private int orderCount;
+        private int[] orderIds = new int[INITIAL_CAPACITY];
+        private long[] orderLocalMinutes = new long[INITIAL_CAPACITY];
+        private long[] orderCents = new long[INITIAL_CAPACITY];
+        private int[] orderPaymentCode = new int[INITIAL_CAPACITY];
+
+        private int lineCount;
+        private int[] lineFoodCode = new int[INITIAL_CAPACITY];
+        private int[] lineQuantity = new int[INITIAL_CAPACITY];
+        private long[] lineCents = new long[INITIAL_CAPACITY];
+
+        private Builder(ZoneId zone) {
+            this.zoneRules = zone.getRules();
+        }
+
+        @Override
+        public void onLine(int orderId, long orderEpochMillis, String paymentType, long orderTotalCents,
+                           int foodId, int quantity, long subtotalCents) {
+            if (orderCount == 0 || orderIds[orderCount - 1] != orderId) {
+                startOrder(orderId, orderEpochMillis, paymentType, orderTotalCents);
+            }
+
+            if (lineCount == lineFoodCode.length) {
+                int capacity = lineCount * 2;
+                lineFoodCode = Arrays.copyOf(lineFoodCode, capacity);
+                lineQuantity = Arrays.copyOf(lineQuantity, capacity);
+                lineCents = Arrays.copyOf(lineCents, capacity);
+            }
+            Integer foodCode = foodDictionary.get(foodId);
+            if (foodCode == null) {
+                foodCode = foodDictionary.size();
+                foodDictionary.put(foodId, foodCode);
+            }
+            lineFoodCode[lineCount] = foodCode;
+            lineQuantity[lineCount] = quantity;
+            lineCents[lineCount] = subtotalCents;
+            lineCount++;
+        }
+
+        private void startOrder(int orderId, long epochMillis, String paymentType, long totalCents) {
+            if (orderCount == orderIds.length) {
+                int capacity = orderCount * 2;
+                orderIds = Arrays.copyOf(orderIds, capacity);
+                orderLocalMinutes = Arrays.copyOf(orderLocalMinutes, capacity);
+                orderCents = Arrays.copyOf(orderCents, capacity);
+                orderPaymentCode = Arrays.copyOf(orderPaymentCode, capacity);
+            }
+            String type = paymentType != null ? paymentType.toUpperCase() : "UNKNOWN";
+            Integer paymentCode = paymentDictionary.get(type);
+            if (paymentCode == null) {
+                paymentCode = paymentDictionary.size();
+                paymentDictionary.put(type, paymentCode);
+            }
+            int offsetSeconds = zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds();
+
+            orderIds[orderCount] = orderId;
+            orderLocalMinutes[orderCount] = Math.floorDiv(epochMillis, 60_000L) + offsetSeconds / 60;
+            orderCents[orderCount] = totalCents;
+            orderPaymentCode[orderCount] = paymentCode;
+            orderCount++;
+        }
+
+        /**
+         * Freeze the collected columns into a store using the common fork-join pool
+         */
+        public ColumnarOrderStore build() {
+            return build(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Freeze the collected columns into a store
+         *
+         * @param pool Fork-join pool used by queries
+         */
+        public ColumnarOrderStore build(ForkJoinPool pool) {
+            return new ColumnarOrderStore(this, pool);
+        }
+    }
+}
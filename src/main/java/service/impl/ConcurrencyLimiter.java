@@ -0,0 +1,303 @@
+package service.impl;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency Limiter
+ * Adaptive admission control (AIMD on latency). Up to `limit` calls run at
+ * once; the limit grows by about one per round of calls while latency stays
+ * near the best recently seen, and shrinks by 10% (at most once per typical
+ * call time) when latency passes twice that baseline or a call fails.
+ * Callers over the limit wait in a bounded FIFO queue. A caller is turned
+ * away at once when the queue is full or when, at the current pace, its
+ * turn would come after its deadline; otherwise it waits until the deadline.
+ * Lets a slow database run a few calls quickly instead of many slowly.
+ */
+public class ConcurrencyLimiter {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 8;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 64;
+    public static final int DEFAULT_MAX_QUEUE = 32;
+    /** Latency above baseline * tolerance counts as congestion */
+    static final double LATENCY_TOLERANCE = 2.0;
+    static final double BACKOFF_RATIO = 0.9;
+    /** Samples per baseline window (the baseline follows the database if it gets permanently slower) */
+    static final int BASELINE_WINDOW = 200;
+    private static final double EWMA_WEIGHT = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueue;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long previousWindowMin = Long.MAX_VALUE;
+    private long windowMin = Long.MAX_VALUE;
+    private int windowSamples;
+    private double averageLatencyNanos;
+    private long lastDecreaseNanos = Long.MIN_VALUE / 2;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param initialLimit Starting concurrency
+     * @param minLimit Lowest concurrency
+     * @param maxLimit Highest concurrency
+     * @param maxQueue Most callers allowed to wait
+     * @param nanoClock Clock for call latency
+     */
+    public ConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, int maxQueue, LongSupplier nanoClock) {
+        if (minLimit <= 0 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= initial <= max");
+        }
+        if (maxQueue < 0) {
+            throw new IllegalArgumentException("Queue size cannot be negative");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueue = maxQueue;
+        this.nanoClock = nanoClock;
+    }
+
+    public ConcurrencyLimiter() {
+        this(DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_MAX_QUEUE, System::nanoTime);
+    }
+
+    /**
+     * Wait for a slot
+     *
+     * @param timeoutMillis Longest the caller is willing to wait
+     * @return Permit, to be released when the call finishes
+     * @throws RejectedException if the caller should try again later
+     */
+    public Permit acquire(long timeoutMillis) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < currentLimit()) {
+                return admit();
+            }
+            if (waiters.size() >= maxQueue) {
+                rejected.incrementAndGet();
+                throw new RejectedException("Checkout queue is full");
+            }
+            // Shed now rather than after a wait that cannot end in time
+            double expectedWait = averageLatencyNanos * (waiters.size() + 1) / currentLimit();
+            if (expectedWait > remaining) {
+                rejected.incrementAndGet();
+                throw new RejectedException("Checkout is busy");
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            waiters.addLast(waiter);
+            while (!waiter.granted) {
+                if (remaining <= 0) {
+                    waiters.remove(waiter);
+                    rejected.incrementAndGet();
+                    timedOut.incrementAndGet();
+                    throw new RejectedException("Timed out waiting for checkout");
+                }
+                try {
+                    remaining = waiter.ready.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (waiter.granted) {
+                        break;
+                    }
+                    waiters.remove(waiter);
+                    rejected.incrementAndGet();
+                    throw new RejectedException("Interrupted waiting for checkout");
+                }
+            }
+            // Slot was reserved (inFlight counted) by the releasing thread
+            admitted.incrementAndGet();
+            return new Permit(inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Permit admit() {
+        inFlight++;
+        admitted.incrementAndGet();
+        return new Permit(inFlight);
+    }
+
+    private void release(Permit permit, boolean failed, boolean measured) {
+        long now = nanoClock.getAsLong();
+        long latency = now - permit.startNanos;
+        lock.lock();
+        try {
+            inFlight--;
+            if (failed) {
+                dropped.incrementAndGet();
+                decrease(now);
+            } else if (measured) {
+                sample(latency);
+                long baseline = Math.min(previousWindowMin, windowMin);
+                if (latency > baseline * LATENCY_TOLERANCE) {
+                    decrease(now);
+                } else if (permit.inFlightAtStart >= currentLimit() || !waiters.isEmpty()) {
+                    // The limit was what held calls back: grow by ~1 per round of calls
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                }
+            }
+            while (!waiters.isEmpty() && inFlight < currentLimit()) {
+                Waiter next = waiters.pollFirst();
+                next.granted = true;
+                inFlight++;
+                next.ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample(long latency) {
+        averageLatencyNanos = averageLatencyNanos == 0
+                ? latency : averageLatencyNanos + EWMA_WEIGHT * (latency - averageLatencyNanos);
+        windowMin = Math.min(windowMin, latency);
+        if (++windowSamples >= BASELINE_WINDOW) {
+            previousWindowMin = windowMin;
+            windowMin = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    /**
+     * Multiplicative decrease, at most once per typical call time
+     */
+    private void decrease(long now) {
+        if (now - lastDecreaseNanos >= averageLatencyNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            lastDecreaseNanos = now;
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return waiters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getAverageLatencyMillis() {
+        lock.lock();
+        try {
+            return averageLatencyNanos / 1_000_000.0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getAdmitted() {
+        return admitted.get();
+    }
+
+    /** Callers turned away (queue full, shed, or timed out) */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+
+    /** Admitted calls that failed */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * A slot in the limiter; release exactly once
+     */
+    public final class Permit {
+        private final long startNanos = nanoClock.getAsLong();
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * @param failed true if the call failed for lack of capacity (e.g. a database error)
+         */
+        public void release(boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            ConcurrencyLimiter.this.release(this, failed, true);
+        }
+
+        /**
+         * Free the slot without a latency sample, for calls whose time does
+         * not show what the database can take (rejected early, or batches)
+         */
+        public void releaseUnmeasured() {
+            if (released) {
+                return;
+            }
+            released = true;
+            ConcurrencyLimiter.this.release(this, false, false);
+        }
+    }
+
+    /**
+     * Thrown when the caller should try again later
+     */
+    public static class RejectedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class Waiter {
+        final Condition ready;
+        boolean granted;
+
+        Waiter(Condition ready) {
+            this.ready = ready;
+        }
+    }
+}
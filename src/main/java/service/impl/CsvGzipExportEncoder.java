@@ -0,0 +1,208 @@
+package service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip CSV export encoder
+ * Lines are formatted into a reusable byte array and deflated straight into
+ * the sink's direct buffer. Each segment is a complete gzip member; readers
+ * such as GZIPInputStream and gunzip treat concatenated members as one stream.
+ */
+final class CsvGzipExportEncoder implements OrderExportEncoder {
+
+    static final String HEADER =
+            "order_id,customer_id,order_date,payment_type,status,order_total,food_id,quantity,unit_price,subtotal\n";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int STAGING_SIZE = 64 * 1024;
+    private static final int MAX_LINE = 512;
+
+    private final ExportChannelSink sink;
+    private final ZoneRules zoneRules;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] staging = new byte[STAGING_SIZE];
+    private final Map<String, byte[]> encoded = new HashMap<>();
+    private int staged;
+    private long uncompressedSize;
+
+    // The same order timestamp repeats for every line of an order
+    private long lastMillis = Long.MIN_VALUE;
+    private final byte[] dateBytes = new byte[19];
+
+    CsvGzipExportEncoder(ExportChannelSink sink, ZoneId zone) {
+        this.sink = sink;
+        this.zoneRules = zone.getRules();
+    }
+
+    @Override
+    public void beginSegment(boolean newFile) throws IOException {
+        sink.ensure(GZIP_HEADER.length).put(GZIP_HEADER);
+        deflater.reset();
+        crc.reset();
+        uncompressedSize = 0;
+        staged = 0;
+        if (newFile) {
+            byte[] header = HEADER.getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(header, 0, staging, 0, header.length);
+            staged = header.length;
+        }
+    }
+
+    @Override
+    public void writeLine(int orderId, int customerId, long orderEpochMillis, String paymentType, String status,
+                          long orderTotalCents, int foodId, int quantity, long unitPriceCents, long subtotalCents)
+            throws IOException {
+        if (staged + MAX_LINE > staging.length) {
+            deflateStaged();
+        }
+        putLong(orderId);
+        putComma();
+        putLong(customerId);
+        putComma();
+        putDate(orderEpochMillis);
+        putComma();
+        putText(paymentType);
+        putComma();
+        putText(status);
+        putComma();
+        putCents(orderTotalCents);
+        putComma();
+        putLong(foodId);
+        putComma();
+        putLong(quantity);
+        putComma();
+        putCents(unitPriceCents);
+        putComma();
+        putCents(subtotalCents);
+        staging[staged++] = '\n';
+    }
+
+    @Override
+    public void endSegment() throws IOException {
+        deflateStaged();
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflateInto();
+        }
+        sink.ensure(8).putInt(Integer.reverseBytes((int) crc.getValue()))
+                      .putInt(Integer.reverseBytes((int) uncompressedSize));
+    }
+
+    private void deflateStaged() throws IOException {
+        if (staged == 0) {
+            return;
+        }
+        crc.update(staging, 0, staged);
+        uncompressedSize += staged;
+        deflater.setInput(staging, 0, staged);
+        while (!deflater.needsInput()) {
+            deflateInto();
+        }
+        staged = 0;
+    }
+
+    private void deflateInto() throws IOException {
+        ByteBuffer out = sink.buffer();
+        if (!out.hasRemaining()) {
+            sink.drain();
+        }
+        deflater.deflate(out, Deflater.NO_FLUSH);
+    }
+
+    private void putComma() {
+        staging[staged++] = ',';
+    }
+
+    private void putLong(long value) {
+        if (value < 0) {
+            staging[staged++] = '-';
+            value = -value;
+        }
+        int start = staged;
+        do {
+            staging[staged++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        reverse(start, staged - 1);
+    }
+
+    private void putCents(long cents) {
+        if (cents < 0) {
+            staging[staged++] = '-';
+            cents = -cents;
+        }
+        putLong(cents / 100);
+        long fraction = cents % 100;
+        staging[staged++] = '.';
+        staging[staged++] = (byte) ('0' + fraction / 10);
+        staging[staged++] = (byte) ('0' + fraction % 10);
+    }
+
+    private void putText(String value) {
+        String key = value != null ? value : "";
+        byte[] bytes = encoded.get(key);
+        if (bytes == null) {
+            // Quote only when needed, like most CSV writers
+            String text = key.contains(",") || key.contains("\"") || key.contains("\n")
+                    ? "\"" + key.replace("\"", "\"\"") + "\"" : key;
+            bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_LINE / 4) {
+                throw new IllegalArgumentException("Text column too long: " + key);
+            }
+            encoded.put(key, bytes);
+        }
+        System.arraycopy(bytes, 0, staging, staged, bytes.length);
+        staged += bytes.length;
+    }
+
+    /**
+     * Local date-time as yyyy-MM-dd HH:mm:ss
+     */
+    private void putDate(long epochMillis) {
+        if (epochMillis != lastMillis) {
+            lastMillis = epochMillis;
+            long epochSecond = Math.floorDiv(epochMillis, 1000L);
+            ZoneOffset offset = zoneRules.getOffset(Instant.ofEpochSecond(epochSecond));
+            LocalDateTime t = LocalDateTime.ofEpochSecond(epochSecond, 0, offset);
+            writeDigits(0, t.getYear(), 4);
+            dateBytes[4] = '-';
+            writeDigits(5, t.getMonthValue(), 2);
+            dateBytes[7] = '-';
+            writeDigits(8, t.getDayOfMonth(), 2);
+            dateBytes[10] = ' ';
+            writeDigits(11, t.getHour(), 2);
+            dateBytes[13] = ':';
+            writeDigits(14, t.getMinute(), 2);
+            dateBytes[16] = ':';
+            writeDigits(17, t.getSecond(), 2);
+        }
+        System.arraycopy(dateBytes, 0, staging, staged, dateBytes.length);
+        staged += dateBytes.length;
+    }
+
+    private void writeDigits(int at, int value, int width) {
+        for (int i = at + width - 1; i >= at; i--) {
+            dateBytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte tmp = staging[from];
+            staging[from++] = staging[to];
+            staging[to--] = tmp;
+        }
+    }
+}
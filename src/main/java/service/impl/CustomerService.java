@@ -1,14 +1,18 @@
 package service.impl;
 
+import java.util.List;
 import java.util.Optional;
 
 import model.Customer;
 import repository.interfaces.ICustomerRepository;
+import service.event.CustomerRegistered;
+import service.event.DomainEventSink;
 import service.interfaces.ICustomerService;
 
 public class CustomerService implements ICustomerService {
 
     private final ICustomerRepository customerRepository;
+    private final DomainEventSink events;
 
     // Validation constants
     private static final int MIN_AGE = 18;
@@ -18,7 +22,16 @@ public class CustomerService implements ICustomerService {
     private static final int PHONE_MAX_LENGTH = 11;
 
     public CustomerService(ICustomerRepository customerRepository) {
+        this(customerRepository, DomainEventSink.NONE);
+    }
+
+    /**
+     * @param customerRepository Customer repository
+     * @param events Receives a CustomerRegistered event after each sign-up
+     */
+    public CustomerService(ICustomerRepository customerRepository, DomainEventSink events) {
         this.customerRepository = customerRepository;
+        this.events = events;
     }
 
     @Override
@@ -38,7 +51,17 @@ public class CustomerService implements ICustomerService {
         customer.setCustomerId(customerRepository.getNextCustomerId());
 
         // Save customer
-        return customerRepository.save(customer);
+        Customer saved = customerRepository.save(customer);
+        events.publish(new CustomerRegistered(saved.getCustomerId(), saved.getName(), saved.getPhoneNumber()));
+        return saved;
+    }
+
+    @Override
+    public void customersImported(List<Customer> customers) {
+        for (Customer customer : customers) {
+            events.publish(new CustomerRegistered(customer.getCustomerId(), customer.getName(),
+                    customer.getPhoneNumber()));
+        }
     }
 
     @Override
@@ -0,0 +1,64 @@
+package service.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Export channel sink
+ * One large direct buffer in front of a FileChannel; encoders write into the
+ * buffer and it is drained to the channel only when full or at a checkpoint.
+ */
+final class ExportChannelSink {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    ExportChannelSink(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Buffer to encode into (big-endian)
+     */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Make sure at least {@code bytes} can be put without overflowing
+     */
+    ByteBuffer ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+        }
+        return buffer;
+    }
+
+    /**
+     * Write everything buffered so far to the channel
+     */
+    void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Drain and force data to disk (used at checkpoints)
+     */
+    void sync() throws IOException {
+        drain();
+        channel.force(false);
+    }
+
+    /**
+     * Logical file position including bytes still in the buffer
+     */
+    long position() throws IOException {
+        return channel.position() + buffer.position();
+    }
+}
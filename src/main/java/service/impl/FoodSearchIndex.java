@@ -0,0 +1,480 @@
+package service.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import model.Food;
+
+/**
+ * Food Search Index
+ * In-memory index over food names for type-ahead and typo-tolerant search.
+ * Names are split into lower-case words held in a trie; each word node
+ * lists the foods using it. A query word is matched by walking the trie
+ * with one edit-distance row per level, pruning every branch that is
+ * already more than the allowed edits away (1 edit for words of 3-4
+ * letters, 2 beyond, none for shorter ones or numbers). A word matches exactly, as a
+ * prefix of a longer word (still typing), or within the edit bound of
+ * either. Every query word must match some word of the name.
+ * Results are ranked exact > prefix > fuzzy, then names starting with the
+ * first query word, shorter names and ID. Updated one food at a time as
+ * the menu changes. Thread-safe; searches run in parallel.
+ */
+public class FoodSearchIndex {
+
+    private static final int EXACT = 100;
+    private static final int PREFIX = 60;
+    private static final int FUZZY = 40;
+    private static final int FUZZY_PREFIX = 30;
+    private static final int EDIT_PENALTY = 10;
+    private static final int LEADING_BONUS = 20;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+    private Node root = new Node();
+
+    // Foods by slot (slots are reused after removal)
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private Food[] foods = new Food[64];
+    private String[][] foodWords = new String[64][];
+    private Node[] firstWords = new Node[64];
+    private int[] nameLengths = new int[64];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Replace the whole index
+     *
+     * @param menu All foods
+     */
+    public void rebuild(Collection<Food> menu) {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            slotsById.clear();
+            Arrays.fill(foods, 0, slotCount, null);
+            Arrays.fill(foodWords, 0, slotCount, null);
+            Arrays.fill(firstWords, 0, slotCount, null);
+            slotCount = 0;
+            freeCount = 0;
+            for (Food food : menu) {
+                add(food);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a food, or re-index it after its name changed
+     */
+    public void put(Food food) {
+        lock.writeLock().lock();
+        try {
+            removeFood(food.getFoodId());
+            add(food);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int foodId) {
+        lock.writeLock().lock();
+        try {
+            removeFood(foodId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search food names
+     *
+     * @param query What the user typed (any case, possibly misspelt or partial)
+     * @param limit Maximum number of results
+     * @return Matching foods, best first
+     */
+    public List<Food> search(String query, int limit) {
+        String[] terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Scratch s = scratch.get();
+            s.begin(slotCount);
+            for (int t = 0; t < terms.length; t++) {
+                s.beginTerm(t);
+                String term = terms[t];
+                int maxEdits = maxEdits(term);
+                int[] row = s.row(0, term.length());
+                for (int j = 0; j <= term.length(); j++) {
+                    row[j] = j;
+                }
+                walk(root, 1, term, maxEdits, maxEdits + 1, s);
+                if (s.touchedCount == 0) {
+                    return new ArrayList<>();
+                }
+                s.endTerm();
+            }
+            return top(s, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Edits allowed for a query word; numbers ("Set 12") must match as typed
+     */
+    private static int maxEdits(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (Character.isDigit(term.charAt(i))) {
+                return 0;
+            }
+        }
+        return term.length() <= 4 ? 1 : 2;
+    }
+
+    // ----- Trie walk -----
+
+    /**
+     * Visit the children of a node, extending the edit-distance table by one row
+     *
+     * @param prefixDistance Best distance between the term and a prefix of this path
+     *                       (maxEdits + 1 if none is close enough)
+     */
+    private void walk(Node node, int depth, String term, int maxEdits, int prefixDistance, Scratch s) {
+        int n = term.length();
+        int[] previous = s.row(depth - 1, n);
+        for (int c = 0; c < node.size; c++) {
+            Node child = node.children[c];
+            if (prefixDistance == 0) {
+                // Whole subtree is a plain prefix match
+                collect(child, PREFIX, s);
+                continue;
+            }
+            char key = node.keys[c];
+            int[] row = s.row(depth, n);
+            row[0] = previous[0] + 1;
+            int rowMin = row[0];
+            for (int j = 1; j <= n; j++) {
+                int cost = term.charAt(j - 1) == key ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            int childPrefix = Math.min(prefixDistance, row[n]);
+            if (child.postingCount > 0) {
+                int score = 0;
+                if (row[n] == 0) {
+                    score = EXACT;
+                } else if (childPrefix == 0) {
+                    score = PREFIX;
+                } else if (row[n] <= maxEdits) {
+                    score = FUZZY - EDIT_PENALTY * row[n];
+                } else if (childPrefix <= maxEdits) {
+                    score = FUZZY_PREFIX - EDIT_PENALTY * childPrefix;
+                }
+                if (score > 0) {
+                    s.match(child, score, this);
+                }
+            }
+            if (child.size == 0) {
+                continue;
+            }
+            if (rowMin <= maxEdits) {
+                walk(child, depth + 1, term, maxEdits, childPrefix, s);
+            } else if (childPrefix <= maxEdits) {
+                // Nothing below gets closer, but it all extends a close prefix
+                collectChildren(child, FUZZY_PREFIX - EDIT_PENALTY * childPrefix, s);
+            }
+        }
+    }
+
+    private void collect(Node node, int score, Scratch s) {
+        if (node.postingCount > 0) {
+            s.match(node, score, this);
+        }
+        collectChildren(node, score, s);
+    }
+
+    private void collectChildren(Node node, int score, Scratch s) {
+        for (int c = 0; c < node.size; c++) {
+            collect(node.children[c], score, s);
+        }
+    }
+
+    private List<Food> top(Scratch s, int limit) {
+        int[] best = new int[Math.min(limit, s.touchedCount)];
+        int count = 0;
+        for (int i = 0; i < s.touchedCount; i++) {
+            int slot = s.touched[i];
+            if (count == best.length && !ranksBefore(slot, best[count - 1], s)) {
+                continue;
+            }
+            int at = count == best.length ? count - 1 : count++;
+            while (at > 0 && ranksBefore(slot, best[at - 1], s)) {
+                best[at] = best[at - 1];
+                at--;
+            }
+            best[at] = slot;
+        }
+        List<Food> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            results.add(foods[best[i]]);
+        }
+        return results;
+    }
+
+    private boolean ranksBefore(int a, int b, Scratch s) {
+        if (s.total[a] != s.total[b]) {
+            return s.total[a] > s.total[b];
+        }
+        if (nameLengths[a] != nameLengths[b]) {
+            return nameLengths[a] < nameLengths[b];
+        }
+        return foods[a].getFoodId() < foods[b].getFoodId();
+    }
+
+    // ----- Updates (callers hold the write lock) -----
+
+    private void add(Food food) {
+        String[] words = distinctWords(food.getFoodName());
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+        slotsById.put(food.getFoodId(), slot);
+        foods[slot] = food;
+        foodWords[slot] = words;
+        nameLengths[slot] = String.join(" ", words).length();
+        firstWords[slot] = null;
+        for (int w = 0; w < words.length; w++) {
+            Node node = root;
+            for (int i = 0; i < words[w].length(); i++) {
+                node = node.childOrCreate(words[w].charAt(i));
+            }
+            node.addPosting(slot);
+            if (w == 0) {
+                firstWords[slot] = node;
+            }
+        }
+    }
+
+    private void removeFood(int foodId) {
+        Integer slot = slotsById.remove(foodId);
+        if (slot == null) {
+            return;
+        }
+        for (String word : foodWords[slot]) {
+            Node[] path = new Node[word.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < word.length(); i++) {
+                path[i + 1] = path[i].child(word.charAt(i));
+            }
+            Node node = path[word.length()];
+            node.removePosting(slot);
+            // Prune nodes no word passes through any more
+            for (int i = word.length(); i > 0 && path[i].postingCount == 0 && path[i].size == 0; i--) {
+                path[i - 1].removeChild(word.charAt(i - 1));
+            }
+        }
+        foods[slot] = null;
+        foodWords[slot] = null;
+        firstWords[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int newSlot() {
+        if (slotCount == foods.length) {
+            int capacity = foods.length * 2;
+            foods = Arrays.copyOf(foods, capacity);
+            foodWords = Arrays.copyOf(foodWords, capacity);
+            firstWords = Arrays.copyOf(firstWords, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static String[] distinctWords(String name) {
+        Set<String> words = new LinkedHashSet<>(Arrays.asList(tokenize(name)));
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Lower-case words of a name; anything but letters and digits separates words
+     */
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{Nd}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /**
+     * Trie node: sorted child keys, and the foods whose name has the word ending here
+     */
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        int size;
+        int[] postings;
+        int postingCount;
+
+        Node child(char key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(children, i, children, i + 1, size - i);
+            Node child = new Node();
+            keys[i] = key;
+            children[i] = child;
+            size++;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            if (i >= 0) {
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                System.arraycopy(children, i + 1, children, i, size - i - 1);
+                children[--size] = null;
+            }
+        }
+
+        void addPosting(int slot) {
+            if (postings == null) {
+                postings = new int[2];
+            } else if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+            }
+            postings[postingCount++] = slot;
+        }
+
+        void removePosting(int slot) {
+            for (int i = 0; i < postingCount; i++) {
+                if (postings[i] == slot) {
+                    postings[i] = postings[--postingCount];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Per-thread search state, reused so a search allocates almost nothing.
+     * Arrays are indexed by slot; "generation" tells this search's entries
+     * from stale ones without clearing.
+     */
+    private static final class Scratch {
+        int generation;
+        int[] seen = new int[0];
+        int[] matchedTerms = new int[0];
+        int[] termScore = new int[0];
+        int[] total = new int[0];
+        int[] touched = new int[0];
+        int touchedCount;
+        int term;
+        int[][] rows = new int[0][];
+
+        void begin(int slots) {
+            if (seen.length < slots) {
+                seen = new int[slots];
+                matchedTerms = new int[slots];
+                termScore = new int[slots];
+                total = new int[slots];
+                touched = new int[slots];
+                generation = 0;
+            }
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                generation = 1;
+            }
+            touchedCount = 0;
+        }
+
+        void beginTerm(int t) {
+            term = t;
+            touchedCount = 0;
+        }
+
+        /**
+         * Record a matching word for every food (still in the running) that uses it
+         */
+        void match(Node word, int score, FoodSearchIndex index) {
+            for (int i = 0; i < word.postingCount; i++) {
+                int slot = word.postings[i];
+                int value = term == 0 && index.firstWords[slot] == word ? score + LEADING_BONUS : score;
+                if (term == 0 && seen[slot] != generation) {
+                    seen[slot] = generation;
+                    matchedTerms[slot] = 0;
+                    total[slot] = 0;
+                    termScore[slot] = 0;
+                } else if (seen[slot] != generation || matchedTerms[slot] != term) {
+                    // Missed an earlier term, or already counted for this one
+                    if (seen[slot] == generation && matchedTerms[slot] == term + 1) {
+                        termScore[slot] = Math.max(termScore[slot], value);
+                    }
+                    continue;
+                }
+                matchedTerms[slot] = term + 1;
+                termScore[slot] = value;
+                touched[touchedCount++] = slot;
+            }
+        }
+
+        void endTerm() {
+            for (int i = 0; i < touchedCount; i++) {
+                total[touched[i]] += termScore[touched[i]];
+            }
+        }
+
+        int[] row(int depth, int termLength) {
+            if (depth >= rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(16, depth * 2));
+            }
+            if (rows[depth] == null || rows[depth].length <= termLength) {
+                rows[depth] = new int[Math.max(32, termLength + 1)];
+            }
+            return rows[depth];
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package service.impl;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import model.Food;
+import repository.cache.CacheInvalidator;
 import repository.interfaces.IFoodRepository;
+import service.event.DomainEventSink;
+import service.event.FoodChanged;
 import service.interfaces.IFoodService;
 
 /**
@@ -15,12 +21,37 @@ import service.interfaces.IFoodService;
 public class FoodService implements IFoodService {
     
     private final IFoodRepository foodRepository;
+    private final CacheInvalidator invalidator;
+    private final DomainEventSink events;
+    private final FoodSearchIndex searchIndex = new FoodSearchIndex();
+    private volatile boolean searchIndexLoaded;
+    // Foods changed while the index was not loaded, or on another till; re-read by the searching thread
+    private final Set<Integer> pendingChanges = ConcurrentHashMap.newKeySet();
     
     // Validation constants
     private static final double MIN_PRICE = 0.01;
     
     public FoodService(IFoodRepository foodRepository) {
+        this(foodRepository, CacheInvalidator.NONE);
+    }
+    
+    /**
+     * @param foodRepository Food repository
+     * @param invalidator Told about every menu change, so cached menus (here and on other tills) are dropped
+     */
+    public FoodService(IFoodRepository foodRepository, CacheInvalidator invalidator) {
+        this(foodRepository, invalidator, DomainEventSink.NONE);
+    }
+    
+    /**
+     * @param foodRepository Food repository
+     * @param invalidator Told about every menu change, so cached menus (here and on other tills) are dropped
+     * @param events Receives a FoodChanged event after each saved menu change
+     */
+    public FoodService(IFoodRepository foodRepository, CacheInvalidator invalidator, DomainEventSink events) {
         this.foodRepository = foodRepository;
+        this.invalidator = invalidator;
+        this.events = events;
     }
     
     @Override
@@ -31,7 +62,11 @@ public class FoodService implements IFoodService {
         food.setFoodId(generateUniqueFoodId());
         
         // Save food
-        return foodRepository.save(food);
+        Food saved = foodRepository.save(food);
+        indexFood(saved);
+        invalidator.invalidate(CacheInvalidator.Topic.FOOD, saved.getFoodId());
+        events.publish(new FoodChanged(saved.getFoodId(), FoodChanged.Change.ADDED, saved));
+        return saved;
     }
     
     @Override
@@ -44,7 +79,11 @@ public class FoodService implements IFoodService {
         validateAllFields(food);
         
         // Update food
-        return foodRepository.update(food);
+        Food updated = foodRepository.update(food);
+        indexFood(updated);
+        invalidator.invalidate(CacheInvalidator.Topic.FOOD, food.getFoodId());
+        events.publish(new FoodChanged(food.getFoodId(), FoodChanged.Change.UPDATED, updated));
+        return updated;
     }
 
     /**
@@ -79,7 +118,13 @@ public class FoodService implements IFoodService {
         if (!foodRepository.existsById(foodId)) {
             return false;
         }
-        return foodRepository.deleteById(foodId);
+        boolean deleted = foodRepository.deleteById(foodId);
+        if (deleted) {
+            indexChange(foodId, null);
+            invalidator.invalidate(CacheInvalidator.Topic.FOOD, foodId);
+            events.publish(new FoodChanged(foodId, FoodChanged.Change.DELETED, null));
+        }
+        return deleted;
     }
     
     @Override
@@ -97,6 +142,100 @@ public class FoodService implements IFoodService {
         return foodRepository.findByName(foodName);
     }
     
+    @Override
+    public List<Food> searchFoods(String query, int limit) {
+        if (!searchIndexLoaded) {
+            loadSearchIndex();
+        } else if (!pendingChanges.isEmpty()) {
+            applyPendingChanges();
+        }
+        return searchIndex.search(query, limit);
+    }
+    
+    @Override
+    public void foodsImported(List<Food> foods) {
+        for (Food food : foods) {
+            indexFood(food);
+            events.publish(new FoodChanged(food.getFoodId(), FoodChanged.Change.ADDED, food));
+        }
+    }
+    
+    /**
+     * Note that one food changed on another till. This runs on the
+     * invalidation thread, so nothing is read here: the next search
+     * re-reads the food on its own thread.
+     * 
+     * @param foodId Food ID
+     */
+    public void refreshSearchIndex(int foodId) {
+        pendingChanges.add(foodId);
+    }
+    
+    /**
+     * Drop the search index; it is rebuilt from the repository on the next search
+     */
+    public void resetSearchIndex() {
+        searchIndexLoaded = false;
+    }
+    
+    private synchronized void loadSearchIndex() {
+        if (!searchIndexLoaded) {
+            // Changes saved before this point are in the snapshot
+            pendingChanges.clear();
+            searchIndex.rebuild(foodRepository.findAll());
+            searchIndexLoaded = true;
+            applyPendingChanges();
+        }
+    }
+    
+    private void indexFood(Food food) {
+        if (food != null) {
+            indexChange(food.getFoodId(), food);
+        }
+    }
+    
+    /**
+     * @param food Saved food, or null if it was deleted
+     */
+    private void indexChange(int foodId, Food food) {
+        if (!searchIndexLoaded) {
+            deferChange(foodId);
+        } else if (food != null) {
+            searchIndex.put(food);
+        } else {
+            searchIndex.remove(foodId);
+        }
+    }
+    
+    /**
+     * Remember a change the index may not have seen. If a load finished
+     * meanwhile (its snapshot may predate the change), apply it now.
+     */
+    private void deferChange(int foodId) {
+        pendingChanges.add(foodId);
+        if (searchIndexLoaded) {
+            applyPendingChanges();
+        }
+    }
+    
+    private void applyPendingChanges() {
+        Iterator<Integer> changed = pendingChanges.iterator();
+        while (changed.hasNext()) {
+            int foodId = changed.next();
+            changed.remove();
+            reindex(foodId);
+        }
+    }
+    
+    private void reindex(int foodId) {
+        Optional<Food> food = foodRepository.findById(foodId);
+        if (food.isPresent()) {
+            searchIndex.put(food.get());
+        } else {
+            searchIndex.remove(foodId);
+        }
+    }
+    
     @Override
     public boolean validateFoodName(String foodName) {
         if (foodName == null || foodName.trim().isEmpty()) {
@@ -0,0 +1,160 @@
+package service.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory-mapped CSV reader
+ * Maps the file in fixed-size windows and splits records without going
+ * through a Reader, so large files are read without per-line I/O calls.
+ * Supports double-quoted fields ("" escapes a quote); a record must fit in one window.
+ */
+public final class MappedCsvReader implements Closeable {
+
+    public static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int window;
+    private final List<String> fields = new ArrayList<>();
+    private byte[] lineBuffer = new byte[256];
+
+    private MappedByteBuffer mapped;
+    private long mappedStart;
+    private long position;
+
+    public MappedCsvReader(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param file CSV file to read
+     * @param window Maximum bytes mapped at once (also the maximum record length)
+     */
+    public MappedCsvReader(Path file, int window) throws IOException {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be greater than 0");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.window = window;
+    }
+
+    /**
+     * Read the next non-blank record
+     *
+     * @return Fields of the record, or null at end of file
+     * @throws IOException if the file cannot be mapped or a record is longer than the window
+     */
+    public String[] next() throws IOException {
+        while (position < size) {
+            int length = lineLength();
+            int offset = (int) (position - mappedStart);
+            position += length;
+
+            int end = length;
+            if (end > 0 && mapped.get(offset + end - 1) == '\n') end--;
+            if (end > 0 && mapped.get(offset + end - 1) == '\r') end--;
+            if (end > 0) {
+                return split(offset, end);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bytes consumed so far
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Length of the record starting at position, including its newline,
+     * remapping the window when the record crosses its end
+     */
+    private int lineLength() throws IOException {
+        if (mapped == null || position >= mappedStart + mapped.limit()) {
+            map(position);
+        }
+        int start = (int) (position - mappedStart);
+        int index = indexOfNewline(start);
+        if (index < 0 && mappedStart + mapped.limit() < size) {
+            map(position);
+            start = 0;
+            index = indexOfNewline(start);
+            if (index < 0 && mapped.limit() == window) {
+                throw new IOException("CSV record at byte " + position + " is longer than " + window + " bytes");
+            }
+        }
+        return index < 0 ? mapped.limit() - start : index - start + 1;
+    }
+
+    private int indexOfNewline(int from) {
+        boolean quoted = false;
+        for (int i = from, limit = mapped.limit(); i < limit; i++) {
+            byte b = mapped.get(i);
+            if (b == '"') {
+                quoted = !quoted;
+            } else if (b == '\n' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void map(long start) throws IOException {
+        mappedStart = start;
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(window, size - start));
+    }
+
+    private String[] split(int offset, int length) {
+        fields.clear();
+        int fieldLength = 0;
+        boolean quoted = false;
+        for (int i = 0; i < length; i++) {
+            byte b = mapped.get(offset + i);
+            if (b == '"') {
+                if (quoted && i + 1 < length && mapped.get(offset + i + 1) == '"') {
+                    fieldLength = append(fieldLength, b);
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (b == ',' && !quoted) {
+                fields.add(new String(lineBuffer, 0, fieldLength, StandardCharsets.UTF_8).trim());
+                fieldLength = 0;
+            } else {
+                fieldLength = append(fieldLength, b);
+            }
+        }
+        fields.add(new String(lineBuffer, 0, fieldLength, StandardCharsets.UTF_8).trim());
+        return fields.toArray(new String[0]);
+    }
+
+    private int append(int length, byte b) {
+        if (length == lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, length * 2);
+        }
+        lineBuffer[length] = b;
+        return length + 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+}
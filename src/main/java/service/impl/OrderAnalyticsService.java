@@ -0,0 +1,129 @@
+package service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.FoodSales;
+import repository.interfaces.IOrderLineRepository;
+import service.interfaces.IOrderAnalyticsService;
+
+/**
+ * Order Analytics Service Implementation
+ * Loads order lines once into a ColumnarOrderStore and answers
+ * analytics queries from memory instead of running SQL per question
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class OrderAnalyticsService implements IOrderAnalyticsService {
+
+    private final IOrderLineRepository orderLineRepository;
+    private final ZoneId zone;
+    private volatile ColumnarOrderStore store;
+
+    public OrderAnalyticsService(IOrderLineRepository orderLineRepository) {
+        this(orderLineRepository, ZoneId.systemDefault());
+    }
+
+    public OrderAnalyticsService(IOrderLineRepository orderLineRepository, ZoneId zone) {
+        this.orderLineRepository = orderLineRepository;
+        this.zone = zone;
+    }
+
+    @Override
+    public int refresh() {
+        ColumnarOrderStore.Builder builder = ColumnarOrderStore.builder(zone);
+        orderLineRepository.streamOrderLines(builder);
+        ColumnarOrderStore loaded = builder.build();
+        store = loaded;
+        return loaded.getOrderCount();
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return store != null;
+    }
+
+    @Override
+    public int getOrderCount() {
+        ColumnarOrderStore current = store;
+        return current != null ? current.getOrderCount() : 0;
+    }
+
+    @Override
+    public List<FoodSales> getTopFoods(int limit) throws IllegalArgumentException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        ColumnarOrderStore current = requireStore();
+        long[] totals = current.foodTotals();
+        int foodCount = current.getFoodCount();
+        int size = Math.min(limit, foodCount);
+
+        // Partial insertion sort: keep only the best `size` food codes
+        int[] best = new int[size];
+        int filled = 0;
+        for (int code = 0; code < foodCount; code++) {
+            long cents = totals[(code << 1) + 1];
+            if (filled == size && cents <= totals[(best[size - 1] << 1) + 1]) {
+                continue;
+            }
+            int pos = filled < size ? filled++ : size - 1;
+            while (pos > 0 && totals[(best[pos - 1] << 1) + 1] < cents) {
+                best[pos] = best[pos - 1];
+                pos--;
+            }
+            best[pos] = code;
+        }
+
+        List<FoodSales> result = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            int code = best[i];
+            result.add(new FoodSales(current.foodIdOf(code), totals[code << 1],
+                    BigDecimal.valueOf(totals[(code << 1) + 1], 2)));
+        }
+        return result;
+    }
+
+    @Override
+    public BigDecimal[] getRevenueByHour() {
+        long[] cents = requireStore().revenueByHour();
+        BigDecimal[] revenue = new BigDecimal[cents.length];
+        for (int hour = 0; hour < cents.length; hour++) {
+            revenue[hour] = BigDecimal.valueOf(cents[hour], 2);
+        }
+        return revenue;
+    }
+
+    @Override
+    public double getAverageBasketSize() {
+        ColumnarOrderStore current = requireStore();
+        if (current.getOrderCount() == 0) {
+            return 0.0;
+        }
+        return (double) current.totalQuantity() / current.getOrderCount();
+    }
+
+    @Override
+    public BigDecimal getAverageBasketValue() {
+        ColumnarOrderStore current = requireStore();
+        if (current.getOrderCount() == 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return BigDecimal.valueOf(current.totalCents(), 2)
+                .divide(BigDecimal.valueOf(current.getOrderCount()), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Current snapshot, loading it on first use
+     */
+    private ColumnarOrderStore requireStore() {
+        ColumnarOrderStore current = store;
+        if (current == null) {
+            refresh();
+            current = store;
+        }
+        return current;
+    }
+}
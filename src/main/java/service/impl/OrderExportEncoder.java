@@ -0,0 +1,28 @@
+package service.impl;
+
+import java.io.IOException;
+
+/**
+ * Order export encoder
+ * Encodes order lines into an ExportChannelSink. Output is split into
+ * segments that each end on an order boundary; a finished segment is
+ * self-contained, so a resumed export can append new segments after it.
+ */
+interface OrderExportEncoder {
+
+    /**
+     * Start a segment
+     *
+     * @param newFile true if nothing has been written to the file yet (write file headers)
+     */
+    void beginSegment(boolean newFile) throws IOException;
+
+    void writeLine(int orderId, int customerId, long orderEpochMillis, String paymentType, String status,
+                   long orderTotalCents, int foodId, int quantity, long unitPriceCents, long subtotalCents)
+            throws IOException;
+
+    /**
+     * Finish the current segment; all of its bytes are in the sink afterwards
+     */
+    void endSegment() throws IOException;
+}
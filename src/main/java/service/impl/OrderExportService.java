@@ -0,0 +1,189 @@
+package service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.Properties;
+
+import model.ExportFormat;
+import model.ExportResult;
+import repository.interfaces.IOrderLineRepository;
+import service.interfaces.IOrderExportService;
+
+/**
+ * Order Export Service Implementation
+ * Streams order lines from a forward-only cursor through an encoder into a
+ * FileChannel. Every CHECKPOINT_ORDERS orders the current segment is closed,
+ * synced to disk and recorded in {@code orders.<ext>.checkpoint} (last order ID
+ * and file length), so an interrupted or nightly export resumes from there.
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class OrderExportService implements IOrderExportService {
+
+    public static final int DEFAULT_CHECKPOINT_ORDERS = 50_000;
+    private static final int BUFFER_SIZE = 4 * 1024 * 1024;
+
+    private final IOrderLineRepository orderLineRepository;
+    private final ZoneId zone;
+    private final int checkpointOrders;
+
+    public OrderExportService(IOrderLineRepository orderLineRepository) {
+        this(orderLineRepository, ZoneId.systemDefault(), DEFAULT_CHECKPOINT_ORDERS);
+    }
+
+    /**
+     * @param zone Zone used for order_date in CSV output
+     * @param checkpointOrders Orders per segment / checkpoint
+     */
+    public OrderExportService(IOrderLineRepository orderLineRepository, ZoneId zone, int checkpointOrders) {
+        if (checkpointOrders <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be greater than 0");
+        }
+        this.orderLineRepository = orderLineRepository;
+        this.zone = zone;
+        this.checkpointOrders = checkpointOrders;
+    }
+
+    @Override
+    public ExportResult exportOrders(Path directory, ExportFormat format, boolean resume)
+            throws IllegalArgumentException {
+        if (directory == null || !Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Export directory does not exist: " + directory);
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("Export format is required");
+        }
+
+        Path file = directory.resolve("orders." + format.getExtension());
+        Path checkpointFile = directory.resolve("orders." + format.getExtension() + ".checkpoint");
+        long start = System.currentTimeMillis();
+
+        try {
+            long[] checkpoint = resume ? readCheckpoint(checkpointFile) : new long[] {0, 0};
+            int afterOrderId = (int) checkpoint[0];
+            long startOffset = Files.exists(file) ? Math.min(checkpoint[1], Files.size(file)) : 0;
+            if (startOffset == 0) {
+                afterOrderId = 0;
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Drop anything written after the last checkpoint (e.g. a crashed run)
+                channel.truncate(startOffset);
+                channel.position(startOffset);
+
+                ExportChannelSink sink = new ExportChannelSink(channel, BUFFER_SIZE);
+                OrderExportEncoder encoder = format == ExportFormat.BINARY
+                        ? new BinaryExportEncoder(sink)
+                        : new CsvGzipExportEncoder(sink, zone);
+                ExportRun run = new ExportRun(encoder, sink, checkpointFile, afterOrderId);
+
+                encoder.beginSegment(startOffset == 0);
+                try {
+                    orderLineRepository.streamExportLines(afterOrderId, run);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                run.finish();
+
+                return new ExportResult(file.toString(), format, afterOrderId, run.lastOrderId,
+                        run.orders, run.lines, channel.size() - startOffset, System.currentTimeMillis() - start);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Export failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * State of one export run; receives lines from the repository cursor
+     */
+    private final class ExportRun implements IOrderLineRepository.ExportLineHandler {
+        private final OrderExportEncoder encoder;
+        private final ExportChannelSink sink;
+        private final Path checkpointFile;
+        private int lastOrderId;
+        private long orders;
+        private long lines;
+        private int ordersInSegment;
+
+        ExportRun(OrderExportEncoder encoder, ExportChannelSink sink, Path checkpointFile, int afterOrderId) {
+            this.encoder = encoder;
+            this.sink = sink;
+            this.checkpointFile = checkpointFile;
+            this.lastOrderId = afterOrderId;
+        }
+
+        @Override
+        public void onLine(int orderId, int customerId, long orderEpochMillis, String paymentType, String status,
+                           long orderTotalCents, int foodId, int quantity, long unitPriceCents, long subtotalCents) {
+            try {
+                if (orderId != lastOrderId || lines == 0) {
+                    // Previous order is complete, so this is a safe place to checkpoint
+                    if (ordersInSegment >= checkpointOrders) {
+                        checkpoint();
+                        encoder.beginSegment(false);
+                    }
+                    lastOrderId = orderId;
+                    orders++;
+                    ordersInSegment++;
+                }
+                encoder.writeLine(orderId, customerId, orderEpochMillis, paymentType, status,
+                        orderTotalCents, foodId, quantity, unitPriceCents, subtotalCents);
+                lines++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            checkpoint();
+        }
+
+        private void checkpoint() throws IOException {
+            encoder.endSegment();
+            sink.sync();
+            writeCheckpoint(checkpointFile, lastOrderId, sink.position());
+            ordersInSegment = 0;
+        }
+    }
+
+    /**
+     * @return {lastOrderId, fileLength}, zeros if there is no checkpoint yet
+     */
+    private static long[] readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return new long[] {0, 0};
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            properties.load(in);
+        }
+        try {
+            return new long[] {
+                    Long.parseLong(properties.getProperty("lastOrderId", "0")),
+                    Long.parseLong(properties.getProperty("bytes", "0"))};
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt checkpoint file " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Replace the checkpoint atomically so a crash never leaves half a checkpoint
+     */
+    private static void writeCheckpoint(Path checkpointFile, int lastOrderId, long bytes) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("lastOrderId", String.valueOf(lastOrderId));
+        properties.setProperty("bytes", String.valueOf(bytes));
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, "Order export checkpoint");
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -2,14 +2,29 @@ package service.impl;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import model.*;
+import repository.cache.LruCache;
+import repository.interfaces.IBatchCheckoutRepository;
 import repository.interfaces.ICustomerRepository;
+import repository.interfaces.IIdempotentOrderRepository;
 import repository.interfaces.IOrderRepository;
 import repository.interfaces.IPaymentMethodRepository;
+import service.event.DomainEventSink;
+import service.event.OrderPlaced;
+import service.event.PaymentDebited;
 import service.interfaces.IOrderService;
 import service.interfaces.IPaymentService;
 
@@ -20,89 +35,235 @@ import service.interfaces.IPaymentService;
  */
 public class OrderService implements IOrderService {
 
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+    public static final int DEFAULT_IDEMPOTENCY_INDEX_SIZE = 10_000;
+    public static final long DEFAULT_IDEMPOTENCY_TTL_MILLIS = 24L * 60 * 60 * 1000;
+    /** A reserved key with no order after this long belongs to a checkout that died, and is reclaimed */
+    public static final long STALE_RESERVATION_MILLIS = 2L * 60 * 1000;
+
     private final IOrderRepository orderRepository;
     private final ICustomerRepository customerRepository;
     private final IPaymentMethodRepository paymentMethodRepository;
     private final IPaymentService paymentService;
+    private final IIdempotentOrderRepository idempotentOrderRepository;
+    private final LruCache<String, Order> completedCheckouts;
+    private final IBatchCheckoutRepository batchCheckoutRepository;
+    private final PricingEngine pricingEngine;
+    private final DomainEventSink events;
+    private final ConcurrentMap<String, CompletableFuture<Order>> inFlightCheckouts = new ConcurrentHashMap<>();
 
     public OrderService(IOrderRepository orderRepository, 
                             ICustomerRepository customerRepository, 
                             IPaymentMethodRepository paymentMethodRepository, 
                             IPaymentService paymentService) {
+        this(orderRepository, customerRepository, paymentMethodRepository, paymentService, null,
+                new LruCache<>(DEFAULT_IDEMPOTENCY_INDEX_SIZE, DEFAULT_IDEMPOTENCY_TTL_MILLIS));
+    }
+
+    /**
+     * Constructor with durable idempotency keys
+     *
+     * @param idempotentOrderRepository Key store backed by a unique DB column
+     *                                  (null = keys only deduplicated in memory)
+     * @param completedCheckouts Bounded index of recently completed keys
+     */
+    public OrderService(IOrderRepository orderRepository, 
+                            ICustomerRepository customerRepository, 
+                            IPaymentMethodRepository paymentMethodRepository, 
+                            IPaymentService paymentService,
+                            IIdempotentOrderRepository idempotentOrderRepository,
+                            LruCache<String, Order> completedCheckouts) {
+        this(orderRepository, customerRepository, paymentMethodRepository, paymentService,
+                idempotentOrderRepository, completedCheckouts, null);
+    }
+
+    /**
+     * Constructor with durable idempotency keys and set-based batch checkout
+     *
+     * @param batchCheckoutRepository Bulk reads and batched writes for createOrders
+     *                                (null = createOrders places carts one by one)
+     */
+    public OrderService(IOrderRepository orderRepository, 
+                            ICustomerRepository customerRepository, 
+                            IPaymentMethodRepository paymentMethodRepository, 
+                            IPaymentService paymentService,
+                            IIdempotentOrderRepository idempotentOrderRepository,
+                            LruCache<String, Order> completedCheckouts,
+                            IBatchCheckoutRepository batchCheckoutRepository) {
+        this(orderRepository, customerRepository, paymentMethodRepository, paymentService,
+                idempotentOrderRepository, completedCheckouts, batchCheckoutRepository, null);
+    }
+
+    /**
+     * Constructor with all collaborators
+     *
+     * @param pricingEngine Checks unit prices against the menu price snapshot
+     *                      (null = only quantities and subtotals are checked)
+     */
+    public OrderService(IOrderRepository orderRepository, 
+                            ICustomerRepository customerRepository, 
+                            IPaymentMethodRepository paymentMethodRepository, 
+                            IPaymentService paymentService,
+                            IIdempotentOrderRepository idempotentOrderRepository,
+                            LruCache<String, Order> completedCheckouts,
+                            IBatchCheckoutRepository batchCheckoutRepository,
+                            PricingEngine pricingEngine) {
+        this(orderRepository, customerRepository, paymentMethodRepository, paymentService,
+                idempotentOrderRepository, completedCheckouts, batchCheckoutRepository, pricingEngine,
+                DomainEventSink.NONE);
+    }
+
+    /**
+     * Constructor with all collaborators and domain events
+     *
+     * @param events Receives OrderPlaced (and, for batch checkout, PaymentDebited)
+     *               after each saved order
+     */
+    public OrderService(IOrderRepository orderRepository, 
+                            ICustomerRepository customerRepository, 
+                            IPaymentMethodRepository paymentMethodRepository, 
+                            IPaymentService paymentService,
+                            IIdempotentOrderRepository idempotentOrderRepository,
+                            LruCache<String, Order> completedCheckouts,
+                            IBatchCheckoutRepository batchCheckoutRepository,
+                            PricingEngine pricingEngine,
+                            DomainEventSink events) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
         this.paymentMethodRepository = paymentMethodRepository;
         this.paymentService = paymentService;
+        this.idempotentOrderRepository = idempotentOrderRepository;
+        this.completedCheckouts = completedCheckouts;
+        this.batchCheckoutRepository = batchCheckoutRepository;
+        this.pricingEngine = pricingEngine;
+        this.events = events;
     }
 
     @Override
     public Order createOrder(int customerId, List<OrderDetails> orderDetailsList, 
                              String paymentType, String cardNumber, String expiryDate) throws IllegalArgumentException {
-        // Validate customer exists
-        Optional<Customer> customerOpt = customerRepository.findById(customerId);
-        if (customerOpt.isEmpty()) {
-            throw new IllegalArgumentException("Customer not found");
+        return placeOrder(customerId, orderDetailsList, paymentType, cardNumber, expiryDate, null);
+    }
+
+    @Override
+    public Order createOrder(String idempotencyKey, int customerId, List<OrderDetails> orderDetailsList, 
+                             String paymentType, String cardNumber, String expiryDate) throws IllegalArgumentException {
+        validateIdempotencyKey(idempotencyKey);
+
+        // Keys are per customer: another customer's key never returns this customer an order
+        String checkoutKey = checkoutKey(customerId, idempotencyKey);
+        Order completed = completedCheckouts.get(checkoutKey);
+        if (completed != null) {
+            return completed;
         }
-        Customer customer = customerOpt.get();
 
-        // Validate order details
-        if (orderDetailsList == null || orderDetailsList.isEmpty()) {
-            throw new IllegalArgumentException("Order must contain at least one item");
+        // Concurrent duplicates wait on the first request instead of paying again
+        CompletableFuture<Order> checkout = new CompletableFuture<>();
+        CompletableFuture<Order> leader = inFlightCheckouts.putIfAbsent(checkoutKey, checkout);
+        if (leader != null) {
+            return awaitCheckout(leader);
         }
 
-        // Recompute authoritative total using BigDecimal and validate details
-        BigDecimal computedTotal = BigDecimal.ZERO;
-        for (OrderDetails detail : orderDetailsList) {
-            if (detail == null)
-                throw new IllegalArgumentException("Order detail cannot be null");
+        try {
+            Order order = completedCheckouts.get(checkoutKey);
+            if (order == null) {
+                order = checkoutOnce(idempotencyKey, customerId, orderDetailsList, paymentType, cardNumber, expiryDate);
+                completedCheckouts.put(checkoutKey, order);
+            }
+            checkout.complete(order);
+            return order;
+        } catch (RuntimeException e) {
+            checkout.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCheckouts.remove(checkoutKey, checkout);
+        }
+    }
 
-            if (detail.getQuantity() <= 0)
-                throw new IllegalArgumentException("Quantity must be > 0");
+    /**
+     * Run a keyed checkout at most once across instances using the durable key store
+     */
+    private Order checkoutOnce(String idempotencyKey, int customerId, List<OrderDetails> orderDetailsList,
+                               String paymentType, String cardNumber, String expiryDate) {
+        if (idempotentOrderRepository == null) {
+            return placeOrder(customerId, orderDetailsList, paymentType, cardNumber, expiryDate, null);
+        }
 
-            if (detail.getQuantity() > 100)
-                throw new IllegalArgumentException(
-                    "Quantity too large for item: " + detail.getFood().getFoodId()
-                );
+        if (!idempotentOrderRepository.reserveIdempotencyKey(customerId, idempotencyKey, STALE_RESERVATION_MILLIS)) {
+            return idempotentOrderRepository.findOrderIdByIdempotencyKey(customerId, idempotencyKey)
+                    .flatMap(orderRepository::findById)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Order with this idempotency key is still being processed, please try again later"));
+        }
 
-            BigDecimal unit = detail.getUnitPriceDecimal();
-            if (unit == null)
-                throw new IllegalArgumentException("Unit price missing");
+        try {
+            return placeOrder(customerId, orderDetailsList, paymentType, cardNumber, expiryDate, idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            // Rejected with nothing written: allow the client to retry with the same key.
+            // Other failures keep the key reserved, since a commit whose reply was lost may
+            // have gone through; the debit only ever commits with the order and its key, so a
+            // retry once the reservation is STALE_RESERVATION_MILLIS old finds that order or
+            // reclaims a key that was never charged.
+            idempotentOrderRepository.releaseIdempotencyKey(customerId, idempotencyKey);
+            throw e;
+        }
+    }
 
-            BigDecimal expectedSubtotal = unit.multiply(BigDecimal.valueOf(detail.getQuantity()))
-                                              .setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Index key for completed and in-flight checkouts
+     */
+    private static String checkoutKey(int customerId, String idempotencyKey) {
+        return customerId + ":" + idempotencyKey;
+    }
 
-            BigDecimal actualSubtotal = detail.getSubtotalDecimal() != null
-                                        ? detail.getSubtotalDecimal().setScale(2, RoundingMode.HALF_UP)
-                                        : BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+    private static void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.trim().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be empty");
+        }
+        if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key cannot exceed " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+    }
 
-            if (expectedSubtotal.compareTo(actualSubtotal) != 0) {
-                throw new IllegalArgumentException(
-                    "Order detail subtotal mismatch for item: " +
-                    (detail.getFood() != null ? detail.getFood().getFoodId() : "unknown")
-                );
+    /**
+     * Wait for the in-flight checkout with the same key and share its outcome
+     */
+    private static Order awaitCheckout(CompletableFuture<Order> checkout) {
+        try {
+            return checkout.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw e;
+        }
+    }
 
-            computedTotal = computedTotal.add(expectedSubtotal);
+    /**
+     * Validate, pay and save one order (idempotencyKey null = plain save)
+     */
+    private Order placeOrder(int customerId, List<OrderDetails> orderDetailsList, String paymentType,
+                             String cardNumber, String expiryDate, String idempotencyKey) {
+        // Validate customer exists
+        Optional<Customer> customerOpt = customerRepository.findById(customerId);
+        if (customerOpt.isEmpty()) {
+            throw new IllegalArgumentException("Customer not found");
         }
+        Customer customer = customerOpt.get();
 
-        computedTotal = computedTotal.setScale(2, RoundingMode.HALF_UP);
-        double totalPrice = computedTotal.doubleValue();
+        // Validate order details and recompute the authoritative total, less promotions
+        long subtotalCents = validateOrderDetails(orderDetailsList);
+        long discountCents = promotionDiscount(orderDetailsList);
+        BigDecimal total = BigDecimal.valueOf(subtotalCents - discountCents, 2);
+        double totalPrice = total.doubleValue();
 
-        // Get payment method
-        Optional<PaymentMethod> paymentMethodOpt = paymentMethodRepository
-                .findByCustomerIdAndType(customerId, paymentType);
+        // Get payment method (looked up once per checkout and handed to the payment service)
+        Optional<PaymentMethod> paymentMethodOpt = paymentMethodRepository.findByCustomerIdAndType(customerId, paymentType);
         if (paymentMethodOpt.isEmpty()) {
             throw new IllegalArgumentException("Payment method not found");
         }
         PaymentMethod paymentMethod = paymentMethodOpt.get();
 
-        // Process payment
-        try {
-            paymentService.processPayment(customerId, paymentType, totalPrice, cardNumber, expiryDate);
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Payment failed: " + e.getMessage());
-        }
-
         // Create order using Builder pattern (keeps construction logic centralized)
         Order order = new Order.Builder()
                         .orderDate(new Date())
@@ -113,8 +274,223 @@ public class OrderService implements IOrderService {
                         .status("COMPLETED")
                         .build();
 
+        if (idempotencyKey != null) {
+            // Debit, order and key commit together, so a failed save leaves no charge behind
+            BigDecimal charge = chargeFor(paymentMethod, total, cardNumber, expiryDate);
+            Order saved = idempotentOrderRepository.debitAndSave(order, charge, idempotencyKey)
+                    .orElseThrow(() -> new IllegalArgumentException("Payment failed: Insufficient balance"));
+            publishCheckout(saved, charge, paymentMethod.getBalanceDecimal());
+            return saved;
+        }
+
+        // Process payment
+        try {
+            paymentService.processPayment(paymentMethod, totalPrice, cardNumber, expiryDate);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Payment failed: " + e.getMessage());
+        }
+
         // Save order
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        events.publish(new OrderPlaced(saved));
+        return saved;
+    }
+
+    @Override
+    public List<CartResult> createOrders(List<CartRequest> carts) throws IllegalArgumentException {
+        if (carts == null) {
+            throw new IllegalArgumentException("Cart list cannot be null");
+        }
+        if (batchCheckoutRepository == null) {
+            return createOrdersOneByOne(carts);
+        }
+
+        // 1. Bulk-load every customer and payment method the batch needs
+        Set<Integer> customerIds = new HashSet<>();
+        for (CartRequest cart : carts) {
+            if (cart != null) {
+                customerIds.add(cart.getCustomerId());
+            }
+        }
+        Map<Integer, Customer> customers = batchCheckoutRepository.findCustomersByIds(customerIds);
+        Map<Integer, List<PaymentMethod>> paymentMethods =
+                batchCheckoutRepository.findPaymentMethodsByCustomerIds(customerIds);
+
+        // 2. Validate all carts in one pass; invalid carts fail without touching the database
+        CartResult[] results = new CartResult[carts.size()];
+        List<Integer> pendingIndexes = new ArrayList<>();
+        List<Order> pendingOrders = new ArrayList<>();
+        List<BigDecimal> charges = new ArrayList<>();
+        List<String> idempotencyKeys = new ArrayList<>();
+        Date orderDate = new Date();
+        for (int i = 0; i < carts.size(); i++) {
+            try {
+                CartRequest cart = carts.get(i);
+                if (cart == null) {
+                    throw new IllegalArgumentException("Cart cannot be null");
+                }
+                String idempotencyKey = cart.getIdempotencyKey();
+                if (idempotencyKey != null) {
+                    validateIdempotencyKey(idempotencyKey);
+                    Order completed = completedCheckouts.get(checkoutKey(cart.getCustomerId(), idempotencyKey));
+                    if (completed != null) {
+                        results[i] = CartResult.success(i, completed);
+                        continue;
+                    }
+                }
+                Customer customer = customers.get(cart.getCustomerId());
+                if (customer == null) {
+                    throw new IllegalArgumentException("Customer not found");
+                }
+                long subtotalCents = validateOrderDetails(cart.getOrderDetails());
+                long discountCents = promotionDiscount(cart.getOrderDetails());
+                BigDecimal total = BigDecimal.valueOf(subtotalCents - discountCents, 2);
+                PaymentMethod paymentMethod = findPaymentMethod(
+                        paymentMethods.get(cart.getCustomerId()), cart.getPaymentType());
+                charges.add(chargeFor(paymentMethod, total, cart.getCardNumber(), cart.getExpiryDate()));
+                idempotencyKeys.add(idempotencyKey);
+                pendingOrders.add(new Order.Builder()
+                        .orderDate(orderDate)
+                        .customer(customer)
+                        .orderDetails(cart.getOrderDetails())
+                        .totalPrice(total)
+                        .paymentMethod(paymentMethod)
+                        .status("COMPLETED")
+                        .build());
+                pendingIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = CartResult.failure(i, e.getMessage());
+            }
+        }
+
+        // 3. Debit and insert all valid carts (and link their keys) in one transaction
+        try {
+            IBatchCheckoutRepository.Outcome[] outcomes =
+                    batchCheckoutRepository.debitAndSaveAll(pendingOrders, charges, idempotencyKeys);
+            for (int j = 0; j < pendingIndexes.size(); j++) {
+                results[pendingIndexes.get(j)] = batchResult(pendingIndexes.get(j), outcomes[j],
+                        pendingOrders.get(j), idempotencyKeys.get(j));
+            }
+            // The whole batch is committed; the debits happened in SQL, not through PaymentService
+            for (int j = 0; j < pendingOrders.size(); j++) {
+                if (outcomes[j] == IBatchCheckoutRepository.Outcome.PAID) {
+                    publishCheckout(pendingOrders.get(j), charges.get(j), null);
+                }
+            }
+        } catch (RuntimeException e) {
+            for (int index : pendingIndexes) {
+                results[index] = CartResult.failure(index, "Checkout failed: " + e.getMessage());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Result for one cart of a committed batch (a duplicate key returns the order saved under it before)
+     */
+    private CartResult batchResult(int index, IBatchCheckoutRepository.Outcome outcome, Order order,
+                                   String idempotencyKey) {
+        switch (outcome) {
+            case PAID:
+                if (idempotencyKey != null) {
+                    completedCheckouts.put(checkoutKey(order.getCustomer().getCustomerId(), idempotencyKey), order);
+                }
+                return CartResult.success(index, order);
+            case DUPLICATE:
+                Optional<Order> original = idempotentOrderRepository == null ? Optional.empty()
+                        : idempotentOrderRepository.findOrderIdByIdempotencyKey(
+                                order.getCustomer().getCustomerId(), idempotencyKey)
+                                .flatMap(orderRepository::findById);
+                return original.map(o -> CartResult.success(index, o))
+                        .orElseGet(() -> CartResult.failure(index,
+                                "Order with this idempotency key is still being processed, please try again later"));
+            default:
+                return CartResult.failure(index, "Payment failed: Insufficient balance");
+        }
+    }
+
+    /**
+     * Events for a checkout whose debit happened in SQL, not through PaymentService
+     * (newBalance null = not read back)
+     */
+    private void publishCheckout(Order order, BigDecimal charge, BigDecimal newBalance) {
+        PaymentMethod paymentMethod = order.getPaymentMethod();
+        events.publish(new PaymentDebited(paymentMethod.getPaymentMethodId(), paymentMethod.getCustomerId(),
+                paymentMethod.getPaymentType(), charge, newBalance));
+        events.publish(new OrderPlaced(order));
+    }
+
+    /**
+     * Fallback when no batch repository is wired: one createOrder per cart
+     */
+    private List<CartResult> createOrdersOneByOne(List<CartRequest> carts) {
+        List<CartResult> results = new ArrayList<>(carts.size());
+        for (int i = 0; i < carts.size(); i++) {
+            CartRequest cart = carts.get(i);
+            try {
+                if (cart == null) {
+                    throw new IllegalArgumentException("Cart cannot be null");
+                }
+                results.add(CartResult.success(i, cart.getIdempotencyKey() != null
+                        ? createOrder(cart.getIdempotencyKey(), cart.getCustomerId(), cart.getOrderDetails(),
+                                cart.getPaymentType(), cart.getCardNumber(), cart.getExpiryDate())
+                        : createOrder(cart.getCustomerId(), cart.getOrderDetails(),
+                                cart.getPaymentType(), cart.getCardNumber(), cart.getExpiryDate())));
+            } catch (RuntimeException e) {
+                results.add(CartResult.failure(i, e.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Pick the customer's payment method of the given type from a bulk-loaded list
+     */
+    private static PaymentMethod findPaymentMethod(List<PaymentMethod> customerMethods, String paymentType) {
+        if (customerMethods != null && paymentType != null) {
+            for (PaymentMethod paymentMethod : customerMethods) {
+                if (paymentType.equalsIgnoreCase(paymentMethod.getPaymentType())) {
+                    return paymentMethod;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Payment method not found");
+    }
+
+    /**
+     * Amount to debit for a cart (fees included), after the payment type's own checks
+     */
+    private BigDecimal chargeFor(PaymentMethod paymentMethod, BigDecimal total,
+                                 String cardNumber, String expiryDate) {
+        try {
+            double charge = paymentService.chargeFor(paymentMethod, total.doubleValue(), cardNumber, expiryDate);
+            return BigDecimal.valueOf(charge).setScale(2, RoundingMode.HALF_UP);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Payment failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Validate order lines (against menu prices when a pricing engine is wired)
+     * and return the recomputed total in cents
+     */
+    private long validateOrderDetails(List<OrderDetails> orderDetailsList) {
+        return pricingEngine != null
+                ? pricingEngine.priceLines(orderDetailsList)
+                : PricingEngine.totalCents(orderDetailsList);
+    }
+
+    /**
+     * Promotion discount in cents for validated lines, recorded on each line
+     * so it is saved with the order (no line is discounted below zero)
+     */
+    private long promotionDiscount(List<OrderDetails> orderDetailsList) {
+        long[] lineDiscounts = new long[orderDetailsList.size()];
+        long discountCents = pricingEngine != null ? pricingEngine.discountCents(orderDetailsList, lineDiscounts) : 0;
+        for (int i = 0; i < lineDiscounts.length; i++) {
+            orderDetailsList.get(i).setDiscount(BigDecimal.valueOf(lineDiscounts[i], 2));
+        }
+        return discountCents;
     }
 
     @Override
@@ -122,6 +498,11 @@ public class OrderService implements IOrderService {
         return orderRepository.findAll();
     }
 
+    @Override
+    public int streamOrderReport(IOrderRepository.ReportRowHandler handler) {
+        return orderRepository.streamOrderReport(handler);
+    }
+
     @Override
     public List<Order> getOrdersByCustomerId(int customerId) {
         return orderRepository.findByCustomerId(customerId);
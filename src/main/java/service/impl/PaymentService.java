@@ -1,10 +1,15 @@
 package service.impl;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Optional;
 
 import model.*;
 import repository.interfaces.IPaymentMethodRepository;
+import service.event.DomainEventSink;
+import service.event.PaymentDebited;
 import service.interfaces.IPaymentService;
+import service.interfaces.IPaymentStrategy;
 
 /**
  * Payment Service Implementation
@@ -12,25 +17,47 @@ import service.interfaces.IPaymentService;
  * * Principles Applied:
  * SRP:Handles only business logic (validation, processing).
  * DIP:Depends on IPaymentMethodRepository abstraction.
+ * OCP:Payment types come from PaymentStrategyRegistry, not a switch.
  * Meaningful Names: Methods describe exactly what they verify.
  */
 public class PaymentService implements IPaymentService {
     
     private final IPaymentMethodRepository paymentMethodRepository;
+    private final PaymentStrategyRegistry strategyRegistry;
+    private final DomainEventSink events;
     
     // Constants for validation
     private static final int CARD_NUMBER_LENGTH = 16;
     private static final int EXPIRY_DATE_LENGTH = 4;
-    private static final String PAYMENT_TYPE_BANK = "BANK";
-    private static final String PAYMENT_TYPE_TNG = "TNG";
-    private static final String PAYMENT_TYPE_GRAB = "GRAB";
 
     /**
      * Constructor for Dependency Injection.
      * * @param paymentMethodRepository The repository interface for data access
      */
     public PaymentService(IPaymentMethodRepository paymentMethodRepository) {
+        this(paymentMethodRepository, PaymentStrategyRegistry.getInstance());
+    }
+
+    /**
+     * Constructor with an explicit strategy registry.
+     * * @param paymentMethodRepository The repository interface for data access
+     * @param strategyRegistry Registry resolving payment types to strategies
+     */
+    public PaymentService(IPaymentMethodRepository paymentMethodRepository, PaymentStrategyRegistry strategyRegistry) {
+        this(paymentMethodRepository, strategyRegistry, DomainEventSink.NONE);
+    }
+
+    /**
+     * Constructor with domain events.
+     * * @param paymentMethodRepository The repository interface for data access
+     * @param strategyRegistry Registry resolving payment types to strategies
+     * @param events Receives a PaymentDebited event after each saved debit
+     */
+    public PaymentService(IPaymentMethodRepository paymentMethodRepository, PaymentStrategyRegistry strategyRegistry,
+                          DomainEventSink events) {
         this.paymentMethodRepository = paymentMethodRepository;
+        this.strategyRegistry = strategyRegistry;
+        this.events = events;
     }
     
     @Override
@@ -40,27 +67,49 @@ public class PaymentService implements IPaymentService {
         // 1. Retrieve Payment Method
         PaymentMethod paymentMethod = getPaymentMethodOrThrow(customerId, paymentType);
         
-        // 2. Validate Bank Details if applicable
-        if (PAYMENT_TYPE_BANK.equalsIgnoreCase(paymentType)) {
-            validateBankDetails(cardNumber, expiryDate);
-        }
-        
-        // 3. Create Payment Strategy
-        Payment payment = createPayment(paymentMethod);
-        
-        // 4. Check Balance
-        validateBalance(payment, amount);
+        return processPayment(paymentMethod, amount, cardNumber, expiryDate);
+    }
+    
+    @Override
+    public Payment processPayment(PaymentMethod paymentMethod, double amount,
+                                  String cardNumber, String expiryDate) throws IllegalArgumentException {
+        // 2-3. Resolve Payment Strategy and validate card details if applicable
+        IPaymentStrategy strategy = getCheckedStrategy(paymentMethod, cardNumber, expiryDate);
         
-        // 5. Process Transaction
-        double newBalance = payment.makePayment(amount);
+        // 4. Check Balance (the method may have been read a while ago, so confirm a refusal against the row)
+        double balance = paymentMethod.getBalance();
+        if (!strategy.canPay(balance, amount)) {
+            balance = paymentMethodRepository.findById(paymentMethod.getPaymentMethodId())
+                    .map(PaymentMethod::getBalance)
+                    .orElse(balance);
+            if (!strategy.canPay(balance, amount)) {
+                throw new IllegalArgumentException("Insufficient balance");
+            }
+        }
         
-        // 6. Update Persistence
-        boolean updateSuccess = paymentMethodRepository.updateBalance(paymentMethod.getPaymentMethodId(), newBalance);
-        if (!updateSuccess) {
-            throw new RuntimeException("System Error: Failed to update balance in database.");
+        // 5-6. Process Transaction (refused if a concurrent debit used the balance up first);
+        // the new balance is the one the debit left in the row, not one worked out here
+        double charge = strategy.charge(amount);
+        Optional<BigDecimal> newBalance;
+        try {
+            newBalance = paymentMethodRepository.debit(paymentMethod.getPaymentMethodId(), charge);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("System Error: Failed to update balance in database.", e);
+        }
+        if (newBalance.isEmpty()) {
+            throw new IllegalArgumentException("Insufficient balance");
         }
+        paymentMethod.setBalanceDecimal(newBalance.get());
+        events.publish(new PaymentDebited(paymentMethod.getPaymentMethodId(), paymentMethod.getCustomerId(),
+                paymentMethod.getPaymentType(), toMoney(charge), newBalance.get()));
         
-        return payment;
+        return strategy.toPayment(newBalance.get().doubleValue());
+    }
+    
+    @Override
+    public double chargeFor(PaymentMethod paymentMethod, double amount,
+                            String cardNumber, String expiryDate) throws IllegalArgumentException {
+        return getCheckedStrategy(paymentMethod, cardNumber, expiryDate).charge(amount);
     }
     
     @Override
@@ -70,20 +119,7 @@ public class PaymentService implements IPaymentService {
     
     @Override
     public Payment createPayment(PaymentMethod paymentMethod) {
-        String type = paymentMethod.getPaymentType().toUpperCase();
-        double balance = paymentMethod.getBalance();
-        
-        // Factory Logic - encapsulated creation
-        switch (type) {
-            case PAYMENT_TYPE_TNG:
-                return new TNGPayment(balance);
-            case PAYMENT_TYPE_GRAB:
-                return new GrabPayment(balance);
-            case PAYMENT_TYPE_BANK:
-                return new BankPayment(balance);
-            default:
-                throw new IllegalArgumentException("Unsupported payment type: " + type);
-        }
+        return getStrategyOrThrow(paymentMethod.getPaymentType()).toPayment(paymentMethod.getBalance());
     }
 
     // ========================================================================
@@ -99,23 +135,46 @@ public class PaymentService implements IPaymentService {
     }
 
     /**
-     * Validates card details specifically for Bank payments.
+     * Resolves the registered strategy or throws exception if the type is unknown.
      */
-    private void validateBankDetails(String cardNumber, String expiryDate) {
-        if (cardNumber == null || cardNumber.length() != CARD_NUMBER_LENGTH) {
-            throw new IllegalArgumentException("Invalid card number. Must be " + CARD_NUMBER_LENGTH + " digits");
+    private IPaymentStrategy getStrategyOrThrow(String paymentType) {
+        IPaymentStrategy strategy = strategyRegistry.find(paymentType);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported payment type: " + paymentType);
         }
-        if (expiryDate == null || expiryDate.length() != EXPIRY_DATE_LENGTH) {
-            throw new IllegalArgumentException("Invalid expiry date. Must be " + EXPIRY_DATE_LENGTH + " digits (MMYY)");
+        return strategy;
+    }
+
+    /**
+     * Resolves the strategy for a payment method and validates its card details.
+     */
+    private IPaymentStrategy getCheckedStrategy(PaymentMethod paymentMethod, String cardNumber, String expiryDate) {
+        if (paymentMethod == null) {
+            throw new IllegalArgumentException("Payment method not found for customer");
         }
+        IPaymentStrategy strategy = getStrategyOrThrow(paymentMethod.getPaymentType());
+        if (strategy.requiresCardDetails()) {
+            validateBankDetails(cardNumber, expiryDate);
+        }
+        return strategy;
     }
 
     /**
-     * Checks if the payment source has enough funds.
+     * Rounds a double amount to cents for events.
      */
-    private void validateBalance(Payment payment, double amount) {
-        if (!payment.checkAmount(amount)) {
-            throw new IllegalArgumentException("Insufficient balance");
+    private static BigDecimal toMoney(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Validates card details for payment types that require them (Bank).
+     */
+    private static void validateBankDetails(String cardNumber, String expiryDate) {
+        if (cardNumber == null || cardNumber.length() != CARD_NUMBER_LENGTH) {
+            throw new IllegalArgumentException("Invalid card number. Must be " + CARD_NUMBER_LENGTH + " digits");
+        }
+        if (expiryDate == null || expiryDate.length() != EXPIRY_DATE_LENGTH) {
+            throw new IllegalArgumentException("Invalid expiry date. Must be " + EXPIRY_DATE_LENGTH + " digits (MMYY)");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package service.impl;
+
+import java.util.Arrays;
+import java.util.ServiceLoader;
+
+import service.interfaces.IPaymentStrategy;
+
+/**
+ * Payment Strategy Registry
+ * Maps payment types to preloaded strategy singletons. Each registered
+ * strategy gets a fixed slot (its ordinal), so callers can resolve a type
+ * once and then look strategies up by index.
+ * Lookups read a copy-on-write array and do not allocate.
+ * Follows SOLID: Open/Closed Principle, Dependency Inversion Principle
+ */
+public class PaymentStrategyRegistry {
+
+    public static final int NOT_FOUND = -1;
+
+    private static PaymentStrategyRegistry instance;
+
+    private volatile IPaymentStrategy[] strategies = new IPaymentStrategy[0];
+
+    /**
+     * Create a registry holding the built-in strategies (TNG, Grab, Bank in slots 0-2)
+     */
+    public static PaymentStrategyRegistry withDefaults() {
+        PaymentStrategyRegistry registry = new PaymentStrategyRegistry();
+        registry.register(WalletPaymentStrategy.TNG);
+        registry.register(WalletPaymentStrategy.GRAB);
+        registry.register(WalletPaymentStrategy.BANK);
+        return registry;
+    }
+
+    /**
+     * Shared registry: built-in strategies plus any found through ServiceLoader
+     */
+    public static synchronized PaymentStrategyRegistry getInstance() {
+        if (instance == null) {
+            PaymentStrategyRegistry registry = withDefaults();
+            for (IPaymentStrategy strategy : ServiceLoader.load(IPaymentStrategy.class)) {
+                registry.register(strategy);
+            }
+            instance = registry;
+        }
+        return instance;
+    }
+
+    /**
+     * Register a strategy, replacing any existing one for the same type
+     *
+     * @param strategy Strategy to register
+     * @return Slot assigned to the payment type
+     */
+    public synchronized int register(IPaymentStrategy strategy) {
+        if (strategy == null || strategy.getPaymentType() == null) {
+            throw new IllegalArgumentException("Payment strategy and its type cannot be null");
+        }
+        int slot = slotOf(strategy.getPaymentType());
+        IPaymentStrategy[] next;
+        if (slot == NOT_FOUND) {
+            slot = strategies.length;
+            next = Arrays.copyOf(strategies, slot + 1);
+        } else {
+            next = strategies.clone();
+        }
+        next[slot] = strategy;
+        strategies = next;
+        return slot;
+    }
+
+    /**
+     * Find the slot of a payment type (case-insensitive)
+     *
+     * @param paymentType Payment type
+     * @return Slot, or NOT_FOUND
+     */
+    public int slotOf(String paymentType) {
+        if (paymentType == null) {
+            return NOT_FOUND;
+        }
+        IPaymentStrategy[] current = strategies;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].getPaymentType().equalsIgnoreCase(paymentType)) {
+                return i;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * Get the strategy in a slot
+     *
+     * @param slot Slot returned by register or slotOf
+     * @return Strategy
+     */
+    public IPaymentStrategy get(int slot) {
+        IPaymentStrategy[] current = strategies;
+        if (slot < 0 || slot >= current.length) {
+            throw new IllegalArgumentException("Unknown payment strategy slot: " + slot);
+        }
+        return current[slot];
+    }
+
+    /**
+     * Find the strategy for a payment type
+     *
+     * @param paymentType Payment type
+     * @return Strategy, or null if the type is not registered
+     */
+    public IPaymentStrategy find(String paymentType) {
+        int slot = slotOf(paymentType);
+        return slot == NOT_FOUND ? null : strategies[slot];
+    }
+
+    public int size() {
+        return strategies.length;
+    }
+}
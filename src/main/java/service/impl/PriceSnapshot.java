@@ -0,0 +1,162 @@
+package service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import model.Food;
+
+/**
+ * Price Snapshot
+ * Immutable, versioned copy of the menu prices: food IDs sorted ascending
+ * with their prices in whole cents. When IDs are dense (the usual case,
+ * since IDs are handed out in sequence) lookups index straight into a
+ * table; otherwise they binary search. Neither allocates.
+ */
+public final class PriceSnapshot {
+
+    public static final long NOT_ON_MENU = -1;
+    private static final double EXACT_DOUBLE_LIMIT = 1e13;
+
+    private final long version;
+    private final int[] foodIds;
+    private final long[] priceCents;
+
+    // Dense lookup table: price of food (minId + i), or NOT_ON_MENU; null if IDs are sparse
+    private final int minId;
+    private final long[] denseCents;
+
+    private PriceSnapshot(long version, int[] foodIds, long[] priceCents) {
+        this.version = version;
+        this.foodIds = foodIds;
+        this.priceCents = priceCents;
+
+        int n = foodIds.length;
+        long span = n == 0 ? 0 : (long) foodIds[n - 1] - foodIds[0] + 1;
+        if (n > 0 && span <= 4L * n + 16) {
+            this.minId = foodIds[0];
+            this.denseCents = new long[(int) span];
+            Arrays.fill(denseCents, NOT_ON_MENU);
+            for (int i = 0; i < n; i++) {
+                denseCents[foodIds[i] - minId] = priceCents[i];
+            }
+        } else {
+            this.minId = 0;
+            this.denseCents = null;
+        }
+    }
+
+    /**
+     * Build a snapshot from the current menu
+     *
+     * @param version Version number of this snapshot
+     * @param foods Foods on the menu
+     * @return Snapshot
+     */
+    public static PriceSnapshot of(long version, List<Food> foods) {
+        Food[] sorted = foods.toArray(new Food[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(Food::getFoodId));
+        int[] ids = new int[sorted.length];
+        long[] cents = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getFoodId();
+            cents[i] = toCents(sorted[i].getFoodPriceDecimal());
+        }
+        return new PriceSnapshot(version, ids, cents);
+    }
+
+    /**
+     * Price of a food in cents
+     *
+     * @param foodId Food ID
+     * @return Price in cents, or NOT_ON_MENU
+     */
+    public long priceCents(int foodId) {
+        if (denseCents != null) {
+            long offset = (long) foodId - minId;
+            return offset >= 0 && offset < denseCents.length ? denseCents[(int) offset] : NOT_ON_MENU;
+        }
+        int i = Arrays.binarySearch(foodIds, foodId);
+        return i >= 0 ? priceCents[i] : NOT_ON_MENU;
+    }
+
+    /**
+     * Whether another snapshot lists exactly the same foods at the same prices
+     */
+    public boolean samePricesAs(PriceSnapshot other) {
+        return other != null && Arrays.equals(foodIds, other.foodIds) && Arrays.equals(priceCents, other.priceCents);
+    }
+
+    /**
+     * Copy with one food's price replaced, added or (NOT_ON_MENU) removed
+     *
+     * @param foodId Food ID
+     * @param cents New price in cents, or NOT_ON_MENU
+     * @param newVersion Version number of the copy
+     * @return Snapshot
+     */
+    PriceSnapshot withPrice(int foodId, long cents, long newVersion) {
+        int i = Arrays.binarySearch(foodIds, foodId);
+        if (i >= 0 && cents != NOT_ON_MENU) {
+            long[] prices = priceCents.clone();
+            prices[i] = cents;
+            return new PriceSnapshot(newVersion, foodIds, prices);
+        }
+        if (i >= 0) {
+            int[] ids = new int[foodIds.length - 1];
+            long[] prices = new long[ids.length];
+            System.arraycopy(foodIds, 0, ids, 0, i);
+            System.arraycopy(foodIds, i + 1, ids, i, ids.length - i);
+            System.arraycopy(priceCents, 0, prices, 0, i);
+            System.arraycopy(priceCents, i + 1, prices, i, prices.length - i);
+            return new PriceSnapshot(newVersion, ids, prices);
+        }
+        if (cents == NOT_ON_MENU) {
+            return withVersion(newVersion);
+        }
+        int at = -(i + 1);
+        int[] ids = new int[foodIds.length + 1];
+        long[] prices = new long[ids.length];
+        System.arraycopy(foodIds, 0, ids, 0, at);
+        System.arraycopy(foodIds, at, ids, at + 1, foodIds.length - at);
+        System.arraycopy(priceCents, 0, prices, 0, at);
+        System.arraycopy(priceCents, at, prices, at + 1, priceCents.length - at);
+        ids[at] = foodId;
+        prices[at] = cents;
+        return new PriceSnapshot(newVersion, ids, prices);
+    }
+
+    /**
+     * Same prices under a new version number
+     */
+    PriceSnapshot withVersion(long newVersion) {
+        return new PriceSnapshot(newVersion, foodIds, priceCents);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return foodIds.length;
+    }
+
+    /**
+     * Amount in whole cents, rounded exactly as setScale(2, HALF_UP).
+     * Amounts with at most 2 decimals (prices and subtotals) are already
+     * whole cents, and below 10^13 their double is close enough that
+     * rounding x100 gives them back without allocating; anything else
+     * (e.g. 1.005) goes through BigDecimal.
+     */
+    static long toCents(BigDecimal amount) {
+        if (amount.scale() <= 2) {
+            double value = amount.doubleValue();
+            if (Math.abs(value) < EXACT_DOUBLE_LIMIT) {
+                return Math.round(value * 100.0);
+            }
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,335 @@
+package service.impl;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import model.Cart;
+import model.Food;
+import model.OrderDetails;
+import repository.impl.FoodRepository;
+import repository.interfaces.IFoodRepository;
+
+/**
+ * Pricing Engine
+ * Checks order lines against a versioned PriceSnapshot of the menu in one
+ * pass using whole cents: quantity limits, unit price equal to the menu
+ * price, subtotal equal to unit x quantity. Returns the order total in cents.
+ * The snapshot is reloaded after invalidate() (menu edits, the invalidation
+ * bus) or its TTL; the TTL is compared with the clock once every
+ * CLOCK_CHECK_INTERVAL lookups, since reading the clock costs more than
+ * pricing a small cart. A line that does not match is re-checked with
+ * findById for that food only and patched into the snapshot, so a price
+ * change made elsewhere is picked up on first use without reloading the
+ * menu; the version only moves when prices actually change. Promotions
+ * active at the current local hour are priced by the attached PromotionEngine.
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class PricingEngine {
+
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+    /** Snapshot lookups between two TTL checks against the clock */
+    static final int CLOCK_CHECK_INTERVAL = 16;
+
+    private static PricingEngine instance;
+
+    private final IFoodRepository foodRepository;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final PromotionEngine promotions;
+    private final ZoneId zone;
+    private volatile PriceSnapshot snapshot;
+    private volatile long loadedAt;
+    private volatile boolean invalidated;
+    // Racy on purpose: a lost update only moves the next clock check by a lookup or two
+    private int lookupsUntilClockCheck;
+
+    /**
+     * Constructor
+     *
+     * @param foodRepository Source of menu prices
+     * @param ttlMillis How long a snapshot is used before reloading
+     * @param clock Millisecond clock (injectable for tests)
+     */
+    public PricingEngine(IFoodRepository foodRepository, long ttlMillis, LongSupplier clock) {
+        this(foodRepository, ttlMillis, clock, PromotionEngine.none(), ZoneId.systemDefault());
+    }
+
+    /**
+     * Constructor with promotions
+     *
+     * @param foodRepository Source of menu prices
+     * @param ttlMillis How long a snapshot is used before reloading
+     * @param clock Millisecond clock (injectable for tests)
+     * @param promotions Compiled promotion rules
+     * @param zone Time zone used to pick the promotion hour
+     */
+    public PricingEngine(IFoodRepository foodRepository, long ttlMillis, LongSupplier clock,
+                         PromotionEngine promotions, ZoneId zone) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("TTL must be greater than 0");
+        }
+        this.foodRepository = foodRepository;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.promotions = promotions != null ? promotions : PromotionEngine.none();
+        this.zone = zone;
+    }
+
+    public PricingEngine(IFoodRepository foodRepository) {
+        this(foodRepository, DEFAULT_TTL_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * Engine on the system clock and time zone with the given promotions
+     *
+     * @param foodRepository Source of menu prices
+     * @param promotions Compiled promotion rules
+     */
+    public PricingEngine(IFoodRepository foodRepository, PromotionEngine promotions) {
+        this(foodRepository, DEFAULT_TTL_MILLIS, System::currentTimeMillis, promotions, ZoneId.systemDefault());
+    }
+
+    /**
+     * Shared engine over the default FoodRepository
+     */
+    public static synchronized PricingEngine getInstance() {
+        if (instance == null) {
+            instance = new PricingEngine(new FoodRepository());
+        }
+        return instance;
+    }
+
+    /**
+     * Current snapshot, loading or reloading it if needed
+     *
+     * @return Price snapshot
+     */
+    public PriceSnapshot current() {
+        PriceSnapshot current = snapshot;
+        if (current == null || invalidated || (--lookupsUntilClockCheck <= 0 && expired())) {
+            return reloadIfStale();
+        }
+        return current;
+    }
+
+    /**
+     * Reload prices now; keeps the version if nothing changed
+     *
+     * @return Fresh snapshot
+     */
+    public synchronized PriceSnapshot refresh() {
+        // Cleared first so an invalidate() during the load forces another one
+        invalidated = false;
+        List<Food> foods = foodRepository.findAll();
+        PriceSnapshot previous = snapshot;
+        long version = previous == null ? 1 : previous.getVersion();
+        PriceSnapshot loaded = PriceSnapshot.of(version, foods);
+        if (previous != null && !loaded.samePricesAs(previous)) {
+            loaded = loaded.withVersion(version + 1);
+        }
+        snapshot = loaded;
+        loadedAt = clock.getAsLong();
+        lookupsUntilClockCheck = CLOCK_CHECK_INTERVAL;
+        return loaded;
+    }
+
+    /**
+     * Force a reload on next use (call after menu changes)
+     */
+    public void invalidate() {
+        invalidated = true;
+    }
+
+    /**
+     * Validate lines against the current menu prices
+     *
+     * @param orderDetailsList Order lines
+     * @return Order total in cents
+     * @throws IllegalArgumentException if any line is invalid or not priced at the current menu price
+     */
+    public long priceLines(List<OrderDetails> orderDetailsList) {
+        PriceSnapshot prices = current();
+        long result = scan(orderDetailsList, prices);
+        while (result < 0) {
+            // The line may match a price changed since the snapshot was taken
+            prices = revalidate(orderDetailsList.get((int) (-result - 1)));
+            result = scan(orderDetailsList, prices);
+        }
+        return result;
+    }
+
+    /**
+     * Validate lines priced by a client against a known snapshot version
+     *
+     * @param orderDetailsList Order lines
+     * @param expectedVersion Snapshot version the client priced the lines with
+     * @return Order total in cents
+     * @throws IllegalArgumentException if the version is stale or any line is invalid
+     */
+    public long priceLines(List<OrderDetails> orderDetailsList, long expectedVersion) {
+        PriceSnapshot prices = current();
+        if (prices.getVersion() != expectedVersion) {
+            throw new IllegalArgumentException("Menu prices have changed (version " + expectedVersion
+                    + ", current " + prices.getVersion() + "), please review your order");
+        }
+        long result = scan(orderDetailsList, prices);
+        if (result < 0) {
+            throw priceError(orderDetailsList.get((int) (-result - 1)), prices);
+        }
+        return result;
+    }
+
+    /**
+     * Promotion discount for validated lines at the current local hour
+     *
+     * @param orderDetailsList Order lines
+     * @return Discount in cents
+     */
+    public long discountCents(List<OrderDetails> orderDetailsList) {
+        return discountCents(orderDetailsList, null);
+    }
+
+    /**
+     * Promotion discount for validated lines at the current local hour, split per line
+     *
+     * @param orderDetailsList Order lines
+     * @param lineDiscounts Receives each line's discount in cents (null = total only)
+     * @return Discount in cents
+     */
+    public long discountCents(List<OrderDetails> orderDetailsList, long[] lineDiscounts) {
+        if (promotions.getRules().isEmpty()) {
+            return 0;
+        }
+        int hour = Instant.ofEpochMilli(clock.getAsLong()).atZone(zone).getHour();
+        return promotions.discountCents(orderDetailsList, hour, lineDiscounts);
+    }
+
+    public PromotionEngine getPromotions() {
+        return promotions;
+    }
+
+    /**
+     * Validate quantities and subtotals only (unit prices are trusted) and sum them
+     *
+     * @param orderDetailsList Order lines
+     * @return Order total in cents
+     * @throws IllegalArgumentException if any line is invalid
+     */
+    public static long totalCents(List<OrderDetails> orderDetailsList) {
+        return scan(orderDetailsList, null);
+    }
+
+    /**
+     * Single pass over the lines: validate each one, compare its unit price
+     * with the snapshot (if given) and sum the subtotals.
+     *
+     * @return Total in cents, or -(index + 1) of the first line not at the snapshot price
+     */
+    private static long scan(List<OrderDetails> orderDetailsList, PriceSnapshot prices) {
+        if (orderDetailsList == null || orderDetailsList.isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one item");
+        }
+
+        long total = 0;
+        for (int i = 0, n = orderDetailsList.size(); i < n; i++) {
+            OrderDetails detail = orderDetailsList.get(i);
+            if (detail == null)
+                throw new IllegalArgumentException("Order detail cannot be null");
+
+            int quantity = detail.getQuantity();
+            if (quantity <= 0)
+                throw new IllegalArgumentException("Quantity must be > 0");
+
+            if (quantity > Cart.MAX_LINE_QUANTITY)
+                throw new IllegalArgumentException("Quantity too large for item: " + foodIdOf(detail));
+
+            if (detail.getUnitPriceDecimal() == null)
+                throw new IllegalArgumentException("Unit price missing");
+
+            long unitCents = toCents(detail.getUnitPriceDecimal());
+            long expectedSubtotal = unitCents * quantity;
+            long actualSubtotal = detail.getSubtotalDecimal() != null ? toCents(detail.getSubtotalDecimal()) : 0;
+            if (expectedSubtotal != actualSubtotal)
+                throw new IllegalArgumentException("Order detail subtotal mismatch for item: " + foodIdOf(detail));
+
+            if (prices != null && (detail.getFood() == null
+                    || prices.priceCents(detail.getFood().getFoodId()) != unitCents)) {
+                return -(i + 1);
+            }
+
+            total += expectedSubtotal;
+        }
+        return total;
+    }
+
+    private static IllegalArgumentException priceError(OrderDetails detail, PriceSnapshot prices) {
+        if (detail.getFood() == null) {
+            return new IllegalArgumentException("Food missing for order detail");
+        }
+        int foodId = detail.getFood().getFoodId();
+        if (prices.priceCents(foodId) == PriceSnapshot.NOT_ON_MENU) {
+            return new IllegalArgumentException("Food not on menu: " + foodId);
+        }
+        return new IllegalArgumentException("Price changed for item: " + foodId);
+    }
+
+    private static Object foodIdOf(OrderDetails detail) {
+        return detail.getFood() != null ? detail.getFood().getFoodId() : "unknown";
+    }
+
+    private boolean expired() {
+        lookupsUntilClockCheck = CLOCK_CHECK_INTERVAL;
+        return clock.getAsLong() - loadedAt >= ttlMillis;
+    }
+
+    // Another thread may have reloaded while this one waited for the lock
+    private synchronized PriceSnapshot reloadIfStale() {
+        PriceSnapshot current = snapshot;
+        if (current != null && !invalidated && clock.getAsLong() - loadedAt < ttlMillis) {
+            return current;
+        }
+        return refresh();
+    }
+
+    /**
+     * Look up one mismatched line's food and patch its menu price into the
+     * snapshot (the rest of the snapshot and its TTL are left alone)
+     *
+     * @return Snapshot in which the line's food has its current menu price
+     * @throws IllegalArgumentException if the food is gone or its price differs from the line
+     */
+    private PriceSnapshot revalidate(OrderDetails detail) {
+        if (detail.getFood() == null) {
+            throw new IllegalArgumentException("Food missing for order detail");
+        }
+        int foodId = detail.getFood().getFoodId();
+        Optional<Food> food = foodRepository.findById(foodId);
+        long menuCents = food.isPresent() ? toCents(food.get().getFoodPriceDecimal()) : PriceSnapshot.NOT_ON_MENU;
+        PriceSnapshot patched = patch(foodId, menuCents);
+        if (menuCents == PriceSnapshot.NOT_ON_MENU) {
+            throw new IllegalArgumentException("Food not on menu: " + foodId);
+        }
+        if (menuCents != toCents(detail.getUnitPriceDecimal())) {
+            throw new IllegalArgumentException("Price changed for item: " + foodId);
+        }
+        return patched;
+    }
+
+    private synchronized PriceSnapshot patch(int foodId, long cents) {
+        PriceSnapshot current = snapshot;
+        if (current.priceCents(foodId) == cents) {
+            return current;
+        }
+        PriceSnapshot patched = current.withPrice(foodId, cents, current.getVersion() + 1);
+        snapshot = patched;
+        return patched;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return PriceSnapshot.toCents(amount);
+    }
+}
@@ -0,0 +1,379 @@
+package service.impl;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import model.OrderDetails;
+
+/**
+ * Promotion Engine
+ * Rules are compiled once into a decision table indexed by hour of day and
+ * promoted food (foods named by a rule get dense indexes 0..n-1), so pricing
+ * a cart is one pass over its lines plus the combos active in that hour,
+ * with no allocation (scratch arrays are per thread and sized to the
+ * promoted foods).
+ * Order of application: combos use up units first, buy-N-get-M frees units
+ * from what is left, and the best percentage off applies to the remaining
+ * paid units. The discount is also split per line (a combo's share goes to
+ * its foods in proportion to their price), so it can be stored with the
+ * lines and reported per food; no line is discounted below zero.
+ * Follows SOLID: Single Responsibility Principle, Open/Closed Principle
+ */
+public final class PromotionEngine {
+
+    public static final int HOURS = 24;
+    /** Promotions file (-Dpos.promotions=...), default "promotions.csv" if it exists */
+    public static final String FILE_PROPERTY = "pos.promotions";
+    private static final int BASIS_POINTS = 10_000;
+    private static final int[] NO_COMBOS = new int[0];
+    private static final PromotionEngine NONE = compile(Collections.emptyList());
+
+    private final List<PromotionRule> rules;
+    /** Food IDs named by any rule, ascending; a food's position is its dense index */
+    private final int[] promotedIds;
+    private final int promoted;
+    /** [hour * promoted + index] best percentage off for the food, in basis points */
+    private final int[] percentOff;
+    /** [hour] percentage off every food, in basis points */
+    private final int[] percentOffAll;
+    /** [hour * promoted + index] buy N / get M; 0 = no offer */
+    private final int[] buy;
+    private final int[] free;
+    /** [hour] combo indexes active in that hour, biggest discount first */
+    private final int[][] combosByHour;
+    /** [combo] food indexes, quantities per set and discount per set */
+    private final int[][] comboFoods;
+    private final int[][] comboQuantities;
+    private final long[] comboDiscount;
+    private final ThreadLocal<Scratch> scratch;
+
+    private PromotionEngine(List<PromotionRule> rules, int[] promotedIds) {
+        this.rules = rules;
+        this.promotedIds = promotedIds;
+        this.promoted = promotedIds.length;
+        this.percentOff = new int[HOURS * promoted];
+        this.percentOffAll = new int[HOURS];
+        this.buy = new int[HOURS * promoted];
+        this.free = new int[HOURS * promoted];
+        this.combosByHour = new int[HOURS][];
+
+        List<PromotionRule> combos = new ArrayList<>();
+        for (PromotionRule rule : rules) {
+            if (rule.getType() == PromotionRule.Type.COMBO) {
+                combos.add(rule);
+            }
+        }
+        // Greedy matching takes the biggest discount first
+        combos.sort((a, b) -> Long.compare(b.getDiscountCents(), a.getDiscountCents()));
+        this.comboFoods = new int[combos.size()][];
+        this.comboQuantities = new int[combos.size()][];
+        this.comboDiscount = new long[combos.size()];
+        for (int c = 0; c < combos.size(); c++) {
+            PromotionRule combo = combos.get(c);
+            comboFoods[c] = new int[combo.foodIds().length];
+            for (int i = 0; i < comboFoods[c].length; i++) {
+                comboFoods[c][i] = indexOf(combo.foodIds()[i]);
+            }
+            comboQuantities[c] = combo.quantities().clone();
+            comboDiscount[c] = combo.getDiscountCents();
+        }
+
+        for (int hour = 0; hour < HOURS; hour++) {
+            int base = hour * promoted;
+            for (PromotionRule rule : rules) {
+                if (!rule.appliesAt(hour)) {
+                    continue;
+                }
+                if (rule.getType() == PromotionRule.Type.PERCENT_OFF) {
+                    if (rule.foodIds().length == 0) {
+                        percentOffAll[hour] = Math.max(percentOffAll[hour], rule.getBasisPoints());
+                    }
+                    for (int foodId : rule.foodIds()) {
+                        int slot = base + indexOf(foodId);
+                        percentOff[slot] = Math.max(percentOff[slot], rule.getBasisPoints());
+                    }
+                } else if (rule.getType() == PromotionRule.Type.BUY_N_GET_M) {
+                    int slot = base + indexOf(rule.foodIds()[0]);
+                    // Keep the offer with the larger share of free units
+                    if (buy[slot] == 0 || (long) rule.getFree() * (buy[slot] + free[slot])
+                            > (long) free[slot] * (rule.getBuy() + rule.getFree())) {
+                        buy[slot] = rule.getBuy();
+                        free[slot] = rule.getFree();
+                    }
+                }
+            }
+            int active = 0;
+            int[] hourCombos = new int[combos.size()];
+            for (int c = 0; c < combos.size(); c++) {
+                if (combos.get(c).appliesAt(hour)) {
+                    hourCombos[active++] = c;
+                }
+            }
+            combosByHour[hour] = active == 0 ? NO_COMBOS : Arrays.copyOf(hourCombos, active);
+        }
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(promoted));
+    }
+
+    /**
+     * Compile rules into a decision table
+     *
+     * @param rules Promotion rules
+     * @return Engine ready to price carts
+     */
+    public static PromotionEngine compile(List<PromotionRule> rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rules cannot be null");
+        }
+        int[] ids = new int[0];
+        int count = 0;
+        for (PromotionRule rule : rules) {
+            if (rule == null) {
+                throw new IllegalArgumentException("Rule cannot be null");
+            }
+            for (int foodId : rule.foodIds()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(8, count * 2));
+                }
+                ids[count++] = foodId;
+            }
+        }
+        int[] sorted = Arrays.copyOf(ids, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || sorted[distinct - 1] != sorted[i]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return new PromotionEngine(List.copyOf(rules), Arrays.copyOf(sorted, distinct));
+    }
+
+    /**
+     * Engine over the configured promotions file (none if there is no file)
+     */
+    public static PromotionEngine fromSystemProperties() {
+        String configured = System.getProperty(FILE_PROPERTY);
+        Path file = Path.of(configured != null ? configured : "promotions.csv");
+        if (configured == null && !Files.exists(file)) {
+            return none();
+        }
+        return load(file);
+    }
+
+    /**
+     * Compile the rules in a promotions file (see PromotionRule.parse).
+     * Blank lines and lines starting with '#' are ignored; invalid lines are
+     * reported and skipped.
+     *
+     * @param file Promotions file
+     * @return Engine (no promotions if the file cannot be read)
+     */
+    public static PromotionEngine load(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            System.err.println("Error reading promotions: " + e.getMessage());
+            return none();
+        }
+        List<PromotionRule> rules = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(PromotionRule.parse(line));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Skipping promotion on line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return compile(rules);
+    }
+
+    /**
+     * Engine with no promotions
+     */
+    public static PromotionEngine none() {
+        return NONE;
+    }
+
+    /**
+     * Total discount for a cart at an hour of the day
+     *
+     * @param orderDetailsList Order lines (already validated)
+     * @param hour Hour of day (0-23)
+     * @return Discount in cents
+     */
+    public long discountCents(List<OrderDetails> orderDetailsList, int hour) {
+        return discountCents(orderDetailsList, hour, null);
+    }
+
+    /**
+     * Total discount for a cart at an hour of the day, split per line
+     *
+     * @param orderDetailsList Order lines (already validated)
+     * @param hour Hour of day (0-23)
+     * @param lineDiscounts Receives each line's discount in cents (null = total only)
+     * @return Discount in cents (the sum of the line discounts)
+     */
+    public long discountCents(List<OrderDetails> orderDetailsList, int hour, long[] lineDiscounts) {
+        if (hour < 0 || hour >= HOURS) {
+            throw new IllegalArgumentException("Invalid hour: " + hour);
+        }
+        if (lineDiscounts != null) {
+            Arrays.fill(lineDiscounts, 0);
+        }
+        if (rules.isEmpty() || orderDetailsList == null) {
+            return 0;
+        }
+
+        int allBasisPoints = percentOffAll[hour];
+        long discount = 0;
+        Scratch s = scratch.get();
+        int touched = 0;
+
+        // 1. Collect quantities per promoted food; other foods only get the all-foods percentage
+        for (int i = 0, n = orderDetailsList.size(); i < n; i++) {
+            OrderDetails detail = orderDetailsList.get(i);
+            if (detail == null || detail.getFood() == null || detail.getUnitPriceDecimal() == null) {
+                continue;
+            }
+            long unitCents = toCents(detail.getUnitPriceDecimal());
+            int index = indexOf(detail.getFood().getFoodId());
+            if (index < 0) {
+                long lineDiscount = percentOf(unitCents * detail.getQuantity(), allBasisPoints);
+                if (lineDiscounts != null) {
+                    lineDiscounts[i] = lineDiscount;
+                }
+                discount += lineDiscount;
+                continue;
+            }
+            if (s.quantity[index] == 0) {
+                s.touched[touched++] = index;
+            }
+            s.quantity[index] += detail.getQuantity();
+            s.grossCents[index] += unitCents * detail.getQuantity();
+            s.unitCents[index] = unitCents;
+        }
+
+        // 2. Combos take whole sets out of the quantities; each food's share follows its price
+        for (int c : combosByHour[hour]) {
+            int[] foods = comboFoods[c];
+            int[] needed = comboQuantities[c];
+            int sets = Integer.MAX_VALUE;
+            for (int i = 0; i < foods.length && sets > 0; i++) {
+                sets = Math.min(sets, s.quantity[foods[i]] / needed[i]);
+            }
+            if (sets > 0) {
+                long setCents = 0;
+                for (int i = 0; i < foods.length; i++) {
+                    s.quantity[foods[i]] -= sets * needed[i];
+                    setCents += s.unitCents[foods[i]] * needed[i];
+                }
+                long remaining = sets * comboDiscount[c];
+                for (int i = 0; i < foods.length - 1 && setCents > 0; i++) {
+                    long share = sets * comboDiscount[c] * s.unitCents[foods[i]] * needed[i] / setCents;
+                    s.foodDiscount[foods[i]] += share;
+                    remaining -= share;
+                }
+                s.foodDiscount[foods[foods.length - 1]] += remaining;
+            }
+        }
+
+        // 3. Free units, then percentage off what is still paid for
+        int base = hour * promoted;
+        for (int t = 0; t < touched; t++) {
+            int index = s.touched[t];
+            int quantity = s.quantity[index];
+            long unitCents = s.unitCents[index];
+
+            int buyN = buy[base + index];
+            if (buyN > 0) {
+                int getM = free[base + index];
+                int freeUnits = quantity / (buyN + getM) * getM;
+                s.foodDiscount[index] += freeUnits * unitCents;
+                quantity -= freeUnits;
+            }
+            int basisPoints = Math.max(percentOff[base + index], allBasisPoints);
+            s.foodDiscount[index] += percentOf(quantity * unitCents, basisPoints);
+        }
+
+        // 4. Hand each food's discount to its lines (never more than a line's own amount)
+        if (lineDiscounts != null) {
+            for (int i = 0, n = orderDetailsList.size(); i < n; i++) {
+                OrderDetails detail = orderDetailsList.get(i);
+                if (detail == null || detail.getFood() == null || detail.getUnitPriceDecimal() == null) {
+                    continue;
+                }
+                int index = indexOf(detail.getFood().getFoodId());
+                if (index >= 0) {
+                    long lineCents = toCents(detail.getUnitPriceDecimal()) * detail.getQuantity();
+                    long lineDiscount = Math.min(s.foodDiscount[index], lineCents);
+                    lineDiscounts[i] = lineDiscount;
+                    s.foodDiscount[index] -= lineDiscount;
+                    discount += lineDiscount;
+                }
+            }
+        }
+
+        // Reset scratch for the next cart
+        for (int t = 0; t < touched; t++) {
+            int index = s.touched[t];
+            if (lineDiscounts == null) {
+                discount += Math.min(s.foodDiscount[index], s.grossCents[index]);
+            }
+            s.quantity[index] = 0;
+            s.grossCents[index] = 0;
+            s.foodDiscount[index] = 0;
+        }
+        return discount;
+    }
+
+    public List<PromotionRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Dense index of a promoted food
+     *
+     * @return Index, or a negative number if no rule names the food
+     */
+    private int indexOf(int foodId) {
+        return Arrays.binarySearch(promotedIds, foodId);
+    }
+
+    private static long percentOf(long cents, int basisPoints) {
+        return (cents * basisPoints + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return PriceSnapshot.toCents(amount);
+    }
+
+    /**
+     * Per-thread working arrays, one slot per promoted food
+     */
+    private static final class Scratch {
+        final int[] quantity;
+        final long[] unitCents;
+        final long[] grossCents;
+        final long[] foodDiscount;
+        final int[] touched;
+
+        Scratch(int promoted) {
+            quantity = new int[promoted];
+            unitCents = new long[promoted];
+            grossCents = new long[promoted];
+            foodDiscount = new long[promoted];
+            touched = new int[promoted];
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package service.impl;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Promotion Rule
+ * Immutable description of one promotion, active during [fromHour, toHour)
+ * of the day (wrapping past midnight if fromHour > toHour). Rules are
+ * compiled into a PromotionEngine before use.
+ */
+public final class PromotionRule {
+
+    /**
+     * Kinds of promotion
+     */
+    public enum Type {
+        /** Fixed amount off for every complete set of the listed foods */
+        COMBO,
+        /** Percentage off the listed foods (or every food if none are listed) */
+        PERCENT_OFF,
+        /** For every N bought of a food, M more are free */
+        BUY_N_GET_M
+    }
+
+    public static final int ALL_DAY_FROM = 0;
+    public static final int ALL_DAY_TO = 24;
+
+    private final String name;
+    private final Type type;
+    private final int[] foodIds;
+    private final int[] quantities;
+    private final long discountCents;
+    private final int basisPoints;
+    private final int buy;
+    private final int free;
+    private final int fromHour;
+    private final int toHour;
+
+    private PromotionRule(String name, Type type, int[] foodIds, int[] quantities, long discountCents,
+                          int basisPoints, int buy, int free, int fromHour, int toHour) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Promotion name cannot be empty");
+        }
+        if (fromHour < 0 || fromHour > 23 || toHour < 1 || toHour > 24 || fromHour == toHour) {
+            throw new IllegalArgumentException("Invalid promotion hours: " + fromHour + "-" + toHour);
+        }
+        this.name = name;
+        this.type = type;
+        this.foodIds = foodIds;
+        this.quantities = quantities;
+        this.discountCents = discountCents;
+        this.basisPoints = basisPoints;
+        this.buy = buy;
+        this.free = free;
+        this.fromHour = fromHour;
+        this.toHour = toHour;
+    }
+
+    /**
+     * Combo: a fixed amount off for every complete set (e.g. 1 rice + 1 drink = RM 2 off)
+     *
+     * @param name Promotion name
+     * @param foodIds Foods in the set
+     * @param quantities Quantity of each food per set
+     * @param discountCents Amount off per set, in cents
+     */
+    public static PromotionRule combo(String name, int[] foodIds, int[] quantities, long discountCents) {
+        if (foodIds == null || quantities == null || foodIds.length == 0 || foodIds.length != quantities.length) {
+            throw new IllegalArgumentException("Combo needs one quantity per food");
+        }
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] <= 0) {
+                throw new IllegalArgumentException("Combo quantities must be > 0");
+            }
+            for (int j = 0; j < i; j++) {
+                if (foodIds[i] == foodIds[j]) {
+                    throw new IllegalArgumentException("Combo lists food " + foodIds[i] + " twice");
+                }
+            }
+        }
+        if (discountCents <= 0) {
+            throw new IllegalArgumentException("Combo discount must be > 0");
+        }
+        return new PromotionRule(name, Type.COMBO, foodIds.clone(), quantities.clone(), discountCents,
+                0, 0, 0, ALL_DAY_FROM, ALL_DAY_TO);
+    }
+
+    /**
+     * Percentage off (e.g. happy hour), applied to units not used by a combo or given free
+     *
+     * @param name Promotion name
+     * @param percent Percent off (1-100)
+     * @param foodIds Foods it applies to; none = every food
+     */
+    public static PromotionRule percentOff(String name, int percent, int... foodIds) {
+        if (percent <= 0 || percent > 100) {
+            throw new IllegalArgumentException("Percent off must be between 1 and 100");
+        }
+        return new PromotionRule(name, Type.PERCENT_OFF, foodIds == null ? new int[0] : foodIds.clone(), null, 0,
+                percent * 100, 0, 0, ALL_DAY_FROM, ALL_DAY_TO);
+    }
+
+    /**
+     * Buy N get M free of the same food
+     *
+     * @param name Promotion name
+     * @param foodId Food ID
+     * @param buy Units to pay for (N)
+     * @param free Units given free (M)
+     */
+    public static PromotionRule buyNGetM(String name, int foodId, int buy, int free) {
+        if (buy <= 0 || free <= 0) {
+            throw new IllegalArgumentException("Buy and free quantities must be > 0");
+        }
+        return new PromotionRule(name, Type.BUY_N_GET_M, new int[] {foodId}, null, 0,
+                0, buy, free, ALL_DAY_FROM, ALL_DAY_TO);
+    }
+
+    /**
+     * Parse one line of a promotions file (comma separated, hours optional):
+     * <pre>
+     * combo,Rice + Drink,2000x1;2010x1,2.00,11-14
+     * percent,Happy hour,10,2000;2001,15-17
+     * percent,Late night,50,,22-2
+     * buy,Nasi Lemak 2+1,2001,2,1
+     * </pre>
+     * Amounts are in RM; food lists are separated by ';'.
+     *
+     * @param line Rule line
+     * @return Rule
+     * @throws IllegalArgumentException if the line is not a valid rule
+     */
+    public static PromotionRule parse(String line) {
+        String[] fields = line.split(",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        String kind = fields[0].toLowerCase();
+        int hoursField = kind.equals("combo") || kind.equals("percent") ? 4 : 5;
+        if (fields.length < 2 || fields.length < hoursField || fields.length > hoursField + 1) {
+            throw new IllegalArgumentException("Wrong number of fields for promotion: " + line);
+        }
+        try {
+            PromotionRule rule;
+            switch (kind) {
+                case "combo": {
+                    String[] items = fields[2].split(";");
+                    int[] foodIds = new int[items.length];
+                    int[] quantities = new int[items.length];
+                    for (int i = 0; i < items.length; i++) {
+                        String[] item = items[i].trim().split("x");
+                        if (item.length != 2) {
+                            throw new IllegalArgumentException("Combo items must look like 2000x1: " + items[i]);
+                        }
+                        foodIds[i] = Integer.parseInt(item[0].trim());
+                        quantities[i] = Integer.parseInt(item[1].trim());
+                    }
+                    long cents = new BigDecimal(fields[3]).movePointRight(2).longValueExact();
+                    rule = combo(fields[1], foodIds, quantities, cents);
+                    break;
+                }
+                case "percent":
+                    rule = percentOff(fields[1], Integer.parseInt(fields[2]), parseIds(fields[3]));
+                    break;
+                case "buy":
+                    rule = buyNGetM(fields[1], Integer.parseInt(fields[2]),
+                            Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown promotion type: " + fields[0]);
+            }
+            if (fields.length > hoursField && !fields[hoursField].isEmpty()) {
+                String[] hours = fields[hoursField].split("-");
+                if (hours.length != 2) {
+                    throw new IllegalArgumentException("Hours must look like 15-17: " + fields[hoursField]);
+                }
+                rule = rule.during(Integer.parseInt(hours[0].trim()), Integer.parseInt(hours[1].trim()));
+            }
+            return rule;
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid number in promotion: " + line);
+        }
+    }
+
+    private static int[] parseIds(String field) {
+        if (field.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = field.split(";");
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = Integer.parseInt(parts[i].trim());
+        }
+        return ids;
+    }
+
+    /**
+     * Same rule limited to part of the day
+     *
+     * @param fromHour First hour the rule applies (0-23)
+     * @param toHour Hour the rule stops applying (1-24, exclusive)
+     * @return New rule
+     */
+    public PromotionRule during(int fromHour, int toHour) {
+        return new PromotionRule(name, type, foodIds, quantities, discountCents, basisPoints, buy, free, fromHour, toHour);
+    }
+
+    /**
+     * Whether the rule applies during an hour of the day
+     */
+    public boolean appliesAt(int hour) {
+        return fromHour < toHour ? hour >= fromHour && hour < toHour : hour >= fromHour || hour < toHour;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    int[] foodIds() {
+        return foodIds;
+    }
+
+    int[] quantities() {
+        return quantities;
+    }
+
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    public int getBasisPoints() {
+        return basisPoints;
+    }
+
+    public int getBuy() {
+        return buy;
+    }
+
+    public int getFree() {
+        return free;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name + " " + Arrays.toString(foodIds) + " " + fromHour + "-" + toHour;
+    }
+}
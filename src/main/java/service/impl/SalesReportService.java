@@ -0,0 +1,43 @@
+package service.impl;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import model.SalesDaily;
+import repository.interfaces.ISalesDailyRepository;
+import service.interfaces.ISalesReportService;
+
+/**
+ * Sales Report Service Implementation
+ * Reads precomputed daily aggregates instead of scanning orders
+ * Follows SOLID: Single Responsibility Principle, Dependency Inversion Principle
+ */
+public class SalesReportService implements ISalesReportService {
+
+    private final ISalesDailyRepository salesDailyRepository;
+
+    // Rebuild tuning
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+    private static final int MAX_REBUILD_WORKERS = 4;
+
+    public SalesReportService(ISalesDailyRepository salesDailyRepository) {
+        this.salesDailyRepository = salesDailyRepository;
+    }
+
+    @Override
+    public List<SalesDaily> getDailySales(LocalDate from, LocalDate to) throws IllegalArgumentException {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range is required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        return salesDailyRepository.findBetween(from, to);
+    }
+
+    @Override
+    public int rebuildAggregates() {
+        int workers = Math.min(MAX_REBUILD_WORKERS, Runtime.getRuntime().availableProcessors());
+        return salesDailyRepository.rebuild(REBUILD_CHUNK_SIZE, Math.max(1, workers));
+    }
+}
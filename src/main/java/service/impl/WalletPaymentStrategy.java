@@ -0,0 +1,79 @@
+package service.impl;
+
+import java.util.function.DoubleFunction;
+
+import model.BankPayment;
+import model.GrabPayment;
+import model.Payment;
+import model.TNGPayment;
+import service.interfaces.IPaymentStrategy;
+
+/**
+ * Wallet Payment Strategy
+ * Stateless strategy described by a name, a flat transaction fee and
+ * whether card details are needed. Covers the built-in payment types.
+ * Follows SOLID: Single Responsibility Principle, Open/Closed Principle
+ */
+public final class WalletPaymentStrategy implements IPaymentStrategy {
+
+    public static final WalletPaymentStrategy TNG =
+            new WalletPaymentStrategy("TNG", 0.0, false, TNGPayment::new);
+    public static final WalletPaymentStrategy GRAB =
+            new WalletPaymentStrategy("Grab", 0.0, false, GrabPayment::new);
+    public static final WalletPaymentStrategy BANK =
+            new WalletPaymentStrategy("Bank", BankPayment.TRANSACTION_FEE, true, BankPayment::new);
+
+    private final String paymentType;
+    private final double transactionFee;
+    private final boolean requiresCardDetails;
+    private final DoubleFunction<Payment> paymentFactory;
+
+    /**
+     * Constructor
+     *
+     * @param paymentType Payment type name
+     * @param transactionFee Flat fee added to every payment
+     * @param requiresCardDetails Whether card number and expiry are required
+     * @param paymentFactory Creates the Payment reported for a balance
+     */
+    public WalletPaymentStrategy(String paymentType, double transactionFee, boolean requiresCardDetails,
+                                 DoubleFunction<Payment> paymentFactory) {
+        if (paymentType == null || paymentType.trim().isEmpty()) {
+            throw new IllegalArgumentException("Payment type cannot be empty");
+        }
+        if (transactionFee < 0) {
+            throw new IllegalArgumentException("Transaction fee cannot be negative");
+        }
+        if (paymentFactory == null) {
+            throw new IllegalArgumentException("Payment factory cannot be null");
+        }
+        this.paymentType = paymentType;
+        this.transactionFee = transactionFee;
+        this.requiresCardDetails = requiresCardDetails;
+        this.paymentFactory = paymentFactory;
+    }
+
+    @Override
+    public String getPaymentType() {
+        return paymentType;
+    }
+
+    @Override
+    public boolean requiresCardDetails() {
+        return requiresCardDetails;
+    }
+
+    @Override
+    public double charge(double amount) {
+        return amount + transactionFee;
+    }
+
+    @Override
+    public Payment toPayment(double balance) {
+        return paymentFactory.apply(balance);
+    }
+
+    public double getTransactionFee() {
+        return transactionFee;
+    }
+}
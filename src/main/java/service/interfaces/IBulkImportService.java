@@ -0,0 +1,43 @@
+package service.interfaces;
+
+import java.nio.file.Path;
+
+import model.ImportResult;
+
+/**
+ * Bulk Import Service Interface
+ * Defines contract for importing foods and customers from CSV files
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface IBulkImportService {
+    
+    /**
+     * Import foods from a CSV file with columns: food_name, food_price, food_type
+     * (an optional header row is skipped)
+     * 
+     * @param file CSV file
+     * @param listener Progress callback, called once per committed chunk (may be null)
+     * @return Import summary
+     * @throws IllegalArgumentException if the file cannot be read
+     */
+    ImportResult importFoods(Path file, ProgressListener listener) throws IllegalArgumentException;
+    
+    /**
+     * Import customers from a CSV file with columns: name, age, phone_number, gender, password
+     * (an optional header row is skipped)
+     * 
+     * @param file CSV file
+     * @param listener Progress callback, called once per committed chunk (may be null)
+     * @return Import summary
+     * @throws IllegalArgumentException if the file cannot be read
+     */
+    ImportResult importCustomers(Path file, ProgressListener listener) throws IllegalArgumentException;
+    
+    /**
+     * Receives import progress
+     */
+    @FunctionalInterface
+    interface ProgressListener {
+        void onProgress(long rowsRead, long imported, long bytesRead, long totalBytes, long elapsedMillis);
+    }
+}
@@ -1,5 +1,6 @@
 package service.interfaces;
 
+import java.util.List;
 import java.util.Optional;
 
 import model.Customer;
@@ -20,6 +21,14 @@ public interface ICustomerService {
      */
     Customer registerCustomer(Customer customer) throws IllegalArgumentException;
     
+    /**
+     * Announce customers a bulk import committed without going through
+     * registerCustomer (one CustomerRegistered event each)
+     * 
+     * @param customers Imported customers, with their generated IDs
+     */
+    void customersImported(List<Customer> customers);
+    
     /**
      * Authenticate customer login
      * 
@@ -61,6 +61,23 @@ public interface IFoodService {
      */
     Optional<Food> getFoodByName(String foodName);
     
+    /**
+     * Search foods by name: prefixes and small typos match too
+     * 
+     * @param query Text typed by the user
+     * @param limit Maximum number of results
+     * @return Matching foods, best match first (empty if nothing matches)
+     */
+    List<Food> searchFoods(String query, int limit);
+    
+    /**
+     * Take in foods a bulk import committed without going through
+     * registerFood, so searches find them (one FoodChanged ADDED event each)
+     * 
+     * @param foods Imported foods, with their generated IDs
+     */
+    void foodsImported(List<Food> foods);
+    
     /**
      * Validate food name
      * 
@@ -0,0 +1,66 @@
+package service.interfaces;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import model.FoodSales;
+
+/**
+ * Order Analytics Service Interface
+ * Defines contract for ad-hoc analytics over an in-memory snapshot of order history
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface IOrderAnalyticsService {
+    
+    /**
+     * Load (or reload) the order history snapshot from the database
+     * 
+     * @return Number of orders loaded
+     * @throws RuntimeException if the load fails (the previous snapshot is kept)
+     */
+    int refresh();
+    
+    /**
+     * Check whether a snapshot has been loaded
+     * 
+     * @return true if queries can be answered
+     */
+    boolean isLoaded();
+    
+    /**
+     * Number of orders in the current snapshot
+     * 
+     * @return Order count, 0 if nothing is loaded
+     */
+    int getOrderCount();
+    
+    /**
+     * Best-selling foods by revenue
+     * 
+     * @param limit Maximum number of foods to return
+     * @return Foods ordered by revenue (highest first)
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    List<FoodSales> getTopFoods(int limit) throws IllegalArgumentException;
+    
+    /**
+     * Revenue per hour of day (local time)
+     * 
+     * @return 24 amounts, index = hour
+     */
+    BigDecimal[] getRevenueByHour();
+    
+    /**
+     * Average number of items per order
+     * 
+     * @return Average basket size, 0 if there are no orders
+     */
+    double getAverageBasketSize();
+    
+    /**
+     * Average order value
+     * 
+     * @return Average basket value, 0 if there are no orders
+     */
+    BigDecimal getAverageBasketValue();
+}
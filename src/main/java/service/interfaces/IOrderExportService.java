@@ -0,0 +1,26 @@
+package service.interfaces;
+
+import java.nio.file.Path;
+
+import model.ExportFormat;
+import model.ExportResult;
+
+/**
+ * Order Export Service Interface
+ * Defines contract for exporting order history (orders + order_details) to files
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface IOrderExportService {
+    
+    /**
+     * Export order lines to {@code directory/orders.<extension>}
+     * 
+     * @param directory Target directory (must exist)
+     * @param format File format
+     * @param resume true to append orders after the last checkpointed order ID,
+     *               false to start a fresh file
+     * @return Export summary
+     * @throws IllegalArgumentException if the directory or format is invalid
+     */
+    ExportResult exportOrders(Path directory, ExportFormat format, boolean resume) throws IllegalArgumentException;
+}
@@ -2,8 +2,11 @@ package service.interfaces;
 
 import java.util.List;
 
+import model.CartRequest;
+import model.CartResult;
 import model.Order;
 import model.OrderDetails;
+import repository.interfaces.IOrderRepository;
 
 /**
  * Order Service Interface
@@ -26,6 +29,34 @@ public interface IOrderService {
     Order createOrder(int customerId, List<OrderDetails> orderDetailsList, 
                      String paymentType, String cardNumber, String expiryDate) throws IllegalArgumentException;
     
+    /**
+     * Create a new order at most once per idempotency key.
+     * A retry with the same key returns the original order without paying again;
+     * concurrent duplicates wait for the first request and share its result.
+     * 
+     * @param idempotencyKey Client-supplied key identifying this checkout (max 64 characters)
+     * @param customerId Customer ID
+     * @param orderDetailsList List of order details
+     * @param paymentType Payment type
+     * @param cardNumber Card number (for Bank, null for others)
+     * @param expiryDate Expiry date (for Bank, null for others)
+     * @return Created (or previously created) order
+     * @throws IllegalArgumentException if order creation fails
+     */
+    Order createOrder(String idempotencyKey, int customerId, List<OrderDetails> orderDetailsList, 
+                     String paymentType, String cardNumber, String expiryDate) throws IllegalArgumentException;
+    
+    /**
+     * Check out many carts in one call.
+     * Carts are validated in one pass, customers and payment methods are
+     * bulk-loaded, and debits and inserts for all valid carts run as batches.
+     * 
+     * @param carts Carts to check out
+     * @return One result per cart, in the same order
+     * @throws IllegalArgumentException if the cart list is null
+     */
+    List<CartResult> createOrders(List<CartRequest> carts) throws IllegalArgumentException;
+    
     /**
      * Get all orders
      * 
@@ -33,6 +64,15 @@ public interface IOrderService {
      */
     List<Order> getAllOrders();
     
+    /**
+     * Stream the order report rows without loading full orders
+     * 
+     * @param handler Callback invoked for each row
+     * @return Number of rows streamed
+     * @throws RuntimeException if the report could not be read to the end
+     */
+    int streamOrderReport(IOrderRepository.ReportRowHandler handler);
+    
     /**
      * Get orders by customer ID
      * 
@@ -26,6 +26,34 @@ public interface IPaymentService {
     Payment processPayment(int customerId, String paymentType, double amount, 
                           String cardNumber, String expiryDate) throws IllegalArgumentException;
     
+    /**
+     * Process payment against a payment method the caller has already loaded
+     * (avoids a second lookup during checkout)
+     * 
+     * @param paymentMethod Payment method loaded for this checkout
+     * @param amount Amount to pay
+     * @param cardNumber Card number (for Bank, null for others)
+     * @param expiryDate Expiry date (for Bank, null for others)
+     * @return Payment object if successful
+     * @throws IllegalArgumentException if payment fails
+     */
+    Payment processPayment(PaymentMethod paymentMethod, double amount,
+                           String cardNumber, String expiryDate) throws IllegalArgumentException;
+    
+    /**
+     * Run the checks processPayment would run (supported type, card details)
+     * without debiting, and return the amount it would take
+     * 
+     * @param paymentMethod Payment method to charge
+     * @param amount Amount to pay
+     * @param cardNumber Card number (for Bank, null for others)
+     * @param expiryDate Expiry date (for Bank, null for others)
+     * @return Amount to debit, fees included
+     * @throws IllegalArgumentException if the payment type or card details are invalid
+     */
+    double chargeFor(PaymentMethod paymentMethod, double amount,
+                     String cardNumber, String expiryDate) throws IllegalArgumentException;
+    
     /**
      * Get payment method for customer
      * 
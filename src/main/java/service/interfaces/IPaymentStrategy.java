@@ -0,0 +1,66 @@
+package service.interfaces;
+
+import model.Payment;
+
+/**
+ * Payment Strategy Interface
+ * Stateless rules for one payment type; the balance is always passed in,
+ * so a single shared instance serves every payment of that type.
+ * New wallets implement this and register with PaymentStrategyRegistry
+ * (explicitly or through META-INF/services/service.interfaces.IPaymentStrategy)
+ * Follows SOLID: Open/Closed Principle, Liskov Substitution Principle
+ */
+public interface IPaymentStrategy {
+
+    /**
+     * Get the payment type this strategy handles (matched case-insensitively)
+     *
+     * @return Payment type name, e.g. "TNG"
+     */
+    String getPaymentType();
+
+    /**
+     * Whether card number and expiry date must be supplied
+     *
+     * @return true if card details are required
+     */
+    boolean requiresCardDetails();
+
+    /**
+     * Total amount taken from the balance for a payment, including fees
+     *
+     * @param amount Amount to pay
+     * @return Amount charged
+     */
+    double charge(double amount);
+
+    /**
+     * Check if balance is sufficient for payment
+     *
+     * @param balance Current balance
+     * @param amount Amount to pay
+     * @return true if sufficient balance, false otherwise
+     */
+    default boolean canPay(double balance, double amount) {
+        return balance >= charge(amount);
+    }
+
+    /**
+     * Calculate the balance after payment (unchanged if not sufficient)
+     *
+     * @param balance Current balance
+     * @param amount Amount to pay
+     * @return New balance
+     */
+    default double debit(double balance, double amount) {
+        return canPay(balance, amount) ? balance - charge(amount) : balance;
+    }
+
+    /**
+     * Create the Payment returned to callers for the given balance
+     *
+     * @param balance Balance to report
+     * @return Payment object
+     */
+    Payment toPayment(double balance);
+}
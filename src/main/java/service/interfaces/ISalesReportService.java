@@ -0,0 +1,31 @@
+package service.interfaces;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import model.SalesDaily;
+
+/**
+ * Sales Report Service Interface
+ * Defines contract for daily sales reporting
+ * Follows SOLID: Interface Segregation Principle, Dependency Inversion Principle
+ */
+public interface ISalesReportService {
+    
+    /**
+     * Get daily sales per food and payment type for a date range
+     * 
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return Aggregate rows
+     * @throws IllegalArgumentException if the range is invalid
+     */
+    List<SalesDaily> getDailySales(LocalDate from, LocalDate to) throws IllegalArgumentException;
+    
+    /**
+     * Recompute the daily sales aggregate from raw orders
+     * 
+     * @return Number of aggregate rows written
+     */
+    int rebuildAggregates();
+}
@@ -0,0 +1,208 @@
+package config;
+
+import model.Food;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.impl.FoodRepository;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Resilient Connection Provider Test
+ * An H2 database behind a provider that fails on demand: connecting fails
+ * while "down", and queries time out a given number of times.
+ */
+class ResilientConnectionProviderTest {
+
+    private static final String URL = "jdbc:h2:mem:resilient;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    private static final RetryPolicy FAST_RETRY = new RetryPolicy(3, 1, 2);
+
+    private DatabaseConnection database;
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger connectAttempts = new AtomicInteger();
+    private volatile boolean down;
+    private final AtomicInteger queryTimeouts = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        database = DatabaseConnection.createInstance(URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(database);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(database);
+        database.closeConnection();
+    }
+
+    /** The database as seen through a flaky network */
+    private final ConnectionProvider flaky = () -> {
+        connectAttempts.incrementAndGet();
+        if (down) {
+            throw new SQLRecoverableException("Communications link failure", "08S01");
+        }
+        Connection conn = database.getConnection();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(conn, method, args);
+                    if (result instanceof PreparedStatement) {
+                        PreparedStatement stmt = (PreparedStatement) result;
+                        return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                new Class<?>[] {PreparedStatement.class}, (p, m, a) -> {
+                                    if ("executeQuery".equals(m.getName()) && queryTimeouts.getAndDecrement() > 0) {
+                                        throw new SQLTimeoutException("Query timed out", "HYT00");
+                                    }
+                                    return invoke(stmt, m, a);
+                                });
+                    }
+                    return result;
+                });
+    };
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResilientConnectionProvider resilient(int threshold) {
+        return new ResilientConnectionProvider(flaky, threshold, 5_000, FAST_RETRY, now::get);
+    }
+
+    @Test
+    @DisplayName("breaker opens after consecutive failures, then lets one trial call through")
+    void testBreakerStates() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 2, 1_000, now::get);
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());   // a success resets the run
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        now.addAndGet(1_000);
+        long trial = breaker.tryAcquire();         // trial call
+        assertNotEquals(CircuitBreaker.REJECTED, trial);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());   // only one at a time
+        breaker.onFailure(trial);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(1_000);
+        breaker.onSuccess(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(2, breaker.getTimesOpened());
+        assertEquals(2, breaker.getRejections());
+        assertEquals(4, breaker.getFailures());
+    }
+
+    @Test
+    @DisplayName("calls admitted before the breaker opened do not close or re-open it")
+    void testLateResultsAreIgnored() {
+        CircuitBreaker breaker = new CircuitBreaker("op", 2, 1_000, now::get);
+        long slowSuccess = breaker.tryAcquire();
+        long slowFailure = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.onSuccess(slowSuccess);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now.addAndGet(1_000);
+        long trial = breaker.tryAcquire();
+        breaker.onSuccess(slowSuccess);
+        breaker.onFailure(slowFailure);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(1, breaker.getTimesOpened());
+
+        breaker.onSuccess(trial);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onFailure(slowFailure);            // from two generations ago
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("jittered backoff stays within the exponential ceiling")
+    void testBackoffBounds() {
+        RetryPolicy policy = new RetryPolicy(5, 10, 50);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.delayMillis(1) <= 10);
+            assertTrue(policy.delayMillis(2) <= 20);
+            assertTrue(policy.delayMillis(5) <= 50);
+        }
+        assertEquals(0, RetryPolicy.NONE.delayMillis(1));
+    }
+
+    @Test
+    @DisplayName("timed-out queries are retried and succeed")
+    void testQueryRetried() {
+        ResilientConnectionProvider provider = resilient(5);
+        queryTimeouts.set(2);
+
+        List<Food> foods = new FoodRepository(provider).findAll();
+
+        assertEquals(3, foods.size());
+        assertEquals(2, provider.getRetries());
+        CircuitBreaker.State state = provider.getBreakers().values().stream()
+                .filter(b -> b.getName().startsWith("SELECT"))
+                .findFirst().orElseThrow().getState();
+        assertEquals(CircuitBreaker.State.CLOSED, state);
+    }
+
+    @Test
+    @DisplayName("a dead database opens the breaker so tills stop connecting, and recovery closes it")
+    void testFastFailAndRecovery() {
+        ResilientConnectionProvider provider = resilient(2);
+        FoodRepository foods = new FoodRepository(provider);
+        down = true;
+
+        assertTrue(foods.findAll().isEmpty());
+        assertTrue(foods.findAll().isEmpty());
+        assertFalse(provider.isAvailable());
+        assertEquals(6, connectAttempts.get());    // 2 calls x 3 attempts
+
+        // Open: no more connection attempts
+        assertTrue(foods.findAll().isEmpty());
+        assertThrows(ResilientConnectionProvider.CircuitOpenException.class, provider::getConnection);
+        assertEquals(6, connectAttempts.get());
+        assertEquals(2, provider.getRejections());
+
+        down = false;
+        now.addAndGet(5_000);
+        assertEquals(3, foods.findAll().size());
+        assertTrue(provider.isAvailable());
+    }
+
+    @Test
+    @DisplayName("constraint violations pass through without tripping the breaker")
+    void testStatementErrorsNotCounted() throws SQLException {
+        ResilientConnectionProvider provider = resilient(1);
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = provider.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "INSERT INTO foods (food_id, food_name, food_price, food_type) VALUES (2000, 'Dup', 1.00, 'Set')")) {
+                assertThrows(SQLException.class, stmt::executeUpdate);
+            }
+        }
+        assertTrue(provider.getBreakers().values().stream()
+                .allMatch(b -> b.getState() == CircuitBreaker.State.CLOSED));
+        assertEquals(0, provider.getRetries());
+    }
+}
@@ -0,0 +1,236 @@
+package config;
+
+import model.Food;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.impl.FoodRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing Connection Provider Test
+ * Two H2 databases stand in for the primary and a replica; the replica
+ * misses rows written after the "snapshot", which shows where a read went.
+ */
+class RoutingConnectionProviderTest {
+
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;MODE=MySQL";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private DatabaseConnection primary;
+    private DatabaseConnection replica;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = DatabaseConnection.createInstance(PRIMARY_URL, "sa", "");
+        replica = DatabaseConnection.createInstance(REPLICA_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(primary);
+        TestDatabaseSetup.initializeSchema(replica);
+        // Written on the primary only: not yet replicated
+        try (Connection conn = primary.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("INSERT INTO foods (food_id, food_name, food_price, food_type) VALUES (2003, 'Laksa', 9.00, 'Set')");
+        }
+        now = new AtomicLong(1_000_000);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(primary);
+        TestDatabaseSetup.cleanup(replica);
+        primary.closeConnection();
+        replica.closeConnection();
+    }
+
+    private RoutingConnectionProvider router(RoutingConnectionProvider.Balancing balancing, ConnectionProvider... replicas) {
+        return new RoutingConnectionProvider(primary, List.of(replicas), balancing, 2_000, now::get);
+    }
+
+    private static boolean hasLaksa(List<Food> foods) {
+        return foods.stream().anyMatch(f -> f.getFoodId() == 2003);
+    }
+
+    @Test
+    @DisplayName("tolerant reads go to the replica, strong reads and writes to the primary")
+    void testReadWriteSplit() {
+        RoutingConnectionProvider router = router(RoutingConnectionProvider.Balancing.ROUND_ROBIN, replica);
+        FoodRepository foods = new FoodRepository(router);
+
+        assertFalse(hasLaksa(foods.findAll()));
+        assertEquals(1, router.getReplicaReads());
+        assertTrue(foods.existsById(2003));   // plain getConnection() = primary
+    }
+
+    @Test
+    @DisplayName("reads right after a write on the same thread stay on the primary")
+    void testReadYourWrites() {
+        RoutingConnectionProvider router = router(RoutingConnectionProvider.Balancing.ROUND_ROBIN, replica);
+        FoodRepository foods = new FoodRepository(router);
+
+        Food saved = foods.save(new Food("Roti Canai", 3.50, "A la carte"));
+        assertTrue(foods.findAll().stream().anyMatch(f -> f.getFoodId() == saved.getFoodId()));
+        assertEquals(1, router.getPrimaryReads());
+
+        now.addAndGet(2_000);
+        assertFalse(foods.findAll().stream().anyMatch(f -> f.getFoodId() == saved.getFoodId()));
+        assertEquals(1, router.getReplicaReads());
+    }
+
+    @Test
+    @DisplayName("a replica lagging beyond the tolerance is skipped")
+    void testStalenessTolerance() throws SQLException {
+        RoutingConnectionProvider router = router(RoutingConnectionProvider.Balancing.ROUND_ROBIN, replica);
+        FoodRepository foods = new FoodRepository(router);
+
+        router.reportReplicaLag(0, 10_000);
+        assertTrue(hasLaksa(foods.findAll()));
+        router.getReadConnection(60_000).close();
+        assertEquals(1, router.getReplicaReads());
+        router.getReadConnection(ConnectionProvider.STRONG).close();
+        assertEquals(2, router.getPrimaryReads());
+    }
+
+    @Test
+    @DisplayName("round robin alternates between replicas")
+    void testRoundRobin() throws SQLException {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        RoutingConnectionProvider router = router(RoutingConnectionProvider.Balancing.ROUND_ROBIN,
+                counting(first), counting(second));
+
+        for (int i = 0; i < 6; i++) {
+            router.getReadConnection(1_000).close();
+        }
+        assertEquals(3, first.get());
+        assertEquals(3, second.get());
+    }
+
+    @Test
+    @DisplayName("least loaded picks the replica with fewer open connections")
+    void testLeastLoaded() throws SQLException {
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger second = new AtomicInteger();
+        RoutingConnectionProvider router = router(RoutingConnectionProvider.Balancing.LEAST_LOADED,
+                counting(first), counting(second));
+
+        Connection held = router.getReadConnection(1_000);
+        assertEquals(1, router.getOpenConnections(0));
+        router.getReadConnection(1_000).close();
+        assertEquals(1, second.get());
+        assertEquals(0, router.getOpenConnections(1));
+
+        held.close();
+        held.close();
+        assertEquals(0, router.getOpenConnections(0));
+        router.getReadConnection(1_000).close();
+        assertEquals(2, first.get());
+    }
+
+    @Test
+    @DisplayName("an unreachable replica falls back to the primary and leaves rotation")
+    void testReplicaFailure() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        RoutingConnectionProvider router = router(RoutingConnectionProvider.Balancing.ROUND_ROBIN, () -> {
+            attempts.incrementAndGet();
+            throw new SQLException("replica down");
+        });
+
+        router.getReadConnection(1_000).close();
+        router.getReadConnection(1_000).close();
+        assertEquals(1, attempts.get());
+        assertEquals(1, router.getReplicaFailures());
+        assertEquals(2, router.getPrimaryReads());
+        assertEquals(RoutingConnectionProvider.UNKNOWN_LAG, router.getReplicaLag(0));
+
+        router.reportReplicaLag(0, 0);
+        router.getReadConnection(1_000).close();
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("an unreachable replica is retried after the recheck interval")
+    void testReplicaRetry() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicInteger failuresLeft = new AtomicInteger(1);
+        RoutingConnectionProvider router = new RoutingConnectionProvider(primary, List.of(() -> {
+            attempts.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new SQLException("replica down");
+            }
+            return replica.openConnection();
+        }), RoutingConnectionProvider.Balancing.ROUND_ROBIN, 2_000, now::get, null, 5_000);
+
+        router.getReadConnection(1_000).close();
+        now.addAndGet(4_999);
+        router.getReadConnection(1_000).close();
+        assertEquals(1, attempts.get());
+        assertEquals(2, router.getPrimaryReads());
+
+        now.addAndGet(1);
+        router.getReadConnection(1_000).close();
+        assertEquals(2, attempts.get());
+        assertEquals(1, router.getReplicaReads());
+        assertEquals(0, router.getReplicaLag(0));
+        router.getReadConnection(1_000).close();
+        assertEquals(2, router.getReplicaReads());
+    }
+
+    @Test
+    @DisplayName("the lag probe takes a lagging replica out and brings it back once it catches up")
+    void testLagProbe() throws SQLException {
+        AtomicLong lag = new AtomicLong(30_000);
+        AtomicInteger probes = new AtomicInteger();
+        RoutingConnectionProvider router = new RoutingConnectionProvider(primary, List.of(replica::openConnection),
+                RoutingConnectionProvider.Balancing.ROUND_ROBIN, 2_000, now::get, conn -> {
+                    probes.incrementAndGet();
+                    return lag.get();
+                }, 1_000);
+
+        // Not measured yet: the reported lag (0) is used
+        router.getReadConnection(5_000).close();
+        assertEquals(1, router.getReplicaReads());
+        assertEquals(0, probes.get());
+
+        now.addAndGet(1_000);
+        router.getReadConnection(5_000).close();
+        router.getReadConnection(5_000).close();
+        assertEquals(1, probes.get());
+        assertEquals(30_000, router.getReplicaLag(0));
+        assertEquals(1, router.getReplicaReads());
+        assertEquals(2, router.getPrimaryReads());
+
+        lag.set(200);
+        now.addAndGet(1_000);
+        router.getReadConnection(5_000).close();
+        assertEquals(2, probes.get());
+        assertEquals(2, router.getReplicaReads());
+        assertThrows(IllegalArgumentException.class, () -> new RoutingConnectionProvider(primary, List.of(),
+                RoutingConnectionProvider.Balancing.ROUND_ROBIN, 0, now::get, null, 0));
+    }
+
+    @Test
+    @DisplayName("providers without replicas keep the old behaviour")
+    void testDefaultReadConnection() throws SQLException {
+        try (Connection conn = replica.getReadConnection(1_000)) {
+            assertSame(replica.getConnection(), conn);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new RoutingConnectionProvider(null, List.of(),
+                RoutingConnectionProvider.Balancing.ROUND_ROBIN));
+    }
+
+    private ConnectionProvider counting(AtomicInteger counter) {
+        return () -> {
+            counter.incrementAndGet();
+            return replica.openConnection();
+        };
+    }
+}
@@ -66,10 +66,31 @@ public class TestDatabaseSetup {
                     "food_id INT NOT NULL, " +
                     "quantity INT NOT NULL, " +
                     "unit_price DECIMAL(10,2) NOT NULL, " +
-                    "subtotal DECIMAL(10,2) NOT NULL" +
+                    "subtotal DECIMAL(10,2) NOT NULL, " +
+                    "discount DECIMAL(10,2) NOT NULL DEFAULT 0" +
+                    ")");
+            
+            // Create sales_daily aggregate table
+            stmt.execute("CREATE TABLE IF NOT EXISTS sales_daily (" +
+                    "sales_date DATE NOT NULL, " +
+                    "food_id INT NOT NULL, " +
+                    "payment_type VARCHAR(20) NOT NULL, " +
+                    "quantity INT NOT NULL, " +
+                    "revenue DECIMAL(12,2) NOT NULL, " +
+                    "PRIMARY KEY (sales_date, food_id, payment_type)" +
+                    ")");
+            
+            // Create idempotency key table
+            stmt.execute("CREATE TABLE IF NOT EXISTS order_idempotency (" +
+                    "idempotency_key VARCHAR(64) PRIMARY KEY, " +
+                    "order_id INT NULL, " +
+                    "customer_id INT NULL, " +
+                    "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
                     ")");
             
             // Clear existing test data
+            stmt.execute("DELETE FROM order_idempotency");
+            stmt.execute("DELETE FROM sales_daily");
             stmt.execute("DELETE FROM order_details");
             stmt.execute("DELETE FROM orders");
             stmt.execute("DELETE FROM payment_methods");
@@ -110,6 +131,8 @@ public class TestDatabaseSetup {
     public static void cleanup(ConnectionProvider connectionProvider) throws SQLException {
         try (Connection conn = connectionProvider.getConnection();
              Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM order_idempotency");
+            stmt.execute("DELETE FROM sales_daily");
             stmt.execute("DELETE FROM order_details");
             stmt.execute("DELETE FROM orders");
             stmt.execute("DELETE FROM payment_methods");
@@ -60,6 +60,35 @@ public class OrderControllerTest {
         assertNull(result);
     }
     
+    @Test
+    @DisplayName("Test createOrder - idempotency key passed through, failure returns null")
+    void testCreateOrder_IdempotencyKey() {
+        List<OrderDetails> details = Arrays.asList(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1));
+        Order order = new Order();
+        order.setOrderId(5);
+        
+        when(mockService.createOrder("till-1-0001", 1000, details, "TNG", null, null)).thenReturn(order);
+        when(mockService.createOrder("till-1-0002", 1000, details, "TNG", null, null))
+                .thenThrow(new IllegalArgumentException("Order with this idempotency key is still being processed"));
+        
+        assertSame(order, controller.createOrder("till-1-0001", 1000, details, "TNG", null, null));
+        assertNull(controller.createOrder("till-1-0002", 1000, details, "TNG", null, null));
+    }
+    
+    @Test
+    @DisplayName("Test createOrders - results passed through, rejected batch returns null")
+    void testCreateOrders() {
+        List<CartRequest> carts = Arrays.asList(new CartRequest(1000,
+                Arrays.asList(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1)), "TNG", null, null));
+        List<CartResult> results = Arrays.asList(CartResult.failure(0, "Customer not found"));
+        
+        when(mockService.createOrders(carts)).thenReturn(results);
+        when(mockService.createOrders(null)).thenThrow(new IllegalArgumentException("Cart list cannot be null"));
+        
+        assertSame(results, controller.createOrders(carts));
+        assertNull(controller.createOrders(null));
+    }
+    
     @Test
     @DisplayName("Test getAllOrders - returns list")
     void testGetAllOrders() {
@@ -90,5 +119,11 @@ public class OrderControllerTest {
         when(mockService.calculateTotalPrice(details)).thenReturn(20.00);
         assertEquals(20.00, controller.calculateTotalPrice(details), 0.01);
     }
+    
+    @Test
+    @DisplayName("Test streamOrderReport - a report that stops part-way returns -1")
+    void testStreamOrderReport_Failure() {
+        when(mockService.streamOrderReport(any())).thenThrow(new RuntimeException("Failed to stream order report"));
+        assertEquals(-1, controller.streamOrderReport((orderId, customerId, paymentType, totalCents) -> { }));
+    }
 }
-
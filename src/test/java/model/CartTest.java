@@ -0,0 +1,163 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Cart and SharedCart
+ */
+public class CartTest {
+    
+    private final Food chickenRice = new Food(2000, "Chicken Rice", 10.50, "Set");
+    private final Food nasiLemak = new Food(2001, "Nasi Lemak", 8.00, "Set");
+    
+    @Test
+    @DisplayName("Duplicate foods merge into one line and the total stays current")
+    void testMergeAndRunningTotal() {
+        Cart cart = new Cart();
+        assertTrue(cart.isEmpty());
+        
+        assertEquals(2, cart.add(chickenRice, 2));
+        assertEquals(1, cart.add(nasiLemak, 1));
+        assertEquals(5, cart.add(chickenRice, 3));
+        
+        assertEquals(2, cart.getLineCount());
+        assertEquals(5 * 1050 + 800, cart.getTotalCents());
+        assertEquals(60.50, cart.getTotal(), 0.001);
+        
+        assertTrue(cart.setQuantity(2001, 4));
+        assertEquals(5 * 1050 + 4 * 800, cart.getTotalCents());
+        assertTrue(cart.remove(2000));
+        assertFalse(cart.remove(2000));
+        assertEquals(3200, cart.getTotalCents());
+        assertTrue(cart.setQuantity(2001, 0));
+        assertTrue(cart.isEmpty());
+        assertEquals(0, cart.getTotalCents());
+    }
+    
+    @Test
+    @DisplayName("Unit price is captured when the food is first added")
+    void testPriceCapturedAtAdd() {
+        Cart cart = new Cart();
+        Food food = new Food(2002, "Mee Goreng", 12.00, "A la carte");
+        cart.add(food, 1);
+        food.setFoodPrice(15.00);
+        cart.add(food, 1);
+        
+        assertEquals(1200, cart.getUnitCents(2002));
+        assertEquals(-1, cart.getUnitCents(9999));
+        assertEquals(2400, cart.getTotalCents());
+        
+        List<OrderDetails> details = cart.toOrderDetails();
+        assertEquals(1, details.size());
+        assertEquals(2, details.get(0).getQuantity());
+        assertEquals(0, new BigDecimal("12.00").compareTo(details.get(0).getUnitPriceDecimal()));
+        assertEquals(24.00, details.get(0).getSubtotal(), 0.001);
+    }
+    
+    @Test
+    @DisplayName("Invalid quantities are rejected without changing the cart")
+    void testValidation() {
+        Cart cart = new Cart();
+        cart.add(chickenRice, 99);
+        
+        assertThrows(IllegalArgumentException.class, () -> cart.add(chickenRice, 2));
+        assertThrows(IllegalArgumentException.class, () -> cart.add(nasiLemak, 0));
+        assertThrows(IllegalArgumentException.class, () -> cart.add(nasiLemak, 101));
+        assertThrows(IllegalArgumentException.class, () -> cart.add(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> cart.setQuantity(2000, -1));
+        assertFalse(cart.setQuantity(2001, 1));
+        assertEquals(99, cart.getQuantity(2000));
+        assertEquals(99 * 1050, cart.getTotalCents());
+    }
+    
+    @Test
+    @DisplayName("Cart grows past its initial capacity and keeps insertion order")
+    void testGrowthAndOrder() {
+        Cart cart = new Cart();
+        for (int id = 0; id < 50; id++) {
+            cart.add(new Food(3000 + id * 7, "Food " + id, 1.00, "Set"), 1);
+        }
+        cart.remove(3000 + 10 * 7);
+        for (int id = 0; id < 50; id++) {
+            cart.add(new Food(3000 + id * 7, "Food " + id, 1.00, "Set"), 1);
+        }
+        
+        assertEquals(50, cart.getLineCount());
+        assertEquals(1, cart.getQuantity(3070));
+        assertEquals(2, cart.getQuantity(3000));
+        assertEquals(99 * 100, cart.getTotalCents());
+        List<OrderDetails> details = cart.toOrderDetails();
+        assertEquals(3000, details.get(0).getFood().getFoodId());
+        assertEquals(3070, details.get(49).getFood().getFoodId());
+        
+        Cart copy = new Cart(cart);
+        cart.clear();
+        assertEquals(50, copy.getLineCount());
+        assertTrue(cart.isEmpty());
+        assertEquals(0, cart.getQuantity(3000));
+    }
+    
+    @Test
+    @DisplayName("SharedCart merges concurrent adds without losing any")
+    void testSharedCartConcurrentAdds() throws InterruptedException {
+        SharedCart cart = new SharedCart();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Food food = t % 2 == 0 ? chickenRice : nasiLemak;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 10; i++) {
+                    cart.add(food, 1);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        
+        assertEquals(40, cart.getQuantity(2000));
+        assertEquals(40, cart.getQuantity(2001));
+        assertEquals(40 * 1050 + 40 * 800, cart.getTotalCents());
+        assertEquals(2, cart.getLineCount());
+        
+        Cart drained = cart.drain();
+        assertEquals(2, drained.toOrderDetails().size());
+        assertTrue(cart.isEmpty());
+        assertFalse(cart.remove(2000));
+    }
+    
+    @Test
+    @DisplayName("SharedCart quantity changes and snapshots")
+    void testSharedCartUpdates() {
+        SharedCart cart = new SharedCart();
+        cart.add(chickenRice, 2);
+        Cart before = cart.snapshot();
+        
+        assertTrue(cart.setQuantity(2000, 5));
+        assertEquals(2, before.getQuantity(2000));
+        before.add(chickenRice, 1);
+        assertEquals(5, cart.getQuantity(2000));
+        assertEquals(5, cart.toOrderDetails().get(0).getQuantity());
+        assertThrows(IllegalArgumentException.class, () -> cart.add(chickenRice, 96));
+        assertEquals(5, cart.getQuantity(2000));
+        assertTrue(cart.remove(2000));
+        assertTrue(cart.isEmpty());
+    }
+}
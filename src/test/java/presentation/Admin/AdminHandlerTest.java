@@ -10,13 +10,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import controller.AnalyticsController;
+import controller.ExportController;
+import controller.ImportController;
 import controller.OrderController;
+import controller.SalesReportController;
 import presentation.Food.FoodHandler;
 import presentation.Order.OrderHandler;
 import presentation.General.UserInputHandler;
 import service.interfaces.IAdminService;
 
-import java.util.ArrayList;
 
 class AdminHandlerTest {
 
@@ -32,6 +35,18 @@ class AdminHandlerTest {
     @Mock
     private UserInputHandler inputHandler;
 
+    @Mock
+    private SalesReportController salesReportController;
+
+    @Mock
+    private AnalyticsController analyticsController;
+
+    @Mock
+    private ImportController importController;
+
+    @Mock
+    private ExportController exportController;
+
     @Mock
     private OrderHandler orderHandler; // Dependency for method arg
 
@@ -156,9 +171,6 @@ class AdminHandlerTest {
         when(inputHandler.readString(anyString())).thenReturn("admin", "123");
         when(adminService.login(anyString(), anyString())).thenReturn(true);
 
-        // Mock Order Data
-        when(orderController.getAllOrders()).thenReturn(new ArrayList<>());
-
         // Menu Sequence: 2 (Order Report) -> 0 (Exit)
         when(inputHandler.readInt(anyString()))
             .thenReturn(2, 0);
@@ -166,8 +178,9 @@ class AdminHandlerTest {
         // Execute
         adminHandler.handleAdminMenu(orderHandler, null);
 
-        // Verify Controller Call
-        verify(orderController).getAllOrders();
+        // Verify the report is streamed instead of loading every order
+        verify(orderController).streamOrderReport(any());
+        verify(orderController, never()).getAllOrders();
     }
 
     // ==========================================
@@ -190,4 +203,161 @@ class AdminHandlerTest {
         // Verify we stayed in the loop 3 times (3 reads)
         verify(inputHandler, times(3)).readInt(anyString());
     }
-}
\ No newline at end of file
+
+    // ==========================================
+    // 5. Sales Report Tests
+    // ==========================================
+
+    @Test
+    @DisplayName("Sales Report - re-prompts until days are in range")
+    void testHandleSalesReport() {
+        when(inputHandler.readInt(anyString())).thenReturn(0, 7);
+        when(salesReportController.getDailySales(7)).thenReturn(new java.util.ArrayList<>());
+
+        adminHandler.handleSalesReport();
+
+        verify(inputHandler, times(2)).readInt(anyString());
+        verify(salesReportController).getDailySales(7);
+    }
+
+    @Test
+    @DisplayName("Rebuild Sales - confirmed rebuild calls controller")
+    void testHandleRebuildSales_Confirmed() {
+        when(inputHandler.readYesNo(anyString())).thenReturn(true);
+        when(salesReportController.rebuildAggregates()).thenReturn(3);
+
+        adminHandler.handleRebuildSales();
+
+        verify(salesReportController).rebuildAggregates();
+    }
+
+    @Test
+    @DisplayName("Rebuild Sales - cancelled rebuild does nothing")
+    void testHandleRebuildSales_Cancelled() {
+        when(inputHandler.readYesNo(anyString())).thenReturn(false);
+
+        adminHandler.handleRebuildSales();
+
+        verify(salesReportController, never()).rebuildAggregates();
+    }
+
+    // ==========================================
+    // 6. Order Analytics Tests
+    // ==========================================
+
+    @Test
+    @DisplayName("Order Analytics - first use loads snapshot without asking")
+    void testHandleOrderAnalytics_FirstLoad() {
+        when(analyticsController.isLoaded()).thenReturn(false);
+        when(analyticsController.refresh()).thenReturn(2);
+        when(analyticsController.getTopFoods(anyInt())).thenReturn(new java.util.ArrayList<>());
+        when(analyticsController.getRevenueByHour()).thenReturn(zeroHours());
+        when(analyticsController.getAverageBasketValue()).thenReturn(java.math.BigDecimal.ZERO);
+
+        adminHandler.handleOrderAnalytics();
+
+        verify(analyticsController).refresh();
+        verify(inputHandler, never()).readYesNo(anyString());
+        verify(analyticsController).getTopFoods(10);
+    }
+
+    @Test
+    @DisplayName("Order Analytics - loaded snapshot is reused when reload declined")
+    void testHandleOrderAnalytics_ReuseSnapshot() {
+        when(analyticsController.isLoaded()).thenReturn(true);
+        when(inputHandler.readYesNo(anyString())).thenReturn(false);
+        when(analyticsController.getTopFoods(anyInt())).thenReturn(new java.util.ArrayList<>());
+        when(analyticsController.getRevenueByHour()).thenReturn(zeroHours());
+        when(analyticsController.getAverageBasketValue()).thenReturn(java.math.BigDecimal.ZERO);
+
+        adminHandler.handleOrderAnalytics();
+
+        verify(analyticsController, never()).refresh();
+        verify(analyticsController).getRevenueByHour();
+    }
+
+    @Test
+    @DisplayName("Order Analytics - failed load shows nothing")
+    void testHandleOrderAnalytics_LoadFailed() {
+        when(analyticsController.isLoaded()).thenReturn(false);
+        when(analyticsController.refresh()).thenReturn(-1);
+
+        adminHandler.handleOrderAnalytics();
+
+        verify(analyticsController, never()).getTopFoods(anyInt());
+    }
+
+    private static java.math.BigDecimal[] zeroHours() {
+        java.math.BigDecimal[] hours = new java.math.BigDecimal[24];
+        java.util.Arrays.fill(hours, java.math.BigDecimal.ZERO);
+        return hours;
+    }
+
+    // ==========================================
+    // 7. Bulk Import Tests
+    // ==========================================
+
+    @Test
+    @DisplayName("Bulk Import - foods import shows summary")
+    void testHandleBulkImport_Foods() {
+        when(inputHandler.readInt(anyString())).thenReturn(1);
+        when(inputHandler.readString(anyString())).thenReturn("foods.csv");
+        when(importController.importFoods(eq("foods.csv"), any())).thenReturn(new model.ImportResult());
+
+        adminHandler.handleBulkImport();
+
+        verify(importController).importFoods(eq("foods.csv"), any());
+        verify(importController, never()).importCustomers(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Bulk Import - customers import")
+    void testHandleBulkImport_Customers() {
+        when(inputHandler.readInt(anyString())).thenReturn(2);
+        when(inputHandler.readString(anyString())).thenReturn("customers.csv");
+
+        adminHandler.handleBulkImport();
+
+        verify(importController).importCustomers(eq("customers.csv"), any());
+    }
+
+    @Test
+    @DisplayName("Bulk Import - cancel does nothing")
+    void testHandleBulkImport_Cancel() {
+        when(inputHandler.readInt(anyString())).thenReturn(0);
+
+        adminHandler.handleBulkImport();
+
+        verify(inputHandler, never()).readString(anyString());
+        verifyNoInteractions(importController);
+    }
+
+    // ==========================================
+    // 8. Export Tests
+    // ==========================================
+
+    @Test
+    @DisplayName("Export Orders - binary export with resume")
+    void testHandleExportOrders() {
+        when(inputHandler.readInt(anyString())).thenReturn(2);
+        when(inputHandler.readString(anyString())).thenReturn("/tmp/exports");
+        when(inputHandler.readYesNo(anyString())).thenReturn(true);
+        when(exportController.exportOrders("/tmp/exports", model.ExportFormat.BINARY, true))
+                .thenReturn(new model.ExportResult("/tmp/exports/orders.bin", model.ExportFormat.BINARY,
+                        10, 12, 2, 3, 200, 5));
+
+        adminHandler.handleExportOrders();
+
+        verify(exportController).exportOrders("/tmp/exports", model.ExportFormat.BINARY, true);
+    }
+
+    @Test
+    @DisplayName("Export Orders - cancel does nothing")
+    void testHandleExportOrders_Cancel() {
+        when(inputHandler.readInt(anyString())).thenReturn(0);
+
+        adminHandler.handleExportOrders();
+
+        verifyNoInteractions(exportController);
+    }
+}
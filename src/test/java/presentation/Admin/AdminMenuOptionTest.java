@@ -27,6 +27,11 @@ class AdminMenuOptionTest {
     void testGetByOptionNumber_Valid() {
         assertEquals(AdminMenuOption.FOOD_MANAGEMENT, AdminMenuOption.getByOptionNumber(1));
         assertEquals(AdminMenuOption.ORDER_REPORT, AdminMenuOption.getByOptionNumber(2));
+        assertEquals(AdminMenuOption.ORDER_ANALYTICS, AdminMenuOption.getByOptionNumber(3));
+        assertEquals(AdminMenuOption.SALES_REPORT, AdminMenuOption.getByOptionNumber(4));
+        assertEquals(AdminMenuOption.REBUILD_SALES, AdminMenuOption.getByOptionNumber(5));
+        assertEquals(AdminMenuOption.BULK_IMPORT, AdminMenuOption.getByOptionNumber(6));
+        assertEquals(AdminMenuOption.EXPORT_ORDERS, AdminMenuOption.getByOptionNumber(7));
         assertEquals(AdminMenuOption.BACK_MAIN_MENU, AdminMenuOption.getByOptionNumber(0));
     }
 
@@ -0,0 +1,67 @@
+package presentation.Admin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import presentation.General.ConsoleOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for StreamingOrderReport
+ */
+class StreamingOrderReportTest {
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final StreamingOrderReport report = new StreamingOrderReport(new ConsoleOutput(new PrintStream(bytes)));
+
+    @Test
+    @DisplayName("Rows are rendered and totals accumulate per payment type")
+    void testRunningTotals() {
+        report.printHeader();
+        report.onRow(1, 1000, "TNG", 2100);
+        report.onRow(2, 1001, "Grab", 1050);
+        report.onRow(3, 1000, "TNG", 899);
+        report.printFooter();
+
+        assertEquals(3, report.getOrderCount());
+        assertEquals(4049, report.getGrandTotalCents());
+        assertArrayEquals(new long[] {2, 2999}, report.getTotals("TNG"));
+        assertArrayEquals(new long[] {1, 1050}, report.getTotals("Grab"));
+        assertArrayEquals(new long[] {0, 0}, report.getTotals("Bank"));
+
+        String output = bytes.toString();
+        assertTrue(output.contains("Order Report"));
+        assertTrue(output.contains("1\t\t1000\t\t\tTNG\t\t\tRM 21.00"));
+        assertTrue(output.contains("3\t\t1000\t\t\tTNG\t\t\tRM 8.99"));
+        assertTrue(output.contains("RM 29.99"));
+        assertTrue(output.contains("RM 40.49"));
+    }
+
+    @Test
+    @DisplayName("Incomplete footer flags the totals as partial")
+    void testIncompleteFooter() {
+        report.printHeader();
+        report.onRow(1, 1000, "TNG", 2100);
+        report.printIncompleteFooter();
+
+        String output = bytes.toString();
+        assertTrue(output.contains("REPORT INCOMPLETE - totals cover only the 1 orders read"));
+        assertTrue(output.indexOf("RM 21.00") < output.indexOf("REPORT INCOMPLETE"));
+    }
+
+    @Test
+    @DisplayName("Empty report prints headers and zero totals")
+    void testEmptyReport() {
+        report.printHeader();
+        report.printFooter();
+
+        assertEquals(0, report.getOrderCount());
+        String output = bytes.toString();
+        assertTrue(output.contains("Order ID"));
+        assertTrue(output.contains("RM 0.00"));
+    }
+}
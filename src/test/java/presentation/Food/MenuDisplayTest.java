@@ -339,5 +339,29 @@ public class MenuDisplayTest {
         
         System.setOut(originalOut);
     }
+    
+    @Test
+    @DisplayName("displaySalesReport - Should show rows, day totals and grand total")
+    void testDisplaySalesReport() {
+        java.time.LocalDate day1 = java.time.LocalDate.of(2026, 3, 1);
+        java.time.LocalDate day2 = day1.plusDays(1);
+        List<model.SalesDaily> rows = Arrays.asList(
+            new model.SalesDaily(day1, 2000, "Chicken Rice", "TNG", 2, new java.math.BigDecimal("21.00")),
+            new model.SalesDaily(day1, 2001, null, "Grab", 1, new java.math.BigDecimal("8.00")),
+            new model.SalesDaily(day2, 2000, "Chicken Rice", "TNG", 1, new java.math.BigDecimal("10.50"))
+        );
+        
+        MenuDisplay.displaySalesReport(rows, new presentation.General.ConsoleOutput());
+        String output = outputStream.toString();
+        
+        assertTrue(output.contains("Daily Sales Report"));
+        assertTrue(output.contains("Chicken Rice"));
+        assertTrue(output.contains("(deleted)"));
+        assertTrue(output.contains("Total 2026-03-01"));
+        assertTrue(output.contains("29.00"));
+        assertTrue(output.contains("Total 2026-03-02"));
+        assertTrue(output.contains("39.50"));
+        
+        System.setOut(originalOut);
+    }
 }
-
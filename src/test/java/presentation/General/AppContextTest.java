@@ -0,0 +1,47 @@
+package presentation.General;
+
+import config.DatabaseConnection;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * App Context Test
+ */
+class AppContextTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Test
+    @DisplayName("nothing touches the database until a controller is used")
+    void testLazyWiring() {
+        AtomicInteger opened = new AtomicInteger();
+        AppContext context = new AppContext(() -> {
+            opened.incrementAndGet();
+            return DatabaseConnection.createInstance(H2_URL, "sa", "");
+        });
+
+        new Application(context);
+        assertEquals(0, opened.get());
+
+        context.foodController();
+        context.orderController();
+        context.customerController();
+        assertEquals(1, opened.get());
+    }
+
+    @Test
+    @DisplayName("each component is a single shared instance")
+    void testSharedInstances() {
+        AppContext context = new AppContext(() -> DatabaseConnection.createInstance(H2_URL, "sa", ""));
+
+        assertSame(context.foodController(), context.foodController());
+        assertSame(context.orderController(), context.orderController());
+        assertSame(context.adminController(), context.adminController());
+        assertSame(context.pricingEngine(), context.pricingEngine());
+        assertSame(context.exportController(), context.exportController());
+    }
+}
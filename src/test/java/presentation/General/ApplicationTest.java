@@ -152,7 +152,7 @@ public class ApplicationTest {
     @Test
     @DisplayName("Test processOrder - TNG payment")
     void testProcessOrder_TNGPayment() {
-        String input = "1\n";
+        String input = "1\nN\n"; // N = no retry if checkout fails
         System.setIn(new ByteArrayInputStream(input.getBytes()));
         Application app = new Application();
         
@@ -255,7 +255,7 @@ public class ApplicationTest {
     @Test
     @DisplayName("Test processOrder - Grab payment")
     void testProcessOrder_GrabPayment() {
-        String input = "2\n";
+        String input = "2\nN\n";
         System.setIn(new ByteArrayInputStream(input.getBytes()));
         Application app = new Application();
         app.currentCustomer = new Customer(1000, "John Doe");
@@ -270,7 +270,7 @@ public class ApplicationTest {
     @Test
     @DisplayName("Test processOrder - Bank payment with card")
     void testProcessOrder_BankPayment() {
-        String input = "3\n1234567890123456\n1225\n";
+        String input = "3\n1234567890123456\n1225\nN\n";
         System.setIn(new ByteArrayInputStream(input.getBytes()));
         Application app = new Application();
         app.currentCustomer = new Customer(1000, "John Doe");
@@ -285,7 +285,7 @@ public class ApplicationTest {
     @Test
     @DisplayName("Test processOrder - Bank payment with invalid card retry")
     void testProcessOrder_BankPaymentInvalidCard() {
-        String input = "3\n123\n1234567890123456\n12\n1225\n";
+        String input = "3\n123\n1234567890123456\n12\n1225\nN\n";
         System.setIn(new ByteArrayInputStream(input.getBytes()));
         Application app = new Application();
         app.currentCustomer = new Customer(1000, "John Doe");
@@ -434,7 +434,7 @@ public class ApplicationTest {
     @Test
     @DisplayName("Test processOrder - order with multiple items")
     void testProcessOrder_MultipleItems() {
-        String input = "1\n";
+        String input = "1\nN\n";
         System.setIn(new ByteArrayInputStream(input.getBytes()));
         Application app = new Application();
         app.currentCustomer = new Customer(1000, "John Doe");
@@ -554,7 +554,7 @@ public class ApplicationTest {
     @Test
     @DisplayName("Test processOrder - order with null result")
     void testProcessOrder_NullOrder() {
-        String input = "1\n";
+        String input = "1\nN\n";
         System.setIn(new ByteArrayInputStream(input.getBytes()));
         Application app = new Application();
         app.currentCustomer = new Customer(1000, "John Doe");
@@ -0,0 +1,164 @@
+package presentation.General;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import presentation.Food.MenuDisplay;
+import presentation.Order.OrderHandler;
+import presentation.Order.OrderMenuDisplay;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for ConsoleOutput
+ * Checks that buffered rendering matches the old String.format output
+ */
+public class ConsoleOutputTest {
+
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private ConsoleOutput output = new ConsoleOutput(new PrintStream(bytes));
+
+    @Test
+    @DisplayName("Nothing is written until flush")
+    void testBufferedUntilFlush() {
+        output.println("hello").print(42);
+        assertEquals(0, bytes.size());
+        assertTrue(output.pending() > 0);
+
+        output.flush();
+        assertEquals("hello" + System.lineSeparator() + "42", bytes.toString());
+        assertEquals(0, output.pending());
+    }
+
+    @Test
+    @DisplayName("Full buffer spills automatically")
+    void testAutoFlushWhenFull() {
+        ConsoleOutput small = new ConsoleOutput(new PrintStream(bytes), 4);
+        small.print("abcdef");
+        assertEquals("abcdef", bytes.toString());
+    }
+
+    @Test
+    @DisplayName("Invalid capacity is rejected")
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsoleOutput(System.out, 0));
+    }
+
+    @Test
+    @DisplayName("printMoney matches %.2f")
+    void testPrintMoney() {
+        double[] values = {0, 0.5, 1.05, 10.5, 21.499, 100, 12345.678, -3.2, 1.005, 2.675, 0.125};
+        for (double v : values) {
+            output.printMoney(v).print('|');
+        }
+        output.printMoney((BigDecimal) null).flush();
+
+        StringBuilder expected = new StringBuilder();
+        for (double v : values) {
+            expected.append(String.format("%.2f", v)).append('|');
+        }
+        expected.append("0.00");
+        assertEquals(expected.toString(), bytes.toString());
+    }
+
+    @Test
+    @DisplayName("printMoney rounds half cents up, as %.2f does")
+    void testPrintMoneyHalfCent() {
+        output.printMoney(1.005).print('|')
+              .printMoney(new BigDecimal("1.005")).print('|')
+              .printMoney(new BigDecimal("-1.005")).print('|')
+              .printMoney(new BigDecimal("1.004")).flush();
+
+        assertEquals(String.format("%.2f|%.2f|%.2f|%.2f", 1.005, new BigDecimal("1.005"),
+                new BigDecimal("-1.005"), new BigDecimal("1.004")), bytes.toString());
+        assertEquals("1.01|1.01|-1.01|1.00", bytes.toString());
+    }
+
+    @Test
+    @DisplayName("Padding helpers match printf widths")
+    void testPadding() {
+        output.padLeft(7, 3).print('|')
+              .padLeft(-12, 6).print('|')
+              .padRight("Nasi", 8).print('|')
+              .padLeft("Total:", 10).print('|')
+              .padMoney(8.5, 8).print('|')
+              .padRight("LongerThanWidth", 4)
+              .flush();
+
+        String expected = String.format("%3d|%6d|%-8s|%10s|%8.2f|%-4s", 7, -12, "Nasi", "Total:", 8.5, "LongerThanWidth");
+        assertEquals(expected, bytes.toString());
+    }
+
+    @Test
+    @DisplayName("Default output follows System.out at flush time")
+    void testDefaultTargetsCurrentSystemOut() {
+        PrintStream original = System.out;
+        try {
+            ConsoleOutput console = new ConsoleOutput();
+            System.setOut(new PrintStream(bytes));
+            console.print("late bound").flush();
+            assertEquals("late bound", bytes.toString());
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    @Test
+    @DisplayName("Receipt is rendered in a single frame")
+    void testReceiptRendering() {
+        Food food = new Food(2000, "Chicken Rice", 10.50, "Set");
+        OrderDetails detail = new OrderDetails(food, 2);
+        Order order = new Order(new Date(), new Customer(1000), Arrays.asList(detail, new OrderDetails(null, 0)),
+                21.00, new PaymentMethod(1, 1000, "TNG", 79.00, null, null));
+        order.setOrderId(7);
+
+        OrderHandler.displayReceipt(order, output);
+        String rendered = bytes.toString();
+
+        assertTrue(rendered.contains("RECEIPT"));
+        assertTrue(rendered.contains("Order Id : 7"));
+        assertTrue(rendered.contains(detail.toString()));
+        assertTrue(rendered.contains("Subtotal :\t\t\t\t\t\tRM 21.00"));
+        assertTrue(rendered.contains("TNG      : \t\t\t\t\t\tRM 79.00"));
+        assertEquals(0, output.pending());
+    }
+
+    @Test
+    @DisplayName("Order menu and summary keep their printf layout")
+    void testOrderMenuRendering() {
+        List<Food> foods = Arrays.asList(new Food(2000, "Chicken Rice", 10.50, "Set"));
+        OrderMenuDisplay.displayOrderMenu(foods, output);
+        assertTrue(bytes.toString().contains(String.format("%3d. %-30s RM %6.2f", 1, "Chicken Rice", 10.50)));
+
+        bytes.reset();
+        OrderMenuDisplay.displayOrderSummary(Arrays.asList(new OrderDetails(foods.get(0), 3), null), output);
+        String summary = bytes.toString();
+        assertTrue(summary.contains(String.format("%-6s %-25s %8s %6s %12s", "ID", "Name", "Unit", "Qty", "Subtotal")));
+        assertTrue(summary.contains(String.format("%6d %-25s RM %6.2f %4d RM %8.2f", 2000, "Chicken Rice", 10.50, 3, 31.50)));
+        assertTrue(summary.contains(String.format("%45s RM %8.2f", "Total:", 31.50)));
+    }
+
+    @Test
+    @DisplayName("Order report rows keep their layout")
+    void testOrderReportRendering() {
+        Order order = new Order(new Date(), new Customer(1000), null, 21.5,
+                new PaymentMethod(1, 1000, "Grab", 0, null, null));
+        order.setOrderId(3);
+
+        MenuDisplay.displayOrderReport(Arrays.asList(order), output);
+
+        assertTrue(bytes.toString().contains("3\t\t1000\t\t\tGrab\t\t\tRM 21.50"));
+    }
+}
@@ -0,0 +1,132 @@
+package presentation.General;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import presentation.Food.MenuDisplay;
+import presentation.Order.OrderHandler;
+
+/**
+ * Render benchmark for the receipt and the order report.
+ * Compares the old println-per-line rendering with ConsoleOutput frames.
+ * Not a unit test; run manually:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=presentation.General.ConsoleRenderBenchmark
+ */
+public class ConsoleRenderBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ROUNDS = 20_000;
+
+    public static void main(String[] args) {
+        CountingStream sink = new CountingStream();
+        // autoFlush=true mirrors System.out on a terminal: every println is a write
+        PrintStream terminal = new PrintStream(sink, true);
+        ConsoleOutput output = new ConsoleOutput(terminal);
+
+        Order receipt = sampleOrder(1, 8);
+        List<Order> report = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            report.add(sampleOrder(i, 0));
+        }
+
+        PrintStream original = System.out;
+        System.setOut(terminal);
+        try {
+            measure("receipt  println", sink, () -> legacyReceipt(receipt));
+            measure("receipt  buffered", sink, () -> OrderHandler.displayReceipt(receipt, output));
+            measure("report   println", sink, () -> legacyReport(report));
+            measure("report   buffered", sink, () -> MenuDisplay.displayOrderReport(report, output));
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    private static void measure(String name, CountingStream sink, Runnable render) {
+        for (int i = 0; i < WARMUP; i++) {
+            render.run();
+        }
+        sink.writes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            render.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.err.printf("%-18s %8.2f us/frame %6d writes/frame%n",
+                name, elapsed / 1_000.0 / ROUNDS, sink.writes / ROUNDS);
+    }
+
+    private static Order sampleOrder(int id, int lines) {
+        List<OrderDetails> details = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            details.add(new OrderDetails(new Food(2000 + i, "Food Item " + i, 5.5 + i, "Set"), 1 + i % 3));
+        }
+        Order order = new Order(new Date(), new Customer(1000 + id), details, 42.30,
+                new PaymentMethod(id, 1000 + id, "TNG", 57.70, null, null));
+        order.setOrderId(id);
+        return order;
+    }
+
+    /** Rendering as it was before ConsoleOutput (one println per line) */
+    private static void legacyReceipt(Order order) {
+        System.out.println("======================================================================");
+        System.out.println("                                 RECEIPT                              ");
+        System.out.println("======================================================================");
+        System.out.println("Order Id : " + order.getOrderId() + "\t\t\tDate : " + order.getOrderDate());
+        System.out.println("==============");
+        System.out.println("Cust ID : " + order.getCustomer().getCustomerId());
+        System.out.println("======================================================================");
+        System.out.println("Food Id \t Food Name\t     Food Price  Qty \t\tTotal Price");
+        for (OrderDetails detail : order.getOrderDetails()) {
+            System.out.println(detail.toString());
+        }
+        System.out.println("======================================================================");
+        System.out.println("Subtotal :\t\t\t\t\t\tRM " + String.format("%.2f", order.getTotalPrice()));
+        System.out.println("======================================================================");
+        PaymentMethod paymentMethod = order.getPaymentMethod();
+        System.out.println(paymentMethod.getPaymentType() + "      : \t\t\t\t\t\tRM " +
+                         String.format("%.2f", paymentMethod.getBalance()));
+        System.out.println("======================================================================");
+    }
+
+    /** Rendering as it was before ConsoleOutput (one println per line) */
+    private static void legacyReport(List<Order> orders) {
+        System.out.println("=================================================================================");
+        System.out.println("                                        Order Report                             ");
+        System.out.println("=================================================================================");
+        System.out.println("Order ID\t\tCustomer Id\t\tPayment Method\t\tTotal Price");
+        System.out.println("=================================================================================");
+        for (Order order : orders) {
+            System.out.println(order.getOrderId() + "\t\t" +
+                             order.getCustomer().getCustomerId() + "\t\t\t" +
+                             order.getPaymentMethod().getPaymentType() + "\t\t\t" +
+                             "RM " + String.format("%.2f", order.getTotalPrice()));
+        }
+        System.out.println("=================================================================================");
+    }
+
+    /** Discards bytes but counts flushes, which is what a slow terminal pays for */
+    private static final class CountingStream extends OutputStream {
+        long writes;
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+            writes++;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package presentation.Order;
+
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Receipt Spooler Test
+ */
+class ReceiptSpoolerTest {
+
+    private final ByteArrayOutputStream terminal = new ByteArrayOutputStream();
+
+    private static Order order(int orderId) {
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2));
+        Order order = new Order(new Date(), new Customer(1000, "John Doe"), details, 21.00,
+                new PaymentMethod(1, 1000, "TNG", 79.00, null, null));
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    @Test
+    @DisplayName("receipts are printed and archived off the caller's thread")
+    void testPrintsAndArchives(@TempDir Path directory) throws Exception {
+        ReceiptSpooler spooler = new ReceiptSpooler(8, 10, new PrintStream(terminal),
+                new ReceiptArchive(directory), OrderHandler::displayReceipt);
+
+        assertTrue(spooler.submit(order(1)));
+        assertTrue(spooler.submit(order(2)));
+        assertTrue(spooler.awaitIdle(5_000));
+        spooler.close();
+
+        String printed = terminal.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("Order Id : 1"));
+        assertTrue(printed.contains("Order Id : 2"));
+        assertTrue(printed.contains("Chicken Rice"));
+        assertEquals(2, spooler.getPrinted());
+        assertEquals(0, spooler.getDropped());
+
+        Path segment = directory.resolve("receipts-00000.log");
+        assertEquals(printed, Files.readString(segment, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("awaitPrinted returns once the receipt is on the terminal, before its archive append")
+    void testAwaitPrintedSkipsArchive(@TempDir Path directory) throws Exception {
+        CountDownLatch archiving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReceiptArchive slowArchive = new ReceiptArchive(directory) {
+            @Override
+            public void append(byte[] bytes, int offset, int length) throws IOException {
+                archiving.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.append(bytes, offset, length);
+            }
+        };
+        ReceiptSpooler spooler = new ReceiptSpooler(8, 10, new PrintStream(terminal), slowArchive,
+                OrderHandler::displayReceipt);
+
+        assertTrue(spooler.submit(order(1)));
+        assertTrue(spooler.awaitPrinted(5_000));
+        assertTrue(terminal.toString(StandardCharsets.UTF_8).contains("Order Id : 1"));
+        assertTrue(archiving.await(5, TimeUnit.SECONDS));
+        assertFalse(spooler.awaitIdle(0));
+
+        release.countDown();
+        assertTrue(spooler.awaitIdle(5_000));
+        spooler.close();
+    }
+
+    @Test
+    @DisplayName("a full queue pushes back, then drops and counts the receipt")
+    void testBackpressureAndDrops() throws Exception {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ReceiptSpooler spooler = new ReceiptSpooler(1, 20, new PrintStream(terminal), null, (order, out) -> {
+            rendering.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.println("receipt " + order.getOrderId());
+        });
+
+        assertTrue(spooler.submit(order(1)));
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        assertTrue(spooler.submit(order(2)));      // waits in the queue
+        assertFalse(spooler.submit(order(3)));     // queue still full after the timeout
+
+        assertEquals(1, spooler.getDropped());
+        assertEquals(1, spooler.getBackpressured());
+        assertEquals(1, spooler.getHighWaterMark());
+
+        release.countDown();
+        assertTrue(spooler.awaitIdle(5_000));
+        spooler.close();
+        assertEquals(List.of("receipt 1", "receipt 2"),
+                terminal.toString(StandardCharsets.UTF_8).lines().toList());
+        assertEquals(3, spooler.getSubmitted());
+    }
+
+    @Test
+    @DisplayName("close prints what is still queued; later receipts are printed inline")
+    void testClose() {
+        ReceiptSpooler spooler = new ReceiptSpooler(16, 10, new PrintStream(terminal), null,
+                (order, out) -> out.println("receipt " + order.getOrderId()));
+        for (int i = 1; i <= 10; i++) {
+            spooler.submit(order(i));
+        }
+        spooler.close();
+        assertEquals(10, spooler.getPrinted());
+
+        spooler.submit(order(11));
+        assertEquals(11, spooler.getPrinted());
+        assertTrue(terminal.toString(StandardCharsets.UTF_8).endsWith("receipt 11" + System.lineSeparator()));
+    }
+
+    @Test
+    @DisplayName("receipts submitted while closing are all printed; late ones skip the closed archive")
+    void testSubmitRacingClose(@TempDir Path directory) throws Exception {
+        ReceiptSpooler spooler = new ReceiptSpooler(4, 10, new PrintStream(terminal), new ReceiptArchive(directory),
+                (order, out) -> out.println("receipt " + order.getOrderId()));
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> submitters = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int base = t * 1_000;
+                submitters.add(pool.submit(() -> {
+                    for (int i = 1; i <= 200; i++) {
+                        spooler.submit(order(base + i));
+                    }
+                }));
+            }
+            spooler.close();
+            for (Future<?> submitter : submitters) {
+                submitter.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(800, spooler.getSubmitted());
+        assertEquals(800, spooler.getPrinted() + spooler.getDropped());
+        assertTrue(spooler.awaitIdle(0));
+        assertEquals(0, spooler.getArchiveFailures());
+        try (Stream<Path> files = Files.list(directory)) {
+            // Nothing mapped after close: every segment was cut to what was written
+            assertTrue(files.allMatch(p -> p.toFile().length() < ReceiptArchive.DEFAULT_SEGMENT_BYTES));
+        }
+
+        ReceiptArchive closed = new ReceiptArchive(directory);
+        closed.close();
+        assertThrows(IOException.class, () -> closed.append(new byte[1], 0, 1));
+    }
+
+    @Test
+    @DisplayName("the archive rotates into new segments and keeps only the newest")
+    void testArchiveRotation(@TempDir Path directory) throws Exception {
+        ReceiptArchive archive = new ReceiptArchive(directory, 64, 2);
+        byte[] receipt = "0123456789012345678901234567890123456789\n".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(archive.currentSegment());
+        for (int i = 0; i < 4; i++) {
+            archive.append(receipt, 0, receipt.length);
+        }
+        assertEquals(3, archive.getRotations());
+        assertEquals(directory.resolve("receipts-00003.log"), archive.currentSegment());
+        archive.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of("receipts-00002.log", "receipts-00003.log"),
+                    files.map(p -> p.getFileName().toString()).sorted().toList());
+        }
+        assertEquals(receipt.length, Files.size(directory.resolve("receipts-00002.log")));
+
+        // A reopened archive continues after the last segment
+        ReceiptArchive reopened = new ReceiptArchive(directory, 64, 2);
+        reopened.append(receipt, 0, receipt.length);
+        assertEquals(directory.resolve("receipts-00004.log"), reopened.currentSegment());
+        reopened.close();
+    }
+}
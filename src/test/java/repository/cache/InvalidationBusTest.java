@@ -0,0 +1,160 @@
+package repository.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.cache.CacheInvalidator.Topic;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Invalidation Bus Test
+ * Buses talk over loopback UDP, exactly as separate JVMs on one machine would.
+ */
+class InvalidationBusTest {
+
+    private final List<AutoCloseable> open = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AutoCloseable c : open) {
+            c.close();
+        }
+    }
+
+    private InvalidationBus bus(long heartbeatMillis) throws IOException {
+        InvalidationBus bus = InvalidationBus.open(0, List.of(), 5, heartbeatMillis);
+        open.add(bus);
+        return bus;
+    }
+
+    private static InetSocketAddress address(InvalidationBus bus) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), bus.getLocalPort());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("invalidations reach local subscribers at once and peers once per key")
+    void testBatchedDelivery() throws Exception {
+        InvalidationBus sender = bus(60_000);
+        InvalidationBus receiver = bus(60_000);
+        sender.addPeer(address(receiver));
+
+        AtomicInteger localCalls = new AtomicInteger();
+        sender.subscribe(Topic.FOOD, key -> localCalls.incrementAndGet(), () -> { });
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        receiver.subscribe(Topic.FOOD, key -> received.add("food " + key), () -> received.add("all food"));
+        receiver.subscribe(Topic.CUSTOMER, key -> received.add("customer " + key), () -> received.add("all customers"));
+
+        sender.invalidate(Topic.FOOD, 2001);
+        sender.invalidate(Topic.FOOD, 2001);
+        sender.invalidate(Topic.FOOD, 2001);
+        sender.invalidate(Topic.CUSTOMER, 1000);
+        assertEquals(3, localCalls.get());
+
+        await(() -> received.size() == 2);
+        assertTrue(received.contains("food 2001"));
+        assertTrue(received.contains("customer 1000"));
+        assertEquals(4, sender.getPublished());
+        assertEquals(2, sender.getCoalesced());
+        assertEquals(0, receiver.getGaps());
+    }
+
+    @Test
+    @DisplayName("too many keys in one batch are sent as one 'everything changed'")
+    void testCoalesceToAll() throws Exception {
+        InvalidationBus sender = bus(60_000);
+        InvalidationBus receiver = bus(60_000);
+        sender.addPeer(address(receiver));
+        AtomicInteger keys = new AtomicInteger();
+        AtomicInteger alls = new AtomicInteger();
+        receiver.subscribe(Topic.CUSTOMER, key -> keys.incrementAndGet(), alls::incrementAndGet);
+
+        sender.invalidateAll(Topic.CUSTOMER);
+        for (int c = 0; c < InvalidationBus.COALESCE_LIMIT * 3; c++) {
+            sender.invalidate(Topic.CUSTOMER, c);
+        }
+        await(() -> alls.get() > 0);
+        Thread.sleep(50);
+        assertEquals(0, keys.get());
+    }
+
+    @Test
+    @DisplayName("a sequence gap, or a heartbeat past the last batch, triggers a full reload")
+    void testGapDetection() throws Exception {
+        InvalidationBus receiver = bus(60_000);
+        AtomicInteger foodKeys = new AtomicInteger();
+        AtomicInteger reloads = new AtomicInteger();
+        receiver.subscribe(Topic.FOOD, key -> foodKeys.incrementAndGet(), reloads::incrementAndGet);
+        receiver.subscribe(Topic.CUSTOMER, key -> { }, reloads::incrementAndGet);
+
+        try (DatagramChannel peer = DatagramChannel.open()) {
+            InetSocketAddress target = address(receiver);
+            peer.send(packet(InvalidationBus.KIND_BATCH, 1, 2000), target);
+            await(() -> foodKeys.get() == 1);
+
+            peer.send(packet(InvalidationBus.KIND_BATCH, 3, 2001), target);   // 2 was lost
+            await(() -> reloads.get() == 2);
+            assertEquals(1, receiver.getGaps());
+            assertEquals(1, foodKeys.get());
+
+            peer.send(packet(InvalidationBus.KIND_HEARTBEAT, 3, -1), target); // nothing new
+            peer.send(packet(InvalidationBus.KIND_BATCH, 4, 2002), target);
+            await(() -> foodKeys.get() == 2);
+            assertEquals(1, receiver.getGaps());
+
+            peer.send(packet(InvalidationBus.KIND_HEARTBEAT, 5, -1), target); // batch 5 was lost
+            await(() -> receiver.getGaps() == 2);
+            assertEquals(4, reloads.get());
+        }
+    }
+
+    @Test
+    @DisplayName("idle senders heartbeat; a local-only bus just calls subscribers")
+    void testHeartbeatAndLocalOnly() throws Exception {
+        InvalidationBus sender = bus(10);
+        InvalidationBus receiver = bus(60_000);
+        sender.addPeer(address(receiver));
+        await(() -> receiver.getPacketsReceived() >= 2);
+        assertEquals(0, receiver.getGaps());
+
+        InvalidationBus local = new InvalidationBus();
+        AtomicInteger calls = new AtomicInteger();
+        local.subscribe(Topic.FOOD, key -> calls.incrementAndGet(), calls::incrementAndGet);
+        local.invalidate(Topic.FOOD, 1);
+        local.invalidateAll(Topic.FOOD);
+        local.close();
+        assertEquals(2, calls.get());
+        assertFalse(local.isNetworked());
+        assertEquals(-1, local.getLocalPort());
+    }
+
+    private static ByteBuffer packet(byte kind, long seq, int foodId) {
+        ByteBuffer buffer = ByteBuffer.allocate(InvalidationBus.MAX_DATAGRAM_BYTES);
+        int count = kind == InvalidationBus.KIND_BATCH ? 1 : 0;
+        buffer.putInt(InvalidationBus.MAGIC).putLong(42L).putLong(seq).put(kind).putShort((short) count);
+        if (count == 1) {
+            buffer.put((byte) Topic.FOOD.ordinal()).putInt(foodId);
+        }
+        return buffer.flip();
+    }
+}
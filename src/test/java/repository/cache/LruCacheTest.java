@@ -0,0 +1,82 @@
+package repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LRU Cache Test
+ */
+class LruCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    @DisplayName("get counts hits and misses")
+    void testHitsAndMisses() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 1000, now::get);
+        assertNull(cache.get(1));
+        cache.put(1, "a");
+        assertEquals("a", cache.get(1));
+        assertEquals("a", cache.get(1));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 0.0001);
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    @DisplayName("least recently used entry is evicted when full")
+    void testEviction() {
+        LruCache<Integer, String> cache = new LruCache<>(2, 1000, now::get);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.get(1);          // 2 is now least recently used
+        cache.put(3, "c");
+
+        assertEquals("a", cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals("c", cache.get(3));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("entries expire after the TTL")
+    void testExpiry() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 50, now::get);
+        cache.put(1, "a");
+        now.addAndGet(50_000_000L);
+        assertEquals("a", cache.get(1));
+        now.addAndGet(1);
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStats().getExpirations());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("invalidate and invalidateAll remove entries")
+    void testInvalidate() {
+        LruCache<Integer, String> cache = new LruCache<>(10, 1000, now::get);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.invalidate(1);
+        assertNull(cache.get(1));
+        assertEquals("b", cache.get(2));
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("invalid configuration is rejected")
+    void testInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(10, 0));
+        assertEquals(0.0, new LruCache<>(1, 1).getStats().getHitRatio());
+    }
+}
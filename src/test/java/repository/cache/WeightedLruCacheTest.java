@@ -0,0 +1,86 @@
+package repository.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Weighted LRU Cache Test
+ */
+class WeightedLruCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private WeightedLruCache<Integer, String> cache(long maxWeight) {
+        return new WeightedLruCache<>(maxWeight, 1000, String::length, now::get);
+    }
+
+    @Test
+    @DisplayName("least recently used entries are evicted until the weight fits")
+    void testEvictionByWeight() {
+        WeightedLruCache<Integer, String> cache = cache(10);
+        cache.put(1, "aaaa");
+        cache.put(2, "bbbb");
+        cache.get(1);             // 2 is now least recently used
+        cache.put(3, "cccccc");
+
+        assertNull(cache.get(2));
+        assertEquals("aaaa", cache.get(1));
+        assertEquals(10, cache.weight());
+        assertEquals(1, cache.getStats().getEvictions());
+
+        cache.put(4, "dddddddddd");
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.weight());
+    }
+
+    @Test
+    @DisplayName("a value heavier than the cache is not kept")
+    void testOversizedValue() {
+        WeightedLruCache<Integer, String> cache = cache(5);
+        cache.put(1, "aa");
+        cache.put(1, "aaaaaaaa");
+
+        assertNull(cache.get(1));
+        assertEquals(0, cache.weight());
+    }
+
+    @Test
+    @DisplayName("updateIfPresent replaces live entries only and re-weighs them")
+    void testUpdateIfPresent() {
+        WeightedLruCache<Integer, String> cache = cache(10);
+        assertFalse(cache.updateIfPresent(1, v -> v + "x"));
+
+        cache.put(1, "a");
+        cache.put(2, "bbbbbbb");
+        assertTrue(cache.updateIfPresent(1, v -> v + "xx"));
+        assertEquals("axx", cache.get(1));
+        assertEquals(10, cache.weight());
+
+        assertTrue(cache.updateIfPresent(1, v -> v + "y"));
+        assertNull(cache.get(2));
+        assertEquals(4, cache.weight());
+
+        now.addAndGet(2_000_000_000L);
+        assertFalse(cache.updateIfPresent(1, v -> v + "z"));
+        assertNull(cache.get(1));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    @DisplayName("invalidation releases weight")
+    void testInvalidate() {
+        WeightedLruCache<Integer, String> cache = cache(10);
+        cache.put(1, "aaa");
+        cache.put(2, "bb");
+        cache.invalidate(1);
+        assertEquals(2, cache.weight());
+        cache.invalidateAll();
+        assertEquals(0, cache.weight());
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> cache(0));
+    }
+}
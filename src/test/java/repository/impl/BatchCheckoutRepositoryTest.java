@@ -0,0 +1,123 @@
+package repository.impl;
+
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.interfaces.IBatchCheckoutRepository.Outcome;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch Checkout Repository Test
+ */
+public class BatchCheckoutRepositoryTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private DatabaseConnection connectionProvider;
+    private BatchCheckoutRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        repository = new BatchCheckoutRepository(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        connectionProvider.closeConnection();
+    }
+
+    private Order order(int customerId, PaymentMethod pm, int quantity) {
+        Food food = new Food(2000, "Chicken Rice", 10.50, "Set");
+        Order order = new Order(new Date(), new Customer(customerId, "Customer"),
+                new ArrayList<>(Arrays.asList(new OrderDetails(food, quantity))), 10.50 * quantity, pm);
+        order.setStatus("COMPLETED");
+        return order;
+    }
+
+    @Test
+    @DisplayName("bulk lookups load only the requested customers and their payment methods")
+    void testBulkLookups() {
+        Map<Integer, Customer> customers = repository.findCustomersByIds(Arrays.asList(1000, 1001, 9999, 1000));
+        assertEquals(2, customers.size());
+        assertEquals("Jane Smith", customers.get(1001).getName());
+
+        Map<Integer, List<PaymentMethod>> methods = repository.findPaymentMethodsByCustomerIds(Arrays.asList(1000, 1001));
+        assertEquals(3, methods.get(1000).size());
+        assertEquals(1, methods.get(1001).size());
+        assertTrue(repository.findCustomersByIds(new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("conditional debits see earlier debits; only paid orders are inserted")
+    void testDebitAndSaveAll() {
+        PaymentMethod grab = new PaymentMethod(2, 1000, "Grab", 50.00, null, null);
+        PaymentMethod tng = new PaymentMethod(4, 1001, "TNG", 75.00, null, null);
+        List<Order> orders = Arrays.asList(order(1000, grab, 4), order(1000, grab, 1), order(1001, tng, 2));
+        List<BigDecimal> charges = Arrays.asList(new BigDecimal("42.00"), new BigDecimal("10.50"), new BigDecimal("21.00"));
+
+        Outcome[] outcomes = repository.debitAndSaveAll(orders, charges, Arrays.asList(null, null, null));
+
+        assertArrayEquals(new Outcome[] {Outcome.PAID, Outcome.DECLINED, Outcome.PAID}, outcomes);
+        assertTrue(orders.get(0).getOrderId() > 0);
+        assertTrue(orders.get(2).getOrderId() > orders.get(0).getOrderId());
+
+        PaymentMethodRepository paymentMethods = new PaymentMethodRepository(connectionProvider);
+        assertEquals(8.00, paymentMethods.findById(2).get().getBalance(), 0.001);
+        assertEquals(54.00, paymentMethods.findById(4).get().getBalance(), 0.001);
+
+        OrderRepository orderRepository = new OrderRepository(connectionProvider);
+        assertEquals(2, orderRepository.findAll().size());
+        assertEquals(4, orderRepository.findById(orders.get(0).getOrderId()).get().getOrderDetails().get(0).getQuantity());
+
+        List<SalesDaily> sales = new SalesDailyRepository(connectionProvider).findBetween(LocalDate.now(), LocalDate.now());
+        assertEquals(6, sales.stream().mapToInt(SalesDaily::getQuantity).sum());
+    }
+
+    @Test
+    @DisplayName("mismatched charges are rejected and an empty batch writes nothing")
+    void testArguments() {
+        assertEquals(0, repository.debitAndSaveAll(new ArrayList<>(), new ArrayList<>(), new ArrayList<>()).length);
+        assertThrows(IllegalArgumentException.class, () -> repository.debitAndSaveAll(
+                Arrays.asList(order(1000, new PaymentMethod(1, 1000, "TNG", 100.00, null, null), 1)),
+                new ArrayList<>(), new ArrayList<>()));
+    }
+
+    @Test
+    @DisplayName("keys are linked in the same transaction; a used key is not paid again")
+    void testIdempotencyKeys() {
+        PaymentMethod tng = new PaymentMethod(1, 1000, "TNG", 100.00, null, null);
+        List<BigDecimal> charges = Arrays.asList(new BigDecimal("10.50"), new BigDecimal("10.50"), new BigDecimal("10.50"));
+        OrderRepository orderRepository = new OrderRepository(connectionProvider);
+        assertTrue(orderRepository.reserveIdempotencyKey(1000, "in-flight", 60_000));
+
+        List<Order> first = Arrays.asList(order(1000, tng, 1), order(1000, tng, 1), order(1000, tng, 1));
+        assertArrayEquals(new Outcome[] {Outcome.PAID, Outcome.DUPLICATE, Outcome.DUPLICATE},
+                repository.debitAndSaveAll(first, charges, Arrays.asList("cart-1", "cart-1", "in-flight")));
+        assertEquals(Optional.of(first.get(0).getOrderId()), orderRepository.findOrderIdByIdempotencyKey(1000, "cart-1"));
+
+        // The resubmitted batch pays only for the new cart
+        List<Order> retry = Arrays.asList(order(1000, tng, 1), order(1000, tng, 1));
+        assertArrayEquals(new Outcome[] {Outcome.DUPLICATE, Outcome.PAID},
+                repository.debitAndSaveAll(retry, charges.subList(0, 2), Arrays.asList("cart-1", "cart-2")));
+        assertEquals(79.00, new PaymentMethodRepository(connectionProvider).findById(1).get().getBalance(), 0.001);
+        assertEquals(2, orderRepository.findAll().size());
+    }
+}
@@ -0,0 +1,90 @@
+package repository.impl;
+
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.Customer;
+import model.Food;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk Import Repository Test
+ */
+public class BulkImportRepositoryTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private DatabaseConnection connectionProvider;
+    private BulkImportRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        repository = new BulkImportRepository(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        connectionProvider.closeConnection();
+    }
+
+    @Test
+    @DisplayName("Test forEachFoodName and forEachPhoneNumber")
+    void testExistingKeys() {
+        List<String> names = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        repository.forEachFoodName(names::add);
+        repository.forEachPhoneNumber(phones::add);
+
+        assertTrue(names.contains("Chicken Rice"));
+        assertEquals(2, phones.size());
+    }
+
+    @Test
+    @DisplayName("Test insertFoods - batch insert")
+    void testInsertFoods() {
+        List<Food> foods = Arrays.asList(
+                new Food("Roti Canai", 3.50, "A la carte"),
+                new Food("Satay", 15.00, "Set"));
+        int inserted = repository.insertFoods(foods);
+
+        assertEquals(2, inserted);
+        assertTrue(new FoodRepository(connectionProvider).existsByName("Satay"));
+        assertEquals("Satay", new FoodRepository(connectionProvider).findById(foods.get(1).getFoodId())
+                .orElseThrow().getFoodName());
+        assertEquals(0, repository.insertFoods(new ArrayList<>()));
+    }
+
+    @Test
+    @DisplayName("Test insertCustomers - batch insert")
+    void testInsertCustomers() {
+        Customer alice = new Customer(0, "Alice", 25, "0111111111", "Female", "secret");
+        int inserted = repository.insertCustomers(Arrays.asList(alice));
+
+        assertEquals(1, inserted);
+        assertTrue(alice.getCustomerId() > 0);
+        assertTrue(new CustomerRepository(connectionProvider).existsByPhoneNumber("0111111111"));
+    }
+
+    @Test
+    @DisplayName("Test insertFoods - failed batch is rolled back")
+    void testInsertFoods_Rollback() {
+        List<Food> foods = Arrays.asList(
+                new Food("Roti Canai", 3.50, "A la carte"),
+                new Food(null, 1.00, "Set"));
+
+        assertThrows(RuntimeException.class, () -> repository.insertFoods(foods));
+        assertFalse(new FoodRepository(connectionProvider).existsByName("Roti Canai"));
+    }
+}
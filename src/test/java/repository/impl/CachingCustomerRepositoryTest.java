@@ -0,0 +1,123 @@
+package repository.impl;
+
+import model.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.cache.CacheInvalidator;
+import repository.cache.InvalidationBus;
+import repository.cache.LruCache;
+import repository.interfaces.ICustomerRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching Customer Repository Test
+ */
+class CachingCustomerRepositoryTest {
+
+    private ICustomerRepository delegate;
+    private CachingCustomerRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ICustomerRepository.class);
+        repository = new CachingCustomerRepository(delegate, new LruCache<>(100, 60_000));
+        when(delegate.findById(1000)).thenReturn(Optional.of(customer("John")));
+    }
+
+    private static Customer customer(String name) {
+        return new Customer(1000, name, 25, "0123456789", "Male", "password");
+    }
+
+    @Test
+    @DisplayName("findById hits the database once then serves from cache")
+    void testFindByIdCached() {
+        assertEquals("John", repository.findById(1000).get().getName());
+        assertEquals("John", repository.findById(1000).get().getName());
+
+        verify(delegate, times(1)).findById(1000);
+        assertEquals(1, repository.getStats().getHits());
+        assertEquals(0.5, repository.getStats().getHitRatio(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("saves are announced on the invalidation bus")
+    void testSaveAnnounced() {
+        InvalidationBus bus = new InvalidationBus();
+        CachingCustomerRepository announcing =
+                new CachingCustomerRepository(delegate, new LruCache<>(100, 60_000), bus);
+        int[] announced = {-1};
+        bus.subscribe(CacheInvalidator.Topic.CUSTOMER, key -> announced[0] = key, () -> { });
+        when(delegate.save(any(Customer.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        announcing.save(customer("Johnny"));
+
+        assertEquals(1000, announced[0]);
+    }
+
+    @Test
+    @DisplayName("missing customers are not cached")
+    void testMissNotCached() {
+        when(delegate.findById(9999)).thenReturn(Optional.empty());
+
+        assertTrue(repository.findById(9999).isEmpty());
+        assertTrue(repository.findById(9999).isEmpty());
+
+        verify(delegate, times(2)).findById(9999);
+    }
+
+    @Test
+    @DisplayName("callers cannot modify the cached profile")
+    void testDefensiveCopies() {
+        repository.findById(1000).get().setName("Changed");
+
+        assertEquals("John", repository.findById(1000).get().getName());
+    }
+
+    @Test
+    @DisplayName("save invalidates the cached profile")
+    void testSaveInvalidates() {
+        repository.findById(1000);
+        Customer updated = customer("Johnny");
+        when(delegate.save(any())).thenReturn(updated);
+        when(delegate.findById(1000)).thenReturn(Optional.of(updated));
+
+        repository.save(updated);
+
+        assertEquals("Johnny", repository.findById(1000).get().getName());
+        verify(delegate, times(2)).findById(1000);
+    }
+
+    @Test
+    @DisplayName("explicit invalidation and successful login")
+    void testInvalidateAndAuthenticate() {
+        repository.findById(1000);
+        repository.invalidate(1000);
+        repository.findById(1000);
+        verify(delegate, times(2)).findById(1000);
+
+        repository.invalidateAll();
+        when(delegate.authenticate(1000, "password")).thenReturn(Optional.of(customer("John")));
+        assertTrue(repository.authenticate(1000, "password").isPresent());
+        repository.findById(1000);
+        verify(delegate, times(2)).findById(1000);
+    }
+
+    @Test
+    @DisplayName("pass-through methods delegate")
+    void testPassThrough() {
+        when(delegate.getNextCustomerId()).thenReturn(1005);
+        when(delegate.existsByPhoneNumber("0123456789")).thenReturn(true);
+        when(delegate.findByPhoneNumber("0123456789")).thenReturn(Optional.of(customer("John")));
+
+        assertEquals(1005, repository.getNextCustomerId());
+        assertTrue(repository.existsByPhoneNumber("0123456789"));
+        assertTrue(repository.findByPhoneNumber("0123456789").isPresent());
+        assertNotNull(CachingCustomerRepository.getInstance());
+    }
+}
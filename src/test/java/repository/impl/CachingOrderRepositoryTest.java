@@ -0,0 +1,173 @@
+package repository.impl;
+
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.cache.WeightedLruCache;
+import repository.interfaces.IBatchCheckoutRepository;
+import repository.interfaces.IOrderRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching Order Repository Test
+ */
+class CachingOrderRepositoryTest {
+
+    private OrderRepository delegate;
+    private CachingOrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(OrderRepository.class);
+        repository = new CachingOrderRepository(delegate);
+        when(delegate.loadCustomerHistory(1000)).thenReturn(new ArrayList<>(List.of(order(2, 1000), order(1, 1000))));
+    }
+
+    private static Order order(int orderId, int customerId) {
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1));
+        Order order = new Order(new Date(), new Customer(customerId, "John Doe"), details, 10.50,
+                new PaymentMethod(1, customerId, "TNG", 100.00, null, null));
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    @Test
+    @DisplayName("history is loaded once, then served from the cache")
+    void testHistoryCached() {
+        List<Order> first = repository.findByCustomerId(1000);
+        List<Order> second = repository.findByCustomerId(1000);
+
+        assertSame(first, second);
+        assertEquals(2, second.size());
+        verify(delegate, times(1)).loadCustomerHistory(1000);
+        assertEquals(1, repository.getStats().getHits());
+        assertThrows(UnsupportedOperationException.class, () -> second.add(order(9, 1000)));
+    }
+
+    @Test
+    @DisplayName("a saved order goes to the front of the cached history")
+    void testSaveAppends() {
+        repository.findByCustomerId(1000);
+        when(delegate.save(any(Order.class))).thenAnswer(inv -> {
+            Order saved = inv.getArgument(0);
+            saved.setOrderId(3);
+            return saved;
+        });
+
+        repository.save(order(0, 1000));
+        repository.save(order(0, 1001));
+
+        List<Order> history = repository.findByCustomerId(1000);
+        assertEquals(List.of(3, 2, 1), history.stream().map(Order::getOrderId).toList());
+        verify(delegate, times(1)).loadCustomerHistory(1000);
+    }
+
+    @Test
+    @DisplayName("keyed saves and batch checkouts also append")
+    void testKeyedAndBatchSavesAppend() {
+        repository.findByCustomerId(1000);
+        when(delegate.save(any(Order.class), eq("key-1"))).thenAnswer(inv -> {
+            Order saved = inv.getArgument(0);
+            saved.setOrderId(3);
+            return saved;
+        });
+        repository.save(order(0, 1000), "key-1");
+
+        IBatchCheckoutRepository batch = mock(IBatchCheckoutRepository.class);
+        when(batch.debitAndSaveAll(anyList(), anyList(), anyList()))
+                .thenReturn(new IBatchCheckoutRepository.Outcome[] {
+                        IBatchCheckoutRepository.Outcome.PAID, IBatchCheckoutRepository.Outcome.DECLINED});
+        repository.appendingTo(batch).debitAndSaveAll(List.of(order(4, 1000), order(5, 1000)),
+                List.of(BigDecimal.TEN, BigDecimal.TEN), Arrays.asList(null, null));
+
+        assertEquals(List.of(4, 3, 2, 1),
+                repository.findByCustomerId(1000).stream().map(Order::getOrderId).toList());
+    }
+
+    @Test
+    @DisplayName("a load that raced a save is not cached")
+    void testRacingLoadNotCached() {
+        IOrderRepository racing = mock(IOrderRepository.class);
+        CachingOrderRepository cache = new CachingOrderRepository(racing);
+        when(racing.loadCustomerHistory(1000)).thenAnswer(inv -> {
+            cache.save(order(0, 1000));
+            return List.of(order(1, 1000));
+        }).thenReturn(List.of(order(3, 1000), order(1, 1000)));
+        when(racing.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertEquals(1, cache.findByCustomerId(1000).size());
+        assertEquals(2, cache.findByCustomerId(1000).size());
+        assertEquals(2, cache.findByCustomerId(1000).size());
+        verify(racing, times(2)).loadCustomerHistory(1000);
+    }
+
+    @Test
+    @DisplayName("histories are bounded by orders plus detail lines")
+    void testWeightBound() {
+        CachingOrderRepository small = new CachingOrderRepository(delegate,
+                new WeightedLruCache<>(5, 60_000, CachingOrderRepository::weigh));
+        when(delegate.loadCustomerHistory(1001)).thenReturn(List.of(order(7, 1001)));
+
+        small.findByCustomerId(1000);   // weight 4
+        small.findByCustomerId(1001);   // weight 2, evicts 1000
+        small.findByCustomerId(1000);   // evicts 1001
+
+        verify(delegate, times(2)).loadCustomerHistory(1000);
+        assertEquals(2, small.getStats().getEvictions());
+
+        small.invalidateAll();
+        small.findByCustomerId(1000);
+        verify(delegate, times(3)).loadCustomerHistory(1000);
+    }
+
+    @Test
+    @DisplayName("a failed load is not cached and the next lookup reads again")
+    void testFailedLoadNotCached() {
+        when(delegate.loadCustomerHistory(1001))
+                .thenThrow(new RuntimeException("Failed to load orders for customer 1001"))
+                .thenReturn(List.of(order(7, 1001)));
+        when(delegate.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertTrue(repository.findByCustomerId(1001).isEmpty());
+        repository.save(order(8, 1001));
+        assertEquals(List.of(7), repository.findByCustomerId(1001).stream().map(Order::getOrderId).toList());
+        when(delegate.loadCustomerHistory(1002)).thenThrow(new RuntimeException("Failed to load orders"));
+        assertThrows(RuntimeException.class, () -> repository.loadCustomerHistory(1002));
+    }
+
+    @Test
+    @DisplayName("cached orders are copies that callers of save cannot change")
+    void testCachedOrdersAreCopies() {
+        repository.findByCustomerId(1000);
+        when(delegate.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+        Order placed = order(3, 1000);
+        repository.save(placed);
+
+        placed.getOrderDetails().clear();
+        placed.getPaymentMethod().setBalance(0);
+        placed.setStatus("REFUNDED");
+
+        Order cached = repository.findByCustomerId(1000).get(0);
+        assertNotSame(placed, cached);
+        assertEquals(3, cached.getOrderId());
+        assertEquals(1, cached.getOrderDetails().size());
+        assertEquals(100.00, cached.getPaymentMethod().getBalance(), 0.001);
+        assertEquals("COMPLETED", cached.getStatus());
+        assertThrows(UnsupportedOperationException.class, () -> cached.getOrderDetails().clear());
+    }
+}
@@ -0,0 +1,92 @@
+package repository.impl;
+
+import model.PaymentMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.cache.LruCache;
+import repository.interfaces.IPaymentMethodRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching Payment Method Repository Test
+ */
+class CachingPaymentMethodRepositoryTest {
+
+    private IPaymentMethodRepository delegate;
+    private CachingPaymentMethodRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(IPaymentMethodRepository.class);
+        repository = new CachingPaymentMethodRepository(delegate, new LruCache<>(100, 60_000));
+    }
+
+    @Test
+    @DisplayName("cache hit skips the lookup by type but always reads the current balance")
+    void testHitReadsCurrentBalance() {
+        when(delegate.findByCustomerIdAndType(1000, "TNG"))
+                .thenReturn(Optional.of(new PaymentMethod(1, 1000, "TNG", 100.0, null, null)));
+        when(delegate.debit(1, 60.0)).thenReturn(Optional.of(new BigDecimal("40.00")));
+        when(delegate.findById(1)).thenReturn(Optional.of(new PaymentMethod(1, 1000, "TNG", 25.0, null, null)));
+
+        assertEquals(100.0, repository.findByCustomerIdAndType(1000, "TNG").get().getBalance(), 0.01);
+        assertEquals(Optional.of(new BigDecimal("40.00")), repository.debit(1, 60.0));
+        // Another instance spent some more; the hit still shows the row
+        PaymentMethod hit = repository.findByCustomerIdAndType(1000, "tng").get();
+        assertEquals(25.0, hit.getBalance(), 0.01);
+        assertEquals(1, hit.getPaymentMethodId());
+
+        verify(delegate, times(1)).findByCustomerIdAndType(1000, "TNG");
+        verify(delegate, times(1)).findById(1);
+    }
+
+    @Test
+    @DisplayName("a missing row drops the profile")
+    void testStaleProfile() {
+        when(delegate.findByCustomerIdAndType(1000, "TNG"))
+                .thenReturn(Optional.of(new PaymentMethod(1, 1000, "TNG", 100.0, null, null)))
+                .thenReturn(Optional.of(new PaymentMethod(5, 1000, "TNG", 5.0, null, null)))
+                .thenReturn(Optional.empty());
+        when(delegate.findById(1)).thenReturn(Optional.empty());
+
+        repository.findByCustomerIdAndType(1000, "TNG");
+        // Deleted and re-added under a new ID: the hit falls back to the lookup by type
+        assertEquals(5, repository.findByCustomerIdAndType(1000, "TNG").get().getPaymentMethodId());
+
+        repository.invalidateAll();
+        assertTrue(repository.findByCustomerIdAndType(1000, "TNG").isEmpty());
+        verify(delegate, times(3)).findByCustomerIdAndType(1000, "TNG");
+    }
+
+    @Test
+    @DisplayName("save invalidates, balance updates pass through, list lookups warm the cache")
+    void testWritesAndWarmup() {
+        PaymentMethod grab = new PaymentMethod(2, 1000, "Grab", 50.0, null, null);
+        when(delegate.findByCustomerId(1000)).thenReturn(List.of(grab));
+        when(delegate.updateBalance(2, 10.0)).thenReturn(true);
+        when(delegate.findById(2)).thenReturn(Optional.of(new PaymentMethod(2, 1000, "Grab", 10.0, null, null)));
+        when(delegate.save(grab)).thenReturn(grab);
+
+        repository.findByCustomerId(1000);
+        repository.findByCustomerIdAndType(1000, "Grab");
+        verify(delegate, never()).findByCustomerIdAndType(anyInt(), anyString());
+
+        assertTrue(repository.updateBalance(2, 10.0));
+        assertEquals(10.0, repository.findByCustomerIdAndType(1000, "Grab").get().getBalance(), 0.01);
+        repository.save(grab);
+        repository.findByCustomerIdAndType(1000, "Grab");
+        verify(delegate, times(1)).findByCustomerIdAndType(1000, "Grab");
+
+        repository.invalidate(1000, "Grab");
+        repository.invalidateAll();
+        assertEquals(0, repository.getStats().getSize());
+        assertNotNull(CachingPaymentMethodRepository.getInstance());
+    }
+}
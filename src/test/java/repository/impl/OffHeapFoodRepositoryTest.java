@@ -0,0 +1,278 @@
+package repository.impl;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.Food;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Off-Heap Food Repository Test
+ */
+class OffHeapFoodRepositoryTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:offheapdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private ConnectionProvider connectionProvider;
+    private FoodRepository source;
+    private OffHeapFoodRepository catalog;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        source = new FoodRepository(connectionProvider);
+        catalog = new OffHeapFoodRepository(source);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        ((DatabaseConnection) connectionProvider).closeConnection();
+    }
+
+    @Test
+    @DisplayName("lookups by ID and case-insensitive name come from the catalog")
+    void testLookups() {
+        Food food = catalog.findById(2000).orElseThrow();
+        assertEquals("Chicken Rice", food.getFoodName());
+        assertEquals(10.50, food.getFoodPrice(), 0.001);
+        assertEquals("10.50", food.getFoodPriceDecimal().toPlainString());
+        assertEquals("Set", food.getFoodType());
+
+        assertEquals(2002, catalog.findByName("mee GORENG").orElseThrow().getFoodId());
+        assertTrue(catalog.existsByName("nasi lemak"));
+        assertFalse(catalog.existsByName("Nasi"));
+        assertFalse(catalog.findById(9999).isPresent());
+        assertEquals(List.of(2000, 2001, 2002), ids(catalog.findAll()));
+        assertEquals(new Food(2000, "x", 1, "Set"), food);
+    }
+
+    @Test
+    @DisplayName("writes go to the database first, then patch the catalog")
+    void testWriteThrough() {
+        Food saved = catalog.save(new Food(0, "Roti Canai", 3.20, "A la carte"));
+        assertTrue(source.existsById(saved.getFoodId()));
+        assertEquals("Roti Canai", catalog.findById(saved.getFoodId()).orElseThrow().getFoodName());
+
+        catalog.update(new Food(2001, "Nasi Lemak Special", 9.90, "Set"));
+        assertFalse(catalog.existsByName("Nasi Lemak"));
+        assertEquals(2001, catalog.findByName("nasi lemak special").orElseThrow().getFoodId());
+        assertEquals(9.90, catalog.findById(2001).orElseThrow().getFoodPrice(), 0.001);
+
+        assertTrue(catalog.deleteById(2002));
+        assertFalse(catalog.existsById(2002));
+        assertFalse(catalog.deleteById(2002));
+        assertEquals(3, catalog.size());
+    }
+
+    @Test
+    @DisplayName("refresh and reload read through the reader, not the shared connection")
+    void testReaderConnections() throws SQLException {
+        DatabaseConnection database = (DatabaseConnection) connectionProvider;
+        OffHeapFoodRepository background = new OffHeapFoodRepository(source,
+                new FoodRepository(database::openConnection), OffHeapFoodRepository.directAllocator());
+        source.update(new Food(2000, "Chicken Rice", 11.00, "Set"));
+
+        java.sql.Connection shared = database.getConnection();
+        background.refresh(2000);
+        background.reload();
+
+        assertEquals(11.00, background.findById(2000).orElseThrow().getFoodPrice(), 0.001);
+        assertFalse(shared.isClosed());
+        assertSame(shared, database.getConnection());
+    }
+
+    @Test
+    @DisplayName("changes made elsewhere are picked up by refresh and reload")
+    void testRefresh() {
+        source.update(new Food(2000, "Chicken Rice", 11.00, "Set"));
+        assertEquals(10.50, catalog.findById(2000).orElseThrow().getFoodPrice(), 0.001);
+
+        catalog.refresh(2000);
+        assertEquals(11.00, catalog.findById(2000).orElseThrow().getFoodPrice(), 0.001);
+
+        source.deleteById(2001);
+        catalog.refresh(2001);
+        assertFalse(catalog.existsById(2001));
+
+        source.save(new Food(0, "Teh Tarik", 2.50, "Drink"));
+        catalog.reload();
+        assertTrue(catalog.existsByName("teh tarik"));
+    }
+
+    @Test
+    @DisplayName("the catalog grows past its initial capacity and keeps ID order")
+    void testGrowth() {
+        OffHeapFoodRepository empty = new OffHeapFoodRepository(new MapFoodRepository());
+        long initialBytes = empty.getOffHeapBytes();
+        for (int id = 5000; id > 0; id--) {
+            empty.save(new Food(id, "Item " + id, id / 100.0, id % 2 == 0 ? "Set" : "A la carte"));
+        }
+        assertEquals(5000, empty.size());
+        assertTrue(empty.getOffHeapBytes() > initialBytes);
+        assertEquals("Item 4321", empty.findById(4321).orElseThrow().getFoodName());
+        assertEquals(1234, empty.findByName("ITEM 1234").orElseThrow().getFoodId());
+        assertEquals("A la carte", empty.findById(77).orElseThrow().getFoodType());
+
+        List<Food> all = empty.findAll();
+        assertEquals(1, all.get(0).getFoodId());
+        assertEquals(5000, all.get(4999).getFoodId());
+
+        // Repeated renames leave stale name entries that must not fill the index
+        for (int i = 0; i < 5000; i++) {
+            empty.update(new Food(1, "Renamed " + i, 1.00, "Set"));
+        }
+        assertEquals(1, empty.findByName("renamed 4999").orElseThrow().getFoodId());
+        assertFalse(empty.existsByName("Item 1"));
+    }
+
+    @Test
+    @DisplayName("forEach visits every food with one reused view")
+    void testForEach() {
+        List<String> names = new ArrayList<>();
+        List<Food> seen = new ArrayList<>();
+        catalog.forEach(food -> {
+            names.add(food.getFoodName());
+            seen.add(food);
+        });
+
+        assertEquals(List.of("Chicken Rice", "Nasi Lemak", "Mee Goreng"), names);
+        assertSame(seen.get(0), seen.get(2));
+    }
+
+    @Test
+    @DisplayName("a view detaches from the catalog on first setter")
+    void testViewDetach() {
+        Food view = catalog.findById(2000).orElseThrow();
+        view.setFoodPrice(20.00);
+
+        assertEquals(20.00, view.getFoodPrice(), 0.001);
+        assertEquals("Chicken Rice", view.getFoodName());
+        assertEquals(2000, view.getFoodId());
+        assertEquals(10.50, catalog.findById(2000).orElseThrow().getFoodPrice(), 0.001);
+    }
+
+    @Test
+    @DisplayName("a view keeps reading its own food across a reload that removes an earlier one")
+    void testViewSurvivesReload() {
+        Food mee = catalog.findById(2002).orElseThrow();
+        List<Food> menu = catalog.findAll();
+
+        source.deleteById(2000);
+        source.update(new Food(2002, "Mee Goreng Mamak", 8.00, "Set"));
+        source.save(new Food(0, "Teh Tarik", 2.50, "Drink"));
+        catalog.reload();
+
+        assertEquals(2002, mee.getFoodId());
+        assertEquals("Mee Goreng Mamak", mee.getFoodName());
+        assertEquals(8.00, mee.getFoodPrice(), 0.001);
+        assertEquals(List.of(2000, 2001, 2002), ids(menu));
+        assertFalse(catalog.existsById(2000));
+        assertEquals(3, catalog.size());
+        assertEquals(2002, catalog.findByName("mee goreng mamak").orElseThrow().getFoodId());
+        assertFalse(catalog.existsByName("mee goreng"));
+    }
+
+    @Test
+    @DisplayName("writing back an unchanged view does not deadlock on the catalog lock")
+    void testWriteBackView() {
+        Food view = catalog.findById(2001).orElseThrow();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            catalog.update(view);
+            catalog.save(catalog.findById(2000).orElseThrow());
+            catalog.refresh(2002);
+        });
+        assertEquals("Nasi Lemak", catalog.findById(2001).orElseThrow().getFoodName());
+    }
+
+    @Test
+    @DisplayName("the mapped allocator keeps the catalog in files")
+    void testMappedAllocator(@TempDir Path directory) {
+        OffHeapFoodRepository mapped =
+                new OffHeapFoodRepository(source, OffHeapFoodRepository.mappedAllocator(directory));
+
+        assertEquals("Mee Goreng", mapped.findById(2002).orElseThrow().getFoodName());
+        assertTrue(Files.exists(directory.resolve("records.bin")));
+        assertTrue(Files.exists(directory.resolve("name-index.bin")));
+
+        mapped.reload();
+        assertEquals(3, mapped.findAll().size());
+        assertEquals(2001, mapped.findByName("nasi lemak").orElseThrow().getFoodId());
+    }
+
+    private static List<Integer> ids(List<Food> foods) {
+        List<Integer> ids = new ArrayList<>();
+        for (Food food : foods) {
+            ids.add(food.getFoodId());
+        }
+        return ids;
+    }
+
+    /**
+     * In-memory source for large catalogs
+     */
+    private static class MapFoodRepository implements repository.interfaces.IFoodRepository {
+        private final java.util.Map<Integer, Food> foods = new java.util.HashMap<>();
+
+        @Override
+        public java.util.Optional<Food> findById(int foodId) {
+            return java.util.Optional.ofNullable(foods.get(foodId));
+        }
+
+        @Override
+        public java.util.Optional<Food> findByName(String foodName) {
+            return foods.values().stream().filter(f -> f.getFoodName().equalsIgnoreCase(foodName)).findFirst();
+        }
+
+        @Override
+        public List<Food> findAll() {
+            return new ArrayList<>(foods.values());
+        }
+
+        @Override
+        public Food save(Food food) {
+            foods.put(food.getFoodId(), food);
+            return food;
+        }
+
+        @Override
+        public Food update(Food food) {
+            foods.put(food.getFoodId(), food);
+            return food;
+        }
+
+        @Override
+        public boolean deleteById(int foodId) {
+            return foods.remove(foodId) != null;
+        }
+
+        @Override
+        public int getNextFoodId() {
+            return foods.size() + 2000;
+        }
+
+        @Override
+        public boolean existsById(int foodId) {
+            return foods.containsKey(foodId);
+        }
+
+        @Override
+        public boolean existsByName(String foodName) {
+            return findByName(foodName).isPresent();
+        }
+    }
+}
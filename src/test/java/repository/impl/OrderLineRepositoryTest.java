@@ -0,0 +1,158 @@
+package repository.impl;
+
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order Line Repository Test
+ */
+public class OrderLineRepositoryTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private DatabaseConnection connectionProvider;
+    private OrderRepository orderRepository;
+    private OrderLineRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        orderRepository = new OrderRepository(connectionProvider);
+        repository = new OrderLineRepository(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        connectionProvider.closeConnection();
+    }
+
+    private Order placeOrder(String paymentType, int paymentMethodId, OrderDetails... details) {
+        PaymentMethod pm = new PaymentMethod(paymentMethodId, 1000, paymentType, 100.00, null, null);
+        double total = 0;
+        for (OrderDetails d : details) {
+            total += d.getNetSubtotalDecimal().doubleValue();
+        }
+        return orderRepository.save(new Order(new Date(), new Customer(1000), Arrays.asList(details), total, pm));
+    }
+
+    @Test
+    @DisplayName("Test streamOrderLines - no orders")
+    void testStreamOrderLines_Empty() {
+        List<int[]> lines = new ArrayList<>();
+        int count = repository.streamOrderLines((orderId, millis, type, total, foodId, qty, cents) ->
+                lines.add(new int[] {orderId}));
+
+        assertEquals(0, count);
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test streamOrderLines - lines grouped by order with cents")
+    void testStreamOrderLines_Lines() {
+        Order first = placeOrder("TNG", 1,
+                new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2),
+                new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 1));
+        Order second = placeOrder("Grab", 2,
+                new OrderDetails(new Food(2002, "Mee Goreng", 12.00, "Set"), 3));
+
+        List<Object[]> lines = new ArrayList<>();
+        int count = repository.streamOrderLines((orderId, millis, type, total, foodId, qty, cents) ->
+                lines.add(new Object[] {orderId, millis, type, foodId, qty, cents, total}));
+
+        assertEquals(3, count);
+        assertEquals(first.getOrderId(), lines.get(0)[0]);
+        assertEquals(first.getOrderId(), lines.get(1)[0]);
+        assertEquals(second.getOrderId(), lines.get(2)[0]);
+        assertEquals("Grab", lines.get(2)[2]);
+        assertEquals(2002, lines.get(2)[3]);
+        assertEquals(3, lines.get(2)[4]);
+        assertEquals(3600L, lines.get(2)[5]);
+        assertTrue((Long) lines.get(0)[1] > 0);
+
+        long firstOrderCents = 0;
+        for (Object[] line : lines) {
+            if ((Integer) line[0] == first.getOrderId()) {
+                firstOrderCents += (Long) line[5];
+            }
+        }
+        assertEquals(2900L, firstOrderCents);
+        assertEquals(2900L, lines.get(0)[6]);
+        assertEquals(3600L, lines.get(2)[6]);
+    }
+
+    @Test
+    @DisplayName("Test streamExportLines - all columns and resume filter")
+    void testStreamExportLines() {
+        Order first = placeOrder("TNG", 1,
+                new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2));
+        Order second = placeOrder("Grab", 2,
+                new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 1),
+                new OrderDetails(new Food(2002, "Mee Goreng", 12.00, "Set"), 1));
+
+        List<Object[]> lines = new ArrayList<>();
+        ExportLineCollector collector = new ExportLineCollector(lines);
+        assertEquals(3, repository.streamExportLines(0, collector));
+        assertEquals(first.getOrderId(), lines.get(0)[0]);
+        assertEquals(1000, lines.get(0)[1]);
+        assertEquals(2100L, lines.get(0)[5]);
+        assertEquals(1050L, lines.get(0)[8]);
+        assertEquals(2100L, lines.get(0)[9]);
+        assertEquals(2000L, lines.get(1)[5]);
+
+        lines.clear();
+        assertEquals(2, repository.streamExportLines(first.getOrderId(), collector));
+        assertEquals(second.getOrderId(), lines.get(0)[0]);
+        assertEquals("Grab", lines.get(0)[3]);
+    }
+
+    @Test
+    @DisplayName("Test streamOrderLines/streamExportLines - line amounts are net of promotion discounts")
+    void testStreamLines_Discounted() {
+        OrderDetails rice = new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2);
+        rice.setDiscount(new java.math.BigDecimal("1.05"));
+        placeOrder("TNG", 1, rice, new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 1));
+
+        List<long[]> lines = new ArrayList<>();
+        repository.streamOrderLines((orderId, millis, type, total, foodId, qty, cents) ->
+                lines.add(new long[] {foodId, cents, total}));
+        assertEquals(1995L, lines.get(0)[1]);
+        assertEquals(1995L + 800L, lines.get(0)[1] + lines.get(1)[1]);
+        assertEquals(2795L, lines.get(0)[2]);
+
+        List<Object[]> exported = new ArrayList<>();
+        repository.streamExportLines(0, new ExportLineCollector(exported));
+        assertEquals(1050L, exported.get(0)[8]);
+        assertEquals(1995L, exported.get(0)[9]);
+    }
+
+    private static class ExportLineCollector
+            implements repository.interfaces.IOrderLineRepository.ExportLineHandler {
+        private final List<Object[]> lines;
+
+        ExportLineCollector(List<Object[]> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void onLine(int orderId, int customerId, long orderEpochMillis, String paymentType, String status,
+                           long orderTotalCents, int foodId, int quantity, long unitPriceCents, long subtotalCents) {
+            lines.add(new Object[] {orderId, customerId, orderEpochMillis, paymentType, status,
+                    orderTotalCents, foodId, quantity, unitPriceCents, subtotalCents});
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -97,6 +98,52 @@ public class OrderRepositoryTest {
         assertTrue(orders.size() > 0);
     }
     
+    @Test
+    @DisplayName("Test findByCustomerId - loads orders and details in one query, newest first")
+    void testFindByCustomerId_GroupsDetails() {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod pm = new PaymentMethod(1, 1000, "TNG", 100.00, null, null);
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1));
+        details.add(new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 2));
+        Order first = new Order(new Date(), customer, details, 26.50, pm);
+        first.setStatus("COMPLETED");
+        repository.save(first);
+        Order empty = new Order(new Date(), customer, null, 0.0, pm);
+        empty.setStatus("COMPLETED");
+        repository.save(empty);
+        
+        List<Order> orders = repository.findByCustomerId(1000);
+        
+        assertEquals(2, orders.size());
+        assertEquals(empty.getOrderId(), orders.get(0).getOrderId());
+        assertTrue(orders.get(0).getOrderDetails().isEmpty());
+        assertEquals(2, orders.get(1).getOrderDetails().size());
+        assertEquals("Nasi Lemak", orders.get(1).getOrderDetails().get(1).getFood().getFoodName());
+        assertEquals(2, orders.get(1).getOrderDetails().get(1).getQuantity());
+    }
+    
+    @Test
+    @DisplayName("Test save - line discounts are stored and come back with the history")
+    void testSave_DiscountedLines() {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod pm = new PaymentMethod(1, 1000, "TNG", 100.00, null, null);
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2));
+        details.add(new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 1));
+        details.get(0).setDiscount(new java.math.BigDecimal("1.50"));
+        Order order = new Order(new Date(), customer, details, 27.50, pm);
+        order.setStatus("COMPLETED");
+        repository.save(order);
+
+        Order loaded = repository.findByCustomerId(1000).get(0);
+        assertEquals(0, new java.math.BigDecimal("1.50").compareTo(loaded.getDiscountDecimal()));
+        assertEquals(0, new java.math.BigDecimal("21.00").compareTo(loaded.getOrderDetails().get(0).getSubtotalDecimal()));
+        assertEquals(0, new java.math.BigDecimal("19.50").compareTo(loaded.getOrderDetails().get(0).getNetSubtotalDecimal()));
+        assertEquals(0, new java.math.BigDecimal("1.50").compareTo(
+                repository.findById(order.getOrderId()).orElseThrow().getDiscountDecimal()));
+    }
+    
     @Test
     @DisplayName("Test findAll - returns all orders")
     void testFindAll() {
@@ -237,4 +284,130 @@ public class OrderRepositoryTest {
         Order saved = repository.save(order);
         assertTrue(saved.getOrderId() > 0);
     }
-}
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Test streamOrderReport - streams report columns only")
+    void testStreamOrderReport() {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod tng = new PaymentMethod(1, 1000, "TNG", 100.00, null, null);
+        PaymentMethod grab = new PaymentMethod(2, 1000, "Grab", 50.00, null, null);
+        Food food = new Food(2000, "Chicken Rice", 10.50, "Set");
+        
+        Order first = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 2)), 21.00, tng);
+        repository.save(first);
+        Order second = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 1)), 10.50, grab);
+        repository.save(second);
+        
+        List<String> rows = new ArrayList<>();
+        int count = repository.streamOrderReport((orderId, customerId, paymentType, totalCents) ->
+                rows.add(orderId + ":" + customerId + ":" + paymentType + ":" + totalCents));
+        
+        assertEquals(2, count);
+        assertTrue(rows.contains(first.getOrderId() + ":1000:TNG:2100"));
+        assertTrue(rows.contains(second.getOrderId() + ":1000:Grab:1050"));
+    }
+    
+    @Test
+    @DisplayName("Test streamOrderReport - empty table streams nothing")
+    void testStreamOrderReport_Empty() {
+        int count = repository.streamOrderReport((orderId, customerId, paymentType, totalCents) ->
+                fail("No rows expected"));
+        assertEquals(0, count);
+    }
+    
+    @Test
+    @DisplayName("Test streamOrderReport - a failed cursor is reported, not returned as a short count")
+    void testStreamOrderReport_Failure() {
+        OrderRepository failing = new OrderRepository(() -> {
+            throw new SQLException("Connection lost");
+        });
+        assertThrows(RuntimeException.class, () -> failing.streamOrderReport(
+                (orderId, customerId, paymentType, totalCents) -> fail("No rows expected")));
+    }
+    
+    @Test
+    @DisplayName("Test idempotency keys - reserve, link on save, release only while pending")
+    void testIdempotencyKeys() {
+        Customer customer = new Customer(1000, "John Doe");
+        PaymentMethod pm = new PaymentMethod(1, 1000, "TNG", 100.00, null, null);
+        Food food = new Food(2000, "Chicken Rice", 10.50, "Set");
+        
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0001", 60_000));
+        assertFalse(repository.reserveIdempotencyKey(1000, "till-1-0001", 60_000));
+        assertTrue(repository.findOrderIdByIdempotencyKey(1000, "till-1-0001").isEmpty());
+        
+        Order order = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 1)), 10.50, pm);
+        order.setStatus("COMPLETED");
+        repository.save(order, "till-1-0001");
+        assertEquals(Optional.of(order.getOrderId()), repository.findOrderIdByIdempotencyKey(1000, "till-1-0001"));
+        
+        // Completed keys survive release; pending ones are freed
+        repository.releaseIdempotencyKey(1000, "till-1-0001");
+        assertFalse(repository.reserveIdempotencyKey(1000, "till-1-0001", 60_000));
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0002", 60_000));
+        repository.releaseIdempotencyKey(1000, "till-1-0002");
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0002", 60_000));
+        
+        // Saving under a key that was never reserved rolls the order back
+        Order unreserved = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 1)), 10.50, pm);
+        unreserved.setStatus("COMPLETED");
+        assertThrows(RuntimeException.class, () -> repository.save(unreserved, "unknown-key"));
+        assertEquals(1, repository.findAll().size());
+    }
+    
+    @Test
+    @DisplayName("Test idempotency keys - a stale pending reservation is reclaimed, a completed one never")
+    void testIdempotencyKeys_StaleReservation() throws InterruptedException {
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0003", 60_000));
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0004", 60_000));
+        Order order = new Order(new Date(), new Customer(1000, "John Doe"),
+                Arrays.asList(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1)), 10.50,
+                new PaymentMethod(1, 1000, "TNG", 100.00, null, null));
+        order.setStatus("COMPLETED");
+        repository.save(order, "till-1-0004");
+        Thread.sleep(20);
+        
+        assertFalse(repository.reserveIdempotencyKey(1000, "till-1-0003", 60_000));
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0003", 10));
+        // Reclaiming refreshes the reservation time
+        assertFalse(repository.reserveIdempotencyKey(1000, "till-1-0003", 10_000));
+        assertFalse(repository.reserveIdempotencyKey(1000, "till-1-0004", 10));
+    }
+    
+    @Test
+    @DisplayName("Test debitAndSave - a failed save rolls the debit back, so a reclaimed key is charged once")
+    void testDebitAndSave_FailedSaveThenStaleRetry() throws InterruptedException {
+        Customer customer = new Customer(1000, "John Doe");
+        Food food = new Food(2000, "Chicken Rice", 10.50, "Set");
+        PaymentMethodRepository paymentMethods = new PaymentMethodRepository(connectionProvider);
+        
+        // The debit succeeds, then the insert fails (status is VARCHAR(20))
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0005", 60_000));
+        Order broken = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 2)), 21.00,
+                new PaymentMethod(1, 1000, "TNG", 100.00, null, null));
+        broken.setStatus("COMPLETED".repeat(3));
+        assertThrows(RuntimeException.class,
+                () -> repository.debitAndSave(broken, new BigDecimal("21.00"), "till-1-0005"));
+        assertEquals(100.00, paymentMethods.findById(1).get().getBalance(), 0.001);
+        
+        // The retry after the stale window reclaims the key and pays once
+        Thread.sleep(20);
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0005", 10));
+        PaymentMethod pm = new PaymentMethod(1, 1000, "TNG", 100.00, null, null);
+        Order retry = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 2)), 21.00, pm);
+        retry.setStatus("COMPLETED");
+        assertTrue(repository.debitAndSave(retry, new BigDecimal("21.00"), "till-1-0005").isPresent());
+        assertEquals(79.00, paymentMethods.findById(1).get().getBalance(), 0.001);
+        assertEquals(new BigDecimal("79.00"), pm.getBalanceDecimal());
+        assertEquals(Optional.of(retry.getOrderId()), repository.findOrderIdByIdempotencyKey(1000, "till-1-0005"));
+        assertTrue(repository.findOrderIdByIdempotencyKey(1001, "till-1-0005").isEmpty());
+        
+        // A charge the balance does not cover writes nothing
+        assertTrue(repository.reserveIdempotencyKey(1000, "till-1-0006", 60_000));
+        Order tooDear = new Order(new Date(), customer, Arrays.asList(new OrderDetails(food, 10)), 105.00, pm);
+        tooDear.setStatus("COMPLETED");
+        assertTrue(repository.debitAndSave(tooDear, new BigDecimal("105.00"), "till-1-0006").isEmpty());
+        assertEquals(1, repository.findAll().size());
+        assertEquals(79.00, paymentMethods.findById(1).get().getBalance(), 0.001);
+    }
+}
@@ -151,6 +151,16 @@ public class OrderServiceTest {
         public int getNextOrderId() {
             return nextId;
         }
+        
+        @Override
+        public int streamOrderReport(ReportRowHandler handler) {
+            for (Order o : orders.values()) {
+                handler.onRow(o.getOrderId(), o.getCustomer().getCustomerId(),
+                        o.getPaymentMethod().getPaymentType(),
+                        o.getTotalPriceDecimal().movePointRight(2).longValue());
+            }
+            return orders.size();
+        }
     }
     
     private static class MockCustomerRepository implements ICustomerRepository {
@@ -230,6 +240,16 @@ public class OrderServiceTest {
             }
             return false;
         }
+
+        @Override
+        public Optional<java.math.BigDecimal> debit(int paymentMethodId, double amount) {
+            PaymentMethod pm = paymentMethods.get(paymentMethodId);
+            if (pm == null || pm.getBalance() < amount) {
+                return Optional.empty();
+            }
+            pm.setBalance(pm.getBalance() - amount);
+            return Optional.of(pm.getBalanceDecimal());
+        }
         
         public void addPaymentMethod(PaymentMethod pm) {
             paymentMethods.put(pm.getPaymentMethodId(), pm);
@@ -243,6 +263,11 @@ public class OrderServiceTest {
             this.repository = repository;
         }
         
+        @Override
+        public double chargeFor(PaymentMethod pm, double amount, String cardNumber, String expiryDate) {
+            return amount;
+        }
+
         @Override
         public Payment processPayment(int customerId, String paymentType, double amount, 
                                     String cardNumber, String expiryDate) {
@@ -264,6 +289,21 @@ public class OrderServiceTest {
             return payment;
         }
         
+        @Override
+        public Payment processPayment(PaymentMethod pm, double amount,
+                                    String cardNumber, String expiryDate) {
+            Payment payment = new TNGPayment(pm.getBalance());
+            
+            if (!payment.checkAmount(amount)) {
+                throw new IllegalArgumentException("Insufficient balance");
+            }
+            
+            double newBalance = payment.makePayment(amount);
+            repository.updateBalance(pm.getPaymentMethodId(), newBalance);
+            
+            return payment;
+        }
+        
         @Override
         public Optional<PaymentMethod> getPaymentMethod(int customerId, String paymentType) {
             return repository.findByCustomerIdAndType(customerId, paymentType);
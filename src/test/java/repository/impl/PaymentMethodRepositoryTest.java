@@ -9,6 +9,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
@@ -239,6 +240,19 @@ public class PaymentMethodRepositoryTest {
         assertTrue(updated);
     }
     
+    @Test
+    @DisplayName("Test debit - only applied while the balance covers it")
+    void testDebit_Conditional() {
+        // Two checkouts that both read 100.00 before either debited
+        assertEquals(Optional.of(new BigDecimal("40.00")), repository.debit(1, 60.00));
+        assertTrue(repository.debit(1, 60.00).isEmpty());
+        assertEquals(40.00, repository.findById(1).get().getBalance(), 0.01);
+        
+        assertEquals(Optional.of(new BigDecimal("0.00")), repository.debit(1, 40.00));
+        assertEquals(0.00, repository.findById(1).get().getBalance(), 0.01);
+        assertTrue(repository.debit(99999, 1.00).isEmpty());
+    }
+    
     @Test
     @DisplayName("Test mapResultSetToPaymentMethod - all fields")
     void testMapResultSetToPaymentMethod_AllFields() {
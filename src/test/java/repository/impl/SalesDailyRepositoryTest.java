@@ -0,0 +1,197 @@
+package repository.impl;
+
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sales Daily Repository Test
+ */
+public class SalesDailyRepositoryTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    private DatabaseConnection connectionProvider;
+    private OrderRepository orderRepository;
+    private SalesDailyRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionProvider = DatabaseConnection.createInstance(H2_URL, "sa", "");
+        TestDatabaseSetup.initializeSchema(connectionProvider);
+        orderRepository = new OrderRepository(connectionProvider);
+        repository = new SalesDailyRepository(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        TestDatabaseSetup.cleanup(connectionProvider);
+        connectionProvider.closeConnection();
+    }
+
+    private void placeOrder(String paymentType, int paymentMethodId, OrderDetails... details) {
+        PaymentMethod pm = new PaymentMethod(paymentMethodId, 1000, paymentType, 100.00, null, null);
+        double total = 0;
+        for (OrderDetails d : details) {
+            total += d.getSubtotal();
+        }
+        orderRepository.save(new Order(new Date(), new Customer(1000), Arrays.asList(details), total, pm));
+    }
+
+    private SalesDaily find(List<SalesDaily> rows, int foodId, String paymentType) {
+        return rows.stream()
+                .filter(r -> r.getFoodId() == foodId && r.getPaymentType().equals(paymentType))
+                .findFirst().orElse(null);
+    }
+
+    @Test
+    @DisplayName("save - maintains sales_daily incrementally")
+    void testSaveMaintainsAggregate() {
+        Food rice = new Food(2000, "Chicken Rice", 10.50, "Set");
+        Food lemak = new Food(2001, "Nasi Lemak", 8.00, "Set");
+        placeOrder("TNG", 1, new OrderDetails(rice, 2), new OrderDetails(lemak, 1));
+        placeOrder("TNG", 1, new OrderDetails(rice, 1));
+        placeOrder("Grab", 2, new OrderDetails(rice, 3));
+
+        LocalDate today = LocalDate.now();
+        List<SalesDaily> rows = repository.findBetween(today, today);
+
+        assertEquals(3, rows.size());
+        SalesDaily riceTng = find(rows, 2000, "TNG");
+        assertEquals(3, riceTng.getQuantity());
+        assertEquals(0, new BigDecimal("31.50").compareTo(riceTng.getRevenue()));
+        assertEquals("Chicken Rice", riceTng.getFoodName());
+        assertEquals(3, find(rows, 2000, "Grab").getQuantity());
+        assertEquals(1, find(rows, 2001, "TNG").getQuantity());
+    }
+
+    @Test
+    @DisplayName("save and rebuild - revenue is net of line discounts")
+    void testRevenueNetOfDiscount() {
+        OrderDetails rice = new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2);
+        rice.setDiscount(new BigDecimal("2.10"));
+        placeOrder("TNG", 1, rice);
+
+        LocalDate today = LocalDate.now();
+        assertEquals(0, new BigDecimal("18.90").compareTo(find(repository.findBetween(today, today), 2000, "TNG").getRevenue()));
+        repository.rebuild(10, 1);
+        assertEquals(0, new BigDecimal("18.90").compareTo(find(repository.findBetween(today, today), 2000, "TNG").getRevenue()));
+    }
+
+    @Test
+    @DisplayName("findBetween - outside range returns nothing")
+    void testFindBetweenOutsideRange() {
+        placeOrder("TNG", 1, new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1));
+
+        LocalDate lastYear = LocalDate.now().minusYears(1);
+        assertTrue(repository.findBetween(lastYear, lastYear.plusDays(7)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild - recomputes the aggregate from raw orders in parallel chunks")
+    void testRebuild() throws SQLException {
+        Food rice = new Food(2000, "Chicken Rice", 10.50, "Set");
+        Food mee = new Food(2002, "Mee Goreng", 12.00, "A la carte");
+        placeOrder("TNG", 1, new OrderDetails(rice, 2));
+        placeOrder("TNG", 1, new OrderDetails(rice, 1), new OrderDetails(mee, 1));
+        placeOrder("Bank", 3, new OrderDetails(mee, 2));
+        LocalDate today = LocalDate.now();
+        List<SalesDaily> before = repository.findBetween(today, today);
+
+        // Corrupt the aggregate, then rebuild with one order per chunk
+        try (Connection conn = connectionProvider.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE sales_daily SET quantity = 999");
+        }
+        int rows = repository.rebuild(1, 3);
+
+        List<SalesDaily> after = repository.findBetween(today, today);
+        assertEquals(3, rows);
+        assertEquals(before.size(), after.size());
+        for (SalesDaily expected : before) {
+            SalesDaily actual = find(after, expected.getFoodId(), expected.getPaymentType());
+            assertEquals(expected.getQuantity(), actual.getQuantity());
+            assertEquals(0, expected.getRevenue().compareTo(actual.getRevenue()));
+        }
+    }
+
+    @Test
+    @DisplayName("rebuild - an order saved during the scan is not lost")
+    void testRebuildKeepsConcurrentOrder() throws Exception {
+        Food rice = new Food(2000, "Chicken Rice", 10.50, "Set");
+        placeOrder("TNG", 1, new OrderDetails(rice, 2));
+
+        // A second till (own connection) checks out while the rebuild workers scan
+        DatabaseConnection otherTill = new DatabaseConnection(H2_URL, "sa", "");
+        OrderRepository otherOrders = new OrderRepository(otherTill);
+        Thread checkout = new Thread(() -> otherOrders.save(new Order(new Date(), new Customer(1000),
+                Arrays.asList(new OrderDetails(rice, 1)), 10.50,
+                new PaymentMethod(1, 1000, "TNG", 100.00, null, null))));
+        AtomicBoolean started = new AtomicBoolean();
+        SalesDailyRepository racing = new SalesDailyRepository(connectionProvider, () -> {
+            if (started.compareAndSet(false, true)) {
+                checkout.start();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return connectionProvider.openConnection();
+        });
+
+        racing.rebuild(100, 1);
+        checkout.join(10_000);
+        otherTill.closeConnection();
+
+        LocalDate today = LocalDate.now();
+        SalesDaily riceTng = find(repository.findBetween(today, today), 2000, "TNG");
+        assertEquals(3, riceTng.getQuantity());
+        assertEquals(0, new BigDecimal("31.50").compareTo(riceTng.getRevenue()));
+    }
+
+    @Test
+    @DisplayName("save - sales_daily uses the order's own date")
+    void testSaveUsesOrderDate() {
+        LocalDate lastWeek = LocalDate.now().minusDays(7);
+        Date orderDate = Date.from(lastWeek.atTime(23, 59).atZone(java.time.ZoneId.systemDefault()).toInstant());
+        orderRepository.save(new Order(orderDate, new Customer(1000),
+                Arrays.asList(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1)), 10.50,
+                new PaymentMethod(1, 1000, "TNG", 100.00, null, null)));
+
+        assertEquals(1, repository.findBetween(lastWeek, lastWeek).size());
+        assertEquals(1, repository.rebuild(10, 1));
+        assertEquals(1, repository.findBetween(lastWeek, lastWeek).size());
+        assertTrue(repository.findBetween(LocalDate.now(), LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild - with no orders clears the aggregate")
+    void testRebuildEmpty() {
+        assertEquals(0, repository.rebuild(100, 2));
+        assertTrue(repository.findBetween(LocalDate.now(), LocalDate.now()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild - rejects invalid arguments")
+    void testRebuildInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> repository.rebuild(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> repository.rebuild(10, 0));
+    }
+}
@@ -0,0 +1,282 @@
+package repository.shard;
+
+import config.ConnectionProvider;
+import config.DatabaseConnection;
+import config.TestDatabaseSetup;
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sharded Repository Test
+ * Three H2 databases act as shards (a fourth is added by the rebalance
+ * test); each hands out its own range of order and payment method IDs.
+ */
+class ShardedRepositoryTest {
+
+    private static final int SHARDS = 3;
+    private static final int CUSTOMERS = 60;
+
+    private final List<DatabaseConnection> databases = new ArrayList<>();
+    private ShardRouter router;
+    private ShardedOrderRepository orders;
+    private ShardedPaymentMethodRepository paymentMethods;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        for (int s = 0; s < SHARDS; s++) {
+            databases.add(shard(s));
+        }
+        router = new ShardRouter(databases);
+        orders = new ShardedOrderRepository(router);
+        paymentMethods = new ShardedPaymentMethodRepository(router);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        router.close();
+        for (DatabaseConnection db : databases) {
+            TestDatabaseSetup.cleanup(db);
+            db.closeConnection();
+        }
+        databases.clear();
+    }
+
+    private static DatabaseConnection shard(int s) throws SQLException {
+        DatabaseConnection db = DatabaseConnection.createInstance(
+                "jdbc:h2:mem:shard_" + s + ";DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        TestDatabaseSetup.initializeSchema(db);
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DELETE FROM payment_methods");
+            stmt.execute("ALTER TABLE orders ALTER COLUMN order_id RESTART WITH " + (s + 1) * 100_000);
+            stmt.execute("ALTER TABLE payment_methods ALTER COLUMN payment_method_id RESTART WITH " + (s + 1) * 100_000);
+        }
+        return db;
+    }
+
+    private PaymentMethod addCustomer(int customerId) {
+        return paymentMethods.save(new PaymentMethod(customerId, "TNG", 100.00));
+    }
+
+    private Order placeOrder(PaymentMethod pm, int quantity) {
+        Customer customer = new Customer(pm.getCustomerId(), "Customer " + pm.getCustomerId());
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), quantity));
+        return orders.save(new Order(new Date(), customer, details, 10.50 * quantity, pm));
+    }
+
+    private static int count(ConnectionProvider db, String sql) throws SQLException {
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    @DisplayName("ring spreads customers and adding a shard only moves customers onto it")
+    void testRingSpreadAndMinimalMovement() {
+        ConsistentHashRing ring = ConsistentHashRing.of(3);
+        ConsistentHashRing grown = ring.withShard(3);
+        int[] perShard = new int[3];
+        int moved = 0;
+        for (int c = 1; c <= 30_000; c++) {
+            int before = ring.shardFor(c);
+            int after = grown.shardFor(c);
+            perShard[before]++;
+            if (before != after) {
+                assertEquals(3, after);
+                moved++;
+            }
+        }
+        for (int n : perShard) {
+            assertTrue(n > 8_000 && n < 12_000, "uneven spread: " + n);
+        }
+        assertTrue(moved > 5_000 && moved < 10_000, "moved " + moved);
+        assertTrue(grown.contains(3));
+        assertFalse(ring.contains(3));
+    }
+
+    @Test
+    @DisplayName("a customer's orders and payment methods land on the owning shard")
+    void testRoutedWrites() throws SQLException {
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            placeOrder(addCustomer(c), 1);
+        }
+        int total = 0;
+        for (int s = 0; s < SHARDS; s++) {
+            int rows = count(databases.get(s), "SELECT COUNT(*) FROM orders");
+            assertTrue(rows > 0, "shard " + s + " is empty");
+            total += rows;
+        }
+        assertEquals(CUSTOMERS, total);
+
+        int customerId = 17;
+        int owner = router.shardFor(customerId);
+        assertEquals(1, count(databases.get(owner), "SELECT COUNT(*) FROM orders WHERE customer_id = 17"));
+        assertEquals(1, count(databases.get(owner), "SELECT COUNT(*) FROM payment_methods WHERE customer_id = 17"));
+        assertEquals(1, orders.findByCustomerId(customerId).size());
+        assertEquals("TNG", paymentMethods.findByCustomerIdAndType(customerId, "TNG").orElseThrow().getPaymentType());
+    }
+
+    @Test
+    @DisplayName("lookups by ID find rows on any shard, and balance updates reach the owner")
+    void testLookupsById() {
+        PaymentMethod pm = addCustomer(42);
+        Order order = placeOrder(pm, 2);
+
+        // Fresh repositories have no location hints, so they must ask every shard
+        ShardedOrderRepository coldOrders = new ShardedOrderRepository(router);
+        ShardedPaymentMethodRepository coldPaymentMethods = new ShardedPaymentMethodRepository(router);
+        Order found = coldOrders.findById(order.getOrderId()).orElseThrow();
+        assertEquals(42, found.getCustomer().getCustomerId());
+        assertEquals(1, found.getOrderDetails().size());
+        assertTrue(coldOrders.findById(999).isEmpty());
+
+        assertTrue(coldPaymentMethods.updateBalance(pm.getPaymentMethodId(), 12.34));
+        assertEquals(12.34, paymentMethods.findById(pm.getPaymentMethodId()).orElseThrow().getBalance(), 0.001);
+        assertFalse(coldPaymentMethods.updateBalance(999, 1.00));
+        assertTrue(orders.getNextOrderId() > order.getOrderId());
+    }
+
+    @Test
+    @DisplayName("findAll and the report merge every shard newest first")
+    void testScatterGatherOrder() throws SQLException {
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            placeOrder(addCustomer(c), 1);
+        }
+        // Give every order a distinct date so the global order is known
+        for (DatabaseConnection db : databases) {
+            try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("UPDATE orders SET order_date = DATEADD('MINUTE', customer_id, TIMESTAMP '2026-01-01 00:00:00')");
+            }
+        }
+
+        List<Order> all = orders.findAll();
+        assertEquals(CUSTOMERS, all.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(CUSTOMERS - i, all.get(i).getCustomer().getCustomerId());
+        }
+
+        List<Integer> reportCustomers = new ArrayList<>();
+        int rows = orders.streamOrderReport((orderId, customerId, paymentType, totalCents) -> {
+            assertEquals(1050, totalCents);
+            reportCustomers.add(customerId);
+        });
+        assertEquals(CUSTOMERS, rows);
+        for (int i = 0; i < reportCustomers.size(); i++) {
+            assertEquals(CUSTOMERS - i, reportCustomers.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("adding a shard moves only its customers and keeps every row reachable")
+    void testOnlineRebalance() throws SQLException {
+        List<Order> placed = new ArrayList<>();
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            placed.add(placeOrder(addCustomer(c), 1 + c % 3));
+        }
+        ConsistentHashRing before = router.getRing();
+
+        DatabaseConnection added = shard(SHARDS);
+        databases.add(added);
+        ShardRebalancer rebalancer = new ShardRebalancer(router);
+        int moved = rebalancer.addShard(added);
+
+        assertEquals(SHARDS + 1, router.getShardCount());
+        assertTrue(moved > 0);
+        assertEquals(moved, rebalancer.getCustomersMoved());
+        int onNewShard = count(added, "SELECT COUNT(DISTINCT customer_id) FROM orders");
+        assertEquals(moved, onNewShard);
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            int owner = router.shardFor(c);
+            assertTrue(owner == before.shardFor(c) || owner == SHARDS);
+        }
+        // Rows left behind on old shards: none for moved customers
+        int total = 0;
+        for (DatabaseConnection db : databases) {
+            total += count(db, "SELECT COUNT(*) FROM orders");
+        }
+        assertEquals(CUSTOMERS, total);
+
+        for (Order order : placed) {
+            Order found = orders.findById(order.getOrderId()).orElseThrow();
+            assertEquals(order.getOrderDetails().get(0).getQuantity(), found.getOrderDetails().get(0).getQuantity());
+            int customerId = order.getCustomer().getCustomerId();
+            assertEquals(1, orders.findByCustomerId(customerId).size());
+            assertEquals(1, paymentMethods.findByCustomerId(customerId).size());
+        }
+        assertEquals(CUSTOMERS, orders.findAll().size());
+
+        // Nothing left to do
+        assertEquals(0, rebalancer.rebalance());
+    }
+
+    @Test
+    @DisplayName("idempotency keys are kept on the customer's shard and move with the customer")
+    void testIdempotencyKeysFollowCustomer() throws SQLException {
+        List<Order> placed = new ArrayList<>();
+        for (int c = 1; c <= CUSTOMERS; c++) {
+            PaymentMethod pm = addCustomer(c);
+            assertTrue(orders.reserveIdempotencyKey(c, "cart-" + c, 60_000));
+            assertFalse(orders.reserveIdempotencyKey(c, "cart-" + c, 60_000));
+            Customer customer = new Customer(c, "Customer " + c);
+            List<OrderDetails> details = new ArrayList<>();
+            details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 1));
+            placed.add(orders.save(new Order(new Date(), customer, details, 10.50, pm), "cart-" + c));
+        }
+        // An unfinished checkout and a key saved before customer_id was recorded, both on customers that move
+        ConsistentHashRing grown = router.getRing().withShard(SHARDS);
+        int inFlight = 1;
+        while (grown.shardFor(inFlight) != SHARDS) {
+            inFlight++;
+        }
+        int legacy = inFlight + 1;
+        while (grown.shardFor(legacy) != SHARDS) {
+            legacy++;
+        }
+        assertTrue(orders.reserveIdempotencyKey(inFlight, "in-flight", 60_000));
+        try (Connection conn = databases.get(router.shardFor(legacy)).getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("UPDATE order_idempotency SET customer_id = NULL WHERE idempotency_key = 'cart-" + legacy + "'");
+        }
+        assertEquals(2, count(databases.get(router.shardFor(inFlight)),
+                "SELECT COUNT(*) FROM order_idempotency WHERE customer_id = " + inFlight));
+
+        DatabaseConnection added = shard(SHARDS);
+        databases.add(added);
+        new ShardRebalancer(router).addShard(added);
+
+        int keys = 0;
+        for (DatabaseConnection db : databases) {
+            keys += count(db, "SELECT COUNT(*) FROM order_idempotency");
+        }
+        assertEquals(CUSTOMERS + 1, keys);
+        for (Order order : placed) {
+            int customerId = order.getCustomer().getCustomerId();
+            assertEquals(Optional.of(order.getOrderId()), orders.findOrderIdByIdempotencyKey(customerId, "cart-" + customerId));
+        }
+        assertEquals(1, count(added, "SELECT COUNT(*) FROM order_idempotency WHERE customer_id = " + legacy));
+        assertEquals(2, count(added, "SELECT COUNT(*) FROM order_idempotency WHERE customer_id = " + inFlight));
+        assertFalse(orders.reserveIdempotencyKey(inFlight, "in-flight", 60_000));
+        orders.releaseIdempotencyKey(inFlight, "in-flight");
+        assertTrue(orders.reserveIdempotencyKey(inFlight, "in-flight", 60_000));
+    }
+}
@@ -0,0 +1,228 @@
+package service.event;
+
+import model.Customer;
+import model.Food;
+import model.Order;
+import model.OrderDetails;
+import model.PaymentMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Domain Event Publisher Test
+ */
+class DomainEventPublisherTest {
+
+    private DomainEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        if (publisher != null) {
+            publisher.close();
+        }
+    }
+
+    private static FoodChanged foodChanged(int foodId) {
+        return new FoodChanged(foodId, FoodChanged.Change.UPDATED, new Food(foodId, "Chicken Rice", 10.50, "Set"));
+    }
+
+    private static Order order(int orderId) {
+        List<OrderDetails> details = new ArrayList<>();
+        details.add(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2));
+        Order order = new Order(new Date(), new Customer(1000, "John Doe"), details, 21.00,
+                new PaymentMethod(1, 1000, "TNG", 79.00, null, null));
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    @Test
+    @DisplayName("events reach every listener in publish order, grouped into batches")
+    void testDeliversInOrder() throws Exception {
+        publisher = new DomainEventPublisher(16, 8, 1);
+        List<Integer> first = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> second = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(200);
+        publisher.subscribe(event -> {
+            first.add(((FoodChanged) event).getFoodId());
+            done.countDown();
+        });
+        publisher.subscribe(event -> {
+            second.add(((FoodChanged) event).getFoodId());
+            done.countDown();
+        });
+
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(foodChanged(i));
+            expected.add(i);
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        publisher.close();
+        assertEquals(expected, second);
+        assertEquals(expected, first);
+        assertEquals(100, publisher.getPublished());
+        assertTrue(publisher.getBatches() >= 100 / 8 && publisher.getBatches() < 100);
+        assertEquals(0, publisher.getDropped());
+    }
+
+    @Test
+    @DisplayName("a partial batch is sent after the linger time")
+    void testLingerFlushesPartialBatch() throws Exception {
+        // Long enough that both events always land in the same partial batch
+        publisher = new DomainEventPublisher(16, 64, 200);
+        CountDownLatch received = new CountDownLatch(1);
+        List<OrderPlaced> orders = Collections.synchronizedList(new ArrayList<>());
+        publisher.subscribe(OrderPlaced.class, placed -> {
+            orders.add(placed);
+            received.countDown();
+        });
+
+        publisher.publish(foodChanged(1));
+        publisher.publish(new OrderPlaced(order(7)));
+
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        assertEquals(1, orders.size());
+        assertEquals(7, orders.get(0).getOrderId());
+        assertEquals(1000, orders.get(0).getCustomerId());
+        assertEquals(0, new BigDecimal("21.00").compareTo(orders.get(0).getTotal()));
+        assertEquals(1, publisher.getBatches());
+    }
+
+    @Test
+    @DisplayName("without subscribers publish does nothing")
+    void testNoSubscribers() {
+        publisher = new DomainEventPublisher();
+        publisher.publish(foodChanged(1));
+        publisher.publish(null);
+        assertEquals(0, publisher.getPublished());
+        assertEquals(0, publisher.getBatches());
+    }
+
+    @Test
+    @DisplayName("a stalled subscriber loses batches instead of blocking publish")
+    void testSlowSubscriberDropsWithoutBlocking() throws Exception {
+        publisher = new DomainEventPublisher(1, 1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        DomainEventPublisher.Listener slow = publisher.subscribe(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            publisher.publish(new CustomerRegistered(1000 + i, "John Doe", "0123456789"));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(elapsedMillis < 2_000, "publish waited " + elapsedMillis + " ms");
+        assertTrue(publisher.getDropped() > 0);
+        // The stalled subscriber's buffer stays bounded instead of holding every event
+        assertTrue(publisher.getMaxLag() < 50, "lag " + publisher.getMaxLag());
+
+        // Every event is either delivered or counted as dropped
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (slow.getReceived() + publisher.getDropped() < 50 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(50, slow.getReceived() + publisher.getDropped());
+    }
+
+    @Test
+    @DisplayName("a failing handler is skipped and the stream continues")
+    void testHandlerFailureIsIsolated() throws Exception {
+        publisher = new DomainEventPublisher(16, 4, 1);
+        CountDownLatch done = new CountDownLatch(3);
+        DomainEventPublisher.Listener listener = publisher.subscribe(event -> {
+            done.countDown();
+            if (((FoodChanged) event).getFoodId() == 2) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        publisher.publish(foodChanged(1));
+        publisher.publish(foodChanged(2));
+        publisher.publish(foodChanged(3));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, listener.getReceived());
+        assertEquals(1, listener.getFailures());
+    }
+
+    @Test
+    @DisplayName("close sends staged events and completes raw subscribers")
+    void testCloseFlushesAndCompletes() throws Exception {
+        publisher = new DomainEventPublisher(16, 64, 60_000);
+        List<List<DomainEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch completed = new CountDownLatch(1);
+        publisher.subscribe(new Flow.Subscriber<List<DomainEvent>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<DomainEvent> batch) {
+                batches.add(batch);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        PaymentDebited debited = new PaymentDebited(1, 1000, "TNG", new BigDecimal("21.00"), new BigDecimal("79.00"));
+        publisher.publish(debited);
+        publisher.publish(foodChanged(2));
+        publisher.close();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertSame(debited, batches.get(0).get(0));
+        assertThrows(UnsupportedOperationException.class, () -> batches.get(0).add(debited));
+
+        // After close, publish is ignored
+        publisher.publish(foodChanged(3));
+        assertEquals(2, publisher.getPublished());
+    }
+
+    @Test
+    @DisplayName("a cancelled listener receives nothing more")
+    void testCancel() throws Exception {
+        publisher = new DomainEventPublisher(16, 1, 0);
+        DomainEventPublisher.Listener listener = publisher.subscribe(event -> { });
+        CountDownLatch other = new CountDownLatch(1);
+        publisher.subscribe(event -> other.countDown());
+        listener.cancel();
+
+        publisher.publish(foodChanged(1));
+
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        assertEquals(0, listener.getReceived());
+        assertThrows(IllegalArgumentException.class, () -> new DomainEventPublisher(0, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DomainEventPublisher(1, 1, -1));
+    }
+}
@@ -0,0 +1,255 @@
+package service.impl;
+
+import model.Customer;
+import model.Food;
+import model.ImportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.cache.CacheInvalidator;
+import repository.interfaces.IBulkImportRepository;
+import repository.interfaces.ICustomerRepository;
+import repository.interfaces.IFoodRepository;
+import service.event.CustomerRegistered;
+import service.event.DomainEvent;
+import service.event.FoodChanged;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bulk Import Service Test
+ * Real validation rules, in-memory repository
+ */
+class BulkImportServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MockBulkImportRepository repository;
+    private BulkImportService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MockBulkImportRepository();
+        service = new BulkImportService(repository,
+                new FoodService(mock(IFoodRepository.class)),
+                new CustomerService(mock(ICustomerRepository.class)),
+                3, 2);
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("import.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    @DisplayName("importFoods - header skipped, invalid and duplicate rows counted")
+    void testImportFoods() throws IOException {
+        repository.foodNames.add("Chicken Rice");
+        Path file = write("food_name,food_price,food_type\n" +
+                "Nasi Lemak,8.00,Set\n" +
+                "chicken rice,10.50,Set\n" +      // duplicate of existing
+                "Roti Canai,abc,A la carte\n" +   // bad price
+                "Mee Goreng,12.00,Set\n" +
+                "NASI LEMAK,9.00,Set\n" +         // duplicate within file
+                "Teh Tarik,2.50,Drink\n" +        // bad type
+                "Satay,15.00,A la carte\n");
+
+        List<long[]> progress = new ArrayList<>();
+        ImportResult result = service.importFoods(file,
+                (rows, imported, bytes, total, elapsed) -> progress.add(new long[] {rows, imported}));
+
+        assertEquals(7, result.getRowsRead());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getInvalid());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(List.of("Nasi Lemak", "Mee Goreng", "Satay"),
+                repository.foods.stream().map(Food::getFoodName).collect(java.util.stream.Collectors.toList()));
+        assertTrue(result.getErrorSamples().get(0).startsWith("Line 4:"));
+        assertEquals(3, progress.size());
+        assertEquals(7, progress.get(2)[0]);
+        assertEquals(3, repository.batches);
+    }
+
+    @Test
+    @DisplayName("importCustomers - validation and phone dedupe")
+    void testImportCustomers() throws IOException {
+        repository.phones.add("0123456789");
+        Path file = write("Alice,25,0111111111,Female,secret\n" +
+                "Bob,25,0123456789,Male,secret\n" +     // existing phone
+                "Carl,15,0122222222,Male,secret\n" +    // too young
+                "Dina,30,0111111111,Female,secret\n" +  // duplicate within file
+                "Ed,40,01133333333,Male,pw\n" +         // short password
+                "Fay,40,01133333333,Female,secret1\n");
+
+        ImportResult result = service.importCustomers(file, null);
+
+        assertEquals(6, result.getRowsRead());
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getInvalid());
+        assertEquals(2, result.getDuplicates());
+        assertEquals("Alice", repository.customers.get(0).getName());
+        assertEquals("01133333333", repository.customers.get(1).getPhoneNumber());
+    }
+
+    @Test
+    @DisplayName("importFoods - missing file")
+    void testMissingFile() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.importFoods(tempDir.resolve("missing.csv"), null));
+    }
+
+    @Test
+    @DisplayName("importFoods - failing batch stops the import")
+    void testBatchFailure() throws IOException {
+        repository.failInserts = true;
+        Path file = write("Nasi Lemak,8.00,Set\n");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.importFoods(file, null));
+        assertTrue(e.getMessage().contains("Import stopped"));
+    }
+
+    @Test
+    @DisplayName("importFoods - committed rows reload every menu cache; a failed first batch does not")
+    void testImportInvalidatesMenu() throws IOException {
+        List<CacheInvalidator.Topic> reloaded = new ArrayList<>();
+        CacheInvalidator invalidator = new CacheInvalidator() {
+            @Override
+            public void invalidate(Topic topic, int key) {
+                fail("Imports invalidate whole topics");
+            }
+
+            @Override
+            public void invalidateAll(Topic topic) {
+                reloaded.add(topic);
+            }
+        };
+        BulkImportService importer = new BulkImportService(repository,
+                new FoodService(mock(IFoodRepository.class)),
+                new CustomerService(mock(ICustomerRepository.class)), invalidator, 3, 2);
+
+        importer.importFoods(write("Nasi Lemak,8.00,Set\nMee Goreng,12.00,Set\n"), null);
+        assertEquals(List.of(CacheInvalidator.Topic.FOOD), reloaded);
+
+        importer.importFoods(write("Teh Tarik,2.50,Drink\n"), null);
+        repository.failInserts = true;
+        assertThrows(RuntimeException.class, () -> importer.importFoods(write("Satay,15.00,A la carte\n"), null));
+        assertEquals(1, reloaded.size());
+    }
+
+    @Test
+    @DisplayName("importFoods - imported foods are found by FoodService searches")
+    void testImportReachesSearchIndex() throws IOException {
+        FoodService foodService = new FoodService(mock(IFoodRepository.class));
+        assertTrue(foodService.searchFoods("satay", 10).isEmpty());
+        BulkImportService importer = new BulkImportService(repository, foodService,
+                new CustomerService(mock(ICustomerRepository.class)), 1, 1);
+
+        importer.importFoods(write("Satay,15.00,A la carte\nSatay Ayam,16.00,Set\n"), null);
+
+        List<Food> found = foodService.searchFoods("satay", 10);
+        assertEquals(2, found.size());
+        assertEquals(3000, found.get(0).getFoodId());
+    }
+
+    @Test
+    @DisplayName("imports publish FoodChanged/CustomerRegistered for committed rows only")
+    void testImportPublishesEvents() throws IOException {
+        List<DomainEvent> events = Collections.synchronizedList(new ArrayList<>());
+        BulkImportService importer = new BulkImportService(repository,
+                new FoodService(mock(IFoodRepository.class), CacheInvalidator.NONE, events::add),
+                new CustomerService(mock(ICustomerRepository.class), events::add), 1, 1);
+
+        importer.importFoods(write("Satay,15.00,A la carte\nTeh Tarik,2.50,Drink\n"), null);
+        importer.importCustomers(write("Alice,25,0111111111,Female,secret\n"), null);
+        repository.failInserts = true;
+        assertThrows(RuntimeException.class, () -> importer.importFoods(write("Mee Goreng,12.00,Set\n"), null));
+
+        assertEquals(2, events.size());
+        FoodChanged food = (FoodChanged) events.get(0);
+        assertEquals(3000, food.getFoodId());
+        assertEquals(FoodChanged.Change.ADDED, food.getChange());
+        CustomerRegistered customer = (CustomerRegistered) events.get(1);
+        assertEquals(5000, customer.getCustomerId());
+        assertEquals("0111111111", customer.getPhoneNumber());
+    }
+
+    @Test
+    @DisplayName("importFoods - larger file across many chunks keeps order")
+    void testManyChunks() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            csv.append("Food ").append(toLetters(i)).append(',').append(1 + i % 20).append(".00,Set\n");
+        }
+        ImportResult result = new BulkImportService(repository,
+                new FoodService(mock(IFoodRepository.class)),
+                new CustomerService(mock(ICustomerRepository.class)), 64, 4)
+                .importFoods(write(csv.toString()), null);
+
+        assertEquals(1000, result.getImported());
+        assertEquals("Food " + toLetters(999), repository.foods.get(999).getFoodName());
+    }
+
+    private static String toLetters(int value) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return sb.toString();
+    }
+
+    private static class MockBulkImportRepository implements IBulkImportRepository {
+        final List<String> foodNames = new ArrayList<>();
+        final List<String> phones = new ArrayList<>();
+        final List<Food> foods = Collections.synchronizedList(new ArrayList<>());
+        final List<Customer> customers = Collections.synchronizedList(new ArrayList<>());
+        volatile int batches;
+        boolean failInserts;
+
+        @Override
+        public void forEachFoodName(Consumer<String> consumer) {
+            foodNames.forEach(consumer);
+        }
+
+        @Override
+        public void forEachPhoneNumber(Consumer<String> consumer) {
+            phones.forEach(consumer);
+        }
+
+        @Override
+        public int insertFoods(List<Food> batch) {
+            if (failInserts) {
+                throw new RuntimeException("Failed to insert import batch");
+            }
+            batches++;
+            for (Food food : batch) {
+                food.setFoodId(3000 + foods.size());
+                foods.add(food);
+            }
+            return batch.size();
+        }
+
+        @Override
+        public int insertCustomers(List<Customer> batch) {
+            batches++;
+            for (Customer customer : batch) {
+                customer.setCustomerId(5000 + customers.size());
+                customers.add(customer);
+            }
+            return batch.size();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package service.impl;
+
+import controller.OrderController;
+import model.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.interfaces.IOrderService;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Concurrency Limiter Test
+ * Latency is driven by a fake clock; waiting uses real threads.
+ */
+class ConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+    private final AtomicLong now = new AtomicLong();
+
+    private ConcurrencyLimiter limiter(int initial, int maxQueue) {
+        return new ConcurrencyLimiter(initial, 1, 20, maxQueue, now::get);
+    }
+
+    /** Run one call that takes the given time */
+    private void call(ConcurrencyLimiter limiter, long millis) {
+        ConcurrencyLimiter.Permit permit = limiter.acquire(1_000);
+        now.addAndGet(millis * MS);
+        permit.release(false);
+    }
+
+    @Test
+    @DisplayName("admits up to the limit, then queues, then rejects when the queue is full")
+    void testLimitAndQueue() throws Exception {
+        ConcurrencyLimiter limiter = limiter(2, 1);
+        ConcurrencyLimiter.Permit a = limiter.acquire(1_000);
+        ConcurrencyLimiter.Permit b = limiter.acquire(1_000);
+        assertEquals(2, limiter.getInFlight());
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<ConcurrencyLimiter.Permit> waiting = pool.submit(() -> limiter.acquire(5_000));
+            while (limiter.getQueued() == 0) {
+                Thread.sleep(1);
+            }
+            assertThrows(ConcurrencyLimiter.RejectedException.class, () -> limiter.acquire(5_000));
+
+            a.release(false);
+            ConcurrencyLimiter.Permit c = waiting.get(5, TimeUnit.SECONDS);
+            assertEquals(2, limiter.getInFlight());
+            b.release(false);
+            c.release(false);
+            c.release(false);                       // second release is ignored
+            assertEquals(0, limiter.getInFlight());
+            assertEquals(3, limiter.getAdmitted());
+            assertEquals(1, limiter.getRejected());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("a queued caller gives up at its deadline")
+    void testDeadline() {
+        ConcurrencyLimiter limiter = limiter(1, 5);
+        ConcurrencyLimiter.Permit held = limiter.acquire(1_000);
+
+        assertThrows(ConcurrencyLimiter.RejectedException.class, () -> limiter.acquire(20));
+        assertEquals(1, limiter.getTimedOut());
+        assertEquals(0, limiter.getQueued());
+        held.release(false);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("callers whose turn would come after their deadline are shed at once")
+    void testShedEarly() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 5, now::get);
+        call(limiter, 500);                         // typical call: 500 ms
+        ConcurrencyLimiter.Permit held = limiter.acquire(1_000);
+
+        long start = System.nanoTime();
+        assertThrows(ConcurrencyLimiter.RejectedException.class, () -> limiter.acquire(100));
+        assertTrue(System.nanoTime() - start < 50 * MS, "should not wait");
+        assertEquals(0, limiter.getTimedOut());
+        held.release(false);
+    }
+
+    @Test
+    @DisplayName("limit grows while latency holds and shrinks when latency doubles or calls fail")
+    void testAdaptiveLimit() {
+        ConcurrencyLimiter limiter = limiter(4, 10);
+        // Saturated and fast: additive increase
+        for (int round = 0; round < 20; round++) {
+            ConcurrencyLimiter.Permit[] permits = new ConcurrencyLimiter.Permit[limiter.getLimit()];
+            for (int i = 0; i < permits.length; i++) {
+                permits[i] = limiter.acquire(1_000);
+            }
+            now.addAndGet(10 * MS);
+            for (ConcurrencyLimiter.Permit p : permits) {
+                p.release(false);
+            }
+        }
+        int grown = limiter.getLimit();
+        assertTrue(grown > 4, "limit " + grown);
+
+        // Database slows to 5x: multiplicative decrease
+        for (int i = 0; i < 3; i++) {
+            call(limiter, 50);
+        }
+        int shrunk = limiter.getLimit();
+        assertTrue(shrunk < grown, "limit " + shrunk);
+
+        for (int i = 0; i < 3; i++) {
+            ConcurrencyLimiter.Permit failing = limiter.acquire(1_000);
+            now.addAndGet(1_000 * MS);
+            failing.release(true);
+        }
+        assertTrue(limiter.getLimit() < shrunk);
+        assertEquals(3, limiter.getDropped());
+        assertTrue(limiter.getAverageLatencyMillis() > 10);
+    }
+
+    @Test
+    @DisplayName("rejected checkouts reach the controller as a quick 'try again'")
+    void testDecoratorRejection() throws Exception {
+        IOrderService delegate = mock(IOrderService.class);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Order order = new Order();
+        when(delegate.createOrder(anyInt(), any(), any(), any(), any())).thenAnswer(inv -> {
+            inside.countDown();
+            finish.await(5, TimeUnit.SECONDS);
+            return order;
+        });
+        when(delegate.getAllOrders()).thenReturn(List.of(order));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(1, 1, 1, 0, System::nanoTime);
+        AdmissionControlledOrderService service = new AdmissionControlledOrderService(delegate, limiter, 100);
+        OrderController controller = new OrderController(service);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Order> first = pool.submit(() -> controller.createOrder(1000, List.of(), "TNG", null, null));
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            assertNull(controller.createOrder(1000, List.of(), "TNG", null, null));
+            assertNull(controller.createOrders(List.of()));
+            assertEquals(1, service.getAllOrders().size());   // reads are not limited
+
+            finish.countDown();
+            assertSame(order, first.get(5, TimeUnit.SECONDS));
+            assertEquals(2, limiter.getRejected());
+            assertSame(limiter, service.getLimiter());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        when(delegate.createOrder(anyInt(), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Customer not found"));
+        assertThrows(IllegalArgumentException.class, () -> service.createOrder(1, List.of(), "TNG", null, null));
+        assertEquals(0, limiter.getDropped());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("business rejections and batches free their slot without a latency sample")
+    void testDecoratorSamples() {
+        IOrderService delegate = mock(IOrderService.class);
+        ConcurrencyLimiter limiter = limiter(4, 10);
+        AdmissionControlledOrderService service = new AdmissionControlledOrderService(delegate, limiter, 1_000);
+        when(delegate.createOrder(eq(1000), any(), any(), any(), any())).thenAnswer(inv -> {
+            now.addAndGet(10 * MS);
+            return new Order();
+        });
+        when(delegate.createOrder(eq(1), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Customer not found"));
+        when(delegate.createOrders(any())).thenAnswer(inv -> {
+            now.addAndGet(200 * MS);
+            return List.of();
+        });
+
+        service.createOrder(1000, List.of(), "TNG", null, null);
+        assertEquals(10.0, limiter.getAverageLatencyMillis(), 0.001);
+        for (int i = 0; i < 50; i++) {
+            assertThrows(IllegalArgumentException.class, () -> service.createOrder(1, List.of(), "TNG", null, null));
+            service.createOrders(List.of());
+        }
+        assertEquals(10.0, limiter.getAverageLatencyMillis(), 0.001);
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getDropped());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
@@ -0,0 +1,106 @@
+package service.impl;
+
+import model.Food;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Food Search Index Test
+ */
+class FoodSearchIndexTest {
+
+    private FoodSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FoodSearchIndex();
+        index.rebuild(List.of(
+                new Food(2000, "Chicken Rice", 10.50, "Set"),
+                new Food(2001, "Nasi Lemak", 8.00, "Set"),
+                new Food(2002, "Mee Goreng", 12.00, "A la carte"),
+                new Food(2003, "Nasi Goreng Kampung", 11.00, "Set"),
+                new Food(2004, "Roasted Chicken Chop", 15.00, "A la carte")));
+    }
+
+    @Test
+    @DisplayName("exact words rank above prefixes, names starting with the query first")
+    void testRanking() {
+        assertEquals(List.of(2000, 2004), ids(index.search("chicken", 10)));
+        assertEquals(List.of(2002, 2003), ids(index.search("GORENG", 10)));
+        assertEquals(List.of(2001, 2003), ids(index.search("nas", 10)));
+        assertEquals(List.of(2000), ids(index.search("chicken", 1)));
+    }
+
+    @Test
+    @DisplayName("every query word must match, in any order")
+    void testAllWordsMatch() {
+        assertEquals(List.of(2003), ids(index.search("goreng nasi", 10)));
+        assertEquals(List.of(2003), ids(index.search("nasi gor", 10)));
+        assertTrue(index.search("nasi chicken", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("small typos and half-typed misspellings still match")
+    void testFuzzy() {
+        assertEquals(List.of(2000, 2004), ids(index.search("chiken", 10)));
+        assertEquals(List.of(2001), ids(index.search("nasi lemek", 10)));
+        assertEquals(List.of(2004), ids(index.search("rosted", 10)));
+        assertEquals(List.of(2000, 2004), ids(index.search("chikc", 10)));
+        assertTrue(index.search("pizza", 10).isEmpty());
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("put and remove update the index one food at a time")
+    void testIncrementalUpdates() {
+        index.put(new Food(2001, "Nasi Kerabu", 9.00, "Set"));
+        assertTrue(index.search("lemak", 10).isEmpty());
+        assertEquals(List.of(2001), ids(index.search("kerabu", 10)));
+
+        index.remove(2000);
+        assertEquals(List.of(2004), ids(index.search("chicken", 10)));
+        index.remove(2000);
+        assertEquals(4, index.size());
+
+        index.put(new Food(2005, "Chicken Rice", 10.50, "Set"));
+        assertEquals(List.of(2005, 2004), ids(index.search("chicken", 10)));
+    }
+
+    @Test
+    @DisplayName("names are split into lower-case words")
+    void testTokenize() {
+        assertArrayEquals(new String[] {"mee", "goreng"}, FoodSearchIndex.tokenize("  Mee-GORENG "));
+        assertEquals(0, FoodSearchIndex.tokenize(" - ").length);
+    }
+
+    @Test
+    @DisplayName("large catalogs are searched quickly")
+    void testLargeCatalog() {
+        List<Food> menu = new ArrayList<>();
+        String[] words = {"chicken", "beef", "lamb", "fish", "rice", "noodles", "curry", "soup", "fried", "spicy"};
+        for (int i = 0; i < 50_000; i++) {
+            menu.add(new Food(i, words[i % 10] + " " + words[(i / 10) % 10] + " item" + i, 5.00, "Set"));
+        }
+        index.rebuild(menu);
+
+        assertEquals(List.of(12345), ids(index.search("item12345", 5)));
+        assertEquals(5, index.search("curry sop", 5).size());
+        assertEquals(List.of(1234, 12344), ids(index.search("item1234", 2)));
+        assertEquals(List.of(777), ids(index.search("item777", 1)));
+    }
+
+    private static List<Integer> ids(List<Food> foods) {
+        List<Integer> ids = new ArrayList<>();
+        for (Food food : foods) {
+            ids.add(food.getFoodId());
+        }
+        return ids;
+    }
+}
@@ -5,7 +5,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import model.Food;
+import repository.cache.CacheInvalidator;
 import repository.interfaces.IFoodRepository;
+import service.event.DomainEvent;
+import service.event.FoodChanged;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +31,119 @@ public class FoodServiceTest {
         foodService = new FoodService(mockRepository);
     }
     
+    @Test
+    @DisplayName("menu changes are announced for cache invalidation")
+    void testMenuChangesInvalidateCaches() {
+        List<Integer> invalidated = new ArrayList<>();
+        FoodService service = new FoodService(mockRepository, (topic, key) -> {
+            assertEquals(CacheInvalidator.Topic.FOOD, topic);
+            invalidated.add(key);
+        });
+        
+        Food food = service.registerFood(new Food("Chicken Rice", 10.50, "Set"));
+        food.setFoodPrice(11.00);
+        service.updateFood(food);
+        assertTrue(service.deleteFood(food.getFoodId()));
+        assertFalse(service.deleteFood(food.getFoodId()));
+        
+        assertEquals(List.of(food.getFoodId(), food.getFoodId(), food.getFoodId()), invalidated);
+    }
+    
+    @Test
+    @DisplayName("menu changes are published as domain events after they are saved")
+    void testMenuChangesPublishEvents() {
+        List<DomainEvent> published = new ArrayList<>();
+        FoodService service = new FoodService(mockRepository, CacheInvalidator.NONE, published::add);
+        
+        Food food = service.registerFood(new Food("Chicken Rice", 10.50, "Set"));
+        service.updateFood(food);
+        service.deleteFood(food.getFoodId());
+        assertThrows(IllegalArgumentException.class, () -> service.registerFood(new Food("Rice 2", 1.00, "Set")));
+        
+        assertEquals(3, published.size());
+        FoodChanged added = (FoodChanged) published.get(0);
+        assertEquals(FoodChanged.Change.ADDED, added.getChange());
+        assertEquals(food.getFoodId(), added.getFoodId());
+        assertSame(food, added.getFood());
+        assertEquals(FoodChanged.Change.UPDATED, ((FoodChanged) published.get(1)).getChange());
+        FoodChanged deleted = (FoodChanged) published.get(2);
+        assertEquals(FoodChanged.Change.DELETED, deleted.getChange());
+        assertNull(deleted.getFood());
+    }
+    
+    @Test
+    @DisplayName("search index follows registrations, updates and deletions")
+    void testSearchFoodsFollowsChanges() {
+        Food rice = foodService.registerFood(new Food("Chicken Rice", 10.50, "Set"));
+        assertEquals(List.of(rice), foodService.searchFoods("chick", 10));
+        
+        Food noodles = foodService.registerFood(new Food("Chicken Noodles", 9.00, "Set"));
+        assertEquals(List.of(rice, noodles), foodService.searchFoods("chiken", 10));
+        
+        rice.setFoodName("Duck Rice");
+        foodService.updateFood(rice);
+        assertEquals(List.of(noodles), foodService.searchFoods("chicken", 10));
+        assertEquals(List.of(rice), foodService.searchFoods("duck", 10));
+        
+        foodService.deleteFood(noodles.getFoodId());
+        assertTrue(foodService.searchFoods("noodles", 10).isEmpty());
+        assertTrue(foodService.searchFoods("  ", 10).isEmpty());
+    }
+    
+    @Test
+    @DisplayName("a food registered while the search index loads is still found")
+    void testSearchIndexLoadMissesNothing() {
+        Food rice = foodService.registerFood(new Food("Chicken Rice", 10.50, "Set"));
+        Food[] registered = new Food[1];
+        MockFoodRepository slowRepository = new MockFoodRepository() {
+            @Override
+            public List<Food> findAll() {
+                List<Food> snapshot = super.findAll();
+                if (registered[0] == null) {
+                    // Another till registers a food after the snapshot was read
+                    registered[0] = foodService.registerFood(new Food("Chicken Chop", 15.00, "Set"));
+                }
+                return snapshot;
+            }
+        };
+        slowRepository.save(rice);
+        foodService = new FoodService(slowRepository);
+        
+        List<Food> found = foodService.searchFoods("chicken", 10);
+        assertEquals(List.of(rice, registered[0]), found);
+        
+        foodService.resetSearchIndex();
+        foodService.deleteFood(rice.getFoodId());
+        assertEquals(List.of(registered[0]), foodService.searchFoods("chicken", 10));
+    }
+    
+    @Test
+    @DisplayName("a remote change reads nothing on the invalidation thread; the next search re-reads it")
+    void testRemoteChangeReadBySearchingThread() {
+        Food rice = foodService.registerFood(new Food("Chicken Rice", 10.50, "Set"));
+        assertEquals(List.of(rice), foodService.searchFoods("rice", 10));
+        List<Thread> readers = new ArrayList<>();
+        MockFoodRepository watched = new MockFoodRepository() {
+            @Override
+            public Optional<Food> findById(int foodId) {
+                readers.add(Thread.currentThread());
+                return super.findById(foodId);
+            }
+        };
+        watched.save(rice);
+        foodService = new FoodService(watched);
+        foodService.searchFoods("rice", 10);
+        
+        // Renamed on another till
+        watched.save(new Food(rice.getFoodId(), "Duck Rice", 10.50, "Set"));
+        foodService.refreshSearchIndex(rice.getFoodId());
+        assertTrue(readers.isEmpty());
+        
+        assertTrue(foodService.searchFoods("chicken", 10).isEmpty());
+        assertEquals(List.of(Thread.currentThread()), readers);
+        assertEquals("Duck Rice", foodService.searchFoods("duck", 10).get(0).getFoodName());
+    }
+    
     // ============= registerFood Tests =============
     
     @Test
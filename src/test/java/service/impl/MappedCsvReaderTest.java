@@ -0,0 +1,84 @@
+package service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mapped CSV Reader Test
+ */
+class MappedCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path write(String content) throws IOException {
+        Path file = tempDir.resolve("data.csv");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test
+    @DisplayName("reads fields, skips blank lines and handles CRLF")
+    void testBasicRecords() throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(write("a,b,c\r\n\r\n 1 , 2 ,3\nlast,row"))) {
+            assertArrayEquals(new String[] {"a", "b", "c"}, reader.next());
+            assertArrayEquals(new String[] {"1", "2", "3"}, reader.next());
+            assertArrayEquals(new String[] {"last", "row"}, reader.next());
+            assertNull(reader.next());
+            assertEquals(reader.getSize(), reader.getPosition());
+        }
+    }
+
+    @Test
+    @DisplayName("quoted fields keep commas, newlines and escaped quotes")
+    void testQuotedFields() throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(write("\"Nasi, Lemak\",\"say \"\"hi\"\"\"\n\"two\nlines\",x\n"))) {
+            assertArrayEquals(new String[] {"Nasi, Lemak", "say \"hi\""}, reader.next());
+            assertArrayEquals(new String[] {"two\nlines", "x"}, reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("records crossing the mapped window are remapped")
+    void testSmallWindow() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            csv.append("Food").append(i).append(',').append(i).append(".50,Set\n");
+        }
+        int count = 0;
+        try (MappedCsvReader reader = new MappedCsvReader(write(csv.toString()), 64)) {
+            String[] fields;
+            while ((fields = reader.next()) != null) {
+                assertEquals("Food" + count, fields[0]);
+                assertEquals(count + ".50", fields[1]);
+                count++;
+            }
+        }
+        assertEquals(500, count);
+    }
+
+    @Test
+    @DisplayName("record longer than the window is rejected")
+    void testRecordTooLong() throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(write("0123456789012345678901234567890123456789\nx\n"), 16)) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    @DisplayName("empty file")
+    void testEmptyFile() throws IOException {
+        try (MappedCsvReader reader = new MappedCsvReader(write(""))) {
+            assertNull(reader.next());
+        }
+    }
+}
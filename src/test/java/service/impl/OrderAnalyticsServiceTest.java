@@ -0,0 +1,196 @@
+package service.impl;
+
+import model.FoodSales;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.interfaces.IOrderLineRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order Analytics Service Test
+ * Uses an in-memory line source so the columnar store can be checked exactly
+ */
+class OrderAnalyticsServiceTest {
+
+    private static final ZoneId ZONE = ZoneOffset.ofHours(8);
+
+    private MockOrderLineRepository repository;
+    private OrderAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MockOrderLineRepository();
+        service = new OrderAnalyticsService(repository, ZONE);
+    }
+
+    private static long at(int hour, int minute) {
+        return LocalDateTime.of(2025, 1, 15, hour, minute).atOffset(ZoneOffset.ofHours(8)).toInstant().toEpochMilli();
+    }
+
+    private void addSampleOrders() {
+        // order 1 @ 09:15 TNG: 2 x 2000 (21.00) + 1 x 2001 (8.00)
+        repository.add(1, at(9, 15), "TNG", 2000, 2, 2100);
+        repository.add(1, at(9, 15), "TNG", 2001, 1, 800);
+        // order 2 @ 12:40 Grab: 3 x 2002 (36.00)
+        repository.add(2, at(12, 40), "Grab", 2002, 3, 3600);
+        // order 3 @ 12:05 TNG: 1 x 2000 (10.50)
+        repository.add(3, at(12, 5), "TNG", 2000, 1, 1050);
+    }
+
+    @Test
+    @DisplayName("refresh loads snapshot and counts orders")
+    void testRefresh() {
+        addSampleOrders();
+        assertFalse(service.isLoaded());
+        assertEquals(0, service.getOrderCount());
+
+        assertEquals(3, service.refresh());
+        assertTrue(service.isLoaded());
+        assertEquals(3, service.getOrderCount());
+    }
+
+    @Test
+    @DisplayName("refresh failing part-way keeps the previous snapshot")
+    void testRefreshFailureKeepsSnapshot() {
+        addSampleOrders();
+        service.refresh();
+        repository.add(4, at(13, 0), "Grab", 2001, 1, 800);
+        repository.failAfter = 2;
+
+        assertThrows(RuntimeException.class, () -> service.refresh());
+        assertEquals(3, service.getOrderCount());
+        assertEquals(3, service.getTopFoods(10).size());
+    }
+
+    @Test
+    @DisplayName("getTopFoods orders by revenue and respects limit")
+    void testTopFoods() {
+        addSampleOrders();
+
+        List<FoodSales> top = service.getTopFoods(2);
+
+        assertEquals(2, top.size());
+        assertEquals(2002, top.get(0).getFoodId());
+        assertEquals(new BigDecimal("36.00"), top.get(0).getRevenue());
+        assertEquals(2000, top.get(1).getFoodId());
+        assertEquals(3, top.get(1).getQuantity());
+        assertEquals(new BigDecimal("31.50"), top.get(1).getRevenue());
+
+        assertEquals(3, service.getTopFoods(10).size());
+        assertThrows(IllegalArgumentException.class, () -> service.getTopFoods(0));
+    }
+
+    @Test
+    @DisplayName("getRevenueByHour buckets by local hour")
+    void testRevenueByHour() {
+        addSampleOrders();
+
+        BigDecimal[] byHour = service.getRevenueByHour();
+
+        assertEquals(24, byHour.length);
+        assertEquals(new BigDecimal("29.00"), byHour[9]);
+        assertEquals(new BigDecimal("46.50"), byHour[12]);
+        assertEquals(0, byHour[0].signum());
+    }
+
+    @Test
+    @DisplayName("basket averages")
+    void testBasketAverages() {
+        addSampleOrders();
+
+        assertEquals(7.0 / 3, service.getAverageBasketSize(), 0.0001);
+        assertEquals(new BigDecimal("25.17"), service.getAverageBasketValue());
+    }
+
+    @Test
+    @DisplayName("order revenue is the charged total, not the sum of line subtotals")
+    void testRevenueUsesChargedTotal() {
+        addSampleOrders();
+        repository.charge(2, 3000);
+
+        assertEquals(new BigDecimal("40.50"), service.getRevenueByHour()[12]);
+        assertEquals(new BigDecimal("23.17"), service.getAverageBasketValue());
+    }
+
+    @Test
+    @DisplayName("empty history gives zero results")
+    void testEmpty() {
+        assertTrue(service.getTopFoods(5).isEmpty());
+        assertEquals(0.0, service.getAverageBasketSize());
+        assertEquals(new BigDecimal("0.00"), service.getAverageBasketValue());
+        assertEquals(0, service.getRevenueByHour()[12].signum());
+    }
+
+    @Test
+    @DisplayName("large snapshot uses fork-join and matches sequential totals")
+    void testLargeSnapshotParallel() {
+        int orders = ColumnarOrderStore.SPLIT_THRESHOLD * 3;
+        long expectedCents = 0;
+        long expectedQty = 0;
+        for (int id = 1; id <= orders; id++) {
+            int qty = id % 5 + 1;
+            long cents = qty * 150L;
+            repository.add(id, at(id % 24, 0), id % 2 == 0 ? "TNG" : "Grab", 2000 + id % 7, qty, cents);
+            expectedCents += cents;
+            expectedQty += qty;
+        }
+        service.refresh();
+
+        long hourCents = 0;
+        for (BigDecimal amount : service.getRevenueByHour()) {
+            hourCents += amount.movePointRight(2).longValueExact();
+        }
+        long foodQty = 0;
+        for (FoodSales food : service.getTopFoods(10)) {
+            foodQty += food.getQuantity();
+        }
+        assertEquals(expectedCents, hourCents);
+        assertEquals(expectedQty, foodQty);
+        assertEquals((double) expectedQty / orders, service.getAverageBasketSize(), 0.0001);
+    }
+
+    private static class MockOrderLineRepository implements IOrderLineRepository {
+        private final List<Object[]> lines = new ArrayList<>();
+        private final Map<Integer, Long> totals = new HashMap<>();
+        int failAfter = -1;
+
+        void add(int orderId, long millis, String type, int foodId, int qty, long cents) {
+            lines.add(new Object[] {orderId, millis, type, foodId, qty, cents});
+            totals.merge(orderId, cents, Long::sum);
+        }
+
+        /** Charged total differs from the line sum (e.g. a promotion) */
+        void charge(int orderId, long totalCents) {
+            totals.put(orderId, totalCents);
+        }
+
+        @Override
+        public int streamOrderLines(OrderLineHandler handler) {
+            int streamed = 0;
+            for (Object[] l : lines) {
+                if (streamed++ == failAfter) {
+                    throw new RuntimeException("Failed to stream order lines");
+                }
+                handler.onLine((Integer) l[0], (Long) l[1], (String) l[2], totals.get(l[0]),
+                        (Integer) l[3], (Integer) l[4], (Long) l[5]);
+            }
+            return lines.size();
+        }
+
+        @Override
+        public int streamExportLines(int afterOrderId, ExportLineHandler handler) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package service.impl;
+
+import model.ExportFormat;
+import model.ExportResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.interfaces.IOrderLineRepository;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order Export Service Test
+ */
+class OrderExportServiceTest {
+
+    private static final long ORDER_TIME =
+            LocalDateTime.of(2025, 3, 1, 9, 5, 7).toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    @TempDir
+    Path tempDir;
+
+    private MockOrderLineRepository repository;
+    private OrderExportService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new MockOrderLineRepository();
+        // Checkpoint every 2 orders so tests produce several segments
+        service = new OrderExportService(repository, ZoneOffset.UTC, 2);
+    }
+
+    private void addOrders(int fromId, int toId) {
+        for (int id = fromId; id <= toId; id++) {
+            repository.add(id, 1000 + id, "TNG", 2000, 2, 1050);
+            repository.add(id, 1000 + id, "TNG", 2001, 1, 800);
+        }
+    }
+
+    private List<String> readCsv(Path file) throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(line);
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("gzip CSV export writes header and formatted lines across several gzip members")
+    void testCsvExport() throws IOException {
+        addOrders(1, 5);
+
+        ExportResult result = service.exportOrders(tempDir, ExportFormat.CSV_GZIP, false);
+
+        assertEquals(5, result.getOrders());
+        assertEquals(10, result.getLines());
+        assertEquals(5, result.getLastOrderId());
+        List<String> rows = readCsv(tempDir.resolve("orders.csv.gz"));
+        assertEquals(11, rows.size());
+        assertEquals(CsvGzipExportEncoder.HEADER.trim(), rows.get(0));
+        assertEquals("1,1001,2025-03-01 09:05:07,TNG,COMPLETED,29.00,2000,2,10.50,21.00", rows.get(1));
+        assertEquals("5,1005,2025-03-01 09:05:07,TNG,COMPLETED,29.00,2001,1,8.00,8.00", rows.get(10));
+        assertTrue(Files.readString(tempDir.resolve("orders.csv.gz.checkpoint")).contains("lastOrderId=5"));
+    }
+
+    @Test
+    @DisplayName("resume appends only new orders")
+    void testCsvResume() throws IOException {
+        addOrders(1, 3);
+        service.exportOrders(tempDir, ExportFormat.CSV_GZIP, false);
+
+        addOrders(4, 6);
+        ExportResult result = service.exportOrders(tempDir, ExportFormat.CSV_GZIP, true);
+
+        assertEquals(3, result.getAfterOrderId());
+        assertEquals(3, result.getOrders());
+        List<String> rows = readCsv(tempDir.resolve("orders.csv.gz"));
+        assertEquals(13, rows.size());
+        assertTrue(rows.get(7).startsWith("4,"));
+        assertTrue(rows.get(12).startsWith("6,"));
+    }
+
+    @Test
+    @DisplayName("resume drops bytes written after the last checkpoint")
+    void testResumeAfterCrash() throws IOException {
+        addOrders(1, 2);
+        service.exportOrders(tempDir, ExportFormat.BINARY, false);
+        Path file = tempDir.resolve("orders.bin");
+        long checkpointedSize = Files.size(file);
+        Files.write(file, new byte[] {1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        addOrders(3, 3);
+        service.exportOrders(tempDir, ExportFormat.BINARY, true);
+
+        List<int[]> records = readBinary(file);
+        assertEquals(6, records.size());
+        assertEquals(3, records.get(5)[0]);
+        assertTrue(Files.size(file) > checkpointedSize);
+    }
+
+    @Test
+    @DisplayName("binary export round-trips every column")
+    void testBinaryExport() throws IOException {
+        addOrders(7, 8);
+
+        ExportResult result = service.exportOrders(tempDir, ExportFormat.BINARY, false);
+
+        assertEquals(4, result.getLines());
+        assertEquals(Files.size(tempDir.resolve("orders.bin")), result.getBytesWritten());
+        List<int[]> records = readBinary(tempDir.resolve("orders.bin"));
+        assertEquals(4, records.size());
+        assertArrayEquals(new int[] {7, 1007, 2000, 2, 1050, 2100, 2900}, records.get(0));
+    }
+
+    @Test
+    @DisplayName("export without orders still produces a readable file")
+    void testEmptyExport() throws IOException {
+        ExportResult result = service.exportOrders(tempDir, ExportFormat.CSV_GZIP, true);
+
+        assertEquals(0, result.getOrders());
+        assertEquals(1, readCsv(tempDir.resolve("orders.csv.gz")).size());
+    }
+
+    @Test
+    @DisplayName("invalid directory is rejected")
+    void testInvalidDirectory() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.exportOrders(tempDir.resolve("missing"), ExportFormat.BINARY, false));
+    }
+
+    /**
+     * @return per record: orderId, customerId, foodId, quantity, unitCents, subtotalCents, orderTotalCents
+     */
+    private List<int[]> readBinary(Path file) throws IOException {
+        List<int[]> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            byte[] magic = new byte[4];
+            in.readFully(magic);
+            assertArrayEquals(BinaryExportEncoder.MAGIC, magic);
+            assertEquals(BinaryExportEncoder.VERSION, in.readShort());
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int orderId = in.readInt();
+                int customerId = in.readInt();
+                assertEquals(ORDER_TIME, in.readLong());
+                byte[] type = new byte[in.readByte()];
+                in.readFully(type);
+                assertEquals("TNG", new String(type, StandardCharsets.UTF_8));
+                byte[] status = new byte[in.readByte()];
+                in.readFully(status);
+                long total = in.readLong();
+                int foodId = in.readInt();
+                int qty = in.readInt();
+                long unit = in.readLong();
+                long subtotal = in.readLong();
+                assertEquals(50 + type.length + status.length, length);
+                records.add(new int[] {orderId, customerId, foodId, qty, (int) unit, (int) subtotal, (int) total});
+            }
+        }
+        return records;
+    }
+
+    private static class MockOrderLineRepository implements IOrderLineRepository {
+        private final List<long[]> lines = new ArrayList<>();
+
+        void add(int orderId, int customerId, String type, int foodId, int qty, long unitCents) {
+            lines.add(new long[] {orderId, customerId, foodId, qty, unitCents});
+        }
+
+        @Override
+        public int streamOrderLines(OrderLineHandler handler) {
+            return 0;
+        }
+
+        @Override
+        public int streamExportLines(int afterOrderId, ExportLineHandler handler) {
+            int count = 0;
+            for (long[] l : lines) {
+                if (l[0] > afterOrderId) {
+                    handler.onLine((int) l[0], (int) l[1], ORDER_TIME, "TNG", "COMPLETED", 2900,
+                            (int) l[2], (int) l[3], l[4], l[3] * l[4]);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
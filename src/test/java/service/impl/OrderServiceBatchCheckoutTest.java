@@ -0,0 +1,195 @@
+package service.impl;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.cache.LruCache;
+import repository.interfaces.IBatchCheckoutRepository;
+import repository.interfaces.IBatchCheckoutRepository.Outcome;
+import repository.interfaces.ICustomerRepository;
+import repository.interfaces.IIdempotentOrderRepository;
+import repository.interfaces.IOrderRepository;
+import repository.interfaces.IPaymentMethodRepository;
+import service.event.DomainEvent;
+import service.event.OrderPlaced;
+import service.event.PaymentDebited;
+import service.interfaces.IPaymentService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Service Batch Checkout Test
+ */
+class OrderServiceBatchCheckoutTest {
+
+    private IBatchCheckoutRepository batchRepository;
+    private OrderService orderService;
+    private final Food chickenRice = new Food(2000, "Chicken Rice", 10.50, "Set");
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        batchRepository = mock(IBatchCheckoutRepository.class);
+        when(batchRepository.findCustomersByIds(any())).thenReturn(Map.of(
+                1000, new Customer(1000, "John Doe"), 1001, new Customer(1001, "Jane Smith")));
+        when(batchRepository.findPaymentMethodsByCustomerIds(any())).thenReturn(Map.of(
+                1000, List.of(new PaymentMethod(1, 1000, "TNG", 100.0, null, null),
+                              new PaymentMethod(3, 1000, "Bank", 200.0, "1234567890123456", "1225")),
+                1001, List.of(new PaymentMethod(4, 1001, "TNG", 75.0, null, null))));
+
+        orderService = new OrderService(mock(IOrderRepository.class), mock(ICustomerRepository.class),
+                mock(IPaymentMethodRepository.class), new PaymentService(mock(IPaymentMethodRepository.class)),
+                null, new LruCache<>(10, 60_000), batchRepository);
+    }
+
+    private CartRequest cart(int customerId, String paymentType, int quantity, String card, String expiry) {
+        return new CartRequest(customerId, List.of(new OrderDetails(chickenRice, quantity)), paymentType, card, expiry);
+    }
+
+    @Test
+    @DisplayName("valid carts are debited and saved in one batch; invalid carts fail individually")
+    @SuppressWarnings("unchecked")
+    void testMixedBatch() {
+        when(batchRepository.debitAndSaveAll(anyList(), anyList(), anyList())).thenAnswer(inv -> {
+            List<Order> orders = inv.getArgument(0);
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setOrderId(100 + i);
+            }
+            return new Outcome[] {Outcome.PAID, Outcome.PAID, Outcome.DECLINED};
+        });
+
+        List<CartRequest> carts = Arrays.asList(
+                cart(1000, "tng", 2, null, null),
+                cart(9999, "TNG", 1, null, null),
+                cart(1000, "Bank", 1, "1234567890123456", "1225"),
+                null,
+                cart(1000, "Bank", 1, "123", "1225"),
+                cart(1001, "Grab", 1, null, null),
+                new CartRequest(1001, new ArrayList<>(), "TNG", null, null),
+                cart(1001, "TNG", 8, null, null));
+
+        List<CartResult> results = orderService.createOrders(carts);
+
+        assertEquals(8, results.size());
+        assertEquals(100, results.get(0).getOrder().getOrderId());
+        assertEquals("Customer not found", results.get(1).getError());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals("Cart cannot be null", results.get(3).getError());
+        assertTrue(results.get(4).getError().startsWith("Payment failed: Invalid card number"));
+        assertEquals("Payment method not found", results.get(5).getError());
+        assertEquals("Order must contain at least one item", results.get(6).getError());
+        assertEquals("Payment failed: Insufficient balance", results.get(7).getError());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+
+        // Bank carries its transaction fee in the debit
+        verify(batchRepository).debitAndSaveAll(anyList(), eq(Arrays.asList(
+                new BigDecimal("21.00"), new BigDecimal("11.50"), new BigDecimal("84.00"))), anyList());
+        verify(batchRepository, times(1)).findCustomersByIds(any());
+    }
+
+    @Test
+    @DisplayName("paid carts publish PaymentDebited and OrderPlaced once the batch is saved")
+    void testBatchPublishesEvents() {
+        List<DomainEvent> published = new ArrayList<>();
+        OrderService service = new OrderService(mock(IOrderRepository.class), mock(ICustomerRepository.class),
+                mock(IPaymentMethodRepository.class), new PaymentService(mock(IPaymentMethodRepository.class)),
+                null, new LruCache<>(10, 60_000), batchRepository, null, published::add);
+        when(batchRepository.debitAndSaveAll(anyList(), anyList(), anyList()))
+                .thenReturn(new Outcome[] {Outcome.PAID, Outcome.DECLINED});
+
+        service.createOrders(Arrays.asList(cart(1000, "TNG", 2, null, null), cart(1001, "TNG", 8, null, null)));
+
+        assertEquals(2, published.size());
+        PaymentDebited debited = (PaymentDebited) published.get(0);
+        assertEquals(1, debited.getPaymentMethodId());
+        assertEquals(1000, debited.getCustomerId());
+        assertEquals(new BigDecimal("21.00"), debited.getAmount());
+        assertNull(debited.getNewBalance());
+        assertEquals(1000, ((OrderPlaced) published.get(1)).getCustomerId());
+
+        published.clear();
+        when(batchRepository.debitAndSaveAll(anyList(), anyList(), anyList())).thenThrow(new RuntimeException("down"));
+        service.createOrders(List.of(cart(1000, "TNG", 1, null, null)));
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    @DisplayName("a failed batch transaction fails every pending cart")
+    void testTransactionFailure() {
+        when(batchRepository.debitAndSaveAll(anyList(), anyList(), anyList()))
+                .thenThrow(new RuntimeException("Failed to save order batch"));
+
+        List<CartResult> results = orderService.createOrders(Arrays.asList(
+                cart(1000, "TNG", 1, null, null), cart(9999, "TNG", 1, null, null)));
+
+        assertEquals("Checkout failed: Failed to save order batch", results.get(0).getError());
+        assertEquals("Customer not found", results.get(1).getError());
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrders(null));
+    }
+
+    @Test
+    @DisplayName("keyed carts: a used key returns its original order, a paid key is not sent again")
+    void testIdempotentCarts() {
+        IOrderRepository orders = mock(IOrderRepository.class);
+        IIdempotentOrderRepository keys = mock(IIdempotentOrderRepository.class);
+        Order original = new Order();
+        original.setOrderId(7);
+        when(keys.findOrderIdByIdempotencyKey(1000, "cart-7")).thenReturn(Optional.of(7));
+        when(keys.findOrderIdByIdempotencyKey(1000, "pending")).thenReturn(Optional.empty());
+        when(orders.findById(7)).thenReturn(Optional.of(original));
+        when(batchRepository.debitAndSaveAll(anyList(), anyList(), eq(Arrays.asList("cart-7", "cart-8", "pending"))))
+                .thenReturn(new Outcome[] {Outcome.DUPLICATE, Outcome.PAID, Outcome.DUPLICATE});
+        OrderService service = new OrderService(orders, mock(ICustomerRepository.class),
+                mock(IPaymentMethodRepository.class), new PaymentService(mock(IPaymentMethodRepository.class)),
+                keys, new LruCache<>(10, 60_000), batchRepository);
+
+        List<CartResult> results = service.createOrders(Arrays.asList(
+                keyedCart("cart-7"), keyedCart("cart-8"), keyedCart("pending")));
+
+        assertSame(original, results.get(0).getOrder());
+        assertTrue(results.get(1).isSuccess());
+        assertTrue(results.get(2).getError().contains("still being processed"));
+
+        // A resubmitted cart-8 is answered from the completed checkouts
+        List<CartResult> retried = service.createOrders(List.of(keyedCart("cart-8")));
+        assertSame(results.get(1).getOrder(), retried.get(0).getOrder());
+        verify(batchRepository, times(1)).debitAndSaveAll(anyList(), anyList(), eq(List.of()));
+        assertEquals("Idempotency key cannot be empty", service.createOrders(List.of(keyedCart(" "))).get(0).getError());
+    }
+
+    private CartRequest keyedCart(String key) {
+        return new CartRequest(key, 1000, List.of(new OrderDetails(chickenRice, 1)), "TNG", null, null);
+    }
+
+    @Test
+    @DisplayName("without a batch repository carts fall back to createOrder one by one")
+    void testFallback() {
+        ICustomerRepository customers = mock(ICustomerRepository.class);
+        IPaymentMethodRepository paymentMethods = mock(IPaymentMethodRepository.class);
+        IOrderRepository orders = mock(IOrderRepository.class);
+        PaymentMethod tng = new PaymentMethod(1, 1000, "TNG", 100.0, null, null);
+        when(customers.findById(1000)).thenReturn(Optional.of(new Customer(1000, "John Doe")));
+        when(paymentMethods.findByCustomerIdAndType(1000, "TNG")).thenReturn(Optional.of(tng));
+        when(orders.save(any(Order.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        OrderService service = new OrderService(orders, customers, paymentMethods, mock(IPaymentService.class));
+        List<CartResult> results = service.createOrders(Arrays.asList(
+                cart(1000, "TNG", 1, null, null), cart(1001, "TNG", 1, null, null)));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Customer not found", results.get(1).getError());
+        assertTrue(results.get(1).toString().startsWith("Cart 1"));
+    }
+}
@@ -0,0 +1,161 @@
+package service.impl;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.cache.LruCache;
+import repository.interfaces.ICustomerRepository;
+import repository.interfaces.IIdempotentOrderRepository;
+import repository.interfaces.IOrderRepository;
+import repository.interfaces.IPaymentMethodRepository;
+import service.interfaces.IPaymentService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Service Idempotency Test
+ * Retried and concurrent checkouts with the same key pay once
+ */
+class OrderServiceIdempotencyTest {
+
+    private IOrderRepository orderRepository;
+    private IIdempotentOrderRepository idempotentRepository;
+    private IPaymentService paymentService;
+    private OrderService orderService;
+    private final PaymentMethod tng = new PaymentMethod(1, 1000, "TNG", 100.0, null, null);
+    private final List<OrderDetails> details = List.of(new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 2));
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(IOrderRepository.class);
+        idempotentRepository = mock(IIdempotentOrderRepository.class);
+        paymentService = mock(IPaymentService.class);
+        ICustomerRepository customerRepository = mock(ICustomerRepository.class);
+        IPaymentMethodRepository paymentMethodRepository = mock(IPaymentMethodRepository.class);
+
+        when(customerRepository.findById(1000)).thenReturn(Optional.of(new Customer(1000, "John Doe")));
+        when(paymentMethodRepository.findByCustomerIdAndType(1000, "TNG")).thenReturn(Optional.of(tng));
+        when(idempotentRepository.reserveIdempotencyKey(anyInt(), anyString(), anyLong())).thenReturn(true);
+        when(paymentService.chargeFor(any(PaymentMethod.class), anyDouble(), any(), any()))
+                .thenAnswer(inv -> inv.getArgument(1));
+        when(idempotentRepository.debitAndSave(any(Order.class), any(BigDecimal.class), anyString()))
+                .thenAnswer(inv -> saved(inv.getArgument(0)));
+
+        orderService = new OrderService(orderRepository, customerRepository, paymentMethodRepository, paymentService,
+                idempotentRepository, new LruCache<>(100, 60_000));
+    }
+
+    private static Optional<Order> saved(Order order) {
+        order.setOrderId(42);
+        return Optional.of(order);
+    }
+
+    @Test
+    @DisplayName("retry with the same key returns the original order without paying again")
+    void testRetryReturnsOriginalOrder() {
+        Order first = orderService.createOrder("till-1-0001", 1000, details, "TNG", null, null);
+        Order retry = orderService.createOrder("till-1-0001", 1000, details, "TNG", null, null);
+
+        assertSame(first, retry);
+        assertEquals(21.0, first.getTotalPrice(), 0.01);
+        verify(idempotentRepository, times(1)).debitAndSave(any(Order.class), eq(new BigDecimal("21.00")),
+                eq("till-1-0001"));
+        verify(paymentService, never()).processPayment(any(PaymentMethod.class), anyDouble(), any(), any());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("concurrent duplicates collapse onto the in-flight checkout")
+    void testConcurrentDuplicatesCollapse() throws Exception {
+        CountDownLatch paying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(idempotentRepository.debitAndSave(any(Order.class), any(BigDecimal.class), anyString())).thenAnswer(inv -> {
+            paying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return saved(inv.getArgument(0));
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<Order> leader = pool.submit(() -> orderService.createOrder("dup", 1000, details, "TNG", null, null));
+            assertTrue(paying.await(5, TimeUnit.SECONDS));
+            Future<Order> second = pool.submit(() -> orderService.createOrder("dup", 1000, details, "TNG", null, null));
+            Future<Order> third = pool.submit(() -> orderService.createOrder("dup", 1000, details, "TNG", null, null));
+            Thread.sleep(50);
+            release.countDown();
+
+            Order order = leader.get(5, TimeUnit.SECONDS);
+            assertSame(order, second.get(5, TimeUnit.SECONDS));
+            assertSame(order, third.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(idempotentRepository, times(1)).debitAndSave(any(Order.class), any(BigDecimal.class), anyString());
+    }
+
+    @Test
+    @DisplayName("key already stored by another instance returns the saved order")
+    void testDurableKeyReturnsStoredOrder() {
+        Order stored = new Order();
+        stored.setOrderId(7);
+        when(idempotentRepository.reserveIdempotencyKey(1000, "till-2-0009", OrderService.STALE_RESERVATION_MILLIS)).thenReturn(false);
+        when(idempotentRepository.findOrderIdByIdempotencyKey(1000, "till-2-0009")).thenReturn(Optional.of(7));
+        when(orderRepository.findById(7)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, orderService.createOrder("till-2-0009", 1000, details, "TNG", null, null));
+        verifyNoInteractions(paymentService);
+
+        when(idempotentRepository.reserveIdempotencyKey(1000, "pending", OrderService.STALE_RESERVATION_MILLIS)).thenReturn(false);
+        when(idempotentRepository.findOrderIdByIdempotencyKey(1000, "pending")).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder("pending", 1000, details, "TNG", null, null));
+    }
+
+    @Test
+    @DisplayName("rejected checkout releases its key; unknown failures keep it reserved")
+    void testFailureHandling() {
+        when(idempotentRepository.debitAndSave(any(Order.class), any(BigDecimal.class), eq("k1")))
+                .thenReturn(Optional.empty())
+                .thenAnswer(inv -> saved(inv.getArgument(0)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder("k1", 1000, details, "TNG", null, null));
+        verify(idempotentRepository).releaseIdempotencyKey(1000, "k1");
+        assertEquals(42, orderService.createOrder("k1", 1000, details, "TNG", null, null).getOrderId());
+
+        when(idempotentRepository.debitAndSave(any(Order.class), any(BigDecimal.class), eq("k2")))
+                .thenThrow(new RuntimeException("Failed to save order"));
+        assertThrows(RuntimeException.class,
+                () -> orderService.createOrder("k2", 1000, details, "TNG", null, null));
+        verify(idempotentRepository, never()).releaseIdempotencyKey(1000, "k2");
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.createOrder(" ", 1000, details, "TNG", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder("x".repeat(65), 1000, details, "TNG", null, null));
+    }
+
+    @Test
+    @DisplayName("the same key from another customer does not return this customer's order")
+    void testKeysArePerCustomer() {
+        Order first = orderService.createOrder("shared", 1000, details, "TNG", null, null);
+
+        when(idempotentRepository.reserveIdempotencyKey(1001, "shared", OrderService.STALE_RESERVATION_MILLIS))
+                .thenReturn(false);
+        when(idempotentRepository.findOrderIdByIdempotencyKey(1001, "shared")).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class,
+                () -> orderService.createOrder("shared", 1001, details, "TNG", null, null));
+        assertSame(first, orderService.createOrder("shared", 1000, details, "TNG", null, null));
+    }
+}
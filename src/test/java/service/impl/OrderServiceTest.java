@@ -172,6 +172,50 @@ void testCreateOrderNullSubtotal() {
                 orderService.createOrder(1000, List.of(detail), "TNG", null, null));
     }
 
+    @Test
+    @DisplayName("createOrder with a pricing engine rejects lines not at the menu price")
+    void testCreateOrderMenuPrice() {
+        Customer customer = new Customer(1000, "John", 25, "0123456789", "M", "pass");
+        customerRepository.addCustomer(customer);
+        PaymentMethod pm = new PaymentMethod(1000, "TNG", 100.0);
+        pm.setPaymentMethodId(1);
+        paymentMethodRepository.addPaymentMethod(pm);
+
+        repository.interfaces.IFoodRepository foods = org.mockito.Mockito.mock(repository.interfaces.IFoodRepository.class);
+        org.mockito.Mockito.when(foods.findAll()).thenReturn(List.of(new Food(2000, "Food", 10.0, "Set")));
+        OrderService priced = new OrderService(orderRepository, customerRepository, paymentMethodRepository, paymentService,
+                null, new repository.cache.LruCache<>(10, 60_000), null, new PricingEngine(foods));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                priced.createOrder(1000, List.of(new OrderDetails(new Food(2000, "Food", 9.0, "Set"), 1)), "TNG", null, null));
+        Order order = priced.createOrder(1000, List.of(new OrderDetails(new Food(2000, "Food", 10.0, "Set"), 2)), "TNG", null, null);
+        assertEquals(20.0, order.getTotalPrice(), 0.01);
+        assertEquals(80.0, pm.getBalance(), 0.01);
+    }
+
+    @Test
+    @DisplayName("createOrder charges the total less promotions")
+    void testCreateOrderWithPromotion() {
+        Customer customer = new Customer(1000, "John", 25, "0123456789", "M", "pass");
+        customerRepository.addCustomer(customer);
+        PaymentMethod pm = new PaymentMethod(1000, "TNG", 100.0);
+        pm.setPaymentMethodId(1);
+        paymentMethodRepository.addPaymentMethod(pm);
+
+        repository.interfaces.IFoodRepository foods = org.mockito.Mockito.mock(repository.interfaces.IFoodRepository.class);
+        org.mockito.Mockito.when(foods.findAll()).thenReturn(List.of(new Food(2000, "Food", 10.0, "Set")));
+        PromotionEngine promotions = PromotionEngine.compile(List.of(PromotionRule.buyNGetM("2+1", 2000, 2, 1)));
+        PricingEngine pricing = new PricingEngine(foods, 60_000, () -> 0L, promotions, java.time.ZoneOffset.UTC);
+        OrderService promoted = new OrderService(orderRepository, customerRepository, paymentMethodRepository, paymentService,
+                null, new repository.cache.LruCache<>(10, 60_000), null, pricing);
+
+        Order order = promoted.createOrder(1000, List.of(new OrderDetails(new Food(2000, "Food", 10.0, "Set"), 3)), "TNG", null, null);
+        assertEquals(20.0, order.getTotalPrice(), 0.01);
+        assertEquals(new java.math.BigDecimal("10.00"), order.getDiscountDecimal());
+        assertEquals(new java.math.BigDecimal("10.00"), order.getOrderDetails().get(0).getDiscountDecimal());
+        assertEquals(80.0, pm.getBalance(), 0.01);
+    }
+
     // ------------------------
     // Mock repositories & services
     // ------------------------
@@ -205,6 +249,15 @@ void testCreateOrderNullSubtotal() {
 
         @Override
         public Optional<Order> findById(int orderId) { return Optional.ofNullable(orders.get(orderId)); }
+
+        @Override
+        public int streamOrderReport(ReportRowHandler handler) {
+            for (Order o : orders.values()) {
+                handler.onRow(o.getOrderId(), o.getCustomer().getCustomerId(),
+                        o.getPaymentMethod().getPaymentType(), o.getTotalPriceDecimal().movePointRight(2).longValue());
+            }
+            return orders.size();
+        }
     }
 
     private static class MockCustomerRepository implements ICustomerRepository {
@@ -269,6 +322,16 @@ void testCreateOrderNullSubtotal() {
             return false;
         }
 
+        @Override
+        public Optional<BigDecimal> debit(int paymentMethodId, double amount) {
+            PaymentMethod pm = methods.get(paymentMethodId);
+            if (pm == null || pm.getBalance() < amount) {
+                return Optional.empty();
+            }
+            pm.setBalance(pm.getBalance() - amount);
+            return Optional.of(pm.getBalanceDecimal());
+        }
+
         void addPaymentMethod(PaymentMethod pm) { methods.put(pm.getPaymentMethodId(), pm); }
     }
 
@@ -277,6 +340,11 @@ void testCreateOrderNullSubtotal() {
 
         MockPaymentService(IPaymentMethodRepository repository) { this.repository = repository; }
 
+        @Override
+        public double chargeFor(PaymentMethod pm, double amount, String cardNumber, String expiryDate) {
+            return amount;
+        }
+
         @Override
         public Payment processPayment(int customerId, String paymentType, double amount, String cardNumber, String expiryDate) {
             PaymentMethod pm = repository.findByCustomerIdAndType(customerId, paymentType)
@@ -289,6 +357,15 @@ void testCreateOrderNullSubtotal() {
             return new TNGPayment(pm.getBalance());
         }
 
+        @Override
+        public Payment processPayment(PaymentMethod pm, double amount, String cardNumber, String expiryDate) {
+            if (pm.getBalance() < amount) throw new IllegalArgumentException("Insufficient balance");
+            pm.setBalance(pm.getBalance() - amount);
+            repository.updateBalance(pm.getPaymentMethodId(), pm.getBalance());
+
+            return new TNGPayment(pm.getBalance());
+        }
+
         @Override
         public Payment createPayment(PaymentMethod paymentMethod) { return new TNGPayment(paymentMethod.getBalance()); }
 
@@ -6,9 +6,14 @@ import org.junit.jupiter.api.Test;
 
 import model.*;
 import repository.interfaces.IPaymentMethodRepository;
+import service.event.DomainEvent;
+import service.event.PaymentDebited;
 
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import service.impl.PaymentService;
 
@@ -113,6 +118,44 @@ public class PaymentServiceTest {
         assertTrue(e.getMessage().contains("System Error"));
     }
 
+    @Test
+    @DisplayName("Events: PaymentDebited only after the balance is saved")
+    void testProcessPayment_PublishesDebit() {
+        List<DomainEvent> published = new ArrayList<>();
+        PaymentService service = new PaymentService(mockRepository, PaymentStrategyRegistry.getInstance(), published::add);
+        mockRepository.save(new PaymentMethod(7, 1007, "Bank", 200.0, "1234567890123456", "1225"));
+
+        service.processPayment(1007, "Bank", 50.0, "1234567890123456", "1225");
+
+        assertEquals(1, published.size());
+        PaymentDebited debited = (PaymentDebited) published.get(0);
+        assertEquals(7, debited.getPaymentMethodId());
+        assertEquals(1007, debited.getCustomerId());
+        assertEquals("Bank", debited.getPaymentType());
+        assertEquals(new BigDecimal("51.00"), debited.getAmount());
+        assertEquals(new BigDecimal("149.00"), debited.getNewBalance());
+
+        mockRepository.setShouldFailUpdate(true);
+        assertThrows(RuntimeException.class, () ->
+            service.processPayment(1007, "Bank", 10.0, "1234567890123456", "1225"));
+        assertEquals(1, published.size());
+    }
+
+    @Test
+    @DisplayName("Events: the new balance is the one the debit left, not one worked out from a stale read")
+    void testProcessPayment_NewBalanceFromDebit() {
+        List<DomainEvent> published = new ArrayList<>();
+        PaymentService service = new PaymentService(mockRepository, PaymentStrategyRegistry.getInstance(), published::add);
+        mockRepository.save(new PaymentMethod(8, 1008, "TNG", 30.0, null, null));
+        PaymentMethod stale = new PaymentMethod(8, 1008, "TNG", 200.0, null, null);
+
+        Payment payment = service.processPayment(stale, 10.0, null, null);
+
+        assertEquals(20.0, payment.getBalance(), 0.001);
+        assertEquals(20.0, stale.getBalance(), 0.001);
+        assertEquals(new BigDecimal("20.00"), ((PaymentDebited) published.get(0)).getNewBalance());
+    }
+
     // ==========================================
     // Test: Bank Validation Logic
     // ==========================================
@@ -177,6 +220,43 @@ public class PaymentServiceTest {
         assertFalse(paymentService.getPaymentMethod(9999, "TNG").isPresent());
     }
 
+    @Test
+    @DisplayName("Process: pre-loaded payment method skips the lookup")
+    void testProcessPayment_PreloadedMethod() {
+        PaymentMethod pm = new PaymentMethod(7, 1007, "Grab", 80.0, null, null);
+        mockRepository.save(pm);
+
+        Payment result = paymentService.processPayment(pm, 30.0, null, null);
+
+        assertTrue(result instanceof GrabPayment);
+        assertEquals(50.0, result.getBalance(), 0.01);
+        assertEquals(50.0, pm.getBalance(), 0.01);
+        assertThrows(IllegalArgumentException.class, () -> paymentService.processPayment(null, 1.0, null, null));
+    }
+
+    @Test
+    @DisplayName("Process: a debit against a stale balance is refused, a stale low balance is re-read")
+    void testProcessPayment_StaleBalance() {
+        PaymentMethod row = new PaymentMethod(9, 1009, "TNG", 100.0, null, null);
+        mockRepository.save(row);
+        PaymentMethod readEarlier = new PaymentMethod(9, 1009, "TNG", 100.0, null, null);
+
+        paymentService.processPayment(row, 70.0, null, null);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> paymentService.processPayment(readEarlier, 70.0, null, null));
+        assertEquals("Insufficient balance", e.getMessage());
+        assertEquals(30.0, row.getBalance(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Process: pre-loaded bank method still validates card details")
+    void testProcessPayment_PreloadedBankValidation() {
+        PaymentMethod pm = new PaymentMethod(8, 1008, "Bank", 200.0, null, null);
+        mockRepository.save(pm);
+
+        assertThrows(IllegalArgumentException.class, () -> paymentService.processPayment(pm, 10.0, "123", "1225"));
+    }
+
     // ==========================================
     // Mock Repository Class
     // ==========================================
@@ -203,6 +283,15 @@ public class PaymentServiceTest {
             return false;
         }
 
+        @Override
+        public Optional<BigDecimal> debit(int id, double amount) {
+            if (shouldFailUpdate) throw new RuntimeException("Failed to debit payment method");
+            PaymentMethod pm = data.get(id);
+            if (pm == null || pm.getBalance() < amount) return Optional.empty();
+            pm.setBalance(pm.getBalance() - amount);
+            return Optional.of(BigDecimal.valueOf(pm.getBalance()).setScale(2, java.math.RoundingMode.HALF_UP));
+        }
+
         @Override
         public PaymentMethod save(PaymentMethod pm) {
             data.put(pm.getPaymentMethodId(), pm);
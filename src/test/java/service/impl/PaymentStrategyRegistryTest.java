@@ -0,0 +1,85 @@
+package service.impl;
+
+import model.BankPayment;
+import model.GrabPayment;
+import model.Payment;
+import model.PaymentMethod;
+import model.TNGPayment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.interfaces.IPaymentMethodRepository;
+import service.interfaces.IPaymentStrategy;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Payment Strategy Registry Test
+ */
+class PaymentStrategyRegistryTest {
+
+    @Test
+    @DisplayName("built-in strategies resolve case-insensitively to fixed slots")
+    void testDefaults() {
+        PaymentStrategyRegistry registry = PaymentStrategyRegistry.withDefaults();
+
+        assertEquals(3, registry.size());
+        assertEquals(0, registry.slotOf("tng"));
+        assertEquals(1, registry.slotOf("GRAB"));
+        assertEquals(2, registry.slotOf("Bank"));
+        assertEquals(PaymentStrategyRegistry.NOT_FOUND, registry.slotOf("Cash"));
+        assertEquals(PaymentStrategyRegistry.NOT_FOUND, registry.slotOf(null));
+        assertSame(WalletPaymentStrategy.BANK, registry.get(2));
+        assertNull(registry.find("Cash"));
+        assertThrows(IllegalArgumentException.class, () -> registry.get(3));
+    }
+
+    @Test
+    @DisplayName("strategies take the balance as input and match the Payment models")
+    void testStrategyRules() {
+        IPaymentStrategy bank = WalletPaymentStrategy.BANK;
+        assertTrue(bank.requiresCardDetails());
+        assertTrue(bank.canPay(11.0, 10.0));
+        assertFalse(bank.canPay(10.5, 10.0));
+        assertEquals(new BankPayment(50.0).makePayment(20.0), bank.debit(50.0, 20.0), 0.001);
+        assertEquals(5.0, bank.debit(5.0, 20.0), 0.001);
+
+        IPaymentStrategy tng = WalletPaymentStrategy.TNG;
+        assertFalse(tng.requiresCardDetails());
+        assertEquals(30.0, tng.debit(50.0, 20.0), 0.001);
+        assertTrue(tng.toPayment(30.0) instanceof TNGPayment);
+        assertTrue(WalletPaymentStrategy.GRAB.toPayment(1.0) instanceof GrabPayment);
+
+        assertThrows(IllegalArgumentException.class, () -> new WalletPaymentStrategy(" ", 0.0, false, TNGPayment::new));
+        assertThrows(IllegalArgumentException.class, () -> new WalletPaymentStrategy("X", -1.0, false, TNGPayment::new));
+    }
+
+    @Test
+    @DisplayName("new wallets plug into PaymentService through registration")
+    void testRegisterNewWallet() {
+        PaymentStrategyRegistry registry = PaymentStrategyRegistry.withDefaults();
+        WalletPaymentStrategy shopee = new WalletPaymentStrategy("ShopeePay", 0.50, false, TNGPayment::new);
+        assertEquals(3, registry.register(shopee));
+
+        IPaymentMethodRepository repository = mock(IPaymentMethodRepository.class);
+        when(repository.debit(9, 10.5)).thenReturn(Optional.of(new BigDecimal("39.50")));
+        PaymentService service = new PaymentService(repository, registry);
+
+        Payment payment = service.processPayment(new PaymentMethod(9, 1000, "shopeepay", 50.0, null, null), 10.0, null, null);
+        assertEquals(39.5, payment.getBalance(), 0.001);
+        verify(repository).debit(9, 10.5);
+
+        // Re-registering a type replaces it in the same slot
+        assertEquals(3, registry.register(new WalletPaymentStrategy("SHOPEEPAY", 0.0, false, TNGPayment::new)));
+        assertEquals(4, registry.size());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new PaymentService(repository, PaymentStrategyRegistry.withDefaults())
+                        .processPayment(new PaymentMethod(9, 1000, "ShopeePay", 50.0, null, null), 10.0, null, null));
+        assertSame(PaymentStrategyRegistry.getInstance(), PaymentStrategyRegistry.getInstance());
+        assertEquals(Optional.empty(), Optional.ofNullable(PaymentStrategyRegistry.getInstance().find("ShopeePay")));
+    }
+}
@@ -0,0 +1,82 @@
+package service.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Food;
+import model.OrderDetails;
+import repository.interfaces.IFoodRepository;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Line validation benchmark for 1-, 10- and 100-line carts.
+ * Compares the old per-line BigDecimal recomputation in OrderService with
+ * PricingEngine (cents, checked against the price snapshot) and with the
+ * cents-only checks used when no engine is wired.
+ * Not a unit test; run manually:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=service.impl.PricingBenchmark
+ */
+public class PricingBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ROUNDS = 500_000;
+
+    public static void main(String[] args) {
+        List<Food> menu = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            menu.add(new Food(2000 + i, "Food Item " + i, 5.5 + i * 0.25, "Set"));
+        }
+        IFoodRepository foodRepository = mock(IFoodRepository.class);
+        when(foodRepository.findAll()).thenReturn(menu);
+        PricingEngine engine = new PricingEngine(foodRepository, Long.MAX_VALUE / 4, System::currentTimeMillis);
+        engine.current();
+
+        // First pass warms every path up so later cart sizes are not favoured by the JIT
+        for (boolean report : new boolean[] {false, true}) {
+            for (int lines : new int[] {1, 10, 100}) {
+                List<OrderDetails> cart = new ArrayList<>();
+                for (int i = 0; i < lines; i++) {
+                    cart.add(new OrderDetails(menu.get(i), 1 + i % 3));
+                }
+                measure(lines + "-line BigDecimal", report, () -> legacyTotal(cart).unscaledValue().longValue());
+                measure(lines + "-line engine", report, () -> engine.priceLines(cart));
+                measure(lines + "-line cents only", report, () -> PricingEngine.totalCents(cart));
+            }
+        }
+    }
+
+    private static long sink;
+
+    private static void measure(String name, boolean report, java.util.function.LongSupplier validate) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink += validate.getAsLong();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += validate.getAsLong();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (!report) {
+            return;
+        }
+        System.err.printf("%-22s %10.1f ns/cart%n", name, (double) elapsed / ROUNDS);
+    }
+
+    /** Validation as it was in OrderService.createOrder before PricingEngine */
+    private static BigDecimal legacyTotal(List<OrderDetails> orderDetailsList) {
+        BigDecimal computedTotal = BigDecimal.ZERO;
+        for (OrderDetails detail : orderDetailsList) {
+            BigDecimal expectedSubtotal = detail.getUnitPriceDecimal().multiply(BigDecimal.valueOf(detail.getQuantity()))
+                                              .setScale(2, RoundingMode.HALF_UP);
+            BigDecimal actualSubtotal = detail.getSubtotalDecimal().setScale(2, RoundingMode.HALF_UP);
+            if (expectedSubtotal.compareTo(actualSubtotal) != 0) {
+                throw new IllegalArgumentException("Order detail subtotal mismatch");
+            }
+            computedTotal = computedTotal.add(expectedSubtotal);
+        }
+        return computedTotal.setScale(2, RoundingMode.HALF_UP);
+    }
+}
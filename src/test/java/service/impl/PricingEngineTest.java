@@ -0,0 +1,163 @@
+package service.impl;
+
+import model.Food;
+import model.OrderDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.interfaces.IFoodRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pricing Engine Test
+ */
+class PricingEngineTest {
+
+    private IFoodRepository foodRepository;
+    private AtomicLong now;
+    private PricingEngine engine;
+    private List<Food> menu;
+
+    @BeforeEach
+    void setUp() {
+        menu = new ArrayList<>(List.of(
+                new Food(2001, "Nasi Lemak", 8.00, "Set"),
+                new Food(2000, "Chicken Rice", 10.50, "Set")));
+        foodRepository = mock(IFoodRepository.class);
+        when(foodRepository.findAll()).thenAnswer(inv -> new ArrayList<>(menu));
+        when(foodRepository.findById(anyInt())).thenAnswer(inv -> menu.stream()
+                .filter(food -> food.getFoodId() == (int) inv.getArgument(0)).findFirst());
+        now = new AtomicLong(1_000);
+        engine = new PricingEngine(foodRepository, 60_000, now::get);
+    }
+
+    @Test
+    @DisplayName("snapshot lookups by food id, version only moves when prices change")
+    void testSnapshotVersioning() {
+        PriceSnapshot first = engine.current();
+        assertEquals(1, first.getVersion());
+        assertEquals(1050, first.priceCents(2000));
+        assertEquals(PriceSnapshot.NOT_ON_MENU, first.priceCents(9999));
+        assertEquals(2, first.size());
+
+        PriceSnapshot reloaded = engine.refresh();
+        assertEquals(1, reloaded.getVersion());
+        assertTrue(reloaded.samePricesAs(first));
+        menu.set(0, new Food(2001, "Nasi Lemak", 9.00, "Set"));
+        assertSame(reloaded, engine.current());       // still within TTL
+
+        now.addAndGet(60_000);
+        for (int i = 0; i < PricingEngine.CLOCK_CHECK_INTERVAL; i++) {
+            engine.current();                         // the TTL is checked every few lookups
+        }
+        assertEquals(2, engine.current().getVersion());
+        assertEquals(900, engine.current().priceCents(2001));
+        verify(foodRepository, times(3)).findAll();
+
+        engine.invalidate();
+        engine.current();
+        verify(foodRepository, times(4)).findAll();
+    }
+
+    @Test
+    @DisplayName("lines priced at the menu price are totalled in cents")
+    void testPriceLines() {
+        List<OrderDetails> lines = List.of(
+                new OrderDetails(new Food(2000, "Chicken Rice", 10.50, "Set"), 3),
+                new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 1));
+
+        assertEquals(3 * 1050 + 800, engine.priceLines(lines));
+        assertEquals(3 * 1050 + 800, engine.priceLines(lines, 1));
+        assertEquals(3 * 1050 + 800, PricingEngine.totalCents(lines));
+    }
+
+    @Test
+    @DisplayName("stale client prices are rejected; a newer menu price is picked up on mismatch")
+    void testStalePrices() {
+        engine.current();
+        List<OrderDetails> oldPrice = List.of(new OrderDetails(new Food(2000, "Chicken Rice", 9.50, "Set"), 1));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> engine.priceLines(oldPrice));
+        assertEquals("Price changed for item: 2000", e.getMessage());
+
+        // Admin raises the price; a client already showing the new price is accepted at once
+        menu.set(1, new Food(2000, "Chicken Rice", 11.00, "Set"));
+        List<OrderDetails> newPrice = List.of(new OrderDetails(new Food(2000, "Chicken Rice", 11.00, "Set"), 2));
+        assertEquals(2200, engine.priceLines(newPrice));
+        assertEquals(2, engine.current().getVersion());
+
+        e = assertThrows(IllegalArgumentException.class, () -> engine.priceLines(newPrice, 1));
+        assertTrue(e.getMessage().startsWith("Menu prices have changed"));
+
+        List<OrderDetails> unknown = List.of(new OrderDetails(new Food(9999, "Ghost", 1.00, "Set"), 1));
+        e = assertThrows(IllegalArgumentException.class, () -> engine.priceLines(unknown));
+        assertEquals("Food not on menu: 9999", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> engine.priceLines(unknown, 2));
+
+        // Only the mismatched foods were looked up; the menu was loaded once
+        verify(foodRepository, times(1)).findAll();
+        verify(foodRepository, times(2)).findById(2000);
+        verify(foodRepository, never()).findById(2001);
+    }
+
+    @Test
+    @DisplayName("a removed food is dropped from the snapshot; other prices keep their version")
+    void testRevalidateRemovedFood() {
+        List<OrderDetails> lines = List.of(
+                new OrderDetails(new Food(2001, "Nasi Lemak", 8.00, "Set"), 1),
+                new OrderDetails(new Food(2002, "Mee Goreng", 7.25, "Set"), 1));
+        engine.current();
+        menu.add(new Food(2002, "Mee Goreng", 7.25, "Set"));
+        assertEquals(1525, engine.priceLines(lines));
+        assertEquals(2, engine.current().getVersion());
+        assertEquals(725, engine.current().priceCents(2002));
+
+        menu.remove(0);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> engine.priceLines(List.of(new OrderDetails(new Food(2001, "Nasi Lemak", 7.00, "Set"), 1))));
+        assertEquals("Food not on menu: 2001", e.getMessage());
+        assertEquals(PriceSnapshot.NOT_ON_MENU, engine.current().priceCents(2001));
+        assertEquals(3, engine.current().getVersion());
+        verify(foodRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("cents are rounded half-up from the decimal value, not the binary double")
+    void testCentsRounding() {
+        menu.set(0, new Food(2001, "Nasi Lemak", 1.005, "Set"));
+        assertEquals(101, engine.current().priceCents(2001));
+        assertEquals(101, PriceSnapshot.toCents(new BigDecimal("1.005")));
+        assertEquals(250, PriceSnapshot.toCents(new BigDecimal("2.5")));
+    }
+
+    @Test
+    @DisplayName("quantity, unit price and subtotal checks keep their messages")
+    void testLineValidation() {
+        Food food = new Food(2000, "Chicken Rice", 10.50, "Set");
+        assertEquals("Order must contain at least one item",
+                assertThrows(IllegalArgumentException.class, () -> PricingEngine.totalCents(new ArrayList<>())).getMessage());
+
+        List<OrderDetails> withNull = new ArrayList<>();
+        withNull.add(null);
+        assertEquals("Order detail cannot be null",
+                assertThrows(IllegalArgumentException.class, () -> engine.priceLines(withNull)).getMessage());
+        assertEquals("Quantity too large for item: 2000",
+                assertThrows(IllegalArgumentException.class, () -> engine.priceLines(List.of(new OrderDetails(food, 101)))).getMessage());
+
+        OrderDetails mismatch = new OrderDetails(food, 2);
+        mismatch.setSubtotal(new BigDecimal("25.00"));
+        assertEquals("Order detail subtotal mismatch for item: 2000",
+                assertThrows(IllegalArgumentException.class, () -> engine.priceLines(List.of(mismatch))).getMessage());
+
+        OrderDetails noPrice = new OrderDetails(0, null, 1, null);
+        assertEquals("Unit price missing",
+                assertThrows(IllegalArgumentException.class, () -> PricingEngine.totalCents(List.of(noPrice))).getMessage());
+        assertThrows(IllegalArgumentException.class, () -> new PricingEngine(foodRepository, 0, now::get));
+    }
+}
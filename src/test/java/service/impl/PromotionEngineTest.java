@@ -0,0 +1,180 @@
+package service.impl;
+
+import model.Food;
+import model.OrderDetails;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Promotion Engine Test
+ */
+class PromotionEngineTest {
+
+    private static final Food RICE = new Food(2000, "Chicken Rice", 10.50, "Set");
+    private static final Food NASI = new Food(2001, "Nasi Lemak", 8.00, "Set");
+    private static final Food MEE = new Food(2002, "Mee Goreng", 12.00, "Set");
+
+    @Test
+    @DisplayName("no rules means no discount")
+    void testNone() {
+        assertEquals(0, PromotionEngine.none().discountCents(List.of(new OrderDetails(RICE, 3)), 12));
+    }
+
+    @Test
+    @DisplayName("combo discount applies once per complete set")
+    void testCombo() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                PromotionRule.combo("Rice + Nasi", new int[] {2000, 2001}, new int[] {1, 1}, 200)));
+
+        assertEquals(0, engine.discountCents(List.of(new OrderDetails(RICE, 2)), 12));
+        assertEquals(200, engine.discountCents(List.of(new OrderDetails(RICE, 2), new OrderDetails(NASI, 1)), 12));
+        assertEquals(400, engine.discountCents(List.of(
+                new OrderDetails(RICE, 1), new OrderDetails(NASI, 2), new OrderDetails(RICE, 1)), 12));
+    }
+
+    @Test
+    @DisplayName("happy hour percentage only applies inside its window")
+    void testHappyHour() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                PromotionRule.percentOff("Happy hour", 10, 2000).during(15, 17)));
+        List<OrderDetails> lines = List.of(new OrderDetails(RICE, 2), new OrderDetails(NASI, 1));
+
+        assertEquals(210, engine.discountCents(lines, 15));
+        assertEquals(210, engine.discountCents(lines, 16));
+        assertEquals(0, engine.discountCents(lines, 17));
+        assertEquals(0, engine.discountCents(lines, 14));
+    }
+
+    @Test
+    @DisplayName("all-foods percentage and windows wrapping midnight")
+    void testPercentOffAllFoods() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                PromotionRule.percentOff("Late night", 50).during(22, 2)));
+        List<OrderDetails> lines = List.of(new OrderDetails(MEE, 1), new OrderDetails(NASI, 1));
+
+        assertEquals(1000, engine.discountCents(lines, 23));
+        assertEquals(1000, engine.discountCents(lines, 1));
+        assertEquals(0, engine.discountCents(lines, 2));
+    }
+
+    @Test
+    @DisplayName("buy N get M frees units from complete groups")
+    void testBuyNGetM() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(PromotionRule.buyNGetM("2+1", 2001, 2, 1)));
+
+        assertEquals(0, engine.discountCents(List.of(new OrderDetails(NASI, 2)), 9));
+        assertEquals(800, engine.discountCents(List.of(new OrderDetails(NASI, 3)), 9));
+        assertEquals(1600, engine.discountCents(List.of(new OrderDetails(NASI, 7)), 9));
+    }
+
+    @Test
+    @DisplayName("combos use units first, free units next, percentage off the rest")
+    void testRuleOrder() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                PromotionRule.percentOff("Happy hour", 10, 2001),
+                PromotionRule.buyNGetM("1+1", 2001, 1, 1),
+                PromotionRule.combo("Rice + Nasi", new int[] {2000, 2001}, new int[] {1, 1}, 300)));
+
+        // 1 combo (300) uses one Nasi; 4 left: 2 free (1600), 2 paid at 10% (160)
+        List<OrderDetails> lines = List.of(new OrderDetails(RICE, 1), new OrderDetails(NASI, 5));
+        assertEquals(2060, engine.discountCents(lines, 10));
+        // Scratch state is reset between evaluations
+        assertEquals(2060, engine.discountCents(lines, 10));
+    }
+
+    @Test
+    @DisplayName("the discount is split per line: combo shares follow price, no line goes below zero")
+    void testLineDiscounts() {
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                PromotionRule.combo("Rice + Nasi", new int[] {2000, 2001}, new int[] {1, 1}, 370),
+                PromotionRule.percentOff("Everything", 10)));
+        List<OrderDetails> lines = List.of(
+                new OrderDetails(RICE, 1), new OrderDetails(NASI, 1), new OrderDetails(MEE, 2));
+        long[] perLine = new long[lines.size()];
+
+        // Combo 370 split 1050:800 -> 210 + 160; Mee is not promoted by name and gets 10% of 2400
+        assertEquals(370 + 240, engine.discountCents(lines, 12, perLine));
+        assertArrayEquals(new long[] {210, 160, 240}, perLine);
+        assertEquals(370 + 240, engine.discountCents(lines, 12));
+
+        PromotionEngine generous = PromotionEngine.compile(List.of(
+                PromotionRule.combo("Too generous", new int[] {2000, 2001}, new int[] {1, 1}, 5000)));
+        assertEquals(1850, generous.discountCents(lines, 12, perLine));
+        assertArrayEquals(new long[] {1050, 800, 0}, perLine);
+    }
+
+    @Test
+    @DisplayName("food ids far apart compile into a small table")
+    void testSparseFoodIds() {
+        Food far = new Food(90_000_000, "Far Away", 5.00, "Set");
+        PromotionEngine engine = PromotionEngine.compile(List.of(
+                PromotionRule.percentOff("Near", 10, 2000), PromotionRule.buyNGetM("1+1", 90_000_000, 1, 1)));
+
+        assertEquals(105 + 500, engine.discountCents(List.of(new OrderDetails(RICE, 1), new OrderDetails(far, 2)), 8));
+    }
+
+    @Test
+    @DisplayName("promotions file lines are parsed; invalid lines are skipped")
+    void testLoad(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("promotions.csv");
+        Files.write(file, List.of(
+                "# type,name,...,hours",
+                "combo,Rice + Nasi,2000x1;2001x1,2.00,11-14",
+                "percent,Late night,50,,22-2",
+                "buy,Nasi 2+1,2001,2,1",
+                "percent,Broken,abc,2000",
+                "",
+                "free,Unknown,2000"));
+
+        PromotionEngine engine = PromotionEngine.load(file);
+        assertEquals(3, engine.getRules().size());
+        List<OrderDetails> lines = List.of(new OrderDetails(RICE, 1), new OrderDetails(NASI, 3));
+        // 12:00 combo (200) then 2 Nasi left, no free unit
+        assertEquals(200, engine.discountCents(lines, 12));
+        // 23:00 3 Nasi -> 1 free (800), 50% off the rest (1050 + 1600) / 2
+        assertEquals(800 + 1325, engine.discountCents(lines, 23));
+
+        assertTrue(PromotionEngine.load(dir.resolve("missing.csv")).getRules().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> PromotionRule.parse("combo,Bad,2000-1,2.00"));
+        assertThrows(IllegalArgumentException.class, () -> PromotionRule.parse("buy,Bad,2001,2"));
+    }
+
+    @Test
+    @DisplayName("invalid rules are rejected")
+    void testInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> PromotionRule.percentOff("Bad", 0));
+        assertThrows(IllegalArgumentException.class, () -> PromotionRule.buyNGetM("Bad", 2000, 0, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> PromotionRule.combo("Bad", new int[] {2000}, new int[] {1, 1}, 100));
+        assertThrows(IllegalArgumentException.class,
+                () -> PromotionRule.combo("Bad", new int[] {2000, 2000}, new int[] {1, 1}, 100));
+        assertThrows(IllegalArgumentException.class, () -> PromotionRule.percentOff("Bad", 10).during(5, 5));
+        assertThrows(IllegalArgumentException.class, () -> PromotionEngine.none().discountCents(List.of(), 24));
+    }
+
+    @Test
+    @DisplayName("pricing engine picks the hour from its clock and zone")
+    void testPricingEngineHour() {
+        repository.interfaces.IFoodRepository foods = mock(repository.interfaces.IFoodRepository.class);
+        PromotionEngine promotions = PromotionEngine.compile(List.of(
+                PromotionRule.percentOff("Happy hour", 10).during(15, 17)));
+        long threePmUtc = 15L * 60 * 60 * 1000;
+
+        PricingEngine utc = new PricingEngine(foods, 60_000, () -> threePmUtc, promotions, ZoneOffset.UTC);
+        PricingEngine kl = new PricingEngine(foods, 60_000, () -> threePmUtc, promotions, ZoneOffset.ofHours(8));
+
+        List<OrderDetails> lines = List.of(new OrderDetails(MEE, 1));
+        assertEquals(120, utc.discountCents(lines));
+        assertEquals(0, kl.discountCents(lines));
+    }
+}
@@ -0,0 +1,55 @@
+package service.impl;
+
+import model.SalesDaily;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import repository.interfaces.ISalesDailyRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class SalesReportServiceTest {
+
+    private ISalesDailyRepository repository;
+    private SalesReportService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ISalesDailyRepository.class);
+        service = new SalesReportService(repository);
+    }
+
+    @Test
+    @DisplayName("getDailySales reads the aggregate for the range")
+    void testGetDailySales() {
+        LocalDate day = LocalDate.of(2026, 1, 5);
+        List<SalesDaily> rows = List.of(new SalesDaily(day, 2000, "Chicken Rice", "TNG", 2, new BigDecimal("21.00")));
+        when(repository.findBetween(day, day)).thenReturn(rows);
+
+        assertEquals(rows, service.getDailySales(day, day));
+    }
+
+    @Test
+    @DisplayName("getDailySales rejects invalid ranges")
+    void testGetDailySalesInvalidRange() {
+        LocalDate day = LocalDate.of(2026, 1, 5);
+        assertThrows(IllegalArgumentException.class, () -> service.getDailySales(day, day.minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> service.getDailySales(null, day));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("rebuildAggregates delegates to a chunked parallel rebuild")
+    void testRebuildAggregates() {
+        when(repository.rebuild(anyInt(), anyInt())).thenReturn(12);
+
+        assertEquals(12, service.rebuildAggregates());
+        verify(repository).rebuild(eq(10_000), intThat(workers -> workers >= 1 && workers <= 4));
+    }
+}